@@ -371,6 +371,9 @@ public class GameData implements Serializable {
     territoryListeners = new ArrayList<>();
     dataChangeListeners = new ArrayList<>();
     gameMapListeners = new ArrayList<>();
+    map.assignOrdinals();
+    unitTypeList.assignOrdinals();
+    playerList.assignOrdinals();
   }
 
   /**
@@ -34,6 +34,8 @@ public class GameMap extends GameDataComponent implements Iterable<Territory> {
   // otherwise, m_gridDimensions.length is the number of dimensions,
   // and each element is the size of a dimension
   private int[] m_gridDimensions = null;
+  // built when first needed, and dropped whenever territories or connections are added
+  private transient volatile TerritoryDistanceIndex m_distanceIndex;
 
   GameMap(final GameData data) {
     super(data);
@@ -85,9 +87,11 @@ public class GameMap extends GameDataComponent implements Iterable<Territory> {
     if (m_territories.contains(t1)) {
       throw new IllegalArgumentException("Map already contains " + t1.getName());
     }
+    t1.setOrdinal(m_territories.size());
     m_territories.add(t1);
     m_connections.put(t1, Collections.emptySet());
     m_territoryLookup.put(t1.getName(), t1);
+    m_distanceIndex = null;
   }
 
   /**
@@ -103,6 +107,26 @@ public class GameMap extends GameDataComponent implements Iterable<Territory> {
     // connect t1 to t2
     setConnection(t1, t2);
     setConnection(t2, t1);
+    m_distanceIndex = null;
+  }
+
+  /**
+   * Numbers the territories in map order, for territories loaded from a save game written before ordinals were
+   * introduced.
+   */
+  void assignOrdinals() {
+    for (int i = 0; i < m_territories.size(); i++) {
+      m_territories.get(i).setOrdinal(i);
+    }
+  }
+
+  private TerritoryDistanceIndex getDistanceIndex() {
+    TerritoryDistanceIndex distanceIndex = m_distanceIndex;
+    if (distanceIndex == null) {
+      distanceIndex = new TerritoryDistanceIndex(m_territories, m_connections);
+      m_distanceIndex = distanceIndex;
+    }
+    return distanceIndex;
   }
 
   private void setConnection(final Territory from, final Territory to) {
@@ -156,7 +180,7 @@ public class GameMap extends GameDataComponent implements Iterable<Territory> {
    * @return All neighbors within a certain distance of the starting territory that match the condition.
    *         Does NOT include the original/starting territory in the returned Set.
    */
-  public Set<Territory> getNeighbors(final Territory territory, int distance) {
+  public Set<Territory> getNeighbors(final Territory territory, final int distance) {
     if (distance < 0) {
       throw new IllegalArgumentException("Distance must be positive not:" + distance);
     }
@@ -167,29 +191,25 @@ public class GameMap extends GameDataComponent implements Iterable<Territory> {
     if (distance == 1) {
       return start;
     }
-    final Set<Territory> neighbors = getNeighbors(start, new HashSet<>(start), --distance);
-    neighbors.remove(territory);
-    return neighbors;
+    return getDistanceIndex().getNeighbors(territory, distance, Matches.territoryIsLandOrWater());
   }
 
   /**
    * @return All neighbors within a certain distance of the starting territory that match the condition.
    *         Does NOT include the original/starting territory in the returned Set.
    */
-  public Set<Territory> getNeighbors(final Territory territory, int distance, final Predicate<Territory> cond) {
+  public Set<Territory> getNeighbors(final Territory territory, final int distance,
+      final Predicate<Territory> cond) {
     if (distance < 0) {
       throw new IllegalArgumentException("Distance must be positive not:" + distance);
     }
     if (distance == 0) {
       return Collections.emptySet();
     }
-    final Set<Territory> start = getNeighbors(territory, cond);
     if (distance == 1) {
-      return start;
+      return getNeighbors(territory, cond);
     }
-    final Set<Territory> neighbors = getNeighbors(start, new HashSet<>(start), --distance, cond);
-    neighbors.remove(territory);
-    return neighbors;
+    return getDistanceIndex().getNeighbors(territory, distance, cond);
   }
 
   /**
@@ -254,10 +274,10 @@ public class GameMap extends GameDataComponent implements Iterable<Territory> {
     if (t1 == t2) {
       return new Route(t1);
     }
-    if (getNeighbors(t1, cond).contains(t2)) {
+    if (m_connections.getOrDefault(t1, Collections.emptySet()).contains(t2) && cond.test(t2)) {
       return new Route(t1, t2);
     }
-    return new RouteFinder(this, cond).findRoute(t1, t2);
+    return getDistanceIndex().getRoute(t1, t2, cond);
   }
 
   /**
@@ -336,33 +356,7 @@ public class GameMap extends GameDataComponent implements Iterable<Territory> {
     if (t1.equals(t2)) {
       return 0;
     }
-    return getDistance(0, new HashSet<>(), Collections.singleton(t1), t2, cond);
-  }
-
-  /**
-   * Guaranteed that frontier doesn't contain target.
-   * Territories on the frontier are not target. They represent the extent of paths already searched.
-   * Territories in searched have already been on the frontier.
-   */
-  private int getDistance(final int distance, final Set<Territory> searched, final Set<Territory> frontier,
-      final Territory target, @Nullable final Predicate<Territory> cond) {
-    // add the frontier to the searched
-    searched.addAll(frontier);
-    // find the new frontier
-
-    final Set<Territory> newFrontier = frontier.stream()
-        .map(m_connections::get)
-        .flatMap(Collection::stream)
-        .filter(f -> cond == null || cond.test(f))
-        .collect(Collectors.toSet());
-    if (newFrontier.contains(target)) {
-      return distance + 1;
-    }
-    newFrontier.removeAll(searched);
-    if (newFrontier.isEmpty()) {
-      return -1;
-    }
-    return getDistance(distance + 1, searched, newFrontier, target, cond);
+    return getDistanceIndex().getDistance(t1, t2, cond);
   }
 
   public IntegerMap<Territory> getDistance(final Territory target, final Collection<Territory> territories,
@@ -443,6 +437,7 @@ public class GameMap extends GameDataComponent implements Iterable<Territory> {
    * If the actual territories in the map are deleted, or new ones added, call this.
    */
   public void notifyChanged() {
+    m_distanceIndex = null;
     getData().notifyMapDataChanged();
   }
 }
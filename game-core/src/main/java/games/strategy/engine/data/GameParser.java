@@ -7,13 +7,20 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 import java.util.StringTokenizer;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -21,6 +28,7 @@ import javax.annotation.Nullable;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLStreamException;
 
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
@@ -59,17 +67,33 @@ import games.strategy.util.Version;
 
 /**
  * Parses a game XML file into a {@link GameData} domain object.
+ *
+ * <p>
+ * By default, a DOM of the whole document is built and validated against the DTD, and the places where the document
+ * does not conform to it are reported. Setting the {@value #USE_STREAMING_PARSER_PROPERTY} system property to
+ * {@code true} streams the game XML instead: each top-level section is read and parsed as soon as the sections it
+ * refers to have been parsed, so most sections are released before the rest of the document is read. The sections
+ * that refer to sections appearing later in the document are kept until those are found, or until the end of the
+ * document shows they are missing. The streaming parser does not validate the document against the DTD.
+ * </p>
  */
 public final class GameParser {
+  public static final String USE_STREAMING_PARSER_PROPERTY = "triplea.gameParser.streaming";
+
+  private static final Logger logger = Logger.getLogger(GameParser.class.getName());
   private static final String RESOURCE_IS_DISPLAY_FOR_NONE = "NONE";
 
   private final GameData data = new GameData();
   private final Collection<SAXParseException> errorsSax = new ArrayList<>();
   public static final String DTD_FILE_NAME = "game.dtd";
   private final String mapName;
+  private final boolean useDomParser;
+  // the time spent reading and parsing each section, in nanoseconds
+  private final Map<String, Long> sectionParseTimes = new LinkedHashMap<>();
 
-  private GameParser(final String mapName) {
+  private GameParser(final String mapName, final boolean useDomParser) {
     this.mapName = mapName;
+    this.useDomParser = useDomParser;
   }
 
   /**
@@ -79,17 +103,20 @@ public final class GameParser {
    */
   public static GameData parse(final String mapName, final InputStream stream)
       throws GameParseException, EngineVersionException {
+    return parse(mapName, stream, !Boolean.getBoolean(USE_STREAMING_PARSER_PROPERTY));
+  }
+
+  @VisibleForTesting
+  static GameData parse(final String mapName, final InputStream stream, final boolean useDomParser)
+      throws GameParseException, EngineVersionException {
     checkNotNull(mapName);
     checkNotNull(stream);
 
-    return new GameParser(mapName).parse(stream);
-  }
-
-  private GameData parse(final InputStream stream) throws GameParseException, EngineVersionException {
-    final Element root = parseDom(stream);
-    parseMapProperties(root);
-    parseMapDetails(root);
-    return data;
+    final GameParser parser = new GameParser(mapName, useDomParser);
+    parser.parse(stream, parser.getSections(true));
+    parser.parseDefaults();
+    parser.logSectionParseTimes();
+    return parser.data;
   }
 
   private GameParseException newGameParseException(final String message) {
@@ -111,34 +138,204 @@ public final class GameParser {
    */
   public static GameData parseShallow(final String mapName, final InputStream stream)
       throws GameParseException, EngineVersionException {
+    return parseShallow(mapName, stream, !Boolean.getBoolean(USE_STREAMING_PARSER_PROPERTY));
+  }
+
+  @VisibleForTesting
+  static GameData parseShallow(final String mapName, final InputStream stream, final boolean useDomParser)
+      throws GameParseException, EngineVersionException {
     checkNotNull(mapName);
     checkNotNull(stream);
 
-    return new GameParser(mapName).parseShallow(stream);
+    final GameParser parser = new GameParser(mapName, useDomParser);
+    parser.parse(stream, parser.getSections(false));
+    parser.logSectionParseTimes();
+    return parser.data;
+  }
+
+  /**
+   * Parses a top-level element of the game XML; the element is {@code null} if an optional section is missing.
+   */
+  @FunctionalInterface
+  private interface SectionParser {
+    void parse(@Nullable Element element) throws GameParseException, EngineVersionException;
+  }
+
+  /**
+   * A top-level element of the game XML, and the sections that must be parsed before it.
+   */
+  private static final class Section {
+    final String name;
+    final boolean optional;
+    final SectionParser parser;
+    // null if every section listed before this one must be parsed first
+    final @Nullable Collection<String> dependencies;
+
+    Section(final String name, final boolean optional, final SectionParser parser,
+        final @Nullable Collection<String> dependencies) {
+      this.name = name;
+      this.optional = optional;
+      this.parser = parser;
+      this.dependencies = dependencies;
+    }
+
+    static Section required(final String name, final SectionParser parser, final String... dependencies) {
+      return new Section(name, false, parser, Arrays.asList(dependencies));
+    }
+
+    static Section optional(final String name, final SectionParser parser, final String... dependencies) {
+      return new Section(name, true, parser, Arrays.asList(dependencies));
+    }
+
+    Section afterAllPrevious() {
+      return new Section(name, optional, parser, null);
+    }
   }
 
-  private GameData parseShallow(final InputStream stream) throws GameParseException, EngineVersionException {
-    final Element root = parseDom(stream);
-    parseMapProperties(root);
-    return data;
+  private static SectionParser ifPresent(final SectionParser parser) {
+    return element -> {
+      if (element != null) {
+        parser.parse(element);
+      }
+    };
   }
 
-  private Element parseDom(final InputStream stream) throws GameParseException {
+  /**
+   * Returns the sections in the order they are parsed by the DOM parser. The streaming parser may parse a section
+   * earlier, once its dependencies have been parsed.
+   *
+   * @param details False to only get the sections needed to display metadata about the game.
+   */
+  private List<Section> getSections(final boolean details) {
+    final List<Section> sections = new ArrayList<>(Arrays.asList(
+        Section.required("info", this::parseInfo),
+        // test minimum engine version FIRST
+        Section.optional("triplea", this::parseMinimumEngineVersionNumber, "info"),
+        Section.required("loader", this::parseGameLoaderAndReportSaxErrors, "info", "triplea"),
+        Section.optional("diceSides", this::parseDiceSides),
+        Section.required("playerList", this::parsePlayerListAndAlliances, "info"),
+        Section.optional("propertyList", ifPresent(this::parseProperties), "playerList")));
+    if (details) {
+      sections.addAll(Arrays.asList(
+          Section.required("map", this::parseMap),
+          Section.optional("resourceList", ifPresent(this::parseResources), "playerList"),
+          Section.optional("unitList", ifPresent(this::parseUnits)),
+          // Parse all different relationshipTypes that are defined in the xml, for example: War, Allied, Neutral, NAP
+          Section.optional("relationshipTypes", ifPresent(this::parseRelationshipTypes), "playerList"),
+          Section.optional("territoryEffectList", ifPresent(this::parseTerritoryEffects)),
+          Section.required("gamePlay", this::parseGamePlay, "playerList"),
+          Section.optional("production", ifPresent(this::parseProduction), "playerList", "resourceList", "unitList"),
+          // technologies, attachments and the initial state may depend on any of the game options and properties
+          Section.optional("technology", this::parseTechnologyOrDefaults).afterAllPrevious(),
+          Section.optional("attachmentList", ifPresent(this::parseAttachments)).afterAllPrevious(),
+          Section.optional("initialize", ifPresent(this::parseInitialization)).afterAllPrevious()));
+    }
+    return sections;
+  }
+
+  private void parse(final InputStream stream, final List<Section> sections)
+      throws GameParseException, EngineVersionException {
+    if (useDomParser) {
+      parseDom(stream, sections);
+    } else {
+      parseStreaming(stream, sections);
+    }
+  }
+
+  private void parseDom(final InputStream stream, final List<Section> sections)
+      throws GameParseException, EngineVersionException {
+    final long startTime = System.nanoTime();
+    final Element root;
     try {
-      return getDocument(stream).getDocumentElement();
+      root = getDocument(stream).getDocumentElement();
     } catch (final SAXException e) {
       throw newGameParseException("failed to parse XML document", e);
     }
+    addSectionParseTime("document", startTime);
+    for (final Section section : sections) {
+      parseSection(section, getSingleChild(section.name, root, section.optional));
+    }
+  }
+
+  private void parseStreaming(final InputStream stream, final List<Section> sections)
+      throws GameParseException, EngineVersionException {
+    final Set<String> sectionNames = sections.stream().map(section -> section.name).collect(Collectors.toSet());
+    final Map<String, Element> readSections = new HashMap<>();
+    final Set<String> parsedSections = new HashSet<>();
+    try (GameSectionReader reader = new GameSectionReader(stream, getDtdSystemId())) {
+      while (true) {
+        final long startTime = System.nanoTime();
+        final @Nullable Element element = reader.nextSection(sectionNames::contains);
+        if (element == null) {
+          break;
+        }
+        final String name = element.getTagName();
+        addSectionParseTime(name, startTime);
+        if (readSections.containsKey(name) || parsedSections.contains(name)) {
+          throw newGameParseException("Too many children named " + name);
+        }
+        readSections.put(name, element);
+        parseReadySections(sections, readSections, parsedSections, false);
+      }
+    } catch (final XMLStreamException e) {
+      throw newGameParseException("failed to parse XML document", e);
+    }
+    // the sections that waited for a missing optional section can be parsed, now that the whole document was read
+    parseReadySections(sections, readSections, parsedSections, true);
+  }
+
+  private void parseReadySections(final List<Section> sections, final Map<String, Element> readSections,
+      final Set<String> parsedSections, final boolean endOfDocument) throws GameParseException, EngineVersionException {
+    // the dependencies of a section are listed before it, so they are parsed first in the same pass when ready
+    for (int i = 0; i < sections.size(); i++) {
+      final Section section = sections.get(i);
+      if (!parsedSections.contains(section.name)
+          && (endOfDocument || readSections.containsKey(section.name))
+          && areDependenciesParsed(section, sections.subList(0, i), parsedSections)) {
+        final @Nullable Element element = readSections.remove(section.name);
+        if (element == null && !section.optional) {
+          throw newGameParseException("No child called " + section.name);
+        }
+        parseSection(section, element);
+        parsedSections.add(section.name);
+      }
+    }
+  }
+
+  private static boolean areDependenciesParsed(final Section section, final List<Section> previousSections,
+      final Set<String> parsedSections) {
+    if (section.dependencies == null) {
+      return previousSections.stream().allMatch(previousSection -> parsedSections.contains(previousSection.name));
+    }
+    return parsedSections.containsAll(section.dependencies);
+  }
+
+  private void parseSection(final Section section, final @Nullable Element element)
+      throws GameParseException, EngineVersionException {
+    final long startTime = System.nanoTime();
+    section.parser.parse(element);
+    addSectionParseTime(section.name, startTime);
+  }
+
+  private void addSectionParseTime(final String name, final long startTime) {
+    sectionParseTimes.merge(name, System.nanoTime() - startTime, Long::sum);
   }
 
-  private void parseMapProperties(final Element root) throws GameParseException, EngineVersionException {
-    // mandatory fields
-    // get the name of the map
-    parseInfo(getSingleChild("info", root));
+  private void logSectionParseTimes() {
+    if (logger.isLoggable(Level.FINE)) {
+      final long totalTime = sectionParseTimes.values().stream().mapToLong(Long::longValue).sum();
+      logger.fine(String.format("Parsed map '%s' with the %s parser in %d ms: %s",
+          mapName,
+          useDomParser ? "DOM" : "streaming",
+          TimeUnit.NANOSECONDS.toMillis(totalTime),
+          sectionParseTimes.entrySet().stream()
+              .map(entry -> entry.getKey() + "=" + TimeUnit.NANOSECONDS.toMillis(entry.getValue()) + " ms")
+              .collect(Collectors.joining(", "))));
+    }
+  }
 
-    // test minimum engine version FIRST
-    parseMinimumEngineVersionNumber(getSingleChild("triplea", root, true));
-    parseGameLoader(getSingleChild("loader", root));
+  private void parseGameLoaderAndReportSaxErrors(final Element loader) throws GameParseException {
+    parseGameLoader(loader);
     // if we manage to get this far, past the minimum engine version number test, AND we are still good, then check and
     // see if we have any
     // SAX errors we need to show
@@ -149,54 +346,23 @@ public final class GameParser {
             + error.getLineNumber() + ", column: " + error.getColumnNumber() + ", error: " + error.getMessage());
       }
     }
-    parseDiceSides(getSingleChild("diceSides", root, true));
-    final Element playerListNode = getSingleChild("playerList", root);
-    parsePlayerList(playerListNode);
-    parseAlliances(playerListNode);
-    final Node properties = getSingleChild("propertyList", root, true);
-    if (properties != null) {
-      parseProperties(properties);
-    }
   }
 
-  private void parseMapDetails(final Element root) throws GameParseException {
-    parseMap(getSingleChild("map", root));
-    final Element resourceList = getSingleChild("resourceList", root, true);
-    if (resourceList != null) {
-      parseResources(resourceList);
-    }
-    final Element unitList = getSingleChild("unitList", root, true);
-    if (unitList != null) {
-      parseUnits(unitList);
-    }
-    // Parse all different relationshipTypes that are defined in the xml, for example: War, Allied, Neutral, NAP
-    final Element relationshipTypes = getSingleChild("relationshipTypes", root, true);
-    if (relationshipTypes != null) {
-      parseRelationshipTypes(relationshipTypes);
-    }
-    final Element territoryEffectList = getSingleChild("territoryEffectList", root, true);
-    if (territoryEffectList != null) {
-      parseTerritoryEffects(territoryEffectList);
-    }
-    parseGamePlay(getSingleChild("gamePlay", root));
-    final Element production = getSingleChild("production", root, true);
-    if (production != null) {
-      parseProduction(production);
-    }
-    final Element technology = getSingleChild("technology", root, true);
+  private void parsePlayerListAndAlliances(final Element playerList) throws GameParseException {
+    parsePlayerList(playerList);
+    parseAlliances(playerList);
+  }
+
+  private void parseTechnologyOrDefaults(final @Nullable Element technology) throws GameParseException {
     if (technology != null) {
       parseTechnology(technology);
     } else {
       TechAdvance.createDefaultTechAdvances(data);
     }
-    final Element attachmentList = getSingleChild("attachmentList", root, true);
-    if (attachmentList != null) {
-      parseAttachments(attachmentList);
-    }
-    final Node initialization = getSingleChild("initialize", root, true);
-    if (initialization != null) {
-      parseInitialization(initialization);
-    }
+  }
+
+  private void parseDefaults() throws GameParseException {
+    final long startTime = System.nanoTime();
     // set & override default relationships
     // sets the relationship between all players and the NullPlayer to NullRelation
     // (with archeType War)
@@ -215,6 +381,7 @@ public final class GameParser {
       ClientLogger.logQuietly("Error parsing: " + mapName, e);
       throw newGameParseException("validation failed", e);
     }
+    addSectionParseTime("validation", startTime);
   }
 
   private void parseDiceSides(final Node diceSides) {
@@ -291,12 +458,6 @@ public final class GameParser {
     try {
       final DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
       factory.setValidating(true);
-      // get the dtd location
-      final String dtdFile = "/games/strategy/engine/xml/" + DTD_FILE_NAME;
-      final URL url = GameParser.class.getResource(dtdFile);
-      if (url == null) {
-        throw new RuntimeException(String.format("Map: %s, Could not find in classpath %s", mapName, dtdFile));
-      }
       final DocumentBuilder builder = factory.newDocumentBuilder();
       builder.setErrorHandler(new ErrorHandler() {
         @Override
@@ -314,14 +475,26 @@ public final class GameParser {
           errorsSax.add(exception);
         }
       });
-      final String dtdSystem = url.toExternalForm();
-      final String system = dtdSystem.substring(0, dtdSystem.length() - 8);
-      return builder.parse(input, system);
+      return builder.parse(input, getDtdSystemId());
     } catch (final IOException | ParserConfigurationException e) {
       throw new IllegalStateException("Error parsing: " + mapName, e);
     }
   }
 
+  /**
+   * Returns the system ID against which the game XML is parsed, so its DTD reference resolves to the DTD of the engine.
+   */
+  private String getDtdSystemId() {
+    // get the dtd location
+    final String dtdFile = "/games/strategy/engine/xml/" + DTD_FILE_NAME;
+    final URL url = GameParser.class.getResource(dtdFile);
+    if (url == null) {
+      throw new RuntimeException(String.format("Map: %s, Could not find in classpath %s", mapName, dtdFile));
+    }
+    final String dtdSystem = url.toExternalForm();
+    return dtdSystem.substring(0, dtdSystem.length() - DTD_FILE_NAME.length());
+  }
+
   private <T> T getValidatedObject(final Element element, final String attribute,
       final boolean mustFind, final Function<String, T> function, final String errorName)
       throws GameParseException {
@@ -0,0 +1,115 @@
+package games.strategy.engine.data;
+
+import java.io.InputStream;
+import java.util.function.Predicate;
+
+import javax.annotation.Nullable;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+/**
+ * Reads the top-level elements of a game XML one at a time with a pull parser.
+ *
+ * <p>
+ * Each requested element is returned as a detached DOM subtree, so it can be parsed and released before the rest of
+ * the document is read. Elements that are not requested are skipped without being built. Attribute defaults declared
+ * in the DTD are applied, but the document is not validated against it.
+ * </p>
+ */
+final class GameSectionReader implements AutoCloseable {
+  private final XMLStreamReader reader;
+  private final Document document;
+  private boolean rootRead = false;
+
+  /**
+   * @param systemId The system ID used to resolve the DTD and other relative references of the document.
+   */
+  GameSectionReader(final InputStream stream, final String systemId) throws XMLStreamException {
+    final XMLInputFactory factory = XMLInputFactory.newInstance();
+    factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+    reader = factory.createXMLStreamReader(systemId, stream);
+    try {
+      document = DocumentBuilderFactory.newInstance().newDocumentBuilder().newDocument();
+    } catch (final ParserConfigurationException e) {
+      throw new IllegalStateException("no DOM implementation is available", e);
+    }
+  }
+
+  /**
+   * Reads up to the next requested top-level element.
+   *
+   * @param requested Tells whether the top-level element with the specified name should be returned or skipped.
+   *
+   * @return The next requested top-level element; or {@code null} if the end of the document is reached.
+   */
+  @Nullable
+  Element nextSection(final Predicate<String> requested) throws XMLStreamException {
+    if (!rootRead) {
+      // skip the prolog, up to the root element
+      while (reader.next() != XMLStreamConstants.START_ELEMENT) {
+        continue;
+      }
+      rootRead = true;
+    }
+    while (reader.hasNext()) {
+      final int event = reader.next();
+      if (event == XMLStreamConstants.START_ELEMENT) {
+        if (requested.test(reader.getLocalName())) {
+          return readElement();
+        }
+        skipElement();
+      } else if (event == XMLStreamConstants.END_ELEMENT) {
+        // the end of the root element
+        return null;
+      }
+    }
+    return null;
+  }
+
+  private Element readElement() throws XMLStreamException {
+    final Element element = document.createElement(reader.getLocalName());
+    for (int i = 0; i < reader.getAttributeCount(); i++) {
+      element.setAttribute(reader.getAttributeLocalName(i), reader.getAttributeValue(i));
+    }
+    while (true) {
+      switch (reader.next()) {
+        case XMLStreamConstants.START_ELEMENT:
+          element.appendChild(readElement());
+          break;
+        case XMLStreamConstants.CHARACTERS:
+        case XMLStreamConstants.CDATA:
+          element.appendChild(document.createTextNode(reader.getText()));
+          break;
+        case XMLStreamConstants.END_ELEMENT:
+          return element;
+        default:
+          // comments, processing instructions and ignorable whitespace are not needed to parse the game
+          break;
+      }
+    }
+  }
+
+  private void skipElement() throws XMLStreamException {
+    int depth = 1;
+    while (depth > 0) {
+      final int event = reader.next();
+      if (event == XMLStreamConstants.START_ELEMENT) {
+        depth++;
+      } else if (event == XMLStreamConstants.END_ELEMENT) {
+        depth--;
+      }
+    }
+  }
+
+  @Override
+  public void close() throws XMLStreamException {
+    reader.close();
+  }
+}
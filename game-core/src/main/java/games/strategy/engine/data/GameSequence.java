@@ -88,6 +88,15 @@ public class GameSequence extends GameDataComponent implements Iterable<GameStep
     m_currentIndex = newIndex;
   }
 
+  /**
+   * Moves to the specified round (as returned by {@link #getRound()}) and step without running the steps in between.
+   * Used when restoring a game from an incremental save game.
+   */
+  public synchronized void setRoundAndStepIndex(final int round, final int stepIndex) {
+    setStepIndex(stepIndex);
+    m_round = round - m_roundOffset;
+  }
+
   /**
    * @return boolean whether the round has changed.
    */
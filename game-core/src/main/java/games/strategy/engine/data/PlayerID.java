@@ -21,6 +21,7 @@ public class PlayerID extends NamedAttachable implements NamedUnitHolder {
   private RepairFrontier m_repairFrontier;
   private final TechnologyFrontierList m_technologyFrontiers;
   private String m_whoAmI = "null:no_one";
+  private int m_ordinal = -1;
 
 
   public PlayerID(final String name, final GameData data) {
@@ -92,6 +93,18 @@ public class PlayerID extends NamedAttachable implements NamedUnitHolder {
     return false;
   }
 
+  /**
+   * @return The index of this player in {@link PlayerList#getPlayers()}, or -1 for {@link #NULL_PLAYERID} and players
+   *         that are not on a player list. Arrays indexed by ordinal are a cheaper alternative to maps keyed by player.
+   */
+  public int getOrdinal() {
+    return isNull() ? -1 : m_ordinal;
+  }
+
+  void setOrdinal(final int ordinal) {
+    m_ordinal = ordinal;
+  }
+
   public static final PlayerID NULL_PLAYERID =
       new PlayerID(Constants.PLAYER_NAME_NEUTRAL, true, false, null, false, null) {
         // compatible with 0.9.0.2 saved games
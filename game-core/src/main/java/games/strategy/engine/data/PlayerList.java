@@ -27,7 +27,18 @@ public class PlayerList extends GameDataComponent implements Iterable<PlayerID>
   }
 
   void addPlayerId(final PlayerID player) {
-    m_players.put(player.getName(), player);
+    final PlayerID replaced = m_players.put(player.getName(), player);
+    player.setOrdinal((replaced == null) ? m_players.size() - 1 : replaced.getOrdinal());
+  }
+
+  /**
+   * Numbers the players in list order, for players loaded from a save game written before ordinals were introduced.
+   */
+  void assignOrdinals() {
+    int ordinal = 0;
+    for (final PlayerID player : m_players.values()) {
+      player.setOrdinal(ordinal++);
+    }
   }
 
   void addPlayerIds(final Collection<PlayerID> playerIds) {
@@ -8,6 +8,7 @@ public class Territory extends NamedAttachable implements NamedUnitHolder, Compa
   // In a grid-based game, stores the coordinate of the Territory
   @SuppressWarnings("unused")
   private final int[] m_coordinate;
+  private int m_ordinal = -1;
 
   public Territory(final String name, final GameData data) {
     this(name, false, data);
@@ -37,6 +38,18 @@ public class Territory extends NamedAttachable implements NamedUnitHolder, Compa
     return m_water;
   }
 
+  /**
+   * @return The index of this territory in {@link GameMap#getTerritories()}, or -1 if it is not on a map. Arrays
+   *         indexed by ordinal are a cheaper alternative to maps keyed by territory.
+   */
+  public int getOrdinal() {
+    return m_ordinal;
+  }
+
+  void setOrdinal(final int ordinal) {
+    m_ordinal = ordinal;
+  }
+
   /**
    * @return The territory owner; will be {@link #NULL_PLAYERID} if the territory is not owned.
    */
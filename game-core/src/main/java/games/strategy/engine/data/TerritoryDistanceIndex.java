@@ -0,0 +1,361 @@
+package games.strategy.engine.data;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import com.google.common.annotations.VisibleForTesting;
+
+import games.strategy.triplea.delegate.Matches;
+
+/**
+ * Answers the distance, route and neighborhood queries of a {@link GameMap} without searching its connection sets.
+ *
+ * <p>
+ * The territories are identified by their ordinals and their connections are stored as arrays in compressed sparse row
+ * form.
+ * For the conditions that only depend on the map itself (any territory, land territories and water territories), the
+ * breadth first search from a territory is cached, so repeated queries from the same territory are answered by array
+ * lookups. For any other condition, distances and routes are found by an A* search guided by the unrestricted distance
+ * to the destination, which is never longer than the distance under the condition. The condition is tested at most
+ * once per territory and query.
+ * </p>
+ *
+ * <p>
+ * An index never changes after it has been built, apart from its cache, and is thread safe. {@link GameMap} builds a
+ * new index after territories or connections have been added.
+ * </p>
+ */
+final class TerritoryDistanceIndex {
+  /**
+   * The maximum number of cached searches, for all conditions together.
+   */
+  @VisibleForTesting
+  static final int MAX_CACHED_SEARCHES = 1024;
+
+  private final Territory[] territories;
+  // the neighbors of territory i are connections[connectionOffsets[i]] to connections[connectionOffsets[i + 1] - 1]
+  private final int[] connectionOffsets;
+  private final int[] connections;
+  private final boolean[] water;
+  private final Map<Integer, Search> searches = new LinkedHashMap<Integer, Search>(16, 0.75f, true) {
+    private static final long serialVersionUID = 4567931620844734217L;
+
+    @Override
+    protected boolean removeEldestEntry(final Map.Entry<Integer, Search> eldest) {
+      return size() > MAX_CACHED_SEARCHES;
+    }
+  };
+
+  TerritoryDistanceIndex(final List<Territory> territories, final Map<Territory, Set<Territory>> neighbors) {
+    this.territories = territories.toArray(new Territory[0]);
+    connectionOffsets = new int[this.territories.length + 1];
+    water = new boolean[this.territories.length];
+    final List<Integer> connectionList = new ArrayList<>();
+    for (int i = 0; i < this.territories.length; i++) {
+      connectionOffsets[i] = connectionList.size();
+      water[i] = this.territories[i].isWater();
+      for (final Territory neighbor : neighbors.getOrDefault(this.territories[i], Collections.emptySet())) {
+        connectionList.add(neighbor.getOrdinal());
+      }
+    }
+    connectionOffsets[this.territories.length] = connectionList.size();
+    connections = connectionList.stream().mapToInt(Integer::intValue).toArray();
+  }
+
+  /**
+   * @return The ordinal of the specified territory, or -1 if it is not on the map.
+   */
+  private int getId(final Territory territory) {
+    final int id = territory.getOrdinal();
+    return (id >= 0 && id < territories.length && territories[id].equals(territory)) ? id : -1;
+  }
+
+  /**
+   * The territories a condition admits, if it only depends on the map.
+   */
+  private enum Kind {
+    ALL, LAND, WATER;
+
+    static Kind of(final Predicate<Territory> cond) {
+      if (cond == null || cond == Matches.territoryIsLandOrWater()) {
+        return ALL;
+      } else if (cond == Matches.territoryIsLand()) {
+        return LAND;
+      } else if (cond == Matches.territoryIsWater()) {
+        return WATER;
+      }
+      return null;
+    }
+  }
+
+  /**
+   * A breadth first search from a single territory.
+   */
+  private static final class Search {
+    // the distance of each territory from the start, or -1 if it cannot be reached
+    final int[] distances;
+    // the reachable territories ordered by distance, starting with the start
+    final int[] order;
+    // layerEnds[d] is the index in order after the last territory at distance d
+    final int[] layerEnds;
+
+    Search(final int[] distances, final int[] order) {
+      this.distances = distances;
+      this.order = order;
+      layerEnds = new int[distances[order[order.length - 1]] + 1];
+      for (int i = 0; i < order.length; i++) {
+        layerEnds[distances[order[i]]] = i + 1;
+      }
+    }
+  }
+
+  private boolean admits(final Kind kind, final int id) {
+    switch (kind) {
+      case LAND:
+        return !water[id];
+      case WATER:
+        return water[id];
+      default:
+        return true;
+    }
+  }
+
+  private Search getSearch(final Kind kind, final int start) {
+    final Integer key = kind.ordinal() * territories.length + start;
+    synchronized (searches) {
+      final Search search = searches.get(key);
+      if (search != null) {
+        return search;
+      }
+    }
+    final Search search = search(kind, start);
+    synchronized (searches) {
+      searches.put(key, search);
+    }
+    return search;
+  }
+
+  private Search search(final Kind kind, final int start) {
+    final int[] distances = new int[territories.length];
+    Arrays.fill(distances, -1);
+    distances[start] = 0;
+    final int[] queue = new int[territories.length];
+    int head = 0;
+    int tail = 0;
+    queue[tail++] = start;
+    while (head < tail) {
+      final int current = queue[head++];
+      for (int i = connectionOffsets[current]; i < connectionOffsets[current + 1]; i++) {
+        final int neighbor = connections[i];
+        if (distances[neighbor] == -1 && admits(kind, neighbor)) {
+          distances[neighbor] = distances[current] + 1;
+          queue[tail++] = neighbor;
+        }
+      }
+    }
+    return new Search(distances, Arrays.copyOf(queue, tail));
+  }
+
+  /**
+   * @return The distance between the specified territories, where every territory after the start matches the
+   *         condition, or -1 if there is no such route.
+   */
+  int getDistance(final Territory start, final Territory end, final Predicate<Territory> cond) {
+    final int startId = getId(start);
+    final int endId = getId(end);
+    if (startId == -1 || endId == -1) {
+      return -1;
+    }
+    final Kind kind = Kind.of(cond);
+    if (kind != null) {
+      return getSearch(kind, startId).distances[endId];
+    }
+    final int[] path = findPath(startId, endId, cond);
+    return (path == null) ? -1 : path.length - 1;
+  }
+
+  /**
+   * @return The shortest route between the specified territories, where every territory after the start matches the
+   *         condition, or {@code null} if there is no such route.
+   */
+  Route getRoute(final Territory start, final Territory end, final Predicate<Territory> cond) {
+    final int startId = getId(start);
+    final int endId = getId(end);
+    if (startId == -1 || endId == -1) {
+      return null;
+    }
+    final Kind kind = Kind.of(cond);
+    final int[] path = (kind != null) ? getPath(getSearch(kind, startId), endId) : findPath(startId, endId, cond);
+    if (path == null) {
+      return null;
+    }
+    final List<Territory> route = new ArrayList<>(path.length);
+    for (final int id : path) {
+      route.add(territories[id]);
+    }
+    return new Route(route);
+  }
+
+  private int[] getPath(final Search search, final int end) {
+    final int distance = search.distances[end];
+    if (distance == -1) {
+      return null;
+    }
+    // walk back from the end, always stepping to a territory one step closer to the start
+    final int[] path = new int[distance + 1];
+    path[distance] = end;
+    for (int step = distance - 1; step >= 0; step--) {
+      final int current = path[step + 1];
+      for (int i = connectionOffsets[current]; i < connectionOffsets[current + 1]; i++) {
+        if (search.distances[connections[i]] == step) {
+          path[step] = connections[i];
+          break;
+        }
+      }
+    }
+    return path;
+  }
+
+  /**
+   * Finds a shortest path using A* with the unrestricted distance to the end as heuristic. As that distance changes by
+   * at most one per step, territories are expanded in order of their estimated total distance and never reopened.
+   */
+  private int[] findPath(final int start, final int end, final Predicate<Territory> cond) {
+    final int[] estimates = getSearch(Kind.ALL, end).distances;
+    if (estimates[start] == -1) {
+      return null;
+    }
+    final int[] distances = new int[territories.length];
+    Arrays.fill(distances, -1);
+    final int[] previous = new int[territories.length];
+    final boolean[] closed = new boolean[territories.length];
+    // 0 if the condition has not been tested, 1 if the territory matches it, and 2 otherwise
+    final byte[] matches = new byte[territories.length];
+    final BucketQueue open = new BucketQueue(estimates[start]);
+    distances[start] = 0;
+    open.add(estimates[start], start);
+    for (int current = open.poll(); current != -1; current = open.poll()) {
+      if (closed[current]) {
+        continue;
+      }
+      if (current == end) {
+        final int[] path = new int[distances[end] + 1];
+        for (int step = path.length - 1, id = end; step >= 0; step--, id = previous[id]) {
+          path[step] = id;
+        }
+        return path;
+      }
+      closed[current] = true;
+      for (int i = connectionOffsets[current]; i < connectionOffsets[current + 1]; i++) {
+        final int neighbor = connections[i];
+        if (closed[neighbor]) {
+          continue;
+        }
+        if (matches[neighbor] == 0) {
+          matches[neighbor] = cond.test(territories[neighbor]) ? (byte) 1 : (byte) 2;
+        }
+        final int distance = distances[current] + 1;
+        if (matches[neighbor] == 1 && (distances[neighbor] == -1 || distance < distances[neighbor])) {
+          distances[neighbor] = distance;
+          previous[neighbor] = current;
+          open.add(distance + estimates[neighbor], neighbor);
+        }
+      }
+    }
+    return null;
+  }
+
+  /**
+   * @return All territories within the specified distance of the start that can be reached through territories
+   *         matching the condition, and match it themselves. Does NOT include the start.
+   */
+  Set<Territory> getNeighbors(final Territory start, final int distance, final Predicate<Territory> cond) {
+    final int startId = getId(start);
+    if (startId == -1) {
+      throw new IllegalArgumentException("No neighbors for:" + start);
+    }
+    final Set<Territory> neighbors = new HashSet<>();
+    final Kind kind = Kind.of(cond);
+    if (kind != null) {
+      final Search search = getSearch(kind, startId);
+      final int end = search.layerEnds[Math.min(distance, search.layerEnds.length - 1)];
+      for (int i = 1; i < end; i++) {
+        neighbors.add(territories[search.order[i]]);
+      }
+      return neighbors;
+    }
+    final int[] distances = new int[territories.length];
+    Arrays.fill(distances, -1);
+    final boolean[] rejected = new boolean[territories.length];
+    final int[] queue = new int[territories.length];
+    int head = 0;
+    int tail = 0;
+    distances[startId] = 0;
+    queue[tail++] = startId;
+    while (head < tail && distances[queue[head]] < distance) {
+      final int current = queue[head++];
+      for (int i = connectionOffsets[current]; i < connectionOffsets[current + 1]; i++) {
+        final int neighbor = connections[i];
+        if (distances[neighbor] == -1 && !rejected[neighbor]) {
+          if (cond.test(territories[neighbor])) {
+            distances[neighbor] = distances[current] + 1;
+            queue[tail++] = neighbor;
+            neighbors.add(territories[neighbor]);
+          } else {
+            rejected[neighbor] = true;
+          }
+        }
+      }
+    }
+    return neighbors;
+  }
+
+  /**
+   * A priority queue of territory ids for priorities that never decrease below the last one polled.
+   */
+  private static final class BucketQueue {
+    private final List<int[]> buckets = new ArrayList<>();
+    private final List<Integer> sizes = new ArrayList<>();
+    private final int minPriority;
+    private int current = 0;
+
+    BucketQueue(final int minPriority) {
+      this.minPriority = minPriority;
+    }
+
+    void add(final int priority, final int id) {
+      final int index = priority - minPriority;
+      while (buckets.size() <= index) {
+        buckets.add(new int[8]);
+        sizes.add(0);
+      }
+      int[] bucket = buckets.get(index);
+      final int size = sizes.get(index);
+      if (size == bucket.length) {
+        bucket = Arrays.copyOf(bucket, size * 2);
+        buckets.set(index, bucket);
+      }
+      bucket[size] = id;
+      sizes.set(index, size + 1);
+    }
+
+    int poll() {
+      while (current < buckets.size()) {
+        final int size = sizes.get(current);
+        if (size > 0) {
+          sizes.set(current, size - 1);
+          return buckets.get(current)[size - 1];
+        }
+        current++;
+      }
+      return -1;
+    }
+  }
+}
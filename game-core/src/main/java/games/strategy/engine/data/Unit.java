@@ -75,7 +75,11 @@ public class Unit extends GameDataComponent implements DynamicallyModifiable {
     if (player == null) {
       player = PlayerID.NULL_PLAYERID;
     }
+    final PlayerID oldOwner = m_owner;
     m_owner = player;
+    if (oldOwner != null && oldOwner != player && getData() != null) {
+      getData().getUnits().ownerChanged();
+    }
   }
 
   @Override
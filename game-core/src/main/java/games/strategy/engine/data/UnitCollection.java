@@ -5,21 +5,34 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.function.Predicate;
-import java.util.stream.Collectors;
 
 import games.strategy.util.CollectionUtils;
 import games.strategy.util.IntegerMap;
 
 /**
  * A collection of units.
+ *
+ * <p>
+ * Queries by unit type and by owner are answered from indexes, which are built the first time they are needed and kept
+ * up to date as units are added and removed. As the owner of a unit can change while it stays in the collection, the
+ * index by owner is rebuilt when the owner of any unit of the game has changed since it was built, or when units have
+ * been removed, so that owners and types are always counted in the order they first appear in the collection. The
+ * indexes are read and changed while holding the lock of the collection.
+ * </p>
  */
 public class UnitCollection extends GameDataComponent implements Collection<Unit> {
   private static final long serialVersionUID = -3534037864426122864L;
   private final List<Unit> m_units = new ArrayList<>();
   private final NamedUnitHolder m_holder;
+  // the units of each type, in the same order as in m_units; guarded by this
+  private transient Map<UnitType, List<Unit>> unitsByType;
+  // guarded by this
+  private transient OwnerIndex ownerIndex;
 
   /**
    * Creates new UnitCollection.
@@ -32,23 +45,140 @@ public class UnitCollection extends GameDataComponent implements Collection<Unit
     m_holder = holder;
   }
 
+  /**
+   * Counts the units of each owner, and of each type per owner.
+   */
+  private static final class OwnerIndex {
+    // the units of the game, which count the owner changes of its units, or null without game data
+    private final UnitsList allUnits;
+    // the owner change count of the units of the game before the index was built
+    private final long ownerChangeCount;
+    final IntegerMap<PlayerID> unitCounts = new IntegerMap<>();
+    final Map<PlayerID, IntegerMap<UnitType>> unitCountsByType = new LinkedHashMap<>();
+
+    OwnerIndex(final Collection<Unit> units, final UnitsList allUnits) {
+      this.allUnits = allUnits;
+      ownerChangeCount = getOwnerChangeCount();
+      units.forEach(this::add);
+    }
+
+    private long getOwnerChangeCount() {
+      return (allUnits == null) ? 0 : allUnits.getOwnerChangeCount();
+    }
+
+    boolean isUpToDate() {
+      return ownerChangeCount == getOwnerChangeCount();
+    }
+
+    void add(final Unit unit) {
+      unitCounts.add(unit.getOwner(), 1);
+      unitCountsByType.computeIfAbsent(unit.getOwner(), owner -> new IntegerMap<>()).add(unit.getType(), 1);
+    }
+
+    int getUnitCount(final UnitType type, final PlayerID owner) {
+      final IntegerMap<UnitType> counts = unitCountsByType.get(owner);
+      return (counts == null) ? 0 : counts.getInt(type);
+    }
+  }
+
+  // must be called while holding the lock of this collection, like all methods reading or changing the indexes
+  private Map<UnitType, List<Unit>> getUnitsByTypeIndex() {
+    if (unitsByType == null) {
+      unitsByType = new LinkedHashMap<>();
+      for (final Unit unit : m_units) {
+        unitsByType.computeIfAbsent(unit.getType(), type -> new ArrayList<>()).add(unit);
+      }
+    }
+    return unitsByType;
+  }
+
+  private List<Unit> getUnitsOfType(final UnitType type) {
+    return getUnitsByTypeIndex().getOrDefault(type, Collections.emptyList());
+  }
+
+  private OwnerIndex getOwnerIndex() {
+    if (ownerIndex == null || !ownerIndex.isUpToDate()) {
+      ownerIndex = new OwnerIndex(m_units, (getData() == null) ? null : getData().getUnits());
+    }
+    return ownerIndex;
+  }
+
+  private void addToIndexes(final Unit unit) {
+    if (unitsByType != null) {
+      unitsByType.computeIfAbsent(unit.getType(), type -> new ArrayList<>()).add(unit);
+    }
+    if (ownerIndex != null) {
+      if (ownerIndex.isUpToDate()) {
+        ownerIndex.add(unit);
+      } else {
+        ownerIndex = null;
+      }
+    }
+  }
+
+  /**
+   * Removes the specified object from the indexes, after it has been removed from m_units.
+   *
+   * @param all Whether all occurrences of the object were removed, or only the first.
+   */
+  private void removeFromIndexes(final Object object, final boolean all) {
+    if (!(object instanceof Unit)) {
+      return;
+    }
+    // the first unit of an owner or type may have been removed, which can change the order they first appear in
+    ownerIndex = null;
+    if (unitsByType == null) {
+      return;
+    }
+    final UnitType type = ((Unit) object).getType();
+    final List<Unit> units = unitsByType.get(type);
+    if (units == null) {
+      return;
+    }
+    for (int i = units.indexOf(object); i != -1; i = all ? units.indexOf(object) : -1) {
+      units.remove(i);
+    }
+    if (units.isEmpty()) {
+      unitsByType.remove(type);
+    }
+  }
+
+  private void clearIndexes() {
+    unitsByType = null;
+    ownerIndex = null;
+  }
+
   @Override
   public boolean add(final Unit unit) {
-    final boolean result = m_units.add(unit);
+    final boolean result;
+    synchronized (this) {
+      result = m_units.add(unit);
+      addToIndexes(unit);
+    }
     m_holder.notifyChanged();
     return result;
   }
 
   @Override
   public boolean addAll(final Collection<? extends Unit> units) {
-    final boolean result = m_units.addAll(units);
+    final boolean result;
+    synchronized (this) {
+      result = m_units.addAll(units);
+      units.forEach(this::addToIndexes);
+    }
     m_holder.notifyChanged();
     return result;
   }
 
   @Override
   public boolean removeAll(final Collection<?> units) {
-    final boolean result = m_units.removeAll(units);
+    final boolean result;
+    synchronized (this) {
+      result = m_units.removeAll(units);
+      if (result) {
+        units.forEach(unit -> removeFromIndexes(unit, true));
+      }
+    }
     m_holder.notifyChanged();
     return result;
   }
@@ -57,16 +187,16 @@ public class UnitCollection extends GameDataComponent implements Collection<Unit
     return m_units.size();
   }
 
-  int getUnitCount(final UnitType type) {
-    return (int) m_units.stream().filter(u -> u.getType().equals(type)).count();
+  synchronized int getUnitCount(final UnitType type) {
+    return getUnitsOfType(type).size();
   }
 
-  public int getUnitCount(final UnitType type, final PlayerID owner) {
-    return (int) m_units.stream().filter(u -> u.getType().equals(type) && u.getOwner().equals(owner)).count();
+  public synchronized int getUnitCount(final UnitType type, final PlayerID owner) {
+    return getOwnerIndex().getUnitCount(type, owner);
   }
 
-  int getUnitCount(final PlayerID owner) {
-    return (int) m_units.stream().filter(u -> u.getOwner().equals(owner)).count();
+  synchronized int getUnitCount(final PlayerID owner) {
+    return getOwnerIndex().unitCounts.getInt(owner);
   }
 
   @Override
@@ -92,16 +222,10 @@ public class UnitCollection extends GameDataComponent implements Collection<Unit
     if (maxUnits < 0) {
       throw new IllegalArgumentException("value must be positiive.  Instead its:" + maxUnits);
     }
-    final Collection<Unit> units = new ArrayList<>();
-    for (final Unit current : m_units) {
-      if (current.getType().equals(type)) {
-        units.add(current);
-        if (units.size() == maxUnits) {
-          return units;
-        }
-      }
+    synchronized (this) {
+      final List<Unit> units = getUnitsOfType(type);
+      return new ArrayList<>(units.subList(0, Math.min(maxUnits, units.size())));
     }
-    return units;
   }
 
   /**
@@ -117,19 +241,34 @@ public class UnitCollection extends GameDataComponent implements Collection<Unit
     return units;
   }
 
+  /**
+   * @return A copy of the units, which may be modified by the caller. Use {@link #getUnitsView()} if the units are
+   *         only read.
+   */
   public Collection<Unit> getUnits() {
     return new ArrayList<>(m_units);
   }
 
+  /**
+   * @return A read-only view of the units, which reflects later changes to this collection.
+   */
+  public List<Unit> getUnitsView() {
+    return Collections.unmodifiableList(m_units);
+  }
+
   /**
    * @return integer map of UnitType.
    */
-  public IntegerMap<UnitType> getUnitsByType() {
-    final IntegerMap<UnitType> units = new IntegerMap<>();
+  public synchronized IntegerMap<UnitType> getUnitsByType() {
+    final Map<UnitType, List<Unit>> index = getUnitsByTypeIndex();
+    final IntegerMap<UnitType> units = new IntegerMap<>(index.size());
+    if (index.isEmpty()) {
+      return units;
+    }
     getData().getUnitTypeList().forEach(type -> {
-      final int count = getUnitCount(type);
-      if (count > 0) {
-        units.put(type, count);
+      final List<Unit> unitsOfType = index.get(type);
+      if (unitsOfType != null) {
+        units.put(type, unitsOfType.size());
       }
     });
     return units;
@@ -140,10 +279,9 @@ public class UnitCollection extends GameDataComponent implements Collection<Unit
    *        referring player ID
    * @return map of UnitType (only of units for the specified player).
    */
-  public IntegerMap<UnitType> getUnitsByType(final PlayerID id) {
-    final IntegerMap<UnitType> count = new IntegerMap<>();
-    m_units.stream().filter(unit -> unit.getOwner().equals(id)).forEach(unit -> count.add(unit.getType(), 1));
-    return count;
+  public synchronized IntegerMap<UnitType> getUnitsByType(final PlayerID id) {
+    final IntegerMap<UnitType> counts = getOwnerIndex().unitCountsByType.get(id);
+    return (counts == null) ? new IntegerMap<>() : new IntegerMap<>(counts);
   }
 
   @Override
@@ -159,22 +297,20 @@ public class UnitCollection extends GameDataComponent implements Collection<Unit
   /**
    * @return a Set of all players who have units in this collection.
    */
-  public Set<PlayerID> getPlayersWithUnits() {
+  public synchronized Set<PlayerID> getPlayersWithUnits() {
     // note nulls are handled by PlayerID.NULL_PLAYERID
-    return m_units.stream().map(Unit::getOwner).collect(Collectors.toSet());
+    return new HashSet<>(getOwnerIndex().unitCounts.keySet());
   }
 
   /**
    * @return The count of units each player has in this collection.
    */
-  public IntegerMap<PlayerID> getPlayerUnitCounts() {
-    final IntegerMap<PlayerID> count = new IntegerMap<>();
-    m_units.stream().forEach(unit -> count.add(unit.getOwner(), 1));
-    return count;
+  public synchronized IntegerMap<PlayerID> getPlayerUnitCounts() {
+    return new IntegerMap<>(getOwnerIndex().unitCounts);
   }
 
-  public boolean hasUnitsFromMultiplePlayers() {
-    return getPlayersWithUnits().size() > 1;
+  public synchronized boolean hasUnitsFromMultiplePlayers() {
+    return getOwnerIndex().unitCounts.size() > 1;
   }
 
   public NamedUnitHolder getHolder() {
@@ -215,8 +351,8 @@ public class UnitCollection extends GameDataComponent implements Collection<Unit
   }
 
   @Override
-  public boolean contains(final Object object) {
-    return m_units.contains(object);
+  public synchronized boolean contains(final Object object) {
+    return (object instanceof Unit) && getUnitsOfType(((Unit) object).getType()).contains(object);
   }
 
   @Override
@@ -231,19 +367,34 @@ public class UnitCollection extends GameDataComponent implements Collection<Unit
 
   @Override
   public boolean remove(final Object object) {
-    final boolean result = m_units.remove(object);
+    final boolean result;
+    synchronized (this) {
+      result = m_units.remove(object);
+      if (result) {
+        removeFromIndexes(object, false);
+      }
+    }
     m_holder.notifyChanged();
     return result;
   }
 
   @Override
   public boolean retainAll(final Collection<?> collection) {
-    return m_units.retainAll(collection);
+    synchronized (this) {
+      final boolean result = m_units.retainAll(collection);
+      if (result) {
+        clearIndexes();
+      }
+      return result;
+    }
   }
 
   @Override
   public void clear() {
-    m_units.clear();
+    synchronized (this) {
+      m_units.clear();
+      clearIndexes();
+    }
     m_holder.notifyChanged();
   }
 }
@@ -26,11 +26,25 @@ import games.strategy.util.LocalizeHtml;
  */
 public class UnitType extends NamedAttachable {
   private static final long serialVersionUID = 4885339076798905247L;
+  private int m_ordinal = -1;
 
   public UnitType(final String name, final GameData data) {
     super(name, data);
   }
 
+  /**
+   * @return A number from 0 to {@code UnitTypeList.size() - 1} that is unique to this unit type within its unit type
+   *         list, or -1 if it is not on a unit type list. Arrays indexed by ordinal are a cheaper alternative to maps
+   *         keyed by unit type.
+   */
+  public int getOrdinal() {
+    return m_ordinal;
+  }
+
+  void setOrdinal(final int ordinal) {
+    m_ordinal = ordinal;
+  }
+
   public List<Unit> create(final int quantity, final PlayerID owner) {
     return create(quantity, owner, false);
   }
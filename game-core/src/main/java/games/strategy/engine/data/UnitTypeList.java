@@ -25,7 +25,27 @@ public class UnitTypeList extends GameDataComponent implements Iterable<UnitType
   }
 
   protected void addUnitType(final UnitType type) {
-    m_unitTypes.put(type.getName(), type);
+    final UnitType replaced = m_unitTypes.put(type.getName(), type);
+    type.setOrdinal((replaced == null) ? m_unitTypes.size() - 1 : replaced.getOrdinal());
+  }
+
+  /**
+   * Numbers the unit types unless they already have distinct ordinals from 0 to {@code size() - 1}, which is not the
+   * case for unit types loaded from a save game written before ordinals were introduced.
+   */
+  void assignOrdinals() {
+    final boolean[] assigned = new boolean[m_unitTypes.size()];
+    for (final UnitType type : m_unitTypes.values()) {
+      final int ordinal = type.getOrdinal();
+      if (ordinal < 0 || ordinal >= assigned.length || assigned[ordinal]) {
+        int newOrdinal = 0;
+        for (final UnitType unitType : m_unitTypes.values()) {
+          unitType.setOrdinal(newOrdinal++);
+        }
+        return;
+      }
+      assigned[ordinal] = true;
+    }
   }
 
   public UnitType getUnitType(final String name) {
@@ -1,11 +1,14 @@
 package games.strategy.engine.data;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 import games.strategy.net.GUID;
 
@@ -15,6 +18,13 @@ public class UnitsList implements Serializable, Iterable<Unit> {
   // TODO - fix this, all units are never gcd
   // note, weak hash maps are not serializable
   private Map<GUID, Unit> m_allUnits;
+  // counts owner changes of the units of the game, so that indexes by owner can tell whether they are out of date
+  private transient AtomicLong ownerChangeCount = new AtomicLong();
+
+  private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException {
+    in.defaultReadObject();
+    ownerChangeCount = new AtomicLong();
+  }
 
   public Unit get(final GUID id) {
     return m_allUnits.get(id);
@@ -31,6 +41,17 @@ public class UnitsList implements Serializable, Iterable<Unit> {
     return Collections.unmodifiableCollection(m_allUnits.values());
   }
 
+  void ownerChanged() {
+    ownerChangeCount.incrementAndGet();
+  }
+
+  /**
+   * @return A number that changes whenever the owner of a unit of the game changes after the unit was created.
+   */
+  long getOwnerChangeCount() {
+    return ownerChangeCount.get();
+  }
+
   public void refresh() {
     m_allUnits = new HashMap<>();
   }
@@ -6,6 +6,8 @@ import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
@@ -37,6 +39,7 @@ public class DelegateExecutionManager {
   private final ReentrantReadWriteLock readWriteLock = new ReentrantReadWriteLock();
   private final ThreadLocal<Boolean> currentThreadHasReadLock = ThreadLocal.withInitial(() -> Boolean.FALSE);
   private volatile boolean isGameOver = false;
+  private final List<Runnable> leaveListeners = new CopyOnWriteArrayList<>();
 
   public void setGameOver() {
     isGameOver = true;
@@ -69,6 +72,21 @@ public class DelegateExecutionManager {
     return currentThreadHasReadLock.get();
   }
 
+  /**
+   * @return true if a delegate is executing on the current thread.
+   */
+  public boolean isDelegateExecutingOnCurrentThread() {
+    return currentThreadHasReadLock();
+  }
+
+  /**
+   * Adds a listener that is run by each thread about to leave delegate execution, that is when a delegate is done or
+   * calls out of the delegates. Delegate execution cannot be blocked before the listener returns.
+   */
+  public void addLeaveDelegateExecutionListener(final Runnable listener) {
+    leaveListeners.add(listener);
+  }
+
   /**
    * Used to create an object the exits delegate execution.
    *
@@ -145,8 +163,12 @@ public class DelegateExecutionManager {
    * Invoke immediately after executing a delegate.
    */
   public void leaveDelegateExecution() {
-    readWriteLock.readLock().unlock();
-    currentThreadHasReadLock.set(Boolean.FALSE);
+    try {
+      leaveListeners.forEach(Runnable::run);
+    } finally {
+      readWriteLock.readLock().unlock();
+      currentThreadHasReadLock.set(Boolean.FALSE);
+    }
   }
 
   /**
@@ -156,6 +156,7 @@ public final class ArgParser {
 
     public static final String TRIPLEA_SERVER_START_GAME_SYNC_WAIT_TIME = "triplea.server.startGameSyncWaitTime";
     public static final String TRIPLEA_SERVER_OBSERVER_JOIN_WAIT_TIME = "triplea.server.observerJoinWaitTime";
+    public static final String TRIPLEA_SERVER_GAME_DATA_CACHE_SIZE = "triplea.server.gameDataCacheSize";
 
     public static final String MAP_FOLDER = "mapFolder";
   }
@@ -0,0 +1,396 @@
+package games.strategy.engine.framework;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.zip.DeflaterOutputStream;
+
+import com.google.common.annotations.VisibleForTesting;
+
+import games.strategy.debug.ClientLogger;
+import games.strategy.engine.data.GameData;
+import games.strategy.engine.data.GameObjectInputStream;
+import games.strategy.engine.data.GameObjectOutputStream;
+import games.strategy.engine.data.GameSequence;
+import games.strategy.engine.data.GameStep;
+import games.strategy.engine.delegate.IDelegate;
+import games.strategy.engine.history.SerializationWriter;
+import games.strategy.io.FileUtils;
+import games.strategy.io.IoUtils;
+import games.strategy.util.Util;
+
+/**
+ * Writes auto saves incrementally. The first auto save to a file writes a full save game. Each later auto save to the
+ * same file only appends a journal segment, which holds what was written to the game history since the previous auto
+ * save to that file along with the position in the game sequence and the state of the delegates. After a fixed number
+ * of segments the file is written from scratch again, which bounds both its size and the time needed to load it.
+ *
+ * <p>
+ * A segment is serialized on the game thread, the same way changes are sent to remote players: territories, players
+ * and unit types are written by name and units by id. Writing the segments to disk and syncing the file happens on a
+ * background thread, which writes all segments queued for a file before syncing it once. A full save game is
+ * serialized to memory on the game thread as well. The background thread writes it to a temporary file, which only
+ * replaces the previous auto save once it is complete.
+ * </p>
+ *
+ * <p>
+ * {@link GameDataManager#loadGame(InputStream)} loads a journaled save game by reading the full save game and then
+ * replaying its segments. A segment that was not completely written, for example because the host crashed, ends the
+ * journal, so the game is restored as of the last complete auto save.
+ * </p>
+ */
+final class AutoSaveJournal implements Closeable {
+  @VisibleForTesting
+  static final int SEGMENTS_PER_SNAPSHOT = 20;
+
+  private final GameData data;
+  private final int segmentsPerSnapshot;
+  private final Map<File, JournalFile> files = new HashMap<>();
+  private final ExecutorService writer =
+      Executors.newSingleThreadExecutor(runnable -> Util.createDaemonThread(runnable, "Auto save journal writer"));
+
+  AutoSaveJournal(final GameData data) {
+    this(data, SEGMENTS_PER_SNAPSHOT);
+  }
+
+  @VisibleForTesting
+  AutoSaveJournal(final GameData data, final int segmentsPerSnapshot) {
+    this.data = data;
+    this.segmentsPerSnapshot = segmentsPerSnapshot;
+  }
+
+  /**
+   * Auto saves the game to the specified file. Must not be called while delegates are executing, as the game data, its
+   * history and the delegate state have to stay the same while the auto save is captured.
+   *
+   * @throws IOException If the full save game could not be serialized. Errors while writing the file are logged, and
+   *         the next auto save to the file writes a full save game again.
+   */
+  synchronized void save(final File file) throws IOException {
+    final JournalFile journalFile = files.remove(file);
+    if (journalFile != null) {
+      if (journalFile.canAppend()) {
+        try {
+          journalFile.append(newSegment(journalFile.drainHistoryEntries(), data));
+          files.put(file, journalFile);
+          return;
+        } catch (final IOException e) {
+          // the drained history entries are lost, so the file has to be written from scratch
+          ClientLogger.logQuietly("Failed to write auto save segment, saving the whole game instead", e);
+        }
+      }
+      journalFile.close();
+    }
+    files.put(file, new JournalFile(file));
+  }
+
+  /**
+   * @return A serialized journal segment holding the specified history entries, and the position in the game sequence
+   *         and the state of the delegates of the specified game data.
+   */
+  static byte[] newSegment(final List<SerializationWriter> historyEntries, final GameData data) throws IOException {
+    final Segment segment = new Segment(historyEntries, data);
+    return IoUtils.writeToMemory(os -> {
+      try (ObjectOutputStream out = new SegmentOutputStream(os)) {
+        out.writeObject(segment);
+      }
+    });
+  }
+
+  /**
+   * Finishes writing all auto saves.
+   */
+  @Override
+  public synchronized void close() {
+    for (final JournalFile journalFile : files.values()) {
+      journalFile.close();
+    }
+    files.clear();
+    writer.shutdown();
+  }
+
+  /**
+   * Reads the journal segments that follow the game data in a journaled save game and replays them over the game data.
+   */
+  static void replay(final ObjectInputStream in, final GameData data) throws ClassNotFoundException, IOException {
+    final GameObjectStreamFactory streamFactory = new GameObjectStreamFactory(data);
+    while (true) {
+      final byte[] bytes;
+      try {
+        bytes = (byte[]) in.readObject();
+      } catch (final EOFException e) {
+        // the journal ends with the last segment that was completely written
+        return;
+      }
+      try (ObjectInputStream segmentIn = new SegmentInputStream(streamFactory, new ByteArrayInputStream(bytes))) {
+        ((Segment) segmentIn.readObject()).replay(data);
+      }
+    }
+  }
+
+  /**
+   * An auto save file that is open for appending.
+   */
+  private final class JournalFile {
+    private final File file;
+    private final JournalSink sink = new JournalSink();
+    private final ObjectOutputStream out;
+    private final List<SerializationWriter> historyEntries = new ArrayList<>();
+    private final Consumer<SerializationWriter> historyListener = this::addHistoryEntry;
+    private final Queue<byte[]> pendingSegments = new ConcurrentLinkedQueue<>();
+    private int segmentCount = 0;
+    private volatile boolean failed = false;
+
+    /**
+     * Serializes a full save game for the specified file, and starts recording the history written from now on. The
+     * save game is written to the file in the background.
+     */
+    JournalFile(final File file) throws IOException {
+      this.file = file;
+      GameDataManager.writeSaveGameHeader(sink, GameDataManager.JOURNALED_SAVE_GAME_FORMAT_VERSION);
+      // sync flushing lets every flushed segment be read back even though the deflater is never finished
+      out = new ObjectOutputStream(
+          new BufferedOutputStream(new DeflaterOutputStream(sink, true), GameDataManager.BUFFER_SIZE));
+      GameDataManager.writeGameData(out, data, true);
+      // the segments never refer back to the game data, so there is no need to remember what was written
+      out.reset();
+      out.flush();
+      data.getHistory().getHistoryWriter().addListener(historyListener);
+      writer.execute(this::writeSaveGame);
+    }
+
+    private synchronized void addHistoryEntry(final SerializationWriter entry) {
+      historyEntries.add(entry);
+    }
+
+    synchronized List<SerializationWriter> drainHistoryEntries() {
+      final List<SerializationWriter> entries = new ArrayList<>(historyEntries);
+      historyEntries.clear();
+      return entries;
+    }
+
+    boolean canAppend() {
+      return !failed && segmentCount < segmentsPerSnapshot;
+    }
+
+    void append(final byte[] segment) {
+      segmentCount++;
+      pendingSegments.add(segment);
+      writer.execute(this::writePendingSegments);
+    }
+
+    private void writePendingSegments() {
+      if (pendingSegments.isEmpty() || failed) {
+        return;
+      }
+      try {
+        for (byte[] segment = pendingSegments.poll(); segment != null; segment = pendingSegments.poll()) {
+          out.writeUnshared(segment);
+        }
+        out.flush();
+        sink.sync();
+      } catch (final IOException e) {
+        failed = true;
+        ClientLogger.logQuietly("Failed to append to auto save: " + file.getAbsolutePath(), e);
+      }
+    }
+
+    private void writeSaveGame() {
+      try {
+        sink.moveTo(file);
+      } catch (final IOException e) {
+        failed = true;
+        ClientLogger.logQuietly("Failed to write auto save: " + file.getAbsolutePath(), e);
+      }
+    }
+
+    /**
+     * Stops recording the history, and waits until all segments have been written and the file has been closed.
+     */
+    void close() {
+      data.getHistory().getHistoryWriter().removeListener(historyListener);
+      try {
+        writer.submit(() -> {
+          writePendingSegments();
+          try {
+            out.close();
+          } catch (final IOException e) {
+            ClientLogger.logQuietly("Failed to close auto save: " + file.getAbsolutePath(), e);
+          }
+        }).get();
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } catch (final ExecutionException e) {
+        ClientLogger.logQuietly("Failed to close auto save: " + file.getAbsolutePath(), e);
+      }
+    }
+  }
+
+  /**
+   * Keeps what is written to an auto save in memory until it is moved to its file, and then appends to the file. The
+   * game thread only writes the full save game, everything after it is written by the background thread.
+   */
+  private static final class JournalSink extends OutputStream {
+    private ByteArrayOutputStream memory = new ByteArrayOutputStream();
+    private FileOutputStream fileSink;
+
+    /**
+     * Writes what was written so far to a temporary file, replaces the specified file with it once it is complete, and
+     * opens the file for appending.
+     */
+    void moveTo(final File file) throws IOException {
+      final File tempFile = new File(file.getParentFile(), file.getName() + ".tmp");
+      try {
+        try (FileOutputStream os = new FileOutputStream(tempFile)) {
+          memory.writeTo(os);
+          os.getFD().sync();
+        }
+        FileUtils.replaceFile(tempFile, file);
+      } catch (final IOException e) {
+        tempFile.delete();
+        throw e;
+      }
+      fileSink = new FileOutputStream(file, true);
+      memory = null;
+    }
+
+    void sync() throws IOException {
+      if (fileSink != null) {
+        fileSink.getFD().sync();
+      }
+    }
+
+    private OutputStream getSink() throws IOException {
+      if (fileSink != null) {
+        return fileSink;
+      } else if (memory != null) {
+        return memory;
+      }
+      throw new IOException("Auto save is closed");
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+      getSink().write(b);
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) throws IOException {
+      getSink().write(b, off, len);
+    }
+
+    @Override
+    public void close() throws IOException {
+      if (fileSink != null) {
+        fileSink.close();
+      }
+      memory = null;
+    }
+  }
+
+  /**
+   * What changed in the game between two auto saves. The history entries are replayed as they were recorded, while the
+   * game sequence and the delegates are restored to the state they had at the time of the later auto save.
+   */
+  private static final class Segment implements Serializable {
+    private static final long serialVersionUID = -2853437766426431785L;
+    private final List<SerializationWriter> historyEntries;
+    private final int round;
+    private final int stepIndex;
+    private final int[] stepRunCounts;
+    private final Map<String, Serializable> delegateStates = new HashMap<>();
+
+    Segment(final List<SerializationWriter> historyEntries, final GameData data) {
+      this.historyEntries = historyEntries;
+      data.acquireReadLock();
+      try {
+        final GameSequence sequence = data.getSequence();
+        round = sequence.getRound();
+        stepIndex = sequence.getStepIndex();
+        stepRunCounts = new int[sequence.size()];
+        for (int i = 0; i < stepRunCounts.length; i++) {
+          stepRunCounts[i] = sequence.getStep(i).getRunCount();
+        }
+        for (final IDelegate delegate : data.getDelegateList()) {
+          delegateStates.put(delegate.getName(), delegate.saveState());
+        }
+      } finally {
+        data.releaseReadLock();
+      }
+    }
+
+    void replay(final GameData data) throws IOException {
+      data.getHistory().replay(historyEntries);
+      data.acquireWriteLock();
+      try {
+        final GameSequence sequence = data.getSequence();
+        if (sequence.size() != stepRunCounts.length) {
+          throw new IOException("Auto save journal does not match the game sequence");
+        }
+        sequence.setRoundAndStepIndex(round, stepIndex);
+        for (int i = 0; i < stepRunCounts.length; i++) {
+          final GameStep step = sequence.getStep(i);
+          step.setRunCount(stepRunCounts[i]);
+        }
+      } finally {
+        data.releaseWriteLock();
+      }
+      for (final Map.Entry<String, Serializable> entry : delegateStates.entrySet()) {
+        final IDelegate delegate = data.getDelegateList().getDelegate(entry.getKey());
+        if (delegate != null) {
+          delegate.loadState(entry.getValue());
+        }
+      }
+    }
+  }
+
+  /**
+   * Stands in for the game data, which some delegate state refers to, so that it is not written to a segment.
+   */
+  private enum GameDataReference {
+    INSTANCE
+  }
+
+  private static final class SegmentOutputStream extends GameObjectOutputStream {
+    SegmentOutputStream(final OutputStream output) throws IOException {
+      super(output);
+    }
+
+    @Override
+    protected Object replaceObject(final Object obj) {
+      return (obj instanceof GameData) ? GameDataReference.INSTANCE : super.replaceObject(obj);
+    }
+  }
+
+  private static final class SegmentInputStream extends GameObjectInputStream {
+    SegmentInputStream(final GameObjectStreamFactory dataSource, final InputStream input) throws IOException {
+      super(dataSource, input);
+    }
+
+    @Override
+    protected Object resolveObject(final Object obj) {
+      return (obj == GameDataReference.INSTANCE) ? getData() : super.resolveObject(obj);
+    }
+  }
+}
@@ -1,7 +1,6 @@
 package games.strategy.engine.framework;
 
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.util.Map;
 import java.util.Set;
@@ -16,6 +15,7 @@ import games.strategy.engine.message.RemoteName;
 import games.strategy.engine.random.IRandomSource;
 import games.strategy.engine.random.IRemoteRandom;
 import games.strategy.engine.random.RemoteRandom;
+import games.strategy.io.FileUtils;
 import games.strategy.net.INode;
 import games.strategy.net.Messengers;
 import games.strategy.util.Interruptibles;
@@ -36,6 +36,17 @@ public class ClientGame extends AbstractGame {
         gameData.getHistory().getHistoryWriter().addChange(change);
       }
 
+      @Override
+      public void gameModified(final GameModifications modifications) {
+        // a single lock for the whole batch, rather than one for each change
+        gameData.acquireWriteLock();
+        try {
+          modifications.applyTo(this);
+        } finally {
+          gameData.releaseWriteLock();
+        }
+      }
+
       @Override
       public void startHistoryEvent(final String event, final Object renderingData) {
         startHistoryEvent(event);
@@ -200,8 +211,8 @@ public class ClientGame extends AbstractGame {
   public void saveGame(final File f) {
     final IServerRemote server = (IServerRemote) remoteMessenger.getRemote(ServerGame.SERVER_REMOTE);
     final byte[] bytes = server.getSavedGame();
-    try (FileOutputStream fout = new FileOutputStream(f)) {
-      fout.write(bytes);
+    try {
+      FileUtils.writeAtomically(f, os -> os.write(bytes));
     } catch (final IOException e) {
       throw new IllegalStateException(e);
     }
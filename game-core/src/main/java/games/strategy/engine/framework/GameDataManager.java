@@ -3,6 +3,9 @@ package games.strategy.engine.framework;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
@@ -11,17 +14,23 @@ import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.OutputStream;
 import java.io.Serializable;
+import java.util.Arrays;
+import java.util.zip.DeflaterOutputStream;
 import java.util.zip.GZIPInputStream;
-import java.util.zip.GZIPOutputStream;
+import java.util.zip.InflaterInputStream;
 
 import javax.swing.JOptionPane;
 
+import org.apache.commons.io.input.CloseShieldInputStream;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.io.ByteStreams;
+
 import games.strategy.engine.ClientContext;
 import games.strategy.engine.GameEngineVersion;
 import games.strategy.engine.data.GameData;
 import games.strategy.engine.delegate.IDelegate;
 import games.strategy.engine.framework.headlessGameServer.HeadlessGameServer;
-import games.strategy.io.IoUtils;
 import games.strategy.triplea.UrlConstants;
 import games.strategy.util.Version;
 
@@ -32,6 +41,19 @@ public final class GameDataManager {
   private static final String DELEGATE_START = "<DelegateStart>";
   private static final String DELEGATE_DATA_NEXT = "<DelegateData>";
   private static final String DELEGATE_LIST_END = "<EndDelegateList>";
+  /**
+   * The first bytes of every save game. Save games written before the header was introduced are GZIP streams, which
+   * start with 0x1f 0x8b instead.
+   */
+  private static final byte[] SAVE_GAME_MAGIC = {'T', 'S', 'A', 'V'};
+  @VisibleForTesting
+  static final int SAVE_GAME_FORMAT_VERSION = 1;
+  /**
+   * The format of save games written by {@link AutoSaveJournal}, in which the game data is followed by zero or more
+   * journal segments.
+   */
+  static final int JOURNALED_SAVE_GAME_FORMAT_VERSION = 2;
+  static final int BUFFER_SIZE = 64 * 1024;
 
   private GameDataManager() {}
 
@@ -66,54 +88,114 @@ public final class GameDataManager {
   public static GameData loadGame(final InputStream is) throws IOException {
     checkNotNull(is);
 
-    final ObjectInputStream input = new ObjectInputStream(new GZIPInputStream(is));
+    final InputStream input = is.markSupported() ? is : new BufferedInputStream(is);
+    if (!hasSaveGameHeader(input)) {
+      return loadLegacyGame(input);
+    }
+    final DataInputStream header = new DataInputStream(input);
+    header.readFully(new byte[SAVE_GAME_MAGIC.length]);
+    final int formatVersion = header.readInt();
+    if (formatVersion > JOURNALED_SAVE_GAME_FORMAT_VERSION) {
+      throw new IOException("Unsupported save game format: " + formatVersion
+          + "\nTo download the latest version of TripleA, Please visit " + UrlConstants.LATEST_GAME_DOWNLOAD_WEBSITE);
+    }
+    if (!isCompatibleEngineVersion(new Version(header.readUTF()))) {
+      return null;
+    }
+    // closing the streams releases the inflater, but must not close the stream of the caller
+    try (InputStream inflater = new InflaterInputStream(new CloseShieldInputStream(input));
+        ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(inflater, BUFFER_SIZE))) {
+      final GameData data = readGameData(in);
+      if (formatVersion == JOURNALED_SAVE_GAME_FORMAT_VERSION) {
+        AutoSaveJournal.replay(in, data);
+      }
+      return data;
+    } catch (final ClassNotFoundException cnfe) {
+      throw new IOException(cnfe.getMessage());
+    }
+  }
+
+  private static boolean hasSaveGameHeader(final InputStream is) throws IOException {
+    final byte[] magic = new byte[SAVE_GAME_MAGIC.length];
+    is.mark(magic.length);
     try {
+      return ByteStreams.read(is, magic, 0, magic.length) == magic.length && Arrays.equals(magic, SAVE_GAME_MAGIC);
+    } finally {
+      is.reset();
+    }
+  }
+
+  /**
+   * Loads a save game written before the save game header was introduced, which is a GZIP stream containing the
+   * serialized engine version followed by the game data.
+   */
+  private static GameData loadLegacyGame(final InputStream is) throws IOException {
+    try (InputStream inflater = new GZIPInputStream(new CloseShieldInputStream(is));
+        ObjectInputStream input = new ObjectInputStream(inflater)) {
       final Version readVersion = (Version) input.readObject();
-      final boolean headless = HeadlessGameServer.headless();
-      if (!GameEngineVersion.of(ClientContext.engineVersion()).isCompatibleWithEngineVersion(readVersion)) {
-        // a hack for now, but a headless server should not try to open any savegame that is not its version
-        if (headless) {
-          final String message = "Incompatible game save, we are: " + ClientContext.engineVersion()
-              + "  Trying to load game created with: " + readVersion;
-          HeadlessGameServer.sendChat(message);
-          System.out.println(message);
-          return null;
-        }
-        final String error = "Incompatible engine versions. We are: "
-            + ClientContext.engineVersion() + " . Trying to load game created with: " + readVersion
-            + "\nTo download the latest version of TripleA, Please visit "
-            + UrlConstants.LATEST_GAME_DOWNLOAD_WEBSITE;
-        throw new IOException(error);
-      } else if (!headless && readVersion.isGreaterThan(ClientContext.engineVersion())) {
-        // we can still load it because our engine is compatible, however this save was made by a
-        // newer engine, so prompt the user to upgrade
-        final String messageString =
-            "Your TripleA engine is OUT OF DATE.  This save was made by a newer version of TripleA."
-                + "\nHowever, because the first 3 version numbers are the same as your current version, we can "
-                + "still open the savegame."
-                + "\n\nThis TripleA engine is version "
-                + ClientContext.engineVersion().toStringFull()
-                + " and you are trying to open a savegame made with version " + readVersion.toStringFull()
-                + "\n\nTo download the latest version of TripleA, Please visit "
-                + UrlConstants.LATEST_GAME_DOWNLOAD_WEBSITE
-                + "\n\nIt is recommended that you upgrade to the latest version of TripleA before playing this "
-                + "savegame."
-                + "\n\nDo you wish to continue and open this save with your current 'old' version?";
-        final int answer =
-            JOptionPane.showConfirmDialog(null, messageString, "Open Newer Save Game?", JOptionPane.YES_NO_OPTION);
-        if (answer != JOptionPane.YES_OPTION) {
-          return null;
-        }
+      if (!isCompatibleEngineVersion(readVersion)) {
+        return null;
       }
-      final GameData data = (GameData) input.readObject();
-      loadDelegates(input, data);
-      data.postDeSerialize();
-      return data;
+      return readGameData(input);
     } catch (final ClassNotFoundException cnfe) {
       throw new IOException(cnfe.getMessage());
     }
   }
 
+  /**
+   * @return {@code false} if a save game written by the specified engine version should not be loaded.
+   *
+   * @throws IOException If the save game is incompatible with this engine.
+   */
+  private static boolean isCompatibleEngineVersion(final Version readVersion) throws IOException {
+    final boolean headless = HeadlessGameServer.headless();
+    if (!GameEngineVersion.of(ClientContext.engineVersion()).isCompatibleWithEngineVersion(readVersion)) {
+      // a hack for now, but a headless server should not try to open any savegame that is not its version
+      if (headless) {
+        final String message = "Incompatible game save, we are: " + ClientContext.engineVersion()
+            + "  Trying to load game created with: " + readVersion;
+        HeadlessGameServer.sendChat(message);
+        System.out.println(message);
+        return false;
+      }
+      final String error = "Incompatible engine versions. We are: "
+          + ClientContext.engineVersion() + " . Trying to load game created with: " + readVersion
+          + "\nTo download the latest version of TripleA, Please visit "
+          + UrlConstants.LATEST_GAME_DOWNLOAD_WEBSITE;
+      throw new IOException(error);
+    } else if (!headless && readVersion.isGreaterThan(ClientContext.engineVersion())) {
+      // we can still load it because our engine is compatible, however this save was made by a
+      // newer engine, so prompt the user to upgrade
+      final String messageString =
+          "Your TripleA engine is OUT OF DATE.  This save was made by a newer version of TripleA."
+              + "\nHowever, because the first 3 version numbers are the same as your current version, we can "
+              + "still open the savegame."
+              + "\n\nThis TripleA engine is version "
+              + ClientContext.engineVersion().toStringFull()
+              + " and you are trying to open a savegame made with version " + readVersion.toStringFull()
+              + "\n\nTo download the latest version of TripleA, Please visit "
+              + UrlConstants.LATEST_GAME_DOWNLOAD_WEBSITE
+              + "\n\nIt is recommended that you upgrade to the latest version of TripleA before playing this "
+              + "savegame."
+              + "\n\nDo you wish to continue and open this save with your current 'old' version?";
+      final int answer =
+          JOptionPane.showConfirmDialog(null, messageString, "Open Newer Save Game?", JOptionPane.YES_NO_OPTION);
+      return answer == JOptionPane.YES_OPTION;
+    }
+    return true;
+  }
+
+  /**
+   * Reads the game data and delegate list that were written by {@link #writeGameData(ObjectOutputStream, GameData,
+   * boolean)}. Unlike {@link #loadGame(InputStream)}, no engine version header or compression is expected.
+   */
+  static GameData readGameData(final ObjectInputStream input) throws ClassNotFoundException, IOException {
+    final GameData data = (GameData) input.readObject();
+    loadDelegates(input, data);
+    data.postDeSerialize();
+    return data;
+  }
+
   private static void loadDelegates(final ObjectInputStream input, final GameData data)
       throws ClassNotFoundException, IOException {
     for (Object endMarker = input.readObject(); !endMarker.equals(DELEGATE_LIST_END); endMarker = input.readObject()) {
@@ -151,32 +233,47 @@ public final class GameDataManager {
     saveGame(os, gameData, true);
   }
 
+  /**
+   * Writes a save game, which consists of an uncompressed header (the save game magic, the format version and the
+   * engine version) followed by the deflated game data. The game data is streamed to {@code sink} as it is
+   * serialized, so the save game is never held in memory.
+   */
   static void saveGame(
       final OutputStream sink,
       final GameData data,
       final boolean saveDelegateInfo)
       throws IOException {
-    // write internally first in case of error
-    final byte[] bytes = IoUtils.writeToMemory(os -> {
-      try (ObjectOutputStream outStream = new ObjectOutputStream(os)) {
-        outStream.writeObject(ClientContext.engineVersion());
-        data.acquireReadLock();
-        try {
-          outStream.writeObject(data);
-          if (saveDelegateInfo) {
-            writeDelegates(data, outStream);
-          } else {
-            outStream.writeObject(DELEGATE_LIST_END);
-          }
-        } finally {
-          data.releaseReadLock();
-        }
-      }
-    });
+    writeSaveGameHeader(sink, SAVE_GAME_FORMAT_VERSION);
+    try (ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(new DeflaterOutputStream(sink),
+        BUFFER_SIZE))) {
+      writeGameData(out, data, saveDelegateInfo);
+    }
+  }
+
+  static void writeSaveGameHeader(final OutputStream sink, final int formatVersion) throws IOException {
+    final DataOutputStream header = new DataOutputStream(sink);
+    header.write(SAVE_GAME_MAGIC);
+    header.writeInt(formatVersion);
+    header.writeUTF(ClientContext.engineVersion().getExactVersion());
+    header.flush();
+  }
 
-    // now write to file
-    try (OutputStream zippedOut = new GZIPOutputStream(sink)) {
-      zippedOut.write(bytes);
+  /**
+   * Writes the game data and, optionally, its delegate state to the specified stream while holding the game data's
+   * read lock. The engine version header and compression are left to the caller.
+   */
+  static void writeGameData(final ObjectOutputStream out, final GameData data, final boolean saveDelegateInfo)
+      throws IOException {
+    data.acquireReadLock();
+    try {
+      out.writeObject(data);
+      if (saveDelegateInfo) {
+        writeDelegates(data, out);
+      } else {
+        out.writeObject(DELEGATE_LIST_END);
+      }
+    } finally {
+      data.releaseReadLock();
     }
   }
 
@@ -0,0 +1,76 @@
+package games.strategy.engine.framework;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import games.strategy.engine.data.GameData;
+import games.strategy.io.IoUtils;
+
+/**
+ * An immutable, in-memory image of a {@link GameData} instance taken at a single point in time.
+ *
+ * <p>
+ * A snapshot is captured once (while holding the game data's read lock) and can then produce any number of
+ * independent copies of the game data without touching the original again. Unlike a save game, the image is neither
+ * compressed nor tagged with an engine version, so capturing and restoring it only pays for object serialization.
+ * </p>
+ *
+ * <p>
+ * Instances of this class are thread safe; {@link #newGameData()} may be called concurrently from multiple threads.
+ * </p>
+ */
+public final class GameDataSnapshot {
+  private final byte[] bytes;
+
+  private GameDataSnapshot(final byte[] bytes) {
+    this.bytes = bytes;
+  }
+
+  /**
+   * Captures a snapshot of the specified game data.
+   *
+   * @param data The game data to capture.
+   * @param copyDelegates {@code true} if the delegates and their state should be included in the snapshot.
+   *
+   * @return A new snapshot of {@code data}.
+   *
+   * @throws IOException If the game data cannot be captured.
+   */
+  public static GameDataSnapshot of(final GameData data, final boolean copyDelegates) throws IOException {
+    checkNotNull(data);
+
+    return new GameDataSnapshot(IoUtils.writeToMemory(os -> {
+      try (ObjectOutputStream out = new ObjectOutputStream(os)) {
+        GameDataManager.writeGameData(out, data, copyDelegates);
+      }
+    }));
+  }
+
+  /**
+   * Creates a new copy of the game data captured by this snapshot. Each call returns an instance that shares no
+   * mutable state with the original game data or with any other copy.
+   *
+   * @return A new copy of the captured game data.
+   *
+   * @throws IOException If the game data cannot be restored.
+   */
+  public GameData newGameData() throws IOException {
+    return IoUtils.readFromMemory(bytes, is -> {
+      try (ObjectInputStream in = new ObjectInputStream(is)) {
+        return GameDataManager.readGameData(in);
+      } catch (final ClassNotFoundException e) {
+        throw new IOException(e);
+      }
+    });
+  }
+
+  /**
+   * @return The size of this snapshot in bytes.
+   */
+  public int size() {
+    return bytes.length;
+  }
+}
@@ -0,0 +1,114 @@
+package games.strategy.engine.framework;
+
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+import games.strategy.engine.data.Change;
+import games.strategy.engine.data.PlayerID;
+import games.strategy.engine.history.IDelegateHistoryWriter;
+
+/**
+ * Makes the changes and history events of the server, batching the ones made while a delegate executes.
+ *
+ * <p>
+ * Every modification is made on the game data of the server right away, as delegates read back what they changed. It
+ * is only broadcast to the other nodes as part of {@link GameModifications}, which is sent when {@link #flush()} is
+ * called, and before any modification made while no delegate executes. Step changes and the shutdown are broadcast
+ * after the pending modifications, so every node sees all of the game modifications in the order they were made.
+ * </p>
+ *
+ * <p>
+ * Delegates write their history events through the batcher, as it is their {@link IDelegateHistoryWriter}.
+ * </p>
+ */
+final class GameModificationBatcher implements IDelegateHistoryWriter {
+  private final IGameModifiedChannel gameDataModifier;
+  private final Supplier<IGameModifiedChannel> broadcaster;
+  private final BooleanSupplier batching;
+  private final Object mutex = new Object();
+  // guarded by mutex
+  private GameModifications pending = new GameModifications();
+
+  /**
+   * @param gameDataModifier Makes the modifications on the game data of the server.
+   * @param broadcaster Supplies the broadcaster of the game modification channel.
+   * @param batching Tells whether the current thread should batch its modifications.
+   */
+  GameModificationBatcher(final IGameModifiedChannel gameDataModifier,
+      final Supplier<IGameModifiedChannel> broadcaster, final BooleanSupplier batching) {
+    this.gameDataModifier = gameDataModifier;
+    this.broadcaster = broadcaster;
+    this.batching = batching;
+  }
+
+  void addChange(final Change change) {
+    synchronized (mutex) {
+      gameDataModifier.gameDataChanged(change);
+      pending.addChange(change);
+      flushUnlessBatching();
+    }
+  }
+
+  @Override
+  public void startEvent(final String eventName, final Object renderingData) {
+    synchronized (mutex) {
+      gameDataModifier.startHistoryEvent(eventName, renderingData);
+      pending.addHistoryEvent(eventName, renderingData);
+      flushUnlessBatching();
+    }
+  }
+
+  @Override
+  public void startEvent(final String eventName) {
+    startEvent(eventName, null);
+  }
+
+  @Override
+  public void addChildToEvent(final String child, final Object renderingData) {
+    synchronized (mutex) {
+      gameDataModifier.addChildToEvent(child, renderingData);
+      pending.addHistoryEventChild(child, renderingData);
+      flushUnlessBatching();
+    }
+  }
+
+  @Override
+  public void addChildToEvent(final String child) {
+    addChildToEvent(child, null);
+  }
+
+  void stepChanged(final String stepName, final String delegateName, final PlayerID player, final int round,
+      final String displayName, final boolean loadedFromSavedGame) {
+    synchronized (mutex) {
+      flush();
+      broadcaster.get().stepChanged(stepName, delegateName, player, round, displayName, loadedFromSavedGame);
+    }
+  }
+
+  void shutDown() {
+    synchronized (mutex) {
+      flush();
+      broadcaster.get().shutDown();
+    }
+  }
+
+  private void flushUnlessBatching() {
+    if (!batching.getAsBoolean()) {
+      flush();
+    }
+  }
+
+  /**
+   * Broadcasts the pending modifications, if any.
+   */
+  void flush() {
+    synchronized (mutex) {
+      if (pending.isEmpty()) {
+        return;
+      }
+      final GameModifications modifications = pending;
+      pending = new GameModifications();
+      broadcaster.get().gameModified(modifications);
+    }
+  }
+}
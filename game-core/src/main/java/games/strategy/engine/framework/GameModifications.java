@@ -0,0 +1,158 @@
+package games.strategy.engine.framework;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+import games.strategy.engine.data.Change;
+import games.strategy.engine.data.GameObjectInputStream;
+import games.strategy.engine.data.GameObjectOutputStream;
+
+/**
+ * An ordered batch of changes and history events, sent over the {@link IGameModifiedChannel} as a single message.
+ *
+ * <p>
+ * A single move or placement makes many changes and history events. The server collects the ones a delegate makes
+ * while it executes, and sends them together once the delegate is done or calls out to a player.
+ * </p>
+ *
+ * <p>
+ * Each modification is serialized as soon as it is added, so the batch sends the changes and rendering data as they
+ * were when they were made, even if the objects are changed before the batch is sent.
+ * </p>
+ */
+public final class GameModifications implements Serializable {
+  private static final long serialVersionUID = -2367183606553208371L;
+
+  // the modifications as they were added, to be made on the channels of this node
+  private transient List<Modification> modifications = new ArrayList<>();
+  // the modifications serialized when they were added, to be sent to the other nodes
+  private transient ByteArrayOutputStream serializedModifications = new ByteArrayOutputStream();
+  private transient ObjectOutputStream serializedModificationsOutput;
+
+  private interface Modification extends Serializable {
+    void applyTo(IGameModifiedChannel channel);
+  }
+
+  private static final class GameDataChange implements Modification {
+    private static final long serialVersionUID = 3416457640744834297L;
+    private final Change change;
+
+    GameDataChange(final Change change) {
+      this.change = change;
+    }
+
+    @Override
+    public void applyTo(final IGameModifiedChannel channel) {
+      channel.gameDataChanged(change);
+    }
+  }
+
+  private static final class HistoryEvent implements Modification {
+    private static final long serialVersionUID = -4766001498466376612L;
+    private final String event;
+    private final Object renderingData;
+
+    HistoryEvent(final String event, final Object renderingData) {
+      this.event = event;
+      this.renderingData = renderingData;
+    }
+
+    @Override
+    public void applyTo(final IGameModifiedChannel channel) {
+      channel.startHistoryEvent(event, renderingData);
+    }
+  }
+
+  private static final class HistoryEventChild implements Modification {
+    private static final long serialVersionUID = 6917934618301867043L;
+    private final String text;
+    private final Object renderingData;
+
+    HistoryEventChild(final String text, final Object renderingData) {
+      this.text = text;
+      this.renderingData = renderingData;
+    }
+
+    @Override
+    public void applyTo(final IGameModifiedChannel channel) {
+      channel.addChildToEvent(text, renderingData);
+    }
+  }
+
+  void addChange(final Change change) {
+    add(new GameDataChange(change));
+  }
+
+  void addHistoryEvent(final String event, final Object renderingData) {
+    add(new HistoryEvent(event, renderingData));
+  }
+
+  void addHistoryEventChild(final String text, final Object renderingData) {
+    add(new HistoryEventChild(text, renderingData));
+  }
+
+  private void add(final Modification modification) {
+    try {
+      if (serializedModificationsOutput == null) {
+        serializedModificationsOutput = new GameObjectOutputStream(serializedModifications);
+      }
+      serializedModificationsOutput.writeObject(modification);
+    } catch (final IOException e) {
+      throw new IllegalStateException("Failed to serialize game modification: " + modification, e);
+    }
+    modifications.add(modification);
+  }
+
+  boolean isEmpty() {
+    return modifications.isEmpty();
+  }
+
+  /**
+   * Makes the modifications of this batch on the specified channel, in the order they were made.
+   */
+  public void applyTo(final IGameModifiedChannel channel) {
+    for (final Modification modification : modifications) {
+      modification.applyTo(channel);
+    }
+  }
+
+  private void writeObject(final ObjectOutputStream out) throws IOException {
+    out.defaultWriteObject();
+    out.writeInt(modifications.size());
+    if (serializedModificationsOutput != null) {
+      serializedModificationsOutput.flush();
+    }
+    out.writeObject(serializedModifications.toByteArray());
+  }
+
+  private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException {
+    in.defaultReadObject();
+    final int count = in.readInt();
+    final byte[] bytes = (byte[]) in.readObject();
+    modifications = new ArrayList<>(count);
+    if (count > 0) {
+      // game objects are resolved against the game data of the stream the batch is read from
+      final ByteArrayInputStream input = new ByteArrayInputStream(bytes);
+      try (ObjectInputStream modificationsInput = (in instanceof GameObjectInputStream)
+          ? new GameObjectInputStream(new GameObjectStreamFactory(((GameObjectInputStream) in).getData()), input)
+          : new ObjectInputStream(input)) {
+        for (int i = 0; i < count; i++) {
+          modifications.add((Modification) modificationsInput.readObject());
+        }
+      }
+    }
+    serializedModifications = new ByteArrayOutputStream();
+    serializedModifications.write(bytes);
+  }
+
+  @Override
+  public String toString() {
+    return "GameModifications[" + modifications.size() + "]";
+  }
+}
@@ -19,6 +19,7 @@ import static games.strategy.engine.framework.ArgParser.CliProperties.TRIPLEA_MA
 import static games.strategy.engine.framework.ArgParser.CliProperties.TRIPLEA_NAME;
 import static games.strategy.engine.framework.ArgParser.CliProperties.TRIPLEA_PORT;
 import static games.strategy.engine.framework.ArgParser.CliProperties.TRIPLEA_SERVER;
+import static games.strategy.engine.framework.ArgParser.CliProperties.TRIPLEA_SERVER_GAME_DATA_CACHE_SIZE;
 import static games.strategy.engine.framework.ArgParser.CliProperties.TRIPLEA_SERVER_OBSERVER_JOIN_WAIT_TIME;
 import static games.strategy.engine.framework.ArgParser.CliProperties.TRIPLEA_SERVER_START_GAME_SYNC_WAIT_TIME;
 import static games.strategy.engine.framework.ArgParser.CliProperties.TRIPLEA_STARTED;
@@ -60,6 +61,7 @@ import games.strategy.engine.ClientContext;
 import games.strategy.engine.GameEngineVersion;
 import games.strategy.engine.chat.Chat;
 import games.strategy.engine.framework.lookandfeel.LookAndFeel;
+import games.strategy.engine.framework.map.MapCatalog;
 import games.strategy.engine.framework.map.download.DownloadMapsWindow;
 import games.strategy.engine.framework.map.download.MapDownloadController;
 import games.strategy.engine.framework.startup.mc.GameSelectorModel;
@@ -153,6 +155,7 @@ public class GameRunner {
       showMainFrame();
       new Thread(GameRunner::checkLocalSystem).start();
       new Thread(GameRunner::checkForUpdates).start();
+      MapCatalog.getInstance().startWatching();
     }
   }
 
@@ -334,6 +337,7 @@ public class GameRunner {
         + LOBBY_RECONNECTION_REFRESH_SECONDS_MINIMUM + "]>\n"
         + "   " + TRIPLEA_SERVER_START_GAME_SYNC_WAIT_TIME + "=<seconds to wait for all clients to start the game>\n"
         + "   " + TRIPLEA_SERVER_OBSERVER_JOIN_WAIT_TIME + "=<seconds to wait for an observer joining the game>\n"
+        + "   " + TRIPLEA_SERVER_GAME_DATA_CACHE_SIZE + "=<number of parsed games to keep in memory, 0 to disable>\n"
         + "   " + MAP_FOLDER + "=mapFolder"
         + "\n"
         + "   You must start the Name and HostedBy with \"Bot\".\n"
@@ -51,6 +51,11 @@ public class HistorySynchronizer {
       });
     }
 
+    @Override
+    public void gameModified(final GameModifications modifications) {
+      modifications.applyTo(this);
+    }
+
     @Override
     public void startHistoryEvent(final String event, final Object renderingData) {
       startHistoryEvent(event);
@@ -17,6 +17,11 @@ public interface IGameModifiedChannel extends IChannelSubscribor {
   // public void setRenderingData(final Object renderingData);
   void addChildToEvent(final String text, final Object renderingData);
 
+  /**
+   * Makes a batch of changes and history events, in order.
+   */
+  void gameModified(final GameModifications modifications);
+
   /**
    * @param loadedFromSavedGame
    *        - true if the game step has changed because we were loaded from a saved game.
@@ -0,0 +1,154 @@
+package games.strategy.engine.framework;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.DeflaterOutputStream;
+
+import com.google.common.annotations.VisibleForTesting;
+
+import games.strategy.engine.data.GameData;
+import games.strategy.engine.history.SerializationWriter;
+
+/**
+ * The save game sent to observers joining a running game.
+ *
+ * <p>
+ * The first join serializes the whole game once, as a journaled save game held in memory. Each later join only appends
+ * a journal segment (see {@link AutoSaveJournal}) with what was written to the game history since the previous join,
+ * so joining late in a long game no longer makes the server serialize the whole game and its history again. After a
+ * fixed number of segments, or if no observer joined while the history grew a lot, the next join writes the save game
+ * from scratch, which bounds both the memory held and the work of the joining client.
+ * </p>
+ *
+ * <p>
+ * The history is recorded from the first join until the game ends. The recording listener is not part of the game
+ * data, so saving or copying the game while it is registered works as before.
+ * </p>
+ *
+ * <p>
+ * Clients load the save game with {@link GameDataManager#loadGame(InputStream)}, which replays the segments.
+ * </p>
+ */
+final class JoinSnapshot implements Closeable {
+  @VisibleForTesting
+  static final int SEGMENTS_PER_SNAPSHOT = 50;
+  private static final int MAX_PENDING_HISTORY_ENTRIES = 20_000;
+
+  private final GameData data;
+  private final int segmentsPerSnapshot;
+  // the history written since the last join, guarded by itself, as history is written while holding the data lock
+  private final List<SerializationWriter> historyEntries = new ArrayList<>();
+  private boolean historyOverflowed = false;
+  private final Consumer<SerializationWriter> historyListener = this::addHistoryEntry;
+  // the save game, guarded by this
+  private ByteArrayOutputStream sink;
+  private ObjectOutputStream out;
+  private int segmentCount = 0;
+
+  JoinSnapshot(final GameData data) {
+    this(data, SEGMENTS_PER_SNAPSHOT);
+  }
+
+  @VisibleForTesting
+  JoinSnapshot(final GameData data, final int segmentsPerSnapshot) {
+    this.data = data;
+    this.segmentsPerSnapshot = segmentsPerSnapshot;
+  }
+
+  private void addHistoryEntry(final SerializationWriter entry) {
+    synchronized (historyEntries) {
+      if (historyOverflowed) {
+        return;
+      } else if (historyEntries.size() < MAX_PENDING_HISTORY_ENTRIES) {
+        historyEntries.add(entry);
+      } else {
+        // cheaper to write the whole game again than to hold on to this much history
+        historyOverflowed = true;
+        historyEntries.clear();
+      }
+    }
+  }
+
+  /**
+   * @return The history written since the last call, or null if too much history was written to keep it.
+   */
+  private List<SerializationWriter> drainHistoryEntries() {
+    synchronized (historyEntries) {
+      if (historyOverflowed) {
+        return null;
+      }
+      final List<SerializationWriter> entries = new ArrayList<>(historyEntries);
+      historyEntries.clear();
+      return entries;
+    }
+  }
+
+  /**
+   * @return The current game as a save game. Must not be called while delegates are executing, as the game data, its
+   *         history and the delegate state have to stay the same while the save game is captured.
+   */
+  synchronized byte[] getSaveGame() throws IOException {
+    try {
+      final List<SerializationWriter> entries = drainHistoryEntries();
+      if (out == null || segmentCount >= segmentsPerSnapshot || entries == null) {
+        writeSnapshot();
+      } else {
+        out.writeUnshared(AutoSaveJournal.newSegment(entries, data));
+        out.flush();
+        segmentCount++;
+      }
+      return sink.toByteArray();
+    } catch (final IOException | RuntimeException e) {
+      reset();
+      throw e;
+    }
+  }
+
+  private void writeSnapshot() throws IOException {
+    reset();
+    sink = new ByteArrayOutputStream();
+    GameDataManager.writeSaveGameHeader(sink, GameDataManager.JOURNALED_SAVE_GAME_FORMAT_VERSION);
+    // sync flushing lets every flushed segment be read back even though the deflater is never finished
+    out = new ObjectOutputStream(
+        new BufferedOutputStream(new DeflaterOutputStream(sink, true), GameDataManager.BUFFER_SIZE));
+    GameDataManager.writeGameData(out, data, true);
+    // the segments never refer back to the game data, so there is no need to remember what was written
+    out.reset();
+    out.flush();
+    data.getHistory().getHistoryWriter().addListener(historyListener);
+  }
+
+  /**
+   * @return The number of segments appended to the save game since it was last written from scratch.
+   */
+  @VisibleForTesting
+  synchronized int getSegmentCount() {
+    return segmentCount;
+  }
+
+  private synchronized void reset() {
+    data.getHistory().getHistoryWriter().removeListener(historyListener);
+    synchronized (historyEntries) {
+      historyEntries.clear();
+      historyOverflowed = false;
+    }
+    sink = null;
+    out = null;
+    segmentCount = 0;
+  }
+
+  /**
+   * Stops recording the history and drops the save game.
+   */
+  @Override
+  public void close() {
+    reset();
+  }
+}
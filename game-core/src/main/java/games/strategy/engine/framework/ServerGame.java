@@ -1,7 +1,6 @@
 package games.strategy.engine.framework;
 
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.util.Collection;
@@ -32,7 +31,6 @@ import games.strategy.engine.framework.startup.mc.IObserverWaitingToJoin;
 import games.strategy.engine.framework.startup.ui.InGameLobbyWatcherWrapper;
 import games.strategy.engine.framework.ui.SaveGameFileChooser;
 import games.strategy.engine.gamePlayer.IGamePlayer;
-import games.strategy.engine.history.DelegateHistoryWriter;
 import games.strategy.engine.history.Event;
 import games.strategy.engine.history.EventChild;
 import games.strategy.engine.history.HistoryNode;
@@ -45,6 +43,7 @@ import games.strategy.engine.random.IRandomSource;
 import games.strategy.engine.random.IRemoteRandom;
 import games.strategy.engine.random.PlainRandomSource;
 import games.strategy.engine.random.RandomStats;
+import games.strategy.io.FileUtils;
 import games.strategy.io.IoUtils;
 import games.strategy.net.INode;
 import games.strategy.net.Messengers;
@@ -78,6 +77,15 @@ public class ServerGame extends AbstractGame {
    * Has the delegate signaled that delegate execution should stop.
    */
   private volatile boolean delegateExecutionStopped = false;
+  /**
+   * Appends to the auto save files instead of rewriting them. Only created if incremental auto saves are enabled.
+   */
+  private AutoSaveJournal autoSaveJournal;
+  private final JoinSnapshot joinSnapshot;
+  /**
+   * Makes the changes and history events of the delegates, and broadcasts them in batches.
+   */
+  private final GameModificationBatcher gameModificationBatcher;
 
   /**
    * @param data
@@ -92,14 +100,57 @@ public class ServerGame extends AbstractGame {
   public ServerGame(final GameData data, final Set<IGamePlayer> localPlayers,
       final Map<String, INode> remotePlayerMapping, final Messengers messengers) {
     super(data, localPlayers, remotePlayerMapping, messengers);
-    gameModifiedChannel = new IGameModifiedChannel() {
+    joinSnapshot = new JoinSnapshot(data);
+    final IGameModifiedChannel gameDataModifier = new IGameModifiedChannel() {
       @Override
       public void gameDataChanged(final Change change) {
-        assertCorrectCaller();
         gameData.performChange(change);
         gameData.getHistory().getHistoryWriter().addChange(change);
       }
 
+      @Override
+      public void startHistoryEvent(final String event, final Object renderingData) {
+        startHistoryEvent(event);
+        if (renderingData != null) {
+          gameData.getHistory().getHistoryWriter().setRenderingData(renderingData);
+        }
+      }
+
+      @Override
+      public void startHistoryEvent(final String event) {
+        gameData.getHistory().getHistoryWriter().startEvent(event);
+      }
+
+      @Override
+      public void addChildToEvent(final String text, final Object renderingData) {
+        gameData.getHistory().getHistoryWriter().addChildToEvent(new EventChild(text, renderingData));
+      }
+
+      @Override
+      public void gameModified(final GameModifications modifications) {
+        modifications.applyTo(this);
+      }
+
+      @Override
+      public void stepChanged(final String stepName, final String delegateName, final PlayerID player, final int round,
+          final String displayName, final boolean loadedFromSavedGame) {
+        if (loadedFromSavedGame) {
+          return;
+        }
+        gameData.getHistory().getHistoryWriter().startNextStep(stepName, delegateName, player, displayName);
+      }
+
+      // nothing to do, we call this
+      @Override
+      public void shutDown() {}
+    };
+    gameModifiedChannel = new IGameModifiedChannel() {
+      @Override
+      public void gameDataChanged(final Change change) {
+        assertCorrectCaller();
+        gameDataModifier.gameDataChanged(change);
+      }
+
       private void assertCorrectCaller() {
         if (!MessageContext.getSender().equals(getMessenger().getServerNode())) {
           throw new IllegalStateException("Only server can change game data");
@@ -108,43 +159,42 @@ public class ServerGame extends AbstractGame {
 
       @Override
       public void startHistoryEvent(final String event, final Object renderingData) {
-        startHistoryEvent(event);
-        if (renderingData != null) {
-          setRenderingData(renderingData);
-        }
+        assertCorrectCaller();
+        gameDataModifier.startHistoryEvent(event, renderingData);
       }
 
       @Override
       public void startHistoryEvent(final String event) {
         assertCorrectCaller();
-        gameData.getHistory().getHistoryWriter().startEvent(event);
+        gameDataModifier.startHistoryEvent(event);
       }
 
       @Override
       public void addChildToEvent(final String text, final Object renderingData) {
         assertCorrectCaller();
-        gameData.getHistory().getHistoryWriter().addChildToEvent(new EventChild(text, renderingData));
+        gameDataModifier.addChildToEvent(text, renderingData);
       }
 
-      void setRenderingData(final Object renderingData) {
+      // the modifications were made on our game data before they were batched
+      @Override
+      public void gameModified(final GameModifications modifications) {
         assertCorrectCaller();
-        gameData.getHistory().getHistoryWriter().setRenderingData(renderingData);
       }
 
       @Override
       public void stepChanged(final String stepName, final String delegateName, final PlayerID player, final int round,
           final String displayName, final boolean loadedFromSavedGame) {
         assertCorrectCaller();
-        if (loadedFromSavedGame) {
-          return;
-        }
-        gameData.getHistory().getHistoryWriter().startNextStep(stepName, delegateName, player, displayName);
+        gameDataModifier.stepChanged(stepName, delegateName, player, round, displayName, loadedFromSavedGame);
       }
 
       // nothing to do, we call this
       @Override
       public void shutDown() {}
     };
+    gameModificationBatcher = new GameModificationBatcher(gameDataModifier, this::getGameModifiedBroadcaster,
+        delegateExecutionManager::isDelegateExecutingOnCurrentThread);
+    delegateExecutionManager.addLeaveDelegateExecutionListener(gameModificationBatcher::flush);
     channelMessenger.registerChannelSubscriber(gameModifiedChannel, IGame.GAME_MODIFICATION_CHANNEL);
     setupDelegateMessaging(data);
     randomStats = new RandomStats(remoteMessenger);
@@ -172,7 +222,7 @@ public class ServerGame extends AbstractGame {
     }
     try {
       final CountDownLatch waitOnObserver = new CountDownLatch(1);
-      final byte[] bytes = IoUtils.writeToMemory(this::saveGame);
+      final byte[] bytes = joinSnapshot.getSaveGame();
       new Thread(() -> {
         try {
           blockingObserver.joinGame(bytes, playerManager.getPlayerMapping());
@@ -307,11 +357,15 @@ public class ServerGame extends AbstractGame {
     // shutdown
     try {
       delegateExecutionManager.setGameOver();
-      getGameModifiedBroadcaster().shutDown();
+      gameModificationBatcher.shutDown();
       randomStats.shutDown();
       channelMessenger.unregisterChannelSubscriber(gameModifiedChannel, IGame.GAME_MODIFICATION_CHANNEL);
       remoteMessenger.unregisterRemote(SERVER_REMOTE);
       vault.shutDown();
+      if (autoSaveJournal != null) {
+        autoSaveJournal.close();
+      }
+      joinSnapshot.close();
       for (final IGamePlayer gp : gamePlayers.values()) {
         remoteMessenger.unregisterRemote(getRemoteName(gp.getPlayerId(), gameData));
       }
@@ -340,7 +394,34 @@ public class ServerGame extends AbstractGame {
     if (!autoSaveDir.exists()) {
       autoSaveDir.mkdirs();
     }
-    saveGame(new File(autoSaveDir, fileName));
+    final File file = new File(autoSaveDir, fileName);
+    if (ClientSetting.INCREMENTAL_AUTO_SAVE.booleanValue()) {
+      appendToAutoSave(file);
+    } else {
+      saveGame(file);
+    }
+  }
+
+  private void appendToAutoSave(final File file) {
+    try {
+      if (!delegateExecutionManager.blockDelegateExecution(6000)) {
+        ClientLogger.logQuietly("Could not lock delegate execution to save game to file: " + file.getAbsolutePath());
+        return;
+      }
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return;
+    }
+    try {
+      if (autoSaveJournal == null) {
+        autoSaveJournal = new AutoSaveJournal(gameData);
+      }
+      autoSaveJournal.save(file);
+    } catch (final IOException e) {
+      ClientLogger.logQuietly("Failed to save game to file: " + file.getAbsolutePath(), e);
+    } finally {
+      delegateExecutionManager.resumeDelegateExecution();
+    }
   }
 
   private void autoSaveBefore(final IDelegate currentDelegate) {
@@ -354,8 +435,8 @@ public class ServerGame extends AbstractGame {
 
   @Override
   public void saveGame(final File f) {
-    try (FileOutputStream fout = new FileOutputStream(f)) {
-      saveGame(fout);
+    try {
+      FileUtils.writeAtomically(f, this::saveGame);
     } catch (final IOException e) {
       ClientLogger.logQuietly("Failed to save game to file: " + f.getAbsolutePath(), e);
     }
@@ -461,7 +542,7 @@ public class ServerGame extends AbstractGame {
         continue;
       }
       final DefaultDelegateBridge bridge = new DefaultDelegateBridge(gameData, this,
-          new DelegateHistoryWriter(channelMessenger), randomStats, delegateExecutionManager);
+          gameModificationBatcher, randomStats, delegateExecutionManager);
       if (delegateRandomSource == null) {
         delegateRandomSource = (IRandomSource) delegateExecutionManager.createOutboundImplementation(randomSource,
             new Class<?>[] {IRandomSource.class});
@@ -480,7 +561,7 @@ public class ServerGame extends AbstractGame {
   private void startStep(final boolean stepIsRestoredFromSavedGame) {
     // dont save if we just loaded
     final DefaultDelegateBridge bridge = new DefaultDelegateBridge(gameData, this,
-        new DelegateHistoryWriter(channelMessenger), randomStats, delegateExecutionManager);
+        gameModificationBatcher, randomStats, delegateExecutionManager);
     if (delegateRandomSource == null) {
       delegateRandomSource = (IRandomSource) delegateExecutionManager.createOutboundImplementation(randomSource,
           new Class<?>[] {IRandomSource.class});
@@ -533,7 +614,7 @@ public class ServerGame extends AbstractGame {
     final int round = gameData.getSequence().getRound();
     final PlayerID id = currentStep.getPlayerId();
     notifyGameStepListeners(stepName, delegateName, id, round, displayName);
-    getGameModifiedBroadcaster().stepChanged(stepName, delegateName, id, round, displayName, loadedFromSavedGame);
+    gameModificationBatcher.stepChanged(stepName, delegateName, id, round, displayName, loadedFromSavedGame);
   }
 
   private void addPlayerTypesToGameData(final Collection<IGamePlayer> localPlayers, final PlayerManager allPlayers,
@@ -597,9 +678,7 @@ public class ServerGame extends AbstractGame {
 
   @Override
   public void addChange(final Change change) {
-    // let our channel subscribor do the change,
-    // that way all changes will happen in the same thread
-    getGameModifiedBroadcaster().gameDataChanged(change);
+    gameModificationBatcher.addChange(change);
   }
 
   @Override
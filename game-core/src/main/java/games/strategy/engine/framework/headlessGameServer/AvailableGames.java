@@ -1,47 +1,57 @@
 package games.strategy.engine.framework.headlessGameServer;
 
-import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
-import java.net.URL;
-import java.net.URLClassLoader;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.TreeMap;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipInputStream;
 
 import javax.annotation.Nonnull;
-import javax.annotation.concurrent.Immutable;
 import javax.annotation.concurrent.ThreadSafe;
 
 import games.strategy.debug.ClientLogger;
-import games.strategy.engine.ClientFileSystemHelper;
 import games.strategy.engine.data.GameData;
 import games.strategy.engine.data.GameParser;
-import games.strategy.io.FileUtils;
+import games.strategy.engine.framework.GameDataSnapshot;
+import games.strategy.engine.framework.map.MapCatalog;
 import games.strategy.util.UrlStreams;
 
 /**
- * A list of all available games. We make sure we can parse them all, but we don't keep them in memory.
+ * A list of all available games. We make sure we can parse them all, but we only keep a bounded number of the most
+ * recently used ones in memory.
+ *
+ * <p>
+ * Games are validated through {@link GameValidationCache}, so a game file is not parsed again at startup unless it
+ * changed. The kept games are immutable snapshots, which are copied rather than parsed again when selected.
+ * </p>
  */
-@Immutable
+@ThreadSafe
 public final class AvailableGames {
-  private static final String ZIP_EXTENSION = ".zip";
+  static final int DEFAULT_GAME_DATA_CACHE_SIZE = 4;
+
   private final Map<String, URI> availableGames;
   private final Set<String> availableMapFolderOrZipNames;
+  private final int gameDataCacheSize;
+  // guarded by itself; iterates from the least to the most recently used game
+  private final Map<String, GameDataSnapshot> gameDataCache = new LinkedHashMap<>(16, 0.75f, true);
 
-  AvailableGames() {
+  /**
+   * @param gameDataCacheSize The number of parsed games to keep in memory; 0 to parse the game each time it is
+   *        selected.
+   */
+  AvailableGames(final int gameDataCacheSize) {
     final GameRepository gameRepository = newGameRepository();
     availableGames = Collections.unmodifiableMap(new TreeMap<>(gameRepository.availableGames));
     availableMapFolderOrZipNames =
         Collections.unmodifiableSet(new HashSet<>(gameRepository.availableMapFolderOrZipNames));
+    this.gameDataCacheSize = gameDataCacheSize;
   }
 
   @ThreadSafe
@@ -52,74 +62,27 @@ public final class AvailableGames {
 
   private static GameRepository newGameRepository() {
     final GameRepository gameRepository = new GameRepository();
-    FileUtils.listFiles(ClientFileSystemHelper.getUserMapsFolder()).parallelStream()
-        .forEach(map -> {
-          if (map.isDirectory()) {
-            populateFromDirectory(map, gameRepository.availableGames, gameRepository.availableMapFolderOrZipNames);
-          } else if (map.isFile() && map.getName().toLowerCase().endsWith(ZIP_EXTENSION)) {
-            populateFromZip(map, gameRepository.availableGames, gameRepository.availableMapFolderOrZipNames);
+    final GameValidationCache validationCache = GameValidationCache.load();
+    MapCatalog.getInstance()
+        .refresh((map, errorDetails) -> ClientLogger.logQuietly("Could not read map: " + map))
+        .parallelStream()
+        .filter(game -> validationCache.isValid(game.getUri()))
+        .forEach(game -> {
+          if (addToAvailableGames(game, gameRepository.availableGames)) {
+            gameRepository.availableMapFolderOrZipNames.add(game.getMapFileName());
           }
         });
+    validationCache.save();
     return gameRepository;
   }
 
-  private static void populateFromDirectory(
-      final File mapDir,
-      final Map<String, URI> availableGames,
-      final Set<String> availableMapFolderOrZipNames) {
-    final File games = new File(mapDir, "games");
-    for (final File game : FileUtils.listFiles(games)) {
-      if (game.isFile() && game.getName().toLowerCase().endsWith("xml")) {
-        final boolean added = addToAvailableGames(game.toURI(), availableGames);
-        if (added) {
-          availableMapFolderOrZipNames.add(mapDir.getName());
-        }
-      }
-    }
-  }
-
-  private static void populateFromZip(final File map, final Map<String, URI> availableGames,
-      final Set<String> availableMapFolderOrZipNames) {
-    try (InputStream fis = new FileInputStream(map);
-        ZipInputStream zis = new ZipInputStream(fis);
-        URLClassLoader loader = new URLClassLoader(new URL[] {map.toURI().toURL()})) {
-      ZipEntry entry = zis.getNextEntry();
-      while (entry != null) {
-        if (entry.getName().contains("games/") && entry.getName().toLowerCase().endsWith(".xml")) {
-          final URL url = loader.getResource(entry.getName());
-          if (url != null) {
-            final boolean added = addToAvailableGames(
-                URI.create(url.toString().replace(" ", "%20")),
-                availableGames);
-            if (added && map.getName().length() > 4) {
-              availableMapFolderOrZipNames
-                  .add(map.getName().substring(0, map.getName().length() - ZIP_EXTENSION.length()));
-            }
-          }
-        }
-        // we have to close the loader to allow files to be deleted on windows
-        zis.closeEntry();
-        entry = zis.getNextEntry();
-      }
-    } catch (final IOException e) {
-      ClientLogger.logQuietly("Map: " + map, e);
-    }
-  }
-
   private static boolean addToAvailableGames(
-      @Nonnull final URI uri,
+      @Nonnull final MapCatalog.Game game,
       @Nonnull final Map<String, URI> availableGames) {
-    final Optional<InputStream> inputStream = UrlStreams.openStream(uri);
-    if (inputStream.isPresent()) {
-      try (InputStream input = inputStream.get()) {
-        final GameData data = GameParser.parse(uri.toString(), input);
-        final String name = data.getGameName();
-        if (!availableGames.containsKey(name)) {
-          availableGames.put(name, uri);
-          return true;
-        }
-      } catch (final Exception e) {
-        ClientLogger.logError("Exception while parsing: " + uri.toString(), e);
+    synchronized (availableGames) {
+      if (!availableGames.containsKey(game.getGameName())) {
+        availableGames.put(game.getGameName(), game.getUri());
+        return true;
       }
     }
     return false;
@@ -150,9 +113,47 @@ public final class AvailableGames {
    * Can return null.
    */
   public GameData getGameData(final String gameName) {
-    return Optional.ofNullable(availableGames.get(gameName))
-        .map(uri -> parse(uri).orElse(null))
-        .orElse(null);
+    final URI uri = availableGames.get(gameName);
+    if (uri == null) {
+      return null;
+    }
+    if (gameDataCacheSize <= 0) {
+      return parse(uri).orElse(null);
+    }
+
+    final GameDataSnapshot cachedGameData;
+    synchronized (gameDataCache) {
+      cachedGameData = gameDataCache.get(gameName);
+    }
+    if (cachedGameData != null) {
+      try {
+        return cachedGameData.newGameData();
+      } catch (final IOException e) {
+        ClientLogger.logQuietly("Failed to copy the cached game: " + gameName, e);
+      }
+    }
+
+    final Optional<GameData> data = parse(uri);
+    data.ifPresent(it -> addToGameDataCache(gameName, it));
+    return data.orElse(null);
+  }
+
+  private void addToGameDataCache(final String gameName, final GameData data) {
+    final GameDataSnapshot snapshot;
+    try {
+      snapshot = GameDataSnapshot.of(data, true);
+    } catch (final IOException e) {
+      ClientLogger.logQuietly("Failed to cache the game: " + gameName, e);
+      return;
+    }
+    synchronized (gameDataCache) {
+      gameDataCache.put(gameName, snapshot);
+      final Iterator<String> leastRecentlyUsedGameNames = gameDataCache.keySet().iterator();
+      while (gameDataCache.size() > gameDataCacheSize) {
+        leastRecentlyUsedGameNames.next();
+        leastRecentlyUsedGameNames.remove();
+      }
+    }
   }
 
   private static Optional<GameData> parse(final URI uri) {
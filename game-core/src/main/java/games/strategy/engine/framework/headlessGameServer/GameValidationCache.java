@@ -0,0 +1,146 @@
+package games.strategy.engine.framework.headlessGameServer;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.net.URI;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiPredicate;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.io.BaseEncoding;
+import com.google.common.io.ByteStreams;
+
+import games.strategy.debug.ClientLogger;
+import games.strategy.engine.ClientContext;
+import games.strategy.engine.ClientFileSystemHelper;
+import games.strategy.engine.data.GameParser;
+import games.strategy.io.FileUtils;
+import games.strategy.util.UrlStreams;
+
+/**
+ * Remembers whether game files could be fully parsed, so each version of a game file is only parsed once to validate
+ * it.
+ *
+ * <p>
+ * The results are keyed by a hash of the content of the game file and by the engine version, as a game that fails to
+ * parse with one engine may parse with another. Only the results used since the cache was loaded are saved, so the
+ * results of removed or updated maps are dropped.
+ * </p>
+ */
+@ThreadSafe
+final class GameValidationCache {
+  private static final int CACHE_FORMAT_VERSION = 1;
+  private static final String SHA_256 = "SHA-256";
+
+  private final File file;
+  private final String engineVersion;
+  private final BiPredicate<URI, InputStream> parser;
+  private final Map<String, Boolean> loadedResults;
+  private final Map<String, Boolean> usedResults = new ConcurrentHashMap<>();
+
+  /**
+   * @param parser Tells whether the game read from the specified stream can be fully parsed.
+   */
+  @VisibleForTesting
+  GameValidationCache(final File file, final String engineVersion, final BiPredicate<URI, InputStream> parser) {
+    this.file = file;
+    this.engineVersion = engineVersion;
+    this.parser = parser;
+    loadedResults = load(file);
+  }
+
+  /**
+   * @return The validation cache of the user folder.
+   */
+  static GameValidationCache load() {
+    return new GameValidationCache(new File(ClientFileSystemHelper.getUserRootFolder(), "gameValidationCache"),
+        ClientContext.engineVersion().getExactVersion(), GameValidationCache::parse);
+  }
+
+  /**
+   * Fully parses the specified game file, unless it has already been parsed with this engine version.
+   *
+   * @return true if the game file can be parsed.
+   */
+  boolean isValid(final URI uri) {
+    final Optional<InputStream> inputStream = UrlStreams.openStream(uri);
+    if (!inputStream.isPresent()) {
+      return false;
+    }
+    final byte[] bytes;
+    try (InputStream input = inputStream.get()) {
+      bytes = ByteStreams.toByteArray(input);
+    } catch (final IOException e) {
+      ClientLogger.logError("Exception while reading: " + uri.toString(), e);
+      return false;
+    }
+    final String key = engineVersion + ":" + sha256(bytes);
+    final Boolean loadedResult = loadedResults.get(key);
+    final boolean valid = (loadedResult != null) ? loadedResult : parser.test(uri, new ByteArrayInputStream(bytes));
+    usedResults.put(key, valid);
+    return valid;
+  }
+
+  private static boolean parse(final URI uri, final InputStream inputStream) {
+    try {
+      GameParser.parse(uri.toString(), inputStream);
+      return true;
+    } catch (final Exception e) {
+      ClientLogger.logError("Exception while parsing: " + uri.toString(), e);
+      return false;
+    }
+  }
+
+  private static String sha256(final byte[] bytes) {
+    try {
+      return BaseEncoding.base16().encode(MessageDigest.getInstance(SHA_256).digest(bytes)).toLowerCase();
+    } catch (final NoSuchAlgorithmException e) {
+      throw new IllegalStateException(SHA_256 + " is not supported!", e);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  // generics are compile time only, and lost during serialization
+  private static Map<String, Boolean> load(final File file) {
+    if (file.exists()) {
+      try (InputStream is = new FileInputStream(file);
+          ObjectInputStream in = new ObjectInputStream(is)) {
+        if (in.readInt() == CACHE_FORMAT_VERSION) {
+          return (Map<String, Boolean>) in.readObject();
+        }
+      } catch (final IOException | ClassNotFoundException | ClassCastException e) {
+        ClientLogger.logQuietly("Failed to load the game validation cache: " + file.getAbsolutePath(), e);
+      }
+    }
+    return new HashMap<>();
+  }
+
+  /**
+   * Saves the results used since the cache was loaded.
+   */
+  void save() {
+    try {
+      // replace the cache only once it is complete, so a bot killed while saving finds the previous one
+      FileUtils.writeAtomically(file, os -> {
+        try (ObjectOutputStream out = new ObjectOutputStream(os)) {
+          out.writeInt(CACHE_FORMAT_VERSION);
+          out.writeObject(new HashMap<>(usedResults));
+        }
+      });
+    } catch (final IOException e) {
+      ClientLogger.logQuietly("Failed to save the game validation cache: " + file.getAbsolutePath(), e);
+    }
+  }
+}
@@ -13,6 +13,7 @@ import static games.strategy.engine.framework.ArgParser.CliProperties.TRIPLEA_GA
 import static games.strategy.engine.framework.ArgParser.CliProperties.TRIPLEA_NAME;
 import static games.strategy.engine.framework.ArgParser.CliProperties.TRIPLEA_PORT;
 import static games.strategy.engine.framework.ArgParser.CliProperties.TRIPLEA_SERVER;
+import static games.strategy.engine.framework.ArgParser.CliProperties.TRIPLEA_SERVER_GAME_DATA_CACHE_SIZE;
 import static games.strategy.engine.framework.ArgParser.CliProperties.TRIPLEA_SERVER_OBSERVER_JOIN_WAIT_TIME;
 import static games.strategy.engine.framework.ArgParser.CliProperties.TRIPLEA_SERVER_START_GAME_SYNC_WAIT_TIME;
 
@@ -78,7 +79,8 @@ public class HeadlessGameServer {
       logger.info("Running ShutdownHook.");
       shutdown();
     }));
-    availableGames = new AvailableGames();
+    availableGames = new AvailableGames(
+        Integer.getInteger(TRIPLEA_SERVER_GAME_DATA_CACHE_SIZE, AvailableGames.DEFAULT_GAME_DATA_CACHE_SIZE));
     gameSelectorModel = new GameSelectorModel();
     final String fileName = System.getProperty(TRIPLEA_GAME, "");
     if (fileName.length() > 0) {
@@ -487,7 +489,7 @@ public class HeadlessGameServer {
         LOBBY_GAME_COMMENTS, LOBBY_GAME_HOSTED_BY, LOBBY_GAME_SUPPORT_EMAIL,
         LOBBY_GAME_SUPPORT_PASSWORD, LOBBY_GAME_RECONNECTION,
         TRIPLEA_SERVER_START_GAME_SYNC_WAIT_TIME, TRIPLEA_SERVER_OBSERVER_JOIN_WAIT_TIME,
-        MAP_FOLDER));
+        TRIPLEA_SERVER_GAME_DATA_CACHE_SIZE, MAP_FOLDER));
   }
 
   String getStatus() {
@@ -504,11 +506,15 @@ public class HeadlessGameServer {
   }
 
   public void printThreadDumpsAndStatus() {
+    final ServerModel serverModel = getServerModel();
+    final IServerMessenger messenger = (serverModel == null) ? null : serverModel.getMessenger();
     System.out.println("Dump to Log:"
         + "\n\nStatus:\n"
         + getStatus()
         + "\n\nServer:\n"
-        + getServerModel()
+        + serverModel
+        + "\n\nNetwork:\n"
+        + ((messenger == null) ? "null" : messenger.getNetworkStatus())
         + "\n\n"
         + DebugUtils.getThreadDumps()
         + "\n\n"
@@ -691,6 +697,8 @@ public class HeadlessGameServer {
         + "=<seconds to wait for all clients to start the game>\n"
         + "   " + TRIPLEA_SERVER_OBSERVER_JOIN_WAIT_TIME
         + "=<seconds to wait for an observer joining the game>\n"
+        + "   " + TRIPLEA_SERVER_GAME_DATA_CACHE_SIZE
+        + "=<number of parsed games to keep in memory, 0 to disable>\n"
         + "   " + MAP_FOLDER + "=mapFolder"
         + "\n"
         + "   You must start the Name and HostedBy with \"Bot\".\n"
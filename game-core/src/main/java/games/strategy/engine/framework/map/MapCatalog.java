@@ -0,0 +1,378 @@
+package games.strategy.engine.framework.map;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+
+import com.google.common.annotations.VisibleForTesting;
+
+import games.strategy.debug.ClientLogger;
+import games.strategy.engine.ClientContext;
+import games.strategy.engine.ClientFileSystemHelper;
+import games.strategy.engine.data.GameData;
+import games.strategy.engine.data.GameParser;
+import games.strategy.engine.data.PlayerID;
+import games.strategy.io.FileUtils;
+import games.strategy.triplea.Constants;
+import games.strategy.util.UrlStreams;
+import games.strategy.util.Version;
+
+/**
+ * An index of the games in the user maps folder, kept on disk between runs.
+ *
+ * <p>
+ * Finding the games used to open every map zip and parse every game XML in it on each start. The catalog remembers
+ * what it found in each map zip or folder, along with the size and last modification time of the map, and only scans
+ * the maps that changed since. A map zip that cannot be read is not remembered, so it is reported again on the next
+ * refresh. The catalog is dropped when the engine version changes, as a new engine may parse games differently.
+ * </p>
+ *
+ * <p>
+ * While the client runs, the catalog can watch the maps folder (see {@link #startWatching()}), so maps downloaded or
+ * removed in the meantime are already scanned when the games are listed. The catalog is thread safe.
+ * </p>
+ */
+public final class MapCatalog {
+  private static final int CATALOG_FORMAT_VERSION = 2;
+  private static final String ZIP_EXTENSION = ".zip";
+  private static final long WATCH_QUIET_PERIOD_MS = 2000;
+
+  private final File mapsFolder;
+  private final File catalogFile;
+  private final String engineVersion;
+  // guarded by this
+  private Map<String, MapEntry> mapEntries;
+  private final AtomicBoolean watching = new AtomicBoolean();
+
+  /**
+   * A game found in a map.
+   */
+  @Immutable
+  public static final class Game implements Serializable {
+    private static final long serialVersionUID = 8519617154236011384L;
+    private final String location;
+    private final String mapFileName;
+    private final String gameName;
+    private final Version gameVersion;
+    private final @Nullable String mapName;
+    private final List<String> playerNames;
+    private final String notes;
+
+    private Game(final String location, final String mapFileName, final GameData data) {
+      this.location = location;
+      this.mapFileName = mapFileName;
+      gameName = data.getGameName();
+      gameVersion = data.getGameVersion();
+      mapName = (String) data.getProperties().get(Constants.MAP_NAME);
+      playerNames = Collections.unmodifiableList(data.getPlayerList().getPlayers().stream()
+          .map(PlayerID::getName)
+          .collect(Collectors.toList()));
+      notes = data.getProperties().get("notes", "");
+    }
+
+    /**
+     * Creates a game from the game data parsed from the specified location, see
+     * {@link GameParser#parseShallow(String, InputStream)}.
+     */
+    public static Game fromGameData(final URI location, final GameData data) {
+      return new Game(location.toString(), "", data);
+    }
+
+    /**
+     * Returns the location of the game file.
+     *
+     * <p>
+     * The "location" is actually a URI in string form.
+     * </p>
+     */
+    public String getLocation() {
+      return location;
+    }
+
+    public URI getUri() {
+      return URI.create(location);
+    }
+
+    /**
+     * @return The name of the map folder or zip file the game was found in, without the zip extension.
+     */
+    public String getMapFileName() {
+      return mapFileName;
+    }
+
+    public String getGameName() {
+      return gameName;
+    }
+
+    public Version getGameVersion() {
+      return gameVersion;
+    }
+
+    /**
+     * @return The map name property of the game, or null if it is not set.
+     */
+    public @Nullable String getMapName() {
+      return mapName;
+    }
+
+    public List<String> getPlayerNames() {
+      return playerNames;
+    }
+
+    public String getNotes() {
+      return notes;
+    }
+
+    @Override
+    public String toString() {
+      return gameName + " (" + location + ")";
+    }
+  }
+
+  /**
+   * The games found in a map zip or folder, along with what the map looked like when it was scanned.
+   */
+  private static final class MapEntry implements Serializable {
+    private static final long serialVersionUID = -1939458316092616049L;
+    private final long size;
+    private final long lastModified;
+    private final List<Game> games;
+
+    MapEntry(final long size, final long lastModified, final List<Game> games) {
+      this.size = size;
+      this.lastModified = lastModified;
+      this.games = Collections.unmodifiableList(new ArrayList<>(games));
+    }
+  }
+
+  private static final class InstanceHolder {
+    static final MapCatalog INSTANCE = new MapCatalog(ClientFileSystemHelper.getUserMapsFolder(),
+        new File(ClientFileSystemHelper.getUserRootFolder(), "mapCatalog"),
+        ClientContext.engineVersion().getExactVersion());
+  }
+
+  /**
+   * @return The catalog of the user maps folder.
+   */
+  public static MapCatalog getInstance() {
+    return InstanceHolder.INSTANCE;
+  }
+
+  @VisibleForTesting
+  MapCatalog(final File mapsFolder, final File catalogFile, final String engineVersion) {
+    this.mapsFolder = mapsFolder;
+    this.catalogFile = catalogFile;
+    this.engineVersion = engineVersion;
+  }
+
+  /**
+   * Scans the maps that changed since the last refresh, and saves the catalog if any did. This method blocks until all
+   * changed maps are scanned and should not be called from the EDT.
+   *
+   * @param corruptMapHandler Called with each map zip that cannot be read, and the details of the error if any. It may
+   *        delete the file.
+   *
+   * @return All games of the maps folder.
+   */
+  public synchronized List<Game> refresh(final BiConsumer<File, Optional<String>> corruptMapHandler) {
+    if (mapEntries == null) {
+      mapEntries = load();
+    }
+    final Map<String, MapEntry> refreshedEntries = new ConcurrentHashMap<>();
+    final AtomicBoolean changed = new AtomicBoolean();
+    FileUtils.listFiles(mapsFolder).parallelStream()
+        .filter(map -> map.isDirectory() || (map.isFile() && map.getName().toLowerCase().endsWith(ZIP_EXTENSION)))
+        .forEach(map -> {
+          final String key = map.getAbsolutePath();
+          final MapEntry cached = mapEntries.get(key);
+          final long size = getSize(map);
+          final long lastModified = getLastModified(map);
+          if (cached != null && cached.size == size && cached.lastModified == lastModified) {
+            refreshedEntries.put(key, cached);
+          } else {
+            changed.set(true);
+            scan(map, size, lastModified, corruptMapHandler).ifPresent(entry -> refreshedEntries.put(key, entry));
+          }
+        });
+    if (changed.get() || !refreshedEntries.keySet().equals(mapEntries.keySet())) {
+      mapEntries = new HashMap<>(refreshedEntries);
+      save(mapEntries);
+    }
+    return mapEntries.values().stream()
+        .flatMap(entry -> entry.games.stream())
+        .collect(Collectors.toList());
+  }
+
+  private static File getGamesFolder(final File mapFolder) {
+    // use contents under a "mapFolder/map" folder if present, otherwise use the "mapFolder/" contents directly
+    final File nestedMapFolder = new File(mapFolder, "map");
+    return new File(nestedMapFolder.exists() ? nestedMapFolder : mapFolder, "games");
+  }
+
+  private static List<File> listGameFiles(final File mapFolder) {
+    return FileUtils.listFiles(getGamesFolder(mapFolder)).stream()
+        .filter(game -> game.isFile() && game.getName().toLowerCase().endsWith("xml"))
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * The size of a map folder is the total size of its game files, so changes to these files are noticed.
+   */
+  private static long getSize(final File map) {
+    return map.isDirectory()
+        ? listGameFiles(map).stream().mapToLong(File::length).sum()
+        : map.length();
+  }
+
+  private static long getLastModified(final File map) {
+    return map.isDirectory()
+        ? listGameFiles(map).stream()
+            .mapToLong(File::lastModified)
+            .reduce(getGamesFolder(map).lastModified(), Math::max)
+        : map.lastModified();
+  }
+
+  private static Optional<MapEntry> scan(final File map, final long size, final long lastModified,
+      final BiConsumer<File, Optional<String>> corruptMapHandler) {
+    final List<Game> games = new ArrayList<>();
+    if (map.isDirectory()) {
+      for (final File game : listGameFiles(map)) {
+        parseGame(game.toURI(), map.getName()).ifPresent(games::add);
+      }
+      return Optional.of(new MapEntry(size, lastModified, games));
+    }
+    final String mapFileName = map.getName().substring(0, map.getName().length() - ZIP_EXTENSION.length());
+    try (ZipFile zipFile = new ZipFile(map);
+        URLClassLoader loader = new URLClassLoader(new URL[] {map.toURI().toURL()})) {
+      final Enumeration<? extends ZipEntry> zipEntries = zipFile.entries();
+      while (zipEntries.hasMoreElements()) {
+        final ZipEntry entry = zipEntries.nextElement();
+        if (entry.getName().contains("games/") && entry.getName().toLowerCase().endsWith(".xml")) {
+          final URL url = loader.getResource(entry.getName());
+          if (url == null) {
+            // not loading the URL means the XML is truncated or otherwise in bad shape
+            corruptMapHandler.accept(map, Optional.empty());
+            return Optional.empty();
+          }
+          parseGame(URI.create(url.toString().replace(" ", "%20")), mapFileName).ifPresent(games::add);
+        }
+      }
+    } catch (final IOException e) {
+      corruptMapHandler.accept(map, Optional.of(e.getMessage()));
+      return Optional.empty();
+    }
+    return Optional.of(new MapEntry(size, lastModified, games));
+  }
+
+  private static Optional<Game> parseGame(final URI uri, final String mapFileName) {
+    final Optional<InputStream> inputStream = UrlStreams.openStream(uri);
+    if (!inputStream.isPresent()) {
+      return Optional.empty();
+    }
+    try (InputStream input = inputStream.get()) {
+      return Optional.of(new Game(uri.toString(), mapFileName, GameParser.parseShallow(uri.toString(), input)));
+    } catch (final Exception e) {
+      ClientLogger.logQuietly("Could not parse: " + uri, e);
+      return Optional.empty();
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  // generics are compile time only, and lost during serialization
+  private Map<String, MapEntry> load() {
+    if (!catalogFile.exists()) {
+      return new HashMap<>();
+    }
+    try (InputStream is = new FileInputStream(catalogFile);
+        ObjectInputStream in = new ObjectInputStream(is)) {
+      if (in.readInt() == CATALOG_FORMAT_VERSION && in.readUTF().equals(engineVersion)) {
+        return (Map<String, MapEntry>) in.readObject();
+      }
+    } catch (final IOException | ClassNotFoundException | ClassCastException e) {
+      ClientLogger.logQuietly("Failed to load the map catalog, scanning all maps: " + catalogFile.getAbsolutePath(), e);
+    }
+    return new HashMap<>();
+  }
+
+  private void save(final Map<String, MapEntry> entries) {
+    try {
+      // replace the catalog only once it is complete, so a client killed while saving finds the previous one
+      FileUtils.writeAtomically(catalogFile, os -> {
+        try (ObjectOutputStream out = new ObjectOutputStream(os)) {
+          out.writeInt(CATALOG_FORMAT_VERSION);
+          out.writeUTF(engineVersion);
+          out.writeObject(entries);
+        }
+      });
+    } catch (final IOException e) {
+      ClientLogger.logQuietly("Failed to save the map catalog: " + catalogFile.getAbsolutePath(), e);
+    }
+  }
+
+  /**
+   * Starts a daemon thread that refreshes the catalog now, and whenever maps are added to, changed in or removed from
+   * the maps folder. Does nothing if the catalog is already watched.
+   */
+  public void startWatching() {
+    if (!watching.compareAndSet(false, true)) {
+      return;
+    }
+    final Thread thread = new Thread(this::watch, "Map catalog watcher");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  private void watch() {
+    try (WatchService watchService = mapsFolder.toPath().getFileSystem().newWatchService()) {
+      mapsFolder.toPath().register(watchService, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY);
+      while (true) {
+        // corrupt maps are not remembered, so they are reported the next time games are listed
+        refresh((map, errorDetails) -> {});
+        WatchKey key = watchService.take();
+        // wait for the maps folder to be quiet, so a map being downloaded is only scanned once it is complete
+        while (key != null) {
+          key.pollEvents();
+          key.reset();
+          key = watchService.poll(WATCH_QUIET_PERIOD_MS, TimeUnit.MILLISECONDS);
+        }
+      }
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (final IOException | ClosedWatchServiceException e) {
+      ClientLogger.logQuietly("Stopped watching the maps folder: " + mapsFolder.getAbsolutePath(), e);
+    } finally {
+      watching.set(false);
+    }
+  }
+}
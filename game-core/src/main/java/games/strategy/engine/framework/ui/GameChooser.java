@@ -11,6 +11,7 @@ import java.awt.Insets;
 import java.awt.Rectangle;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
+import java.util.Optional;
 
 import javax.swing.Box;
 import javax.swing.BoxLayout;
@@ -24,8 +25,8 @@ import javax.swing.JScrollPane;
 import javax.swing.JSplitPane;
 import javax.swing.SwingUtilities;
 
-import games.strategy.engine.data.GameData;
 import games.strategy.engine.framework.GameRunner;
+import games.strategy.engine.framework.map.MapCatalog;
 import games.strategy.util.LocalizeHtml;
 
 public class GameChooser extends JDialog {
@@ -127,16 +128,16 @@ public class GameChooser extends JDialog {
 
   private void updateInfoPanel() {
     if (getSelected() != null) {
-      final GameData data = getSelected().getGameData();
+      final MapCatalog.Game game = getSelected().getGame();
       final StringBuilder notes = new StringBuilder();
-      notes.append("<h1>").append(data.getGameName()).append("</h1>");
-      final String mapNameDir = data.getProperties().get("mapName", "");
+      notes.append("<h1>").append(game.getGameName()).append("</h1>");
+      final String mapNameDir = Optional.ofNullable(game.getMapName()).orElse("");
       appendListItem("Map Name", mapNameDir, notes);
-      appendListItem("Number Of Players", data.getPlayerList().size() + "", notes);
+      appendListItem("Number Of Players", game.getPlayerNames().size() + "", notes);
       appendListItem("Location", getSelected().getLocation() + "", notes);
-      appendListItem("Version", data.getGameVersion() + "", notes);
+      appendListItem("Version", game.getGameVersion() + "", notes);
       notes.append("<p></p>");
-      final String notesProperty = data.getProperties().get("notes", "");
+      final String notesProperty = game.getNotes();
       if (notesProperty != null && notesProperty.trim().length() != 0) {
         // AbstractUiContext resource loader should be null (or potentially is still the last game we played's loader),
         // so we send the map dir name so that our localizing of image links can get a new resource loader if needed
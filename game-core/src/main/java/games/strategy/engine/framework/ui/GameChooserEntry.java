@@ -11,12 +11,14 @@ import games.strategy.engine.data.EngineVersionException;
 import games.strategy.engine.data.GameData;
 import games.strategy.engine.data.GameParseException;
 import games.strategy.engine.data.GameParser;
-import games.strategy.triplea.Constants;
+import games.strategy.engine.framework.map.MapCatalog;
 import games.strategy.triplea.settings.ClientSetting;
 import games.strategy.util.UrlStreams;
 
 public class GameChooserEntry implements Comparable<GameChooserEntry> {
   private final URI url;
+  // what the map catalog knows about the game, null if the game file was not found
+  private final MapCatalog.Game game;
   private GameData gameData;
   private boolean gameDataFullyLoaded = false;
   private final String gameNameAndMapNameProperty;
@@ -38,17 +40,29 @@ public class GameChooserEntry implements Comparable<GameChooserEntry> {
 
     final Optional<InputStream> inputStream = UrlStreams.openStream(uri);
     if (!inputStream.isPresent()) {
+      game = null;
       gameNameAndMapNameProperty = "";
       // this means the map was deleted out from under us.
       return;
     }
 
     try (InputStream input = inputStream.get()) {
-      gameData = GameParser.parseShallow(uri.toString(), input);
+      game = MapCatalog.Game.fromGameData(uri, GameParser.parseShallow(uri.toString(), input));
       gameNameAndMapNameProperty = getGameName() + ":" + getMapNameProperty();
     }
   }
 
+  /**
+   * Creates an entry for a game of the map catalog, without parsing the game file.
+   *
+   * @throws IllegalStateException If the map name property of the game is not set.
+   */
+  public GameChooserEntry(final MapCatalog.Game game) {
+    url = game.getUri();
+    this.game = game;
+    gameNameAndMapNameProperty = getGameName() + ":" + getMapNameProperty();
+  }
+
   public GameData fullyParseGameData() throws GameParseException {
     // TODO: We should be setting this in the the constructor. At this point, you have to call methods in the
     // correct order for things to work, and that is bads.
@@ -80,13 +94,20 @@ public class GameChooserEntry implements Comparable<GameChooserEntry> {
   }
 
   public String getGameName() {
-    return gameData.getGameName();
+    return game.getGameName();
+  }
+
+  /**
+   * @return What the map catalog knows about the game, which is available before the game data is parsed.
+   */
+  public MapCatalog.Game getGame() {
+    return game;
   }
 
   // the user may have selected a map skin instead of this map folder, so don't use this for anything except our
   // equals/hashcode below
   private String getMapNameProperty() {
-    final String mapName = (String) gameData.getProperties().get(Constants.MAP_NAME);
+    final String mapName = game.getMapName();
     if (mapName == null || mapName.trim().length() == 0) {
       throw new IllegalStateException("Map name property not set on game");
     }
@@ -98,6 +119,9 @@ public class GameChooserEntry implements Comparable<GameChooserEntry> {
     return getGameName();
   }
 
+  /**
+   * @return The game data, or null if it has not been parsed by {@link #fullyParseGameData()}.
+   */
   public GameData getGameData() {
     return gameData;
   }
@@ -136,10 +160,7 @@ public class GameChooserEntry implements Comparable<GameChooserEntry> {
       return false;
     }
     final GameChooserEntry other = (GameChooserEntry) obj;
-    if (gameData == null && other.gameData != null) {
-      return false;
-    }
-    if (other.gameData == null) {
+    if (game == null || other.game == null) {
       return false;
     }
     return this.gameNameAndMapNameProperty.equals(other.gameNameAndMapNameProperty);
@@ -10,6 +10,10 @@ class ChangeSerializationWriter implements SerializationWriter {
     aChange = change;
   }
 
+  Change getChange() {
+    return aChange;
+  }
+
   @Override
   public void write(final HistoryWriter writer) {
     writer.addChange(aChange);
@@ -153,6 +153,20 @@ public class History extends DefaultTreeModel {
     }
   }
 
+  /**
+   * Repeats the history writes recorded by a {@link HistoryWriter} listener. The recorded changes are applied to the
+   * game data as well, unless the history is being viewed at some node, in which case they are applied only if that
+   * node is the last one.
+   */
+  public synchronized void replay(final Iterable<SerializationWriter> entries) {
+    for (final SerializationWriter entry : entries) {
+      if (currentNode == null && entry instanceof ChangeSerializationWriter) {
+        gameData.performChange(((ChangeSerializationWriter) entry).getChange());
+      }
+      entry.write(writer);
+    }
+  }
+
   synchronized void changeAdded(final Change change) {
     changes.add(change);
     if (currentNode == null) {
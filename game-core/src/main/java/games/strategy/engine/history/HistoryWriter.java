@@ -1,6 +1,11 @@
 package games.strategy.engine.history;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 
 import javax.swing.SwingUtilities;
 
@@ -15,11 +20,36 @@ public class HistoryWriter implements Serializable {
   private static final long serialVersionUID = 4230519614567508061L;
   private final History m_history;
   private HistoryNode m_current;
+  // listeners belong to the running game, not to the game data, so they are never saved
+  private transient List<Consumer<SerializationWriter>> m_listeners = new CopyOnWriteArrayList<>();
 
   public HistoryWriter(final History history) {
     m_history = history;
   }
 
+  private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException {
+    in.defaultReadObject();
+    m_listeners = new CopyOnWriteArrayList<>();
+  }
+
+  /**
+   * Registers a listener that is passed an entry for every subsequent write to the history. Replaying the entries
+   * with {@link History#replay(Iterable)} repeats the writes, which allows the history to be saved incrementally.
+   */
+  public void addListener(final Consumer<SerializationWriter> listener) {
+    m_listeners.add(listener);
+  }
+
+  public void removeListener(final Consumer<SerializationWriter> listener) {
+    m_listeners.remove(listener);
+  }
+
+  private void notifyListeners(final SerializationWriter entry) {
+    for (final Consumer<SerializationWriter> listener : m_listeners) {
+      listener.accept(entry);
+    }
+  }
+
   private void assertCorrectThread() {
     if (m_history.getGameData().areChangesOnlyInSwingEventThread() && !SwingUtilities.isEventDispatchThread()) {
       throw new IllegalStateException("Wrong thread");
@@ -34,7 +64,7 @@ public class HistoryWriter implements Serializable {
     assertCorrectThread();
     // we are being called for the first time
     if (m_current == null) {
-      startNextRound(m_history.getGameData().getCurrentRound());
+      startRound(m_history.getGameData().getCurrentRound());
     }
     if (isCurrentEvent()) {
       closeCurrent();
@@ -48,10 +78,16 @@ public class HistoryWriter implements Serializable {
     }
     final Step currentStep = new Step(stepName, delegateName, player, m_history.getChanges().size(), stepDisplayName);
     addToAndSetCurrent(currentStep);
+    notifyListeners(new StepHistorySerializer(stepName, delegateName, player, stepDisplayName));
   }
 
   public void startNextRound(final int round) {
     assertCorrectThread();
+    startRound(round);
+    notifyListeners(new RoundHistorySerializer(round));
+  }
+
+  private void startRound(final int round) {
     if (isCurrentEvent()) {
       closeCurrent();
     }
@@ -106,6 +142,11 @@ public class HistoryWriter implements Serializable {
 
   public void startEvent(final String eventName) {
     assertCorrectThread();
+    openEvent(eventName);
+    notifyListeners(new EventHistorySerializer(eventName, null));
+  }
+
+  private void openEvent(final String eventName) {
     if (isCurrentEvent()) {
       closeCurrent();
     }
@@ -137,9 +178,10 @@ public class HistoryWriter implements Serializable {
     if (!isCurrentEvent()) {
       new IllegalStateException("Not in an event, but trying to add child:" + node + " current is:" + m_current)
           .printStackTrace(System.out);
-      startEvent("???");
+      openEvent("???");
     }
     addToCurrent(node);
+    notifyListeners(node.getWriter());
   }
 
   /**
@@ -150,9 +192,10 @@ public class HistoryWriter implements Serializable {
     if (!isCurrentEvent() && !isCurrentStep()) {
       new IllegalStateException("Not in an event, but trying to add change:" + change + " current is:" + m_current)
           .printStackTrace(System.out);
-      startEvent("Bad Event for change: \n" + change.toString());
+      openEvent("Bad Event for change: \n" + change.toString());
     }
     m_history.changeAdded(change);
+    notifyListeners(new ChangeSerializationWriter(change));
   }
 
   public void setRenderingData(final Object details) {
@@ -160,7 +203,7 @@ public class HistoryWriter implements Serializable {
     if (!isCurrentEvent()) {
       new IllegalStateException("Not in an event, but trying to set details:" + details + " current is:" + m_current)
           .printStackTrace(System.out);
-      startEvent("???");
+      openEvent("???");
     }
     m_history.getGameData().acquireWriteLock();
     try {
@@ -169,5 +212,6 @@ public class HistoryWriter implements Serializable {
       m_history.getGameData().releaseWriteLock();
     }
     m_history.goToEnd();
+    notifyListeners(new RenderingDataWriter(details));
   }
 }
@@ -0,0 +1,15 @@
+package games.strategy.engine.history;
+
+class RenderingDataWriter implements SerializationWriter {
+  private static final long serialVersionUID = 4914237163850563190L;
+  private final Object m_renderingData;
+
+  public RenderingDataWriter(final Object renderingData) {
+    m_renderingData = renderingData;
+  }
+
+  @Override
+  public void write(final HistoryWriter writer) {
+    writer.setRenderingData(m_renderingData);
+  }
+}
@@ -6,9 +6,21 @@ import java.util.Comparator;
 import java.util.stream.IntStream;
 
 class RemoteInterfaceHelper {
+  /**
+   * The sorted methods of each remote interface. Sorting them on each call made every remote method call pay for
+   * reflection on both the calling and the called side.
+   */
+  private static final ClassValue<Method[]> sortedMethods = new ClassValue<Method[]>() {
+    @Override
+    protected Method[] computeValue(final Class<?> type) {
+      final Method[] methods = type.getMethods();
+      Arrays.sort(methods, methodComparator);
+      return methods;
+    }
+  };
+
   static int getNumber(final String methodName, final Class<?>[] argTypes, final Class<?> remoteInterface) {
-    final Method[] methods = remoteInterface.getMethods();
-    Arrays.sort(methods, methodComparator);
+    final Method[] methods = sortedMethods.get(remoteInterface);
 
     return IntStream.range(0, methods.length)
         .filter(i -> methods[i].getName().equals(methodName))
@@ -18,9 +30,7 @@ class RemoteInterfaceHelper {
   }
 
   static Method getMethod(final int methodNumber, final Class<?> remoteInterface) {
-    final Method[] methods = remoteInterface.getMethods();
-    Arrays.sort(methods, methodComparator);
-    return methods[methodNumber];
+    return sortedMethods.get(remoteInterface)[methodNumber];
   }
 
   /**
@@ -5,6 +5,7 @@ import java.io.IOException;
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
 import java.lang.reflect.Method;
+import java.util.Arrays;
 
 import javax.annotation.Nullable;
 
@@ -25,6 +26,8 @@ public class RemoteMethodCall implements Externalizable {
   private int methodNumber;
   // stored as a String[] so we can be serialzed
   private String[] argTypes;
+  // only known on the node that made the call, which is the only one queueing it
+  private transient Object supersedingKey;
 
   public RemoteMethodCall() {}
 
@@ -44,6 +47,9 @@ public class RemoteMethodCall implements Externalizable {
     this.args = args;
     this.argTypes = classesToString(argTypes, args);
     methodNumber = RemoteInterfaceHelper.getNumber(methodName, argTypes, remoteInterface);
+    if (RemoteInterfaceHelper.getMethod(methodNumber, remoteInterface).isAnnotationPresent(Supersedable.class)) {
+      supersedingKey = Arrays.asList(remoteName, methodNumber, (argTypes.length == 0) ? null : args[0]);
+    }
   }
 
   /**
@@ -60,6 +66,22 @@ public class RemoteMethodCall implements Externalizable {
     return methodName;
   }
 
+  /**
+   * @return The number of the method within the sorted methods of the remote interface.
+   */
+  public int getMethodNumber() {
+    return methodNumber;
+  }
+
+  /**
+   * @return A key that is equal for calls that supersede each other, or null if the method is not
+   *         {@link Supersedable}.
+   */
+  @Nullable
+  public Object getSupersedingKey() {
+    return supersedingKey;
+  }
+
   /**
    * @return Returns the args.
    */
@@ -0,0 +1,16 @@
+package games.strategy.engine.message;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Channel methods with this annotation only report the latest state of something, identified by their first argument.
+ * A call that is still waiting to be sent to a node is dropped when a later call of the same method with an equal
+ * first argument is queued for that node.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Supersedable {
+}
@@ -131,9 +131,12 @@ public class UnifiedMessengerHub implements IMessageListener, IConnectionChangeL
     // invoke remotely
     final SpokeInvoke invoke =
         new SpokeInvoke(hubInvoke.methodCallId, hubInvoke.needReturnValues, hubInvoke.call, from);
-    for (final INode node : remote) {
-      send(invoke, node);
+    final Collection<INode> remoteNodes = new ArrayList<>(remote);
+    if (remoteNodes.remove(messenger.getLocalNode())) {
+      localUnified.messageReceived(invoke, messenger.getLocalNode());
     }
+    // channel invocations such as chat lines go to many nodes, serialize them once for all of them
+    ((IServerMessenger) messenger).send(invoke, remoteNodes);
   }
 
   /**
@@ -4,7 +4,10 @@ import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import games.strategy.debug.ClientLogger;
 import games.strategy.engine.message.MessageContext;
@@ -29,11 +32,15 @@ class EndPoint {
   private final Class<?> remoteClass;
   private final List<Object> implementors = new ArrayList<>();
   private final boolean singleThreaded;
+  // the methods invoked on each class of implementor, indexed by method number and looked up on first use
+  private final Map<Class<?>, AtomicReferenceArray<Method>> implementorMethods = new ConcurrentHashMap<>();
+  private final int remoteMethodCount;
 
   public EndPoint(final String name, final Class<?> remoteClass, final boolean singleThreaded) {
     this.name = name;
     this.remoteClass = remoteClass;
     this.singleThreaded = singleThreaded;
+    remoteMethodCount = remoteClass.getMethods().length;
   }
 
   public Object getFirstImplementor() {
@@ -145,13 +152,7 @@ class EndPoint {
   private RemoteMethodCallResults invokeSingle(final RemoteMethodCall call, final Object implementor,
       final INode messageOriginator) {
     call.resolve(remoteClass);
-    final Method method;
-    try {
-      method = implementor.getClass().getMethod(call.getMethodName(), call.getArgTypes());
-      method.setAccessible(true);
-    } catch (final NoSuchMethodException e) {
-      throw new IllegalStateException(e);
-    }
+    final Method method = getMethod(call, implementor.getClass());
     MessageContext.setSenderNodeForThread(messageOriginator);
     try {
       final Object methodRVal = method.invoke(implementor, call.getArgs());
@@ -169,6 +170,24 @@ class EndPoint {
     }
   }
 
+  private Method getMethod(final RemoteMethodCall call, final Class<?> implementorClass) {
+    final AtomicReferenceArray<Method> methods = implementorMethods.computeIfAbsent(implementorClass,
+        c -> new AtomicReferenceArray<>(remoteMethodCount));
+    final Method cachedMethod = methods.get(call.getMethodNumber());
+    if (cachedMethod != null) {
+      return cachedMethod;
+    }
+    final Method method;
+    try {
+      method = implementorClass.getMethod(call.getMethodName(), call.getArgTypes());
+      method.setAccessible(true);
+    } catch (final NoSuchMethodException e) {
+      throw new IllegalStateException(e);
+    }
+    methods.set(call.getMethodNumber(), method);
+    return method;
+  }
+
   @Override
   public String toString() {
     return "Name:" + name + " singleThreaded:" + singleThreaded + " implementors:" + implementors;
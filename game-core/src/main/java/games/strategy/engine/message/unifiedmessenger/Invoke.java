@@ -7,11 +7,12 @@ import java.io.ObjectOutput;
 
 import games.strategy.engine.message.RemoteMethodCall;
 import games.strategy.net.GUID;
+import games.strategy.net.ISupersedableMessage;
 
 /**
  * Someone wants us to invoke something locally.
  */
-public abstract class Invoke implements Externalizable {
+public abstract class Invoke implements Externalizable, ISupersedableMessage {
   private static final long serialVersionUID = -5453883962199970896L;
   public GUID methodCallId;
   public boolean needReturnValues;
@@ -37,6 +38,14 @@ public abstract class Invoke implements Externalizable {
     this.call = call;
   }
 
+  /**
+   * Calls that return values are never superseded, as the caller waits for each of them.
+   */
+  @Override
+  public Object getSupersedingKey() {
+    return needReturnValues ? null : call.getSupersedingKey();
+  }
+
   @Override
   public void readExternal(final ObjectInput in) throws IOException, ClassNotFoundException {
     needReturnValues = in.read() == 1;
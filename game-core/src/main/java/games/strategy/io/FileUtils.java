@@ -3,6 +3,12 @@ package games.strategy.io;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
@@ -31,4 +37,65 @@ public final class FileUtils {
     final @Nullable File[] files = directory.listFiles();
     return files != null ? Collections.unmodifiableList(Arrays.asList(files)) : Collections.emptyList();
   }
+
+  /**
+   * Replaces a file with a new version that was completely written to a temporary file. Where the file system supports
+   * it the replacement is atomic, so the file holds either its previous or its new content even if the process dies
+   * while replacing it.
+   *
+   * @param tempFile The complete new version of the file, which should be in the same directory as {@code file}.
+   * @param file The file to replace; it need not exist.
+   *
+   * @throws IOException If the file could not be replaced.
+   */
+  public static void replaceFile(final File tempFile, final File file) throws IOException {
+    checkNotNull(tempFile);
+    checkNotNull(file);
+
+    try {
+      Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+    } catch (final AtomicMoveNotSupportedException e) {
+      Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+  }
+
+  /**
+   * Writes a file by invoking the specified consumer with a stream to a temporary file next to it, which replaces the
+   * file once the consumer returns (see {@link #replaceFile(File, File)}). If writing fails, the file is left as it
+   * was.
+   *
+   * @param file The file to write.
+   * @param consumer The consumer that will write the content of the file to the output stream.
+   *
+   * @throws IOException If {@code consumer} encounters an error while writing, or the file could not be replaced.
+   */
+  public static void writeAtomically(final File file, final IoUtils.OutputStreamConsumer consumer)
+      throws IOException {
+    checkNotNull(file);
+    checkNotNull(consumer);
+
+    final File tempFile = new File(file.getAbsoluteFile().getParentFile(), file.getName() + ".tmp");
+    try {
+      try (FileOutputStream os = new FileOutputStream(tempFile)) {
+        consumer.accept(new FilterOutputStream(os) {
+          @Override
+          public void write(final byte[] b, final int off, final int len) throws IOException {
+            out.write(b, off, len);
+          }
+
+          // the file has to stay open until it is synced
+          @Override
+          public void close() throws IOException {
+            flush();
+          }
+        });
+        os.getFD().sync();
+      }
+      replaceFile(tempFile, file);
+    } catch (final IOException | RuntimeException e) {
+      tempFile.delete();
+      throw e;
+    }
+  }
 }
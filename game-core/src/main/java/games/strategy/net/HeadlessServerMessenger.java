@@ -5,6 +5,7 @@ import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.UnknownHostException;
 import java.time.Instant;
+import java.util.Collection;
 import java.util.Set;
 
 import javax.annotation.Nullable;
@@ -24,6 +25,9 @@ public class HeadlessServerMessenger implements IServerMessenger {
   @Override
   public void send(final Serializable msg, final INode to) {}
 
+  @Override
+  public void send(final Serializable msg, final Collection<INode> to) {}
+
   @Override
   public void broadcast(final Serializable msg) {}
 
@@ -134,4 +138,9 @@ public class HeadlessServerMessenger implements IServerMessenger {
   public boolean isMacMiniBanned(final String mac) {
     return false;
   }
+
+  @Override
+  public String getNetworkStatus() {
+    return "";
+  }
 }
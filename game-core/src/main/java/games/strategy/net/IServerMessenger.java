@@ -1,6 +1,8 @@
 package games.strategy.net;
 
+import java.io.Serializable;
 import java.time.Instant;
+import java.util.Collection;
 import java.util.Set;
 
 import javax.annotation.Nullable;
@@ -9,6 +11,12 @@ import javax.annotation.Nullable;
  * A server messenger. Additional methods for accepting new connections.
  */
 public interface IServerMessenger extends IMessenger {
+  /**
+   * Send a message to each of the given nodes. Returns immediately. The message is only serialized once for all nodes,
+   * rather than once per node. Nodes that are not connected are skipped silently.
+   */
+  void send(Serializable msg, Collection<INode> to);
+
   void setAcceptNewConnections(boolean accept);
 
   boolean isAcceptNewConnections();
@@ -60,4 +68,9 @@ public interface IServerMessenger extends IMessenger {
   boolean isIpMiniBanned(String ip);
 
   boolean isMacMiniBanned(String mac);
+
+  /**
+   * @return A description of the network queues of this server, for diagnostics.
+   */
+  String getNetworkStatus();
 }
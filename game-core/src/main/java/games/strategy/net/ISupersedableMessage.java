@@ -0,0 +1,15 @@
+package games.strategy.net;
+
+import javax.annotation.Nullable;
+
+/**
+ * A message that may make an earlier message obsolete. A message that is still waiting to be sent is dropped when a
+ * later message with an equal key is sent to the same node.
+ */
+public interface ISupersedableMessage {
+  /**
+   * @return The key of this message, or null if it does not supersede other messages.
+   */
+  @Nullable
+  Object getSupersedingKey();
+}
@@ -11,6 +11,7 @@ import java.nio.channels.SocketChannel;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -39,6 +40,7 @@ import games.strategy.engine.message.RemoteName;
 import games.strategy.engine.message.SpokeInvoke;
 import games.strategy.net.nio.NioSocket;
 import games.strategy.net.nio.NioSocketListener;
+import games.strategy.net.nio.OverflowPolicy;
 import games.strategy.net.nio.QuarantineConversation;
 import games.strategy.net.nio.ServerQuarantineConversation;
 
@@ -141,6 +143,26 @@ public class ServerMessenger implements IServerMessenger, NioSocketListener {
     nioSocket.send(socketChannel, new MessageHeader(to, node, msg));
   }
 
+  @Override
+  public void send(final Serializable msg, final Collection<INode> to) {
+    if (shutdown) {
+      return;
+    }
+    final List<SocketChannel> socketChannels = new ArrayList<>(to.size());
+    for (final INode toNode : to) {
+      final SocketChannel socketChannel = nodeToChannel.get(toNode);
+      // the socket was removed, or has not been added yet
+      if (socketChannel != null) {
+        socketChannels.add(socketChannel);
+      }
+    }
+    if (socketChannels.isEmpty()) {
+      return;
+    }
+    // a message to a node does not hold its destination, so one header stands for all of them
+    nioSocket.sendToEach(socketChannels, new MessageHeader(to.iterator().next(), node, msg));
+  }
+
   @Override
   public void broadcast(final Serializable msg) {
     final MessageHeader header = new MessageHeader(node, msg);
@@ -396,6 +418,19 @@ public class ServerMessenger implements IServerMessenger, NioSocketListener {
     }
   }
 
+  @Override
+  public String getNetworkStatus() {
+    return nioSocket.getStatus();
+  }
+
+  /**
+   * Sets the limits of the bytes queued for sending to each client, see {@link OverflowPolicy}.
+   */
+  public void setSendQueueLimits(final long lowWatermark, final long highWatermark,
+      final OverflowPolicy overflowPolicy) {
+    nioSocket.setSendQueueLimits(lowWatermark, highWatermark, overflowPolicy);
+  }
+
   @Override
   public void notifyMacMiniBanningOfPlayer(final String mac, final Instant expires) {
     synchronized (cachedListLock) {
@@ -436,11 +471,9 @@ public class ServerMessenger implements IServerMessenger, NioSocketListener {
     if (logger.isLoggable(Level.FINEST)) {
       logger.log(Level.FINEST, "broadcasting to" + nodes);
     }
-    for (final SocketChannel channel : nodes) {
-      if (channel != fromChannel) {
-        nioSocket.send(channel, msg);
-      }
-    }
+    nodes.remove(fromChannel);
+    // the message is serialized once and the same bytes are queued for every channel
+    nioSocket.send(nodes, msg);
   }
 
   private boolean isNameTaken(final String nodeName) {
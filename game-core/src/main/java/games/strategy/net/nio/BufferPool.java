@@ -0,0 +1,105 @@
+package games.strategy.net.nio;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.annotations.VisibleForTesting;
+
+/**
+ * A pool of direct byte buffers that packets are read into.
+ *
+ * <p>
+ * Reading from a socket into a heap buffer makes the JDK copy the data from a temporary direct buffer, and allocating a
+ * buffer for each packet makes the garbage collector reclaim every one of them. The buffers of this pool are direct
+ * and reused instead. Their capacities are powers of two from {@link #MIN_POOLED_SIZE} to {@link #MAX_POOLED_SIZE}, and
+ * a request is served by a buffer of the smallest capacity that fits, with its limit set to the requested size. Larger
+ * requests are served by heap buffers, which are not pooled.
+ * </p>
+ *
+ * <p>
+ * Each size class keeps at most {@link #MAX_POOLED_BYTES_PER_SIZE} bytes of buffers that are not in use, so a burst of
+ * large messages does not keep memory allocated for good. The pool is thread safe.
+ * </p>
+ */
+final class BufferPool {
+  @VisibleForTesting
+  static final int MIN_POOLED_SIZE = 1 << 9;
+  @VisibleForTesting
+  static final int MAX_POOLED_SIZE = 1 << 20;
+  @VisibleForTesting
+  static final int MAX_POOLED_BYTES_PER_SIZE = 4 << 20;
+  private static final int MIN_SIZE_SHIFT = Integer.numberOfTrailingZeros(MIN_POOLED_SIZE);
+
+  private final SizeClass[] sizeClasses;
+  private final AtomicLong allocations = new AtomicLong();
+
+  private static final class SizeClass {
+    final Queue<ByteBuffer> buffers = new ConcurrentLinkedQueue<>();
+    final AtomicInteger count = new AtomicInteger();
+    final int maxCount;
+
+    SizeClass(final int capacity) {
+      maxCount = Math.max(1, MAX_POOLED_BYTES_PER_SIZE / capacity);
+    }
+  }
+
+  BufferPool() {
+    sizeClasses = new SizeClass[Integer.numberOfTrailingZeros(MAX_POOLED_SIZE) - MIN_SIZE_SHIFT + 1];
+    for (int i = 0; i < sizeClasses.length; i++) {
+      sizeClasses[i] = new SizeClass(MIN_POOLED_SIZE << i);
+    }
+  }
+
+  private static int getSizeClassIndex(final int size) {
+    final int capacity = Math.max(MIN_POOLED_SIZE, Integer.highestOneBit(size - 1) << 1);
+    return Integer.numberOfTrailingZeros(capacity) - MIN_SIZE_SHIFT;
+  }
+
+  /**
+   * @return A cleared buffer whose limit is the specified size. It should be passed to {@link #release(ByteBuffer)}
+   *         once it is no longer used.
+   */
+  ByteBuffer acquire(final int size) {
+    if (size > MAX_POOLED_SIZE) {
+      allocations.incrementAndGet();
+      return ByteBuffer.allocate(size);
+    }
+    final int index = getSizeClassIndex(size);
+    final SizeClass sizeClass = sizeClasses[index];
+    ByteBuffer buffer = sizeClass.buffers.poll();
+    if (buffer == null) {
+      allocations.incrementAndGet();
+      buffer = ByteBuffer.allocateDirect(MIN_POOLED_SIZE << index);
+    } else {
+      sizeClass.count.decrementAndGet();
+    }
+    buffer.clear();
+    buffer.limit(size);
+    return buffer;
+  }
+
+  /**
+   * Returns a buffer obtained from {@link #acquire(int)} to the pool. The buffer must not be used afterwards.
+   */
+  void release(final ByteBuffer buffer) {
+    if (!buffer.isDirect()) {
+      return;
+    }
+    final SizeClass sizeClass = sizeClasses[getSizeClassIndex(buffer.capacity())];
+    if (sizeClass.count.incrementAndGet() <= sizeClass.maxCount) {
+      sizeClass.buffers.offer(buffer);
+    } else {
+      sizeClass.count.decrementAndGet();
+    }
+  }
+
+  /**
+   * @return The number of buffers allocated because no pooled buffer was available.
+   */
+  long getAllocationCount() {
+    return allocations.get();
+  }
+}
@@ -6,7 +6,18 @@ import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.net.Socket;
 import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -14,7 +25,6 @@ import games.strategy.engine.message.HubInvocationResults;
 import games.strategy.engine.message.HubInvoke;
 import games.strategy.engine.message.SpokeInvocationResults;
 import games.strategy.engine.message.SpokeInvoke;
-import games.strategy.io.IoUtils;
 import games.strategy.net.CouldNotLogInException;
 import games.strategy.net.INode;
 import games.strategy.net.IObjectStreamFactory;
@@ -23,10 +33,29 @@ import games.strategy.net.Node;
 import games.strategy.net.nio.QuarantineConversation.Action;
 
 /**
- * A thread to Decode messages from a reader.
+ * Decodes messages from a reader.
+ *
+ * <p>
+ * A dispatch thread takes the packets from the reader and hands each to one of several decoder threads, chosen by the
+ * channel of the packet, so that the messages of a channel are decoded and delivered in the order they were read,
+ * while a slow message only holds up the channels sharing its decoder thread. Messages of different channels may be
+ * delivered in another order than they were read; the {@link Encoder} keeps the messages a server forwards to several
+ * channels in one order for all of them.
+ * </p>
+ *
+ * <p>
+ * The packets of a quarantined channel are not decoded by the decoder threads. They are handed one at a time to the
+ * quarantine conversation of the channel on a separate, bounded executor, as a conversation may take long to answer a
+ * login. Packets read while a conversation is busy wait for it. Once the channel is unquarantined, the packets that
+ * are still waiting are handed back to its decoder thread, ahead of any packet read later.
+ * </p>
  */
 class Decoder {
   private static final Logger logger = Logger.getLogger(Decoder.class.getName());
+  private static final int DECODER_THREADS = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors()));
+  private static final int QUARANTINE_THREADS = 2;
+  // the number of quarantined channels that may wait for a quarantine thread before new logins are refused
+  private static final int MAX_WAITING_QUARANTINES = 64;
   private final NioReader reader;
   private volatile boolean running = true;
   private final ErrorReporter errorReporter;
@@ -36,9 +65,32 @@ class Decoder {
    * These sockets are quarantined. They have not logged in, and messages
    * read from them are not passed outside of the quarantine conversation.
    */
-  private final ConcurrentHashMap<SocketChannel, QuarantineConversation> quarantine =
+  private final ConcurrentHashMap<SocketChannel, Quarantine> quarantine =
       new ConcurrentHashMap<>();
   private final Thread thread;
+  private final ThreadPoolExecutor[] decoders;
+  private final ThreadPoolExecutor quarantineExecutor;
+  private final StageMetrics decodeMetrics;
+  private final StageMetrics quarantineMetrics;
+
+  /**
+   * The conversation of a quarantined channel and the packets waiting for it.
+   */
+  private static final class Quarantine {
+    final QuarantineConversation conversation;
+    // all fields below are guarded by this
+    final Queue<SocketReadData> waiting = new ArrayDeque<>();
+    // true while a quarantine task is handing packets to the conversation
+    boolean busy;
+    // true once the conversation has ended, packets are then only kept to be delivered after unquarantining
+    boolean ended;
+    // true once the channel has been closed, packets are then released right away
+    boolean closed;
+
+    Quarantine(final QuarantineConversation conversation) {
+      this.conversation = conversation;
+    }
+  }
 
   Decoder(final NioSocket nioSocket, final NioReader reader, final ErrorReporter reporter,
       final IObjectStreamFactory objectStreamFactory, final String threadSuffix) {
@@ -46,6 +98,20 @@ class Decoder {
     errorReporter = reporter;
     this.objectStreamFactory = objectStreamFactory;
     this.nioSocket = nioSocket;
+    decoders = new ThreadPoolExecutor[DECODER_THREADS];
+    for (int i = 0; i < decoders.length; i++) {
+      final String name = "Decoder " + i + " -" + threadSuffix;
+      decoders[i] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+          r -> new Thread(r, name));
+    }
+    final AtomicInteger quarantineThreadCount = new AtomicInteger();
+    quarantineExecutor = new ThreadPoolExecutor(QUARANTINE_THREADS, QUARANTINE_THREADS, 60L, TimeUnit.SECONDS,
+        new ArrayBlockingQueue<>(MAX_WAITING_QUARANTINES),
+        r -> new Thread(r, "Quarantine " + quarantineThreadCount.getAndIncrement() + " -" + threadSuffix));
+    quarantineExecutor.allowCoreThreadTimeOut(true);
+    decodeMetrics = new StageMetrics("Decode", () -> reader.getQueueSize()
+        + Arrays.stream(decoders).mapToInt(decoder -> decoder.getQueue().size()).sum());
+    quarantineMetrics = new StageMetrics("Quarantine", () -> quarantineExecutor.getQueue().size());
     thread = new Thread(this::loop, "Decoder -" + threadSuffix);
     thread.start();
   }
@@ -53,6 +119,30 @@ class Decoder {
   void shutDown() {
     running = false;
     thread.interrupt();
+    for (final ThreadPoolExecutor decoder : decoders) {
+      decoder.shutdownNow();
+    }
+    quarantineExecutor.shutdownNow();
+  }
+
+  /**
+   * @return The metrics of decoding and delivering messages, from the time the dispatch thread takes them from the
+   *         reader.
+   */
+  StageMetrics getDecodeMetrics() {
+    return decodeMetrics;
+  }
+
+  /**
+   * @return The metrics of handing messages to quarantine conversations, where the queue depth is the number of
+   *         quarantined channels waiting for a quarantine thread.
+   */
+  StageMetrics getQuarantineMetrics() {
+    return quarantineMetrics;
+  }
+
+  private ThreadPoolExecutor getDecoder(final SocketChannel channel) {
+    return decoders[Math.floorMod(channel.hashCode(), decoders.length)];
   }
 
   private void loop() {
@@ -62,38 +152,12 @@ class Decoder {
         if (data == null || !running) {
           continue;
         }
-
+        final long startNanos = System.nanoTime();
         try {
-          final MessageHeader header = IoUtils.readFromMemory(data.getData(), is -> {
-            try {
-              return readMessageHeader(data.getChannel(), objectStreamFactory.create(is));
-            } catch (final ClassNotFoundException e) {
-              throw new IOException(e);
-            }
-          });
-          // make sure we are still open
-          final Socket s = data.getChannel().socket();
-          if (!running || s == null || s.isInputShutdown()) {
-            continue;
-          }
-          final QuarantineConversation converstation = quarantine.get(data.getChannel());
-          if (converstation != null) {
-            sendQuarantine(data.getChannel(), converstation, header);
-          } else {
-            if (nioSocket.getLocalNode() == null) {
-              throw new IllegalStateException("we are writing messages, but no local node");
-            }
-            if (header.getFrom() == null) {
-              throw new IllegalArgumentException("Null from:" + header);
-            }
-            nioSocket.messageReceived(header, data.getChannel());
-          }
-        } catch (final IOException | RuntimeException e) {
-          // we are reading from memory here
-          // there should be no network errors, something
-          // is odd
-          logger.log(Level.SEVERE, "error reading object", e);
-          errorReporter.error(data.getChannel(), e);
+          getDecoder(data.getChannel()).execute(() -> decode(data, startNanos));
+        } catch (final RejectedExecutionException e) {
+          // we are shutting down
+          data.release();
         }
       } catch (final InterruptedException e) {
         // Do nothing if we were interrupted due to an explicit shutdown because the thread will terminate normally;
@@ -105,16 +169,146 @@ class Decoder {
     }
   }
 
-  private void sendQuarantine(final SocketChannel channel, final QuarantineConversation conversation,
-      final MessageHeader header) {
-    final Action a = conversation.message(header.getMessage());
-    if (a == Action.TERMINATE) {
-      conversation.close();
-      // we need to indicate the channel was closed
-      errorReporter.error(channel, new CouldNotLogInException());
-    } else if (a == Action.UNQUARANTINE) {
-      nioSocket.unquarantine(channel, conversation);
-      quarantine.remove(channel);
+  /**
+   * Decodes and delivers a packet, unless its channel is quarantined. Runs on the decoder thread of the channel.
+   */
+  private void decode(final SocketReadData data, final long startNanos) {
+    final Quarantine conversation = quarantine.get(data.getChannel());
+    if (conversation != null) {
+      addToQuarantine(data, conversation);
+      return;
+    }
+    try {
+      final MessageHeader header = read(data);
+      // make sure we are still open
+      if (header == null) {
+        return;
+      }
+      if (nioSocket.getLocalNode() == null) {
+        throw new IllegalStateException("we are writing messages, but no local node");
+      }
+      if (header.getFrom() == null) {
+        throw new IllegalArgumentException("Null from:" + header);
+      }
+      nioSocket.messageReceived(header, data.getChannel());
+    } catch (final IOException | RuntimeException e) {
+      // we are reading from memory here
+      // there should be no network errors, something
+      // is odd
+      logger.log(Level.SEVERE, "error reading object", e);
+      errorReporter.error(data.getChannel(), e);
+    } finally {
+      decodeMetrics.record(startNanos);
+    }
+  }
+
+  /**
+   * @return The message read from the packet, or null if the channel has been closed or we are shutting down.
+   */
+  private MessageHeader read(final SocketReadData data) throws IOException {
+    final MessageHeader header;
+    try (ObjectInputStream in = objectStreamFactory.create(data.getInputStream())) {
+      header = readMessageHeader(data.getChannel(), in);
+    } catch (final ClassNotFoundException e) {
+      throw new IOException(e);
+    } finally {
+      data.release();
+    }
+    final Socket s = data.getChannel().socket();
+    return (!running || s == null || s.isInputShutdown()) ? null : header;
+  }
+
+  private void addToQuarantine(final SocketReadData data, final Quarantine conversation) {
+    synchronized (conversation) {
+      if (conversation.closed) {
+        data.release();
+        return;
+      }
+      conversation.waiting.add(data);
+      if (conversation.busy || conversation.ended) {
+        return;
+      }
+      conversation.busy = true;
+    }
+    final SocketChannel channel = data.getChannel();
+    final long startNanos = System.nanoTime();
+    try {
+      quarantineExecutor.execute(() -> sendQuarantine(channel, conversation, startNanos));
+    } catch (final RejectedExecutionException e) {
+      if (running) {
+        logger.warning("Too many connections waiting to log in, refusing " + channel.socket());
+        errorReporter.error(channel, new CouldNotLogInException());
+      }
+    }
+  }
+
+  /**
+   * Hands the waiting packets of a channel to its quarantine conversation, until none are left or the conversation
+   * has ended. Runs on the quarantine executor.
+   */
+  private void sendQuarantine(final SocketChannel channel, final Quarantine conversation, final long startNanos) {
+    try {
+      while (true) {
+        final SocketReadData data;
+        synchronized (conversation) {
+          if (conversation.ended) {
+            // the channel was closed meanwhile, which released the packets left waiting
+            conversation.busy = false;
+            return;
+          }
+          data = conversation.waiting.poll();
+          if (data == null) {
+            conversation.busy = false;
+            return;
+          }
+        }
+        final MessageHeader header = read(data);
+        if (header == null) {
+          continue;
+        }
+        final Action a = conversation.conversation.message(header.getMessage());
+        if (a == Action.TERMINATE) {
+          endQuarantine(conversation);
+          conversation.conversation.close();
+          // we need to indicate the channel was closed
+          errorReporter.error(channel, new CouldNotLogInException());
+          return;
+        } else if (a == Action.UNQUARANTINE) {
+          endQuarantine(conversation);
+          nioSocket.unquarantine(channel, conversation.conversation);
+          // later packets of the channel queue up behind this task on its decoder thread
+          getDecoder(channel).execute(() -> releaseQuarantine(channel, conversation));
+          return;
+        }
+      }
+    } catch (final IOException | RuntimeException e) {
+      logger.log(Level.SEVERE, "error reading object", e);
+      errorReporter.error(channel, e);
+    } finally {
+      quarantineMetrics.record(startNanos);
+    }
+  }
+
+  private static void endQuarantine(final Quarantine conversation) {
+    synchronized (conversation) {
+      conversation.ended = true;
+      conversation.busy = false;
+    }
+  }
+
+  /**
+   * Removes a channel from quarantine and delivers the packets read while its conversation was busy. Runs on the
+   * decoder thread of the channel.
+   */
+  private void releaseQuarantine(final SocketChannel channel, final Quarantine conversation) {
+    quarantine.remove(channel, conversation);
+    final List<SocketReadData> waiting;
+    synchronized (conversation) {
+      waiting = new ArrayList<>(conversation.waiting);
+      conversation.waiting.clear();
+    }
+    for (final SocketReadData data : waiting) {
+      decode(data, System.nanoTime());
     }
   }
 
@@ -191,14 +385,20 @@ class Decoder {
   }
 
   void add(final SocketChannel channel, final QuarantineConversation conversation) {
-    quarantine.put(channel, conversation);
+    quarantine.put(channel, new Quarantine(conversation));
   }
 
   void closed(final SocketChannel channel) {
     // remove if it exists
-    final QuarantineConversation conversation = quarantine.remove(channel);
+    final Quarantine conversation = quarantine.remove(channel);
     if (conversation != null) {
-      conversation.close();
+      synchronized (conversation) {
+        conversation.ended = true;
+        conversation.closed = true;
+        conversation.waiting.forEach(SocketReadData::release);
+        conversation.waiting.clear();
+      }
+      conversation.conversation.close();
     }
   }
 }
@@ -1,25 +1,41 @@
 package games.strategy.net.nio;
 
+import java.io.ByteArrayOutputStream;
 import java.io.Externalizable;
 import java.io.IOException;
 import java.io.ObjectOutputStream;
 import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
-import games.strategy.io.IoUtils;
 import games.strategy.net.IObjectStreamFactory;
+import games.strategy.net.ISupersedableMessage;
 import games.strategy.net.MessageHeader;
 import games.strategy.net.Node;
 
 /**
  * Encodes data to be written by a writer.
+ *
+ * <p>
+ * Messages are decoded on several threads, so the messages a server forwards to several channels, such as the
+ * broadcasts and channel invocations of different senders, are written from several threads. A message for several
+ * channels is therefore queued for all of them at once under one lock, so that every channel receives such messages
+ * in the same order.
+ * </p>
  */
 class Encoder {
   private static final Logger logger = Logger.getLogger(Encoder.class.getName());
   private final NioWriter writer;
   private final IObjectStreamFactory objectStreamFactory;
   private final NioSocket nioSocket;
+  private final AtomicLong bytesEncoded = new AtomicLong();
+  // held while a message is queued for several channels
+  private final Object fanOutLock = new Object();
 
   Encoder(final NioSocket nioSocket, final NioWriter writer, final IObjectStreamFactory objectStreamFactory) {
     this.nioSocket = nioSocket;
@@ -28,25 +44,128 @@ class Encoder {
   }
 
   void write(final SocketChannel to, final MessageHeader header) {
+    write(Collections.singletonList(to), header);
+  }
+
+  /**
+   * Writes the specified header to each of the specified channels. The header is only serialized once for all channels
+   * that receive the same bytes, which are all channels for a broadcast. For a message to a single node, the bytes
+   * differ between the channel to that node and the channels that relay the message.
+   */
+  void write(final Collection<SocketChannel> channels, final MessageHeader header) {
+    if (header.getFrom() == null) {
+      throw new IllegalArgumentException("No from node");
+    }
+    final Object supersedingKey = (header.getMessage() instanceof ISupersedableMessage)
+        ? ((ISupersedableMessage) header.getMessage()).getSupersedingKey()
+        : null;
+    // the frames are read-only, so all packets sending the same bytes can share one
+    SocketWriteData.Frame directFrame = null;
+    SocketWriteData.Frame relayedFrame = null;
+    final List<SocketWriteData.Frame> frames = new ArrayList<>(channels.size());
+    for (final SocketChannel to : channels) {
+      if (to == null) {
+        throw new IllegalArgumentException("No to channel!");
+      }
+      final boolean direct = header.getFor() != null && header.getFor().equals(nioSocket.getRemoteNode(to));
+      SocketWriteData.Frame frame = direct ? directFrame : relayedFrame;
+      if (frame == null) {
+        frame = encode(header, direct);
+        if (frame == null) {
+          return;
+        }
+        if (direct) {
+          directFrame = frame;
+        } else {
+          relayedFrame = frame;
+        }
+      }
+      frames.add(frame);
+    }
+    enque(new ArrayList<>(channels), frames, supersedingKey);
+  }
+
+  /**
+   * Writes the message of the specified header to each of the specified channels, as a message to the node of that
+   * channel. The destination node is not part of such a frame, so the header is only serialized once for all channels.
+   *
+   * @param header A header for one of the nodes of the channels.
+   */
+  void writeToEach(final Collection<SocketChannel> channels, final MessageHeader header) {
     if (header.getFrom() == null) {
       throw new IllegalArgumentException("No from node");
     }
-    if (to == null) {
+    if (header.getFor() == null) {
+      throw new IllegalArgumentException("Not for a node: " + header);
+    }
+    if (channels.isEmpty()) {
+      return;
+    }
+    final Object supersedingKey = (header.getMessage() instanceof ISupersedableMessage)
+        ? ((ISupersedableMessage) header.getMessage()).getSupersedingKey()
+        : null;
+    if (channels.contains(null)) {
       throw new IllegalArgumentException("No to channel!");
     }
+    final SocketWriteData.Frame frame = encode(header, true);
+    if (frame == null) {
+      return;
+    }
+    enque(new ArrayList<>(channels), Collections.nCopies(channels.size(), frame), supersedingKey);
+  }
+
+  /**
+   * Queues each frame for the channel at the same index.
+   */
+  private void enque(final List<SocketChannel> channels, final List<SocketWriteData.Frame> frames,
+      final Object supersedingKey) {
+    if (channels.size() == 1) {
+      writer.enque(new SocketWriteData(frames.get(0), supersedingKey), channels.get(0));
+      return;
+    }
+    synchronized (fanOutLock) {
+      for (int i = 0; i < channels.size(); i++) {
+        writer.enque(new SocketWriteData(frames.get(i), supersedingKey), channels.get(i));
+      }
+    }
+  }
+
+  private SocketWriteData.Frame encode(final MessageHeader header, final boolean direct) {
     try {
-      final byte[] bytes = IoUtils.writeToMemory(os -> write(header, objectStreamFactory.create(os), to));
-      final SocketWriteData data = new SocketWriteData(bytes, bytes.length);
-      writer.enque(data, to);
+      final FrameOutputStream os = new FrameOutputStream();
+      write(header, objectStreamFactory.create(os), direct);
+      final SocketWriteData.Frame frame = os.toFrame();
+      bytesEncoded.addAndGet(frame.length());
+      return frame;
     } catch (final IOException e) {
       // we arent doing any io, just writing in memory
       // so something is very wrong
       logger.log(Level.SEVERE, "Error writing object:" + header, e);
-      return;
+      return null;
+    }
+  }
+
+  /**
+   * A byte array output stream whose array becomes the data of a frame, instead of being copied.
+   */
+  private static final class FrameOutputStream extends ByteArrayOutputStream {
+    FrameOutputStream() {
+      super(256);
     }
+
+    SocketWriteData.Frame toFrame() {
+      return new SocketWriteData.Frame(buf, count);
+    }
+  }
+
+  /**
+   * @return The number of bytes encoded so far, including the size of each packet.
+   */
+  long getBytesEncoded() {
+    return bytesEncoded.get();
   }
 
-  private void write(final MessageHeader header, final ObjectOutputStream out, final SocketChannel remote)
+  private void write(final MessageHeader header, final ObjectOutputStream out, final boolean direct)
       throws IOException {
     if (header.getFrom() == null) {
       throw new IllegalArgumentException("null from");
@@ -58,7 +177,7 @@ class Encoder {
       // to a node
       out.write(0);
       // the common case, skip writing the address
-      if (header.getFor().equals(nioSocket.getRemoteNode(remote))) {
+      if (direct) {
         out.write(1);
       } else {
         // this message is going to be relayed, write the destination
@@ -29,13 +29,15 @@ class NioReader {
   private volatile boolean running = true;
   private final Map<SocketChannel, SocketReadData> reading = new ConcurrentHashMap<>();
   private final ErrorReporter errorReporter;
+  private final BufferPool bufferPool;
   private final Selector selector;
   private final Object socketsToAddMutex = new Object();
   private final List<SocketChannel> socketsToAdd = new ArrayList<>();
   private long totalBytes;
 
-  NioReader(final ErrorReporter reporter, final String threadSuffix) {
+  NioReader(final ErrorReporter reporter, final BufferPool bufferPool, final String threadSuffix) {
     errorReporter = reporter;
+    this.bufferPool = bufferPool;
     try {
       selector = Selector.open();
     } catch (final IOException e) {
@@ -149,7 +151,7 @@ class NioReader {
     if (reading.containsKey(channel)) {
       return reading.get(channel);
     }
-    final SocketReadData packet = new SocketReadData(channel);
+    final SocketReadData packet = new SocketReadData(channel, bufferPool);
     reading.put(channel, packet);
     return packet;
   }
@@ -158,7 +160,12 @@ class NioReader {
     return outputQueue.take();
   }
 
+  int getQueueSize() {
+    return outputQueue.size();
+  }
+
   void closed(final SocketChannel channel) {
+    // a packet that was partly read is not released, as the reader thread may still be reading into it
     reading.remove(channel);
   }
 }
@@ -3,6 +3,7 @@ package games.strategy.net.nio;
 import java.io.IOException;
 import java.net.Socket;
 import java.nio.channels.SocketChannel;
+import java.util.Collection;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -29,7 +30,7 @@ public class NioSocket implements ErrorReporter {
   public NioSocket(final IObjectStreamFactory factory, final NioSocketListener listener, final String name) {
     this.listener = listener;
     writer = new NioWriter(this, name);
-    reader = new NioReader(this, name);
+    reader = new NioReader(this, new BufferPool(), name);
     decoder = new Decoder(this, reader, this, factory, name);
     encoder = new Encoder(this, writer, factory);
   }
@@ -68,6 +69,74 @@ public class NioSocket implements ErrorReporter {
     encoder.write(to, header);
   }
 
+  /**
+   * Sends the specified message header through each of the specified channels. The message is serialized once for all
+   * channels, rather than once per channel.
+   *
+   * @param to The destination channels.
+   * @param header The message header to send.
+   */
+  public void send(final Collection<SocketChannel> to, final MessageHeader header) {
+    if (header == null) {
+      throw new IllegalArgumentException("header cant be null");
+    }
+    encoder.write(to, header);
+  }
+
+  /**
+   * Sends the message of the specified header to the node of each of the specified channels. The message is serialized
+   * once for all channels, as a message to a node does not hold its destination.
+   *
+   * @param to The channels of the destination nodes.
+   * @param header A header for one of the destination nodes.
+   */
+  public void sendToEach(final Collection<SocketChannel> to, final MessageHeader header) {
+    if (header == null) {
+      throw new IllegalArgumentException("header cant be null");
+    }
+    encoder.writeToEach(to, header);
+  }
+
+  /**
+   * @return The number of bytes of messages serialized for sending so far. A message sent through several channels at
+   *         once is only counted once.
+   */
+  public long getBytesEncoded() {
+    return encoder.getBytesEncoded();
+  }
+
+  /**
+   * @return The number of bytes written to all channels so far.
+   */
+  public long getBytesSent() {
+    return writer.getTotalBytes();
+  }
+
+  /**
+   * Sets the limits of the bytes queued for sending to each channel, see {@link OverflowPolicy}.
+   */
+  public void setSendQueueLimits(final long lowWatermark, final long highWatermark,
+      final OverflowPolicy overflowPolicy) {
+    writer.setSendQueueLimits(lowWatermark, highWatermark, overflowPolicy);
+  }
+
+  /**
+   * @return The queue depths and latencies of the decoding stages, and the send queue of each channel.
+   */
+  public String getStatus() {
+    final StringBuilder sb = new StringBuilder();
+    sb.append(decoder.getDecodeMetrics()).append("\n");
+    sb.append(decoder.getQuarantineMetrics()).append("\n");
+    sb.append("Bytes encoded:").append(getBytesEncoded()).append(" sent:").append(getBytesSent()).append("\n");
+    for (final String queue : writer.getQueueStatus(channel -> {
+      final INode node = getRemoteNode(channel);
+      return (node == null) ? channel.socket().getRemoteSocketAddress() : node.getName();
+    })) {
+      sb.append("Send queue to ").append(queue).append("\n");
+    }
+    return sb.toString();
+  }
+
   /**
    * Add this channel.
    * The channel will either be unquarantined, or an error will be reported
@@ -1,5 +1,8 @@
 package games.strategy.net.nio;
 
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
 import java.io.IOException;
 import java.net.Socket;
 import java.net.SocketAddress;
@@ -7,32 +10,73 @@ import java.nio.channels.ClosedChannelException;
 import java.nio.channels.SelectionKey;
 import java.nio.channels.Selector;
 import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import com.google.common.annotations.VisibleForTesting;
+
 /**
  * A thread that writes socket data using NIO .
  * Data is written in packets that are enqueued on our buffer.
  * Packets are sent to the sockets in the order that they are received.
+ *
+ * <p>
+ * The bytes queued for each socket are limited. Once they exceed the high watermark, the {@link OverflowPolicy}
+ * decides what happens to the socket and to the packets queued for it until they fall below the low watermark. A
+ * packet that supersedes a packet still waiting in the queue replaces it, unless that packet is already being
+ * written.
+ * </p>
  */
 class NioWriter {
   private static final Logger logger = Logger.getLogger(NioWriter.class.getName());
+  @VisibleForTesting
+  static final int DEFAULT_HIGH_WATERMARK = 4 * SocketReadData.MAX_MESSAGE_SIZE;
+  @VisibleForTesting
+  static final int DEFAULT_LOW_WATERMARK = SocketReadData.MAX_MESSAGE_SIZE;
   private final Selector selector;
   private final ErrorReporter errorReporter;
   // this is the data we are writing
-  private final Map<SocketChannel, List<SocketWriteData>> writing = new HashMap<>();
+  private final Map<SocketChannel, SendQueue> writing = new HashMap<>();
   // these are the sockets we arent selecting on, but should now
   private List<SocketChannel> socketsToWake = new ArrayList<>();
   // the writing thread and threads adding data to write synchronize on this lock
   private final Object mutex = new Object();
-  private long totalBytes = 0;
+  // only changed by the writer thread
+  private volatile long totalBytes = 0;
   private volatile boolean running = true;
+  // the limits are guarded by mutex
+  private long highWatermark = DEFAULT_HIGH_WATERMARK;
+  private long lowWatermark = DEFAULT_LOW_WATERMARK;
+  private OverflowPolicy overflowPolicy = OverflowPolicy.DISCONNECT;
+
+  /**
+   * The packets waiting to be written to a socket. The first packet may be being written. Guarded by mutex.
+   */
+  private static final class SendQueue {
+    final Deque<SocketWriteData> packets = new ArrayDeque<>();
+    long bytes;
+    long peakBytes;
+    long dropped;
+    long superseded;
+    // true from exceeding the high watermark until falling below the low watermark
+    boolean overflowing;
+
+    @Override
+    public String toString() {
+      return "queued packets:" + packets.size() + " bytes:" + bytes + " peak bytes:" + peakBytes
+          + " dropped:" + dropped + " superseded:" + superseded + (overflowing ? " OVERFLOWING" : "");
+    }
+  }
 
   NioWriter(final ErrorReporter reporter, final String threadSuffix) {
     errorReporter = reporter;
@@ -45,8 +89,43 @@ class NioWriter {
     new Thread(this::loop, "NIO Writer - " + threadSuffix).start();
   }
 
+  /**
+   * @return The number of bytes written to all sockets so far, including the size of each packet.
+   */
+  long getTotalBytes() {
+    return totalBytes;
+  }
+
+  /**
+   * Sets the limits of the bytes queued for each socket.
+   */
+  void setSendQueueLimits(final long lowWatermark, final long highWatermark, final OverflowPolicy overflowPolicy) {
+    checkArgument(lowWatermark <= highWatermark, "low watermark above high watermark");
+    checkNotNull(overflowPolicy);
+    synchronized (mutex) {
+      this.lowWatermark = lowWatermark;
+      this.highWatermark = highWatermark;
+      this.overflowPolicy = overflowPolicy;
+    }
+  }
+
+  /**
+   * @return The state of the queue of each socket, named by the specified function.
+   */
+  List<String> getQueueStatus(final Function<SocketChannel, ?> names) {
+    synchronized (mutex) {
+      return writing.entrySet().stream()
+          .map(entry -> names.apply(entry.getKey()) + " " + entry.getValue())
+          .collect(Collectors.toList());
+    }
+  }
+
   void shutDown() {
-    running = false;
+    synchronized (mutex) {
+      running = false;
+      // release blocked senders
+      mutex.notifyAll();
+    }
     try {
       selector.close();
     } catch (final IOException e) {
@@ -155,34 +234,30 @@ class NioWriter {
   private void removeAll(final SocketChannel to) {
     synchronized (mutex) {
       writing.remove(to);
+      // release senders blocked on this socket
+      mutex.notifyAll();
     }
   }
 
   private void removeLast(final SocketChannel to) {
     synchronized (mutex) {
-      final List<SocketWriteData> values = writing.get(to);
-      if (values == null) {
-        logger.log(Level.SEVERE, "NO socket data to:" + to + " all:" + values);
+      final SendQueue queue = writing.get(to);
+      if (queue == null || queue.packets.isEmpty()) {
+        logger.log(Level.SEVERE, "NO socket data to:" + to);
         return;
       }
-      values.remove(0);
-      // remove empty lists, so we can detect that we need to wake up the socket
-      if (values.isEmpty()) {
-        writing.remove(to);
+      queue.bytes -= queue.packets.removeFirst().size();
+      if (queue.overflowing && queue.bytes <= lowWatermark) {
+        queue.overflowing = false;
+        mutex.notifyAll();
       }
     }
   }
 
   private SocketWriteData getData(final SocketChannel to) {
     synchronized (mutex) {
-      if (!writing.containsKey(to)) {
-        return null;
-      }
-      final List<SocketWriteData> values = writing.get(to);
-      if (values.isEmpty()) {
-        return null;
-      }
-      return values.get(0);
+      final SendQueue queue = writing.get(to);
+      return (queue == null) ? null : queue.packets.peekFirst();
     }
   }
 
@@ -191,15 +266,68 @@ class NioWriter {
       if (!running) {
         return;
       }
-      if (writing.containsKey(channel)) {
-        writing.get(channel).add(data);
-      } else {
-        final List<SocketWriteData> values = new ArrayList<>();
-        values.add(data);
-        writing.put(channel, values);
+      SendQueue queue = writing.get(channel);
+      if (queue == null) {
+        queue = new SendQueue();
+        writing.put(channel, queue);
+      }
+      if (queue.overflowing) {
+        if (overflowPolicy == OverflowPolicy.DROP) {
+          queue.dropped++;
+          return;
+        } else if (overflowPolicy == OverflowPolicy.BLOCK) {
+          try {
+            while (running && queue.overflowing && writing.get(channel) == queue) {
+              mutex.wait();
+            }
+          } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+          }
+          if (!running || writing.get(channel) != queue) {
+            return;
+          }
+        }
+      }
+      supersede(queue, data);
+      if (queue.packets.isEmpty()) {
         socketsToWake.add(channel);
         selector.wakeup();
       }
+      queue.packets.addLast(data);
+      queue.bytes += data.size();
+      queue.peakBytes = Math.max(queue.peakBytes, queue.bytes);
+      if (queue.overflowing || queue.bytes <= highWatermark) {
+        return;
+      }
+      queue.overflowing = true;
+      logger.warning("Send queue of " + channel.socket() + " above high watermark, " + queue);
+      if (overflowPolicy != OverflowPolicy.DISCONNECT) {
+        return;
+      }
+    }
+    // report outside of the lock, as the error closes the socket and notifies listeners
+    errorReporter.error(channel, new IOException("Send queue above high watermark"));
+  }
+
+  /**
+   * Removes the packet the specified packet supersedes from the queue, unless it is the first packet, which may be
+   * being written.
+   */
+  private static void supersede(final SendQueue queue, final SocketWriteData data) {
+    final Iterator<SocketWriteData> iter = queue.packets.iterator();
+    if (!iter.hasNext()) {
+      return;
+    }
+    iter.next();
+    while (iter.hasNext()) {
+      final SocketWriteData queued = iter.next();
+      if (data.supersedes(queued)) {
+        iter.remove();
+        queue.bytes -= queued.size();
+        queue.superseded++;
+        return;
+      }
     }
   }
 }
@@ -0,0 +1,21 @@
+package games.strategy.net.nio;
+
+/**
+ * What to do with a message for a node whose send queue is above its high watermark.
+ */
+public enum OverflowPolicy {
+  /**
+   * Drop messages for the node until its queue is below the low watermark again.
+   */
+  DROP,
+
+  /**
+   * Disconnect the node.
+   */
+  DISCONNECT,
+
+  /**
+   * Make the thread sending the message wait until the queue of the node is below the low watermark again.
+   */
+  BLOCK
+}
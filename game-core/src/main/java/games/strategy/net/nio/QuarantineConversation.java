@@ -12,7 +12,8 @@ package games.strategy.net.nio;
  * </p>
  *
  * <p>
- * All messages sent to a conversation must be done in the Decode thread.
+ * Messages are sent to a conversation one at a time, in the order they were read, but not always from the same
+ * thread.
  * </p>
  */
 public abstract class QuarantineConversation {
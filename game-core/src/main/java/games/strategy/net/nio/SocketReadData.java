@@ -1,6 +1,7 @@
 package games.strategy.net.nio;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.ByteBuffer;
 import java.nio.channels.SocketChannel;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -27,14 +28,16 @@ class SocketReadData {
   // we read into here the first four
   // bytes to find out size
   private ByteBuffer sizeBuffer;
-  // we read into here after knowing out size
+  // we read into here after knowing out size, it is borrowed from the buffer pool
   private ByteBuffer contentBuffer;
   private final SocketChannel channel;
+  private final BufferPool bufferPool;
   private final int number = counter.incrementAndGet();
   private int readCalls;
 
-  public SocketReadData(final SocketChannel channel) {
+  public SocketReadData(final SocketChannel channel, final BufferPool bufferPool) {
     this.channel = channel;
+    this.bufferPool = bufferPool;
   }
 
   /**
@@ -72,7 +75,7 @@ class SocketReadData {
         if (targetSize <= 0 || targetSize > MAX_MESSAGE_SIZE) {
           throw new IOException("Invalid triplea packet size:" + targetSize);
         }
-        contentBuffer = ByteBuffer.allocate(targetSize);
+        contentBuffer = bufferPool.acquire(targetSize);
         sizeBuffer = null;
       } else {
         // we ddnt read all 4 bytes, return
@@ -95,15 +98,59 @@ class SocketReadData {
   }
 
   /**
-   * Get the data as a byte[].
-   * This method can only be called once.
+   * Get a stream that reads the data straight from the buffer it was read into.
+   * This method can only be called once, and the stream can only be used until {@link #release()} is called.
    */
-  public byte[] getData() {
-    final byte[] data = new byte[contentBuffer.capacity()];
+  public InputStream getInputStream() {
     contentBuffer.flip();
-    contentBuffer.get(data);
-    contentBuffer = null;
-    return data;
+    return new ByteBufferInputStream(contentBuffer);
+  }
+
+  /**
+   * Returns the buffer holding the data to the buffer pool.
+   */
+  public void release() {
+    if (contentBuffer != null) {
+      bufferPool.release(contentBuffer);
+      contentBuffer = null;
+    }
+  }
+
+  private static final class ByteBufferInputStream extends InputStream {
+    private final ByteBuffer buffer;
+
+    ByteBufferInputStream(final ByteBuffer buffer) {
+      this.buffer = buffer;
+    }
+
+    @Override
+    public int read() {
+      return buffer.hasRemaining() ? (buffer.get() & 0xFF) : -1;
+    }
+
+    @Override
+    public int read(final byte[] bytes, final int offset, final int length) {
+      if (length == 0) {
+        return 0;
+      } else if (!buffer.hasRemaining()) {
+        return -1;
+      }
+      final int count = Math.min(length, buffer.remaining());
+      buffer.get(bytes, offset, count);
+      return count;
+    }
+
+    @Override
+    public long skip(final long count) {
+      final int skipped = (int) Math.max(0, Math.min(count, buffer.remaining()));
+      buffer.position(buffer.position() + skipped);
+      return skipped;
+    }
+
+    @Override
+    public int available() {
+      return buffer.remaining();
+    }
   }
 
   public int size() {
@@ -7,6 +7,8 @@ import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import javax.annotation.Nullable;
+
 /**
  * A packet of data to be written over the network.
  *
@@ -15,33 +17,71 @@ import java.util.logging.Logger;
  * </p>
  *
  * <p>
- * The packet is written over the network as 32 bits indicating the size in bytes, then the data itself.
+ * The packet is written over the network as 32 bits indicating the size in bytes, then the data itself. Size and data
+ * are held in a read-only {@link Frame}, which can be shared by the packets sending the same data to several sockets.
+ * Each of these packets only keeps its own positions in the frame, and writes size and data with a single gathering
+ * write.
  * </p>
  */
 class SocketWriteData {
   private static final Logger logger = Logger.getLogger(SocketWriteData.class.getName());
   private static final AtomicInteger counter = new AtomicInteger();
-  private final ByteBuffer size;
-  private final ByteBuffer content;
+  // the size, then the data
+  private final ByteBuffer[] buffers;
+  @Nullable
+  private final Object supersedingKey;
   private final int number = counter.incrementAndGet();
   // how many times we called write before we finished writing ourselves
   private int writeCalls = 0;
 
-  SocketWriteData(final byte[] data, int count) {
-    content = ByteBuffer.allocate(count);
-    content.put(data, 0, count);
-    size = ByteBuffer.allocate(4);
-    if (count < 0 || count > SocketReadData.MAX_MESSAGE_SIZE) {
-      throw new IllegalStateException("Invalid message size:" + count);
+  /**
+   * The size and data of a packet. The data is not copied, so the array it is created from must not be modified
+   * afterwards.
+   */
+  static final class Frame {
+    private final ByteBuffer size;
+    private final ByteBuffer content;
+
+    Frame(final byte[] data, final int count) {
+      if (count < 0 || count > SocketReadData.MAX_MESSAGE_SIZE) {
+        throw new IllegalStateException("Invalid message size:" + count);
+      }
+      final ByteBuffer size = ByteBuffer.allocate(4);
+      size.putInt(count ^ SocketReadData.MAGIC);
+      size.flip();
+      this.size = size.asReadOnlyBuffer();
+      content = ByteBuffer.wrap(data, 0, count).asReadOnlyBuffer();
     }
-    count = count ^ SocketReadData.MAGIC;
-    size.putInt(count);
-    size.flip();
-    content.flip();
+
+    /**
+     * @return The number of bytes written for this frame, including its size.
+     */
+    int length() {
+      return size.remaining() + content.remaining();
+    }
+  }
+
+  SocketWriteData(final byte[] data, final int count) {
+    this(new Frame(data, count), null);
+  }
+
+  /**
+   * @param supersedingKey The key of the message, see {@link games.strategy.net.ISupersedableMessage}.
+   */
+  SocketWriteData(final Frame frame, @Nullable final Object supersedingKey) {
+    buffers = new ByteBuffer[] {frame.size.duplicate(), frame.content.duplicate()};
+    this.supersedingKey = supersedingKey;
+  }
+
+  /**
+   * @return true if this packet makes the specified packet obsolete.
+   */
+  boolean supersedes(final SocketWriteData other) {
+    return supersedingKey != null && supersedingKey.equals(other.supersedingKey);
   }
 
   int size() {
-    return size.capacity() + content.capacity();
+    return buffers[0].limit() + buffers[1].limit();
   }
 
   int getWriteCalls() {
@@ -53,31 +93,18 @@ class SocketWriteData {
    */
   boolean write(final SocketChannel channel) throws IOException {
     writeCalls++;
-    if (size.hasRemaining()) {
-      final int count = channel.write(size);
-      if (count == -1) {
-        throw new IOException("triplea: end of stream detected");
-      }
-      if (logger.isLoggable(Level.FINEST)) {
-        logger.finest("wrote size_buffer bytes:" + count);
-      }
-      // we could not write everything
-      if (size.hasRemaining()) {
-        return false;
-      }
-    }
-    final int count = channel.write(content);
+    final long count = channel.write(buffers);
     if (count == -1) {
       throw new IOException("triplea: end of stream detected");
     }
     if (logger.isLoggable(Level.FINEST)) {
-      logger.finest("wrote content bytes:" + count);
+      logger.finest("wrote bytes:" + count);
     }
-    return !content.hasRemaining();
+    return !buffers[1].hasRemaining() && !buffers[0].hasRemaining();
   }
 
   @Override
   public String toString() {
-    return "<id:" + number + " size:" + content.capacity() + ">";
+    return "<id:" + number + " size:" + buffers[1].limit() + ">";
   }
 }
@@ -0,0 +1,59 @@
+package games.strategy.net.nio;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+
+/**
+ * The number of messages waiting for a stage of the network pipeline, and how long the stage took for the messages it
+ * handled. The metrics are thread safe.
+ */
+final class StageMetrics {
+  private final String name;
+  private final IntSupplier queueDepth;
+  private final LongAdder count = new LongAdder();
+  private final LongAdder totalNanos = new LongAdder();
+  private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+  StageMetrics(final String name, final IntSupplier queueDepth) {
+    this.name = name;
+    this.queueDepth = queueDepth;
+  }
+
+  /**
+   * Records a message the stage has handled.
+   *
+   * @param startNanos The {@link System#nanoTime()} at which the message entered the stage.
+   */
+  void record(final long startNanos) {
+    final long nanos = System.nanoTime() - startNanos;
+    count.increment();
+    totalNanos.add(nanos);
+    maxNanos.accumulate(nanos);
+  }
+
+  int getQueueDepth() {
+    return queueDepth.getAsInt();
+  }
+
+  long getCount() {
+    return count.sum();
+  }
+
+  long getAverageNanos() {
+    final long count = getCount();
+    return (count == 0) ? 0 : totalNanos.sum() / count;
+  }
+
+  long getMaxNanos() {
+    return maxNanos.get();
+  }
+
+  @Override
+  public String toString() {
+    return name + " queued:" + getQueueDepth() + " handled:" + getCount()
+        + " average ms:" + TimeUnit.NANOSECONDS.toMillis(getAverageNanos())
+        + " max ms:" + TimeUnit.NANOSECONDS.toMillis(getMaxNanos());
+  }
+}
@@ -7,6 +7,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 
 import games.strategy.engine.data.GameData;
@@ -30,6 +31,8 @@ import games.strategy.triplea.ai.pro.util.ProBattleUtils;
 import games.strategy.triplea.ai.pro.util.ProMatches;
 import games.strategy.triplea.ai.pro.util.ProOddsCalculator;
 import games.strategy.triplea.ai.pro.util.ProPurchaseUtils;
+import games.strategy.triplea.ai.pro.util.ProTerritoryValueUtils;
+import games.strategy.triplea.ai.pro.util.ProTimeBudget;
 import games.strategy.triplea.ai.pro.util.ProTransportUtils;
 import games.strategy.triplea.attachments.PoliticalActionAttachment;
 import games.strategy.triplea.delegate.BattleCalculator;
@@ -47,7 +50,7 @@ import games.strategy.triplea.delegate.remote.IMoveDelegate;
 import games.strategy.triplea.delegate.remote.IPurchaseDelegate;
 import games.strategy.triplea.delegate.remote.ITechDelegate;
 import games.strategy.triplea.oddsCalculator.ta.ConcurrentOddsCalculator;
-import games.strategy.triplea.oddsCalculator.ta.IOddsCalculator;
+import games.strategy.triplea.settings.ClientSetting;
 import games.strategy.triplea.ui.TripleAFrame;
 import games.strategy.util.CollectionUtils;
 import games.strategy.util.Tuple;
@@ -58,8 +61,16 @@ import games.strategy.util.Tuple;
 public class ProAi extends AbstractAi {
 
   // Odds calculator
-  private static final IOddsCalculator concurrentCalc = new ConcurrentOddsCalculator("ProAi");
+  private static final ConcurrentOddsCalculator concurrentCalc = new ConcurrentOddsCalculator("ProAi");
+  // Stop simulating a battle once its win percentage is known within +/- 5%
+  private static final double WIN_PERCENTAGE_CONFIDENCE_INTERVAL = 0.05;
+
+  static {
+    concurrentCalc.setWinPercentageConfidenceInterval(WIN_PERCENTAGE_CONFIDENCE_INTERVAL);
+  }
+
   protected ProOddsCalculator calc;
+  private final ProTimeBudget timeBudget = new ProTimeBudget();
 
   // Phases
   private final ProCombatMoveAi combatMoveAi;
@@ -79,6 +90,7 @@ public class ProAi extends AbstractAi {
   public ProAi(final String name, final String type) {
     super(name, type);
     initializeCalc();
+    calc.setTimeBudget(timeBudget);
     combatMoveAi = new ProCombatMoveAi(this);
     nonCombatMoveAi = new ProNonCombatMoveAi(this);
     purchaseAi = new ProPurchaseAi(this);
@@ -100,6 +112,22 @@ public class ProAi extends AbstractAi {
     return calc;
   }
 
+  public ProTimeBudget getTimeBudget() {
+    return timeBudget;
+  }
+
+  private void startTimeBudget(final String phase) {
+    timeBudget.start(phase, TimeUnit.SECONDS.toMillis(ClientSetting.AI_PHASE_TIME_BUDGET.intValue()));
+  }
+
+  /**
+   * Logs how the phase used its budget, and stops the budget until the next phase starts.
+   */
+  private void stopTimeBudget(final PlayerID player) {
+    ProLogger.info(player.getName() + " " + timeBudget.getSummary());
+    timeBudget.stop();
+  }
+
   public static void initialize(final TripleAFrame frame) {
     ProLogUi.initialize(frame);
     ProLogger.info("Initialized Hard AI");
@@ -113,6 +141,7 @@ public class ProAi extends AbstractAi {
   public static void gameOverClearCache() {
     // Are static, clear so that we don't keep the data around after a game is exited
     concurrentCalc.setGameData(null);
+    ProTerritoryValueUtils.clearValueField();
     ProLogUi.clearCachedInstances();
   }
 
@@ -134,28 +163,44 @@ public class ProAi extends AbstractAi {
   protected void move(final boolean nonCombat, final IMoveDelegate moveDel, final GameData data,
       final PlayerID player) {
     final long start = System.currentTimeMillis();
-    BattleCalculator.clearOolCache();
-    ProLogUi.notifyStartOfRound(data.getSequence().getRound(), player.getName());
-    initializeData();
-    calc.setData(data);
-    if (nonCombat) {
-      nonCombatMoveAi.doNonCombatMove(storedFactoryMoveMap, storedPurchaseTerritories, moveDel);
-      storedFactoryMoveMap = null;
-    } else {
-      if (storedCombatMoveMap == null) {
-        combatMoveAi.doCombatMove(moveDel);
+    startTimeBudget(nonCombat ? "nonCombatMove" : "combatMove");
+    try {
+      BattleCalculator.clearOolCache();
+      ProLogUi.notifyStartOfRound(data.getSequence().getRound(), player.getName());
+      initializeData();
+      calc.setData(data);
+      if (nonCombat) {
+        nonCombatMoveAi.doNonCombatMove(storedFactoryMoveMap, storedPurchaseTerritories, moveDel);
+        storedFactoryMoveMap = null;
       } else {
-        combatMoveAi.doMove(storedCombatMoveMap, moveDel, data, player);
-        storedCombatMoveMap = null;
+        if (storedCombatMoveMap == null) {
+          combatMoveAi.doCombatMove(moveDel);
+        } else {
+          combatMoveAi.doMove(storedCombatMoveMap, moveDel, data, player);
+          storedCombatMoveMap = null;
+        }
       }
+      calc.clearCache();
+      ProLogger.info(
+          player.getName() + " time for nonCombat=" + nonCombat + " time=" + (System.currentTimeMillis() - start));
+    } finally {
+      stopTimeBudget(player);
     }
-    ProLogger
-        .info(player.getName() + " time for nonCombat=" + nonCombat + " time=" + (System.currentTimeMillis() - start));
   }
 
   @Override
   protected void purchase(final boolean purchaseForBid, final int pusToSpend, final IPurchaseDelegate purchaseDelegate,
       final GameData data, final PlayerID player) {
+    startTimeBudget("purchase");
+    try {
+      doPurchase(purchaseForBid, pusToSpend, purchaseDelegate, data, player);
+    } finally {
+      stopTimeBudget(player);
+    }
+  }
+
+  private void doPurchase(final boolean purchaseForBid, final int pusToSpend, final IPurchaseDelegate purchaseDelegate,
+      final GameData data, final PlayerID player) {
     final long start = System.currentTimeMillis();
     BattleCalculator.clearOolCache();
     ProLogUi.notifyStartOfRound(data.getSequence().getRound(), player.getName());
@@ -243,8 +288,11 @@ public class ProAi extends AbstractAi {
             storedPoliticalActions = actions;
           }
         }
+        // the unit values may change from one simulated phase to the next
+        calc.clearCache();
       }
     }
+    calc.clearCache();
     ProLogger.info(player.getName() + " time for purchase=" + (System.currentTimeMillis() - start));
   }
 
@@ -252,12 +300,17 @@ public class ProAi extends AbstractAi {
   protected void place(final boolean bid, final IAbstractPlaceDelegate placeDelegate, final GameData data,
       final PlayerID player) {
     final long start = System.currentTimeMillis();
-    BattleCalculator.clearOolCache();
-    ProLogUi.notifyStartOfRound(data.getSequence().getRound(), player.getName());
-    initializeData();
-    purchaseAi.place(storedPurchaseTerritories, placeDelegate);
-    storedPurchaseTerritories = null;
-    ProLogger.info(player.getName() + " time for place=" + (System.currentTimeMillis() - start));
+    startTimeBudget("place");
+    try {
+      BattleCalculator.clearOolCache();
+      ProLogUi.notifyStartOfRound(data.getSequence().getRound(), player.getName());
+      initializeData();
+      purchaseAi.place(storedPurchaseTerritories, placeDelegate);
+      storedPurchaseTerritories = null;
+      ProLogger.info(player.getName() + " time for place=" + (System.currentTimeMillis() - start));
+    } finally {
+      stopTimeBudget(player);
+    }
   }
 
   @Override
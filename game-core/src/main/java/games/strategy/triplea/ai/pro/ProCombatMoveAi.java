@@ -34,6 +34,7 @@ import games.strategy.triplea.ai.pro.util.ProOddsCalculator;
 import games.strategy.triplea.ai.pro.util.ProPurchaseUtils;
 import games.strategy.triplea.ai.pro.util.ProSortMoveOptionsUtils;
 import games.strategy.triplea.ai.pro.util.ProTerritoryValueUtils;
+import games.strategy.triplea.ai.pro.util.ProTimeBudget;
 import games.strategy.triplea.ai.pro.util.ProTransportUtils;
 import games.strategy.triplea.ai.pro.util.ProUtils;
 import games.strategy.triplea.attachments.TerritoryAttachment;
@@ -52,6 +53,7 @@ class ProCombatMoveAi {
 
   private final ProAi ai;
   private final ProOddsCalculator calc;
+  private final ProTimeBudget timeBudget;
   private GameData data;
   private PlayerID player;
   private ProTerritoryManager territoryManager;
@@ -61,6 +63,7 @@ class ProCombatMoveAi {
   ProCombatMoveAi(final ProAi ai) {
     this.ai = ai;
     calc = ai.getCalc();
+    timeBudget = ai.getTimeBudget();
   }
 
   Map<Territory, ProTerritory> doCombatMove(final IMoveDelegate moveDel) {
@@ -110,12 +113,18 @@ class ProCombatMoveAi {
       }
     }
     territoryManager.populateEnemyAttackOptions(clearedTerritories, new ArrayList<>(possibleTransportTerritories));
-    territoriesToCheck = new HashSet<>(clearedTerritories);
-    territoriesToCheck.addAll(ProData.myUnitTerritories);
-    territoryValueMap =
-        ProTerritoryValueUtils.findTerritoryValues(player, new ArrayList<>(), clearedTerritories, territoriesToCheck);
-    determineTerritoriesThatCanBeHeld(attackOptions, territoryValueMap);
-    removeTerritoriesThatArentWorthAttacking(attackOptions);
+    if (timeBudget.isExhausted()) {
+      ProLogger.info("Out of time so assuming attacked territories with enemy attackers can't be held");
+      determineTerritoriesThatCanBeHeldWithoutBattles(attackOptions);
+    } else {
+      territoriesToCheck = new HashSet<>(clearedTerritories);
+      territoriesToCheck.addAll(ProData.myUnitTerritories);
+      territoryValueMap =
+          ProTerritoryValueUtils.findTerritoryValues(player, new ArrayList<>(), clearedTerritories, territoriesToCheck);
+      determineTerritoriesThatCanBeHeld(attackOptions, territoryValueMap);
+      removeTerritoriesThatArentWorthAttacking(attackOptions);
+      timeBudget.refined();
+    }
 
     // Determine how many units to attack each territory with
     final List<Unit> alreadyMovedUnits = moveOneDefenderToLandTerritoriesBorderingEnemy(attackOptions);
@@ -363,6 +372,15 @@ class ProCombatMoveAi {
         if (numToAttack > prioritizedTerritories.size()) {
           break;
         }
+
+        // Out of time so only attack the territories found so far
+        if (timeBudget.isExhausted()) {
+          ProLogger.debug("Out of time so not trying to attack: "
+              + prioritizedTerritories.subList(numToAttack - 1, prioritizedTerritories.size()));
+          prioritizedTerritories.subList(numToAttack - 1, prioritizedTerritories.size()).clear();
+          break;
+        }
+        timeBudget.refined();
       } else {
         ProLogger.debug("Removing territory: " + prioritizedTerritories.get(numToAttack - 1).getTerritory().getName());
         prioritizedTerritories.remove(numToAttack - 1);
@@ -451,6 +469,27 @@ class ProCombatMoveAi {
     }
   }
 
+  /**
+   * Like {@link #determineTerritoriesThatCanBeHeld(List, Map)}, but without estimating any battles: territories that
+   * enemy units can counter attack are assumed not to be holdable.
+   */
+  private void determineTerritoriesThatCanBeHeldWithoutBattles(final List<ProTerritory> prioritizedTerritories) {
+    final ProOtherMoveOptions enemyAttackOptions = territoryManager.getEnemyAttackOptions();
+    for (final ProTerritory patd : prioritizedTerritories) {
+      final Territory t = patd.getTerritory();
+      if (enemyAttackOptions.getMax(t) != null) {
+        final Set<Unit> enemyAttackingUnits = new HashSet<>(enemyAttackOptions.getMax(t).getMaxUnits());
+        enemyAttackingUnits.addAll(enemyAttackOptions.getMax(t).getMaxAmphibUnits());
+        patd.setMaxEnemyUnits(new ArrayList<>(enemyAttackingUnits));
+        patd.setMaxEnemyBombardUnits(enemyAttackOptions.getMax(t).getMaxBombardUnits());
+        patd.setCanHold(false);
+      } else {
+        patd.setCanHold(!patd.isStrafing());
+      }
+      ProLogger.debug(t + ", CanHold=" + patd.isCanHold() + " without checking counter attacks");
+    }
+  }
+
   private void removeTerritoriesThatArentWorthAttacking(final List<ProTerritory> prioritizedTerritories) {
     ProLogger.info("Remove territories that aren't worth attacking");
 
@@ -21,6 +21,7 @@ import games.strategy.engine.data.Territory;
 import games.strategy.engine.data.Unit;
 import games.strategy.triplea.Properties;
 import games.strategy.triplea.TripleAUnit;
+import games.strategy.triplea.ai.pro.data.ProBattle;
 import games.strategy.triplea.ai.pro.data.ProBattleResult;
 import games.strategy.triplea.ai.pro.data.ProOtherMoveOptions;
 import games.strategy.triplea.ai.pro.data.ProPlaceTerritory;
@@ -37,6 +38,7 @@ import games.strategy.triplea.ai.pro.util.ProOddsCalculator;
 import games.strategy.triplea.ai.pro.util.ProPurchaseUtils;
 import games.strategy.triplea.ai.pro.util.ProSortMoveOptionsUtils;
 import games.strategy.triplea.ai.pro.util.ProTerritoryValueUtils;
+import games.strategy.triplea.ai.pro.util.ProTimeBudget;
 import games.strategy.triplea.ai.pro.util.ProTransportUtils;
 import games.strategy.triplea.ai.pro.util.ProUtils;
 import games.strategy.triplea.attachments.TerritoryAttachment;
@@ -56,6 +58,7 @@ import games.strategy.util.CollectionUtils;
 class ProNonCombatMoveAi {
 
   private final ProOddsCalculator calc;
+  private final ProTimeBudget timeBudget;
   private GameData data;
   private PlayerID player;
   private Map<Unit, Territory> unitTerritoryMap;
@@ -63,6 +66,7 @@ class ProNonCombatMoveAi {
 
   ProNonCombatMoveAi(final ProAi ai) {
     calc = ai.getCalc();
+    timeBudget = ai.getTimeBudget();
   }
 
   Map<Territory, ProTerritory> simulateNonCombatMove(final IMoveDelegate moveDel) {
@@ -345,7 +349,8 @@ class ProNonCombatMoveAi {
     final Map<Territory, ProTerritory> moveMap = territoryManager.getDefendOptions().getTerritoryMap();
     final ProOtherMoveOptions enemyAttackOptions = territoryManager.getEnemyAttackOptions();
 
-    // Determine which territories can possibly be held
+    // Check if min defenders can hold it (not considering AA), all territories are estimated together
+    final List<ProBattle> minBattles = new ArrayList<>();
     for (final Territory t : moveMap.keySet()) {
       final ProTerritory patd = moveMap.get(t);
 
@@ -355,15 +360,25 @@ class ProNonCombatMoveAi {
         continue;
       }
 
-      // Check if min defenders can hold it (not considering AA)
       final Set<Unit> enemyAttackingUnits = new HashSet<>(enemyAttackOptions.getMax(t).getMaxUnits());
       enemyAttackingUnits.addAll(enemyAttackOptions.getMax(t).getMaxAmphibUnits());
       patd.setMaxEnemyUnits(new ArrayList<>(enemyAttackingUnits));
       patd.setMaxEnemyBombardUnits(enemyAttackOptions.getMax(t).getMaxBombardUnits());
       final List<Unit> minDefendingUnitsAndNotAa =
           CollectionUtils.getMatches(patd.getCantMoveUnits(), Matches.unitIsAaForAnything().negate());
-      final ProBattleResult minResult = calc.calculateBattleResults(t, new ArrayList<>(enemyAttackingUnits),
-          minDefendingUnitsAndNotAa, enemyAttackOptions.getMax(t).getMaxBombardUnits());
+      minBattles.add(new ProBattle(t, new ArrayList<>(enemyAttackingUnits), minDefendingUnitsAndNotAa,
+          enemyAttackOptions.getMax(t).getMaxBombardUnits()));
+    }
+    final List<ProBattleResult> minResults = calc.calculateBattleResults(minBattles);
+
+    // Check if max defenders can hold the territories that min defenders can't hold (not considering AA)
+    final List<ProBattle> maxBattles = new ArrayList<>();
+    for (int i = 0; i < minBattles.size(); i++) {
+      final Territory t = minBattles.get(i).getTerritory();
+      final ProTerritory patd = moveMap.get(t);
+      final List<Unit> enemyAttackingUnits = minBattles.get(i).getAttackingUnits();
+      final List<Unit> minDefendingUnitsAndNotAa = minBattles.get(i).getDefendingUnits();
+      final ProBattleResult minResult = minResults.get(i);
       patd.setMinBattleResult(minResult);
       if (minResult.getTuvSwing() <= 0 && !minDefendingUnitsAndNotAa.isEmpty()) {
         ProLogger.debug("Territory=" + t.getName() + ", CanHold=true" + ", MinDefenders="
@@ -373,14 +388,24 @@ class ProNonCombatMoveAi {
         continue;
       }
 
-      // Check if max defenders can hold it (not considering AA)
       final Set<Unit> defendingUnits = new HashSet<>(patd.getMaxUnits());
       defendingUnits.addAll(patd.getMaxAmphibUnits());
       defendingUnits.addAll(patd.getCantMoveUnits());
       final List<Unit> defendingUnitsAndNotAa =
           CollectionUtils.getMatches(defendingUnits, Matches.unitIsAaForAnything().negate());
-      final ProBattleResult result = calc.calculateBattleResults(t, new ArrayList<>(enemyAttackingUnits),
-          defendingUnitsAndNotAa, enemyAttackOptions.getMax(t).getMaxBombardUnits());
+      maxBattles.add(new ProBattle(t, enemyAttackingUnits, defendingUnitsAndNotAa,
+          minBattles.get(i).getBombardingUnits()));
+    }
+    final List<ProBattleResult> maxResults = calc.calculateBattleResults(maxBattles);
+
+    // Determine which territories can possibly be held
+    for (int i = 0; i < maxBattles.size(); i++) {
+      final Territory t = maxBattles.get(i).getTerritory();
+      final ProTerritory patd = moveMap.get(t);
+      final List<Unit> enemyAttackingUnits = maxBattles.get(i).getAttackingUnits();
+      final List<Unit> defendingUnitsAndNotAa = maxBattles.get(i).getDefendingUnits();
+      final ProBattleResult minResult = patd.getMinBattleResult();
+      final ProBattleResult result = maxResults.get(i);
       int isFactory = 0;
       if (ProMatches.territoryHasInfraFactoryAndIsLand().test(t)) {
         isFactory = 1;
@@ -389,6 +414,8 @@ class ProNonCombatMoveAi {
       if (t.equals(ProData.myCapital)) {
         isMyCapital = 1;
       }
+      final List<Unit> minDefendingUnitsAndNotAa =
+          CollectionUtils.getMatches(patd.getCantMoveUnits(), Matches.unitIsAaForAnything().negate());
       final List<Unit> extraUnits = new ArrayList<>(defendingUnitsAndNotAa);
       extraUnits.removeAll(minDefendingUnitsAndNotAa);
       final double extraUnitValue = TuvUtils.getTuv(extraUnits, ProData.unitValueMap);
@@ -970,6 +997,20 @@ class ProNonCombatMoveAi {
         if (numToDefend > prioritizedTerritories.size()) {
           break;
         }
+
+        // Out of time so only defend the territories found so far
+        if (timeBudget.isExhausted()) {
+          ProLogger.debug("Out of time so not trying to defend: "
+              + prioritizedTerritories.subList(numToDefend - 1, prioritizedTerritories.size()));
+          final List<ProTerritory> notDefended =
+              prioritizedTerritories.subList(numToDefend - 1, prioritizedTerritories.size());
+          for (final ProTerritory patd : notDefended) {
+            patd.setCanHold(false);
+          }
+          notDefended.clear();
+          break;
+        }
+        timeBudget.refined();
       } else {
 
         // Remove territory last territory in prioritized list since we can't hold them all
@@ -36,6 +36,7 @@ import games.strategy.triplea.ai.pro.util.ProMatches;
 import games.strategy.triplea.ai.pro.util.ProOddsCalculator;
 import games.strategy.triplea.ai.pro.util.ProPurchaseUtils;
 import games.strategy.triplea.ai.pro.util.ProTerritoryValueUtils;
+import games.strategy.triplea.ai.pro.util.ProTimeBudget;
 import games.strategy.triplea.ai.pro.util.ProTransportUtils;
 import games.strategy.triplea.ai.pro.util.ProUtils;
 import games.strategy.triplea.attachments.TerritoryAttachment;
@@ -55,6 +56,7 @@ import games.strategy.util.IntegerMap;
 class ProPurchaseAi {
 
   private final ProOddsCalculator calc;
+  private final ProTimeBudget timeBudget;
   private GameData data;
   private GameData startOfTurnData; // Used to count current units on map for maxBuiltPerPlayer
   private PlayerID player;
@@ -64,6 +66,7 @@ class ProPurchaseAi {
 
   ProPurchaseAi(final ProAi ai) {
     calc = ai.getCalc();
+    timeBudget = ai.getTimeBudget();
   }
 
   int repair(int pusRemaining, final IPurchaseDelegate purchaseDelegate, final GameData data,
@@ -141,7 +144,7 @@ class ProPurchaseAi {
     final ProPurchaseOptionMap purchaseOptions = ProData.purchaseOptions;
 
     ProLogger.info("Starting bid phase with resources: " + resourceTracker);
-    if (!player.getUnits().getUnits().isEmpty()) {
+    if (!player.getUnits().isEmpty()) {
       ProLogger.info("Starting bid phase with unplaced units=" + player.getUnits().getUnits());
     }
 
@@ -231,7 +234,7 @@ class ProPurchaseAi {
     final ProPurchaseOptionMap purchaseOptions = ProData.purchaseOptions;
 
     ProLogger.info("Starting purchase phase with resources: " + resourceTracker);
-    if (!player.getUnits().getUnits().isEmpty()) {
+    if (!player.getUnits().isEmpty()) {
       ProLogger.info("Starting purchase phase with unplaced units=" + player.getUnits().getUnits());
     }
 
@@ -290,10 +293,17 @@ class ProPurchaseAi {
     // Try to use any remaining PUs on high value units
     purchaseUnitsWithRemainingProduction(purchaseTerritories, purchaseOptions.getLandOptions(),
         purchaseOptions.getAirOptions());
-    upgradeUnitsWithRemainingPUs(purchaseTerritories, purchaseOptions);
+    if (timeBudget.isExhausted()) {
+      ProLogger.info("Out of time so not upgrading units or purchasing factories with extra PUs");
+    } else {
+      upgradeUnitsWithRemainingPUs(purchaseTerritories, purchaseOptions);
+      timeBudget.refined();
 
-    // Try to purchase land/sea factory with extra PUs
-    purchaseFactory(factoryPurchaseTerritories, purchaseTerritories, prioritizedLandTerritories, purchaseOptions, true);
+      // Try to purchase land/sea factory with extra PUs
+      purchaseFactory(factoryPurchaseTerritories, purchaseTerritories, prioritizedLandTerritories, purchaseOptions,
+          true);
+      timeBudget.refined();
+    }
 
     // Add factory purchase territory to list if not empty
     if (!factoryPurchaseTerritories.isEmpty()) {
@@ -360,7 +370,7 @@ class ProPurchaseAi {
     }
 
     // Place remaining units (currently only implemented to handle land units, ex. WW2v3 China)
-    if (player.getUnits().getUnits().isEmpty()) {
+    if (player.getUnits().isEmpty()) {
       return;
     }
 
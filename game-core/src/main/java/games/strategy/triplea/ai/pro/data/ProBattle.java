@@ -0,0 +1,21 @@
+package games.strategy.triplea.ai.pro.data;
+
+import java.util.List;
+import java.util.Set;
+
+import games.strategy.engine.data.Territory;
+import games.strategy.engine.data.Unit;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A battle to estimate together with other independent battles.
+ */
+@Getter
+@AllArgsConstructor
+public class ProBattle {
+  private final Territory territory;
+  private final List<Unit> attackingUnits;
+  private final List<Unit> defendingUnits;
+  private final Set<Unit> bombardingUnits;
+}
@@ -113,27 +113,48 @@ public class ProTerritoryManager {
     ProLogger.info("Removing territories that can't be conquered");
     final GameData data = ProData.getData();
 
-    // Determine if territory can be successfully attacked with max possible attackers
-    final List<Territory> territoriesToRemove = new ArrayList<>();
+    // Check if I can win without amphib units and ignore AA since max units might have lots of planes (the
+    // territories are independent of each other, so all of them are estimated together)
+    final Map<Territory, List<Unit>> defendersByTerritory = new HashMap<>();
+    final List<ProBattle> maxBattles = new ArrayList<>();
     for (final Territory t : attackMap.keySet()) {
       final ProTerritory patd = attackMap.get(t);
-
-      // Check if I can win without amphib units and ignore AA since max units might have lots of planes
       List<Unit> defenders = CollectionUtils.getMatches(patd.getMaxEnemyDefenders(player, data),
           ProMatches.unitIsEnemyAndNotAa(player, data));
       if (isIgnoringRelationships) {
         defenders = new ArrayList<>(t.getUnits());
       }
-      patd.setMaxBattleResult(calc.estimateAttackBattleResults(t, patd.getMaxUnits(), defenders, new HashSet<>()));
+      defendersByTerritory.put(t, defenders);
+      maxBattles.add(new ProBattle(t, patd.getMaxUnits(), defenders, new HashSet<>()));
+    }
+    final List<ProBattleResult> maxResults = calc.estimateAttackBattleResults(maxBattles);
+    for (int i = 0; i < maxBattles.size(); i++) {
+      attackMap.get(maxBattles.get(i).getTerritory()).setMaxBattleResult(maxResults.get(i));
+    }
 
-      // Add in amphib units if I can't win without them
+    // Add in amphib units if I can't win without them
+    final List<ProBattle> amphibBattles = new ArrayList<>();
+    for (final Territory t : attackMap.keySet()) {
+      final ProTerritory patd = attackMap.get(t);
       if (patd.getMaxBattleResult().getWinPercentage() < ProData.winPercentage && !patd.getMaxAmphibUnits().isEmpty()) {
         final Set<Unit> combinedUnits = new HashSet<>(patd.getMaxUnits());
         combinedUnits.addAll(patd.getMaxAmphibUnits());
-        patd.setMaxBattleResult(calc.estimateAttackBattleResults(t, new ArrayList<>(combinedUnits), defenders,
+        amphibBattles.add(new ProBattle(t, new ArrayList<>(combinedUnits), defendersByTerritory.get(t),
             patd.getMaxBombardUnits()));
-        patd.setNeedAmphibUnits(true);
       }
+    }
+    final List<ProBattleResult> amphibResults = calc.estimateAttackBattleResults(amphibBattles);
+    for (int i = 0; i < amphibBattles.size(); i++) {
+      final ProTerritory patd = attackMap.get(amphibBattles.get(i).getTerritory());
+      patd.setMaxBattleResult(amphibResults.get(i));
+      patd.setNeedAmphibUnits(true);
+    }
+
+    // Determine if territory can be successfully attacked with max possible attackers
+    final List<Territory> territoriesToRemove = new ArrayList<>();
+    for (final Territory t : attackMap.keySet()) {
+      final ProTerritory patd = attackMap.get(t);
+      final List<Unit> defenders = defendersByTerritory.get(t);
 
       // Check strafing and using allied attack if enemy capital/factory
       boolean isEnemyCapitalOrFactory = false;
@@ -2,6 +2,7 @@ package games.strategy.triplea.ai.pro.simulate;
 
 import games.strategy.engine.data.Change;
 import games.strategy.engine.data.PlayerID;
+import games.strategy.engine.framework.GameModifications;
 import games.strategy.engine.framework.IGameModifiedChannel;
 
 public class ProDummyGameModifiedChannel implements IGameModifiedChannel {
@@ -11,6 +12,9 @@ public class ProDummyGameModifiedChannel implements IGameModifiedChannel {
   @Override
   public void gameDataChanged(final Change change) {}
 
+  @Override
+  public void gameModified(final GameModifications modifications) {}
+
   @Override
   public void shutDown() {}
 
@@ -0,0 +1,239 @@
+package games.strategy.triplea.ai.pro.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import javax.annotation.Nullable;
+
+import com.google.common.annotations.VisibleForTesting;
+
+import games.strategy.engine.data.Territory;
+import games.strategy.engine.data.TerritoryEffect;
+import games.strategy.engine.data.Unit;
+import games.strategy.triplea.TripleAUnit;
+import games.strategy.triplea.ai.pro.data.ProBattleResult;
+import games.strategy.triplea.ai.pro.logging.ProLogger;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+
+/**
+ * Remembers the battle results estimated by the odds calculator, so a battle that is estimated again with equivalent
+ * units returns right away instead of being simulated again.
+ *
+ * <p>
+ * Units are equivalent if they have the same type, owner, hits, damage and are both transported or not. Battles are
+ * only equivalent if they are also fought by the same attacking and defending players, which are the owners of the
+ * first attacking and defending units. The remaining units of a remembered result are mapped back to the units of the
+ * battle being estimated, so they can be compared with its attackers and defenders. The results are only valid for the game data they were estimated with, so the
+ * cache must be cleared when the data changes.
+ * </p>
+ */
+final class ProBattleResultCache {
+  private static final Comparator<Unit> UNIT_ORDER = Comparator
+      .comparing((final Unit unit) -> unit.getType().getName())
+      .thenComparing(unit -> unit.getOwner().getName())
+      .thenComparingInt(Unit::getHits)
+      .thenComparingInt(unit -> TripleAUnit.get(unit).getUnitDamage())
+      .thenComparing(ProBattleResultCache::isTransported);
+
+  // guarded by this
+  private final Map<BattleKey, CachedResult> results = new HashMap<>();
+  private int hits = 0;
+  private int misses = 0;
+  private long timeSaved = 0;
+
+  @AllArgsConstructor
+  @EqualsAndHashCode
+  private static final class UnitKey {
+    private final String type;
+    private final String owner;
+    private final int hits;
+    private final int unitDamage;
+    private final boolean transported;
+  }
+
+  @AllArgsConstructor
+  @EqualsAndHashCode
+  private static final class BattleKey {
+    private final String territory;
+    // the battle is fought by the owners of the first attacking and defending units, which differ in allied stacks
+    private final String attacker;
+    private final String defender;
+    private final List<String> territoryEffects;
+    private final List<UnitKey> attackers;
+    private final List<UnitKey> defenders;
+    private final List<UnitKey> bombarders;
+    private final boolean retreatWhenOnlyAirLeft;
+  }
+
+  /**
+   * A remembered result, whose remaining units are kept as their indexes in the sorted attackers and defenders.
+   */
+  @AllArgsConstructor
+  private static final class CachedResult {
+    private final ProBattleResult result;
+    private final int[] attackersRemaining;
+    private final int[] defendersRemaining;
+    private final long estimateTime;
+  }
+
+  /**
+   * A battle to look up in the cache, whose units have been put into the order of the key.
+   */
+  final class Entry {
+    private final List<Unit> sortedAttackers;
+    private final List<Unit> sortedDefenders;
+    private final BattleKey key;
+
+    private Entry(final Territory t, final Collection<TerritoryEffect> territoryEffects,
+        final List<Unit> attackingUnits, final List<Unit> defendingUnits, final Collection<Unit> bombardingUnits,
+        final boolean retreatWhenOnlyAirLeft) {
+      sortedAttackers = sort(attackingUnits);
+      sortedDefenders = sort(defendingUnits);
+      key = new BattleKey(t.getName(), attackingUnits.get(0).getOwner().getName(),
+          defendingUnits.get(0).getOwner().getName(),
+          territoryEffects.stream().map(TerritoryEffect::getName).sorted().collect(Collectors.toList()),
+          toKeys(sortedAttackers), toKeys(sortedDefenders), toKeys(sort(bombardingUnits)), retreatWhenOnlyAirLeft);
+    }
+
+    /**
+     * @return The remembered result of an equivalent battle; or {@code null} if the battle must be estimated.
+     */
+    @Nullable
+    ProBattleResult getRememberedResult() {
+      synchronized (ProBattleResultCache.this) {
+        final @Nullable CachedResult cachedResult = results.get(key);
+        if (cachedResult == null) {
+          misses++;
+          return null;
+        }
+        hits++;
+        timeSaved += cachedResult.estimateTime;
+        final ProBattleResult result = cachedResult.result;
+        return new ProBattleResult(result.getWinPercentage(), result.getTuvSwing(), result.isHasLandUnitRemaining(),
+            getUnits(sortedAttackers, cachedResult.attackersRemaining),
+            getUnits(sortedDefenders, cachedResult.defendersRemaining), result.getBattleRounds());
+      }
+    }
+
+    /**
+     * @param estimateTime The nanoseconds it took to estimate the result.
+     */
+    void remember(final ProBattleResult result, final long estimateTime) {
+      final Optional<int[]> attackersRemaining = getIndexes(sortedAttackers, result.getAverageAttackersRemaining());
+      final Optional<int[]> defendersRemaining = getIndexes(sortedDefenders, result.getAverageDefendersRemaining());
+      if (attackersRemaining.isPresent() && defendersRemaining.isPresent()) {
+        synchronized (ProBattleResultCache.this) {
+          results.put(key, new CachedResult(result, attackersRemaining.get(), defendersRemaining.get(), estimateTime));
+        }
+      }
+    }
+  }
+
+  /**
+   * Creates the entry of a battle, to look up its result and remember it once it has been estimated.
+   */
+  Entry getEntry(final Territory t, final Collection<TerritoryEffect> territoryEffects,
+      final List<Unit> attackingUnits, final List<Unit> defendingUnits, final Collection<Unit> bombardingUnits,
+      final boolean retreatWhenOnlyAirLeft) {
+    return new Entry(t, territoryEffects, attackingUnits, defendingUnits, bombardingUnits, retreatWhenOnlyAirLeft);
+  }
+
+  /**
+   * Returns the remembered result of an equivalent battle, or estimates the battle and remembers its result.
+   */
+  ProBattleResult get(final Territory t, final Collection<TerritoryEffect> territoryEffects,
+      final List<Unit> attackingUnits, final List<Unit> defendingUnits, final Collection<Unit> bombardingUnits,
+      final boolean retreatWhenOnlyAirLeft, final Supplier<ProBattleResult> estimate) {
+    final Entry entry =
+        getEntry(t, territoryEffects, attackingUnits, defendingUnits, bombardingUnits, retreatWhenOnlyAirLeft);
+    final @Nullable ProBattleResult rememberedResult = entry.getRememberedResult();
+    if (rememberedResult != null) {
+      return rememberedResult;
+    }
+    final long start = System.nanoTime();
+    final ProBattleResult result = estimate.get();
+    entry.remember(result, System.nanoTime() - start);
+    return result;
+  }
+
+  private static boolean isTransported(final Unit unit) {
+    return TripleAUnit.get(unit).getTransportedBy() != null;
+  }
+
+  private static List<Unit> sort(final Collection<Unit> units) {
+    final List<Unit> sortedUnits = new ArrayList<>(units);
+    sortedUnits.sort(UNIT_ORDER);
+    return sortedUnits;
+  }
+
+  private static List<UnitKey> toKeys(final List<Unit> units) {
+    return units.stream()
+        .map(unit -> new UnitKey(unit.getType().getName(), unit.getOwner().getName(), unit.getHits(),
+            TripleAUnit.get(unit).getUnitDamage(), isTransported(unit)))
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Returns the indexes of the remaining units in the units of the battle; or empty if a remaining unit is not one of
+   * them.
+   */
+  private static Optional<int[]> getIndexes(final List<Unit> units, final List<Unit> remainingUnits) {
+    final int[] indexes = new int[remainingUnits.size()];
+    final boolean[] used = new boolean[units.size()];
+    for (int i = 0; i < remainingUnits.size(); i++) {
+      indexes[i] = -1;
+      for (int j = 0; j < units.size(); j++) {
+        if (!used[j] && units.get(j).equals(remainingUnits.get(i))) {
+          used[j] = true;
+          indexes[i] = j;
+          break;
+        }
+      }
+      if (indexes[i] < 0) {
+        return Optional.empty();
+      }
+    }
+    return Optional.of(indexes);
+  }
+
+  private static List<Unit> getUnits(final List<Unit> units, final int[] indexes) {
+    final List<Unit> result = new ArrayList<>(indexes.length);
+    for (final int index : indexes) {
+      result.add(units.get(index));
+    }
+    return result;
+  }
+
+  /**
+   * Logs how many estimates were avoided, and forgets all of the remembered results.
+   */
+  synchronized void clear() {
+    if (hits + misses > 0) {
+      ProLogger.info("Battle result cache: hits=" + hits + ", misses=" + misses + ", hit rate="
+          + (100 * hits / (hits + misses)) + "%, time saved=" + TimeUnit.NANOSECONDS.toMillis(timeSaved) + " ms");
+    }
+    results.clear();
+    hits = 0;
+    misses = 0;
+    timeSaved = 0;
+  }
+
+  @VisibleForTesting
+  synchronized int getHits() {
+    return hits;
+  }
+
+  @VisibleForTesting
+  synchronized int getMisses() {
+    return misses;
+  }
+}
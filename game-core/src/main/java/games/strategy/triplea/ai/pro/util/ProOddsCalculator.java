@@ -1,19 +1,26 @@
 package games.strategy.triplea.ai.pro.util;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 import games.strategy.engine.data.GameData;
 import games.strategy.engine.data.PlayerID;
 import games.strategy.engine.data.Territory;
+import games.strategy.engine.data.TerritoryEffect;
 import games.strategy.engine.data.Unit;
 import games.strategy.triplea.Properties;
 import games.strategy.triplea.ai.pro.ProData;
+import games.strategy.triplea.ai.pro.data.ProBattle;
 import games.strategy.triplea.ai.pro.data.ProBattleResult;
 import games.strategy.triplea.delegate.Matches;
 import games.strategy.triplea.delegate.TerritoryEffectHelper;
 import games.strategy.triplea.oddsCalculator.ta.AggregateResults;
+import games.strategy.triplea.oddsCalculator.ta.BattleSetup;
 import games.strategy.triplea.oddsCalculator.ta.IOddsCalculator;
 import games.strategy.triplea.util.TuvUtils;
 import games.strategy.util.CollectionUtils;
@@ -24,24 +31,71 @@ import games.strategy.util.CollectionUtils;
 public class ProOddsCalculator {
 
   private final IOddsCalculator calc;
+  private final ProBattleResultCache battleResultCache = new ProBattleResultCache();
   private boolean isCanceled = false;
+  private long calculatedBattleCount = 0;
+  private ProTimeBudget timeBudget = new ProTimeBudget();
 
   public ProOddsCalculator(final IOddsCalculator calc) {
     this.calc = calc;
   }
 
   public void setData(final GameData data) {
+    battleResultCache.clear();
     calc.setGameData(data);
   }
 
+  /**
+   * Forgets the battle results estimated so far, which must be done once the phase they were estimated for ends.
+   */
+  public void clearCache() {
+    battleResultCache.clear();
+  }
+
+  /**
+   * @return The number of battles calculated by the odds calculator so far, not counting battles that were estimated
+   *         without it or found in the cache.
+   */
+  public long getCalculatedBattleCount() {
+    return calculatedBattleCount;
+  }
+
+  /**
+   * Sets the budget of the AI, whose run counts are lowered when it runs out of time.
+   */
+  public void setTimeBudget(final ProTimeBudget timeBudget) {
+    this.timeBudget = timeBudget;
+  }
+
   public void cancelCalcs() {
     calc.cancel();
     isCanceled = true;
+    battleResultCache.clear();
   }
 
   public ProBattleResult estimateAttackBattleResults(final Territory t,
       final List<Unit> attackingUnits, final List<Unit> defendingUnits, final Set<Unit> bombardingUnits) {
 
+    final ProBattleResult result = estimateAttackWithoutCalculator(t, attackingUnits, defendingUnits);
+    if (result != null) {
+      return result;
+    }
+    return callBattleCalculator(t, attackingUnits, defendingUnits, bombardingUnits);
+  }
+
+  /**
+   * Estimates several independent attacks at once, like {@link #estimateAttackBattleResults(Territory, List, List,
+   * Set)}.
+   *
+   * @return The results, in the same order as the battles.
+   */
+  public List<ProBattleResult> estimateAttackBattleResults(final List<ProBattle> battles) {
+    return callBattleCalculator(battles, battle -> estimateAttackWithoutCalculator(battle.getTerritory(),
+        battle.getAttackingUnits(), battle.getDefendingUnits()));
+  }
+
+  private static ProBattleResult estimateAttackWithoutCalculator(final Territory t, final List<Unit> attackingUnits,
+      final List<Unit> defendingUnits) {
     final ProBattleResult result = checkIfNoAttackersOrDefenders(t, attackingUnits, defendingUnits);
     if (result != null) {
       return result;
@@ -52,7 +106,7 @@ public class ProOddsCalculator {
     if (strengthDifference < 45) {
       return new ProBattleResult(0, -999, false, new ArrayList<>(), defendingUnits, 1);
     }
-    return callBattleCalculator(t, attackingUnits, defendingUnits, bombardingUnits);
+    return null;
   }
 
   public ProBattleResult estimateDefendBattleResults(final Territory t,
@@ -84,6 +138,16 @@ public class ProOddsCalculator {
     return callBattleCalculator(t, attackingUnits, defendingUnits, bombardingUnits);
   }
 
+  /**
+   * Calculates several independent battles at once, like {@link #calculateBattleResults(Territory, List, List, Set)}.
+   *
+   * @return The results, in the same order as the battles.
+   */
+  public List<ProBattleResult> calculateBattleResults(final List<ProBattle> battles) {
+    return callBattleCalculator(battles, battle -> checkIfNoAttackersOrDefenders(battle.getTerritory(),
+        battle.getAttackingUnits(), battle.getDefendingUnits()));
+  }
+
   private static ProBattleResult checkIfNoAttackersOrDefenders(final Territory t, final List<Unit> attackingUnits,
       final List<Unit> defendingUnits) {
     final GameData data = ProData.getData();
@@ -111,25 +175,99 @@ public class ProOddsCalculator {
 
   public ProBattleResult callBattleCalculator(final Territory t, final List<Unit> attackingUnits,
       final List<Unit> defendingUnits, final Set<Unit> bombardingUnits, final boolean retreatWhenOnlyAirLeft) {
-    final GameData data = ProData.getData();
-
     if (isCanceled || attackingUnits.isEmpty() || defendingUnits.isEmpty()) {
       return new ProBattleResult();
     }
 
+    final Collection<TerritoryEffect> territoryEffects = TerritoryEffectHelper.getEffects(t);
+    return battleResultCache.get(t, territoryEffects, attackingUnits, defendingUnits, bombardingUnits,
+        retreatWhenOnlyAirLeft, () -> estimateBattleResults(t, territoryEffects, attackingUnits, defendingUnits,
+            bombardingUnits, retreatWhenOnlyAirLeft));
+  }
+
+  /**
+   * Estimates the battles that can't be estimated without the odds calculator and have not been estimated before with
+   * equivalent units, in a single call to the odds calculator. Since they are independent of each other, it may
+   * calculate them in parallel; the results are returned in the order of the battles either way.
+   *
+   * @param estimateWithoutCalculator Returns the result of a battle that doesn't need the odds calculator; or
+   *        {@code null}.
+   */
+  private List<ProBattleResult> callBattleCalculator(final List<ProBattle> battles,
+      final Function<ProBattle, ProBattleResult> estimateWithoutCalculator) {
+    final ProBattleResult[] results = new ProBattleResult[battles.size()];
+    final List<Integer> indexesToCalculate = new ArrayList<>();
+    final List<ProBattleResultCache.Entry> entriesToCalculate = new ArrayList<>();
+    final List<BattleSetup> battlesToCalculate = new ArrayList<>();
+    for (int i = 0; i < battles.size(); i++) {
+      final ProBattle battle = battles.get(i);
+      final Territory t = battle.getTerritory();
+      final List<Unit> attackingUnits = battle.getAttackingUnits();
+      final List<Unit> defendingUnits = battle.getDefendingUnits();
+      results[i] = estimateWithoutCalculator.apply(battle);
+      if (results[i] != null) {
+        continue;
+      }
+      if (isCanceled || attackingUnits.isEmpty() || defendingUnits.isEmpty()) {
+        results[i] = new ProBattleResult();
+        continue;
+      }
+      final Collection<TerritoryEffect> territoryEffects = TerritoryEffectHelper.getEffects(t);
+      final ProBattleResultCache.Entry entry = battleResultCache.getEntry(t, territoryEffects, attackingUnits,
+          defendingUnits, battle.getBombardingUnits(), false);
+      results[i] = entry.getRememberedResult();
+      if (results[i] == null) {
+        indexesToCalculate.add(i);
+        entriesToCalculate.add(entry);
+        battlesToCalculate.add(new BattleSetup(attackingUnits.get(0).getOwner(), defendingUnits.get(0).getOwner(), t,
+            attackingUnits, defendingUnits, new ArrayList<>(battle.getBombardingUnits()), territoryEffects,
+            getRunCount(attackingUnits, defendingUnits)));
+      }
+    }
+
+    if (!battlesToCalculate.isEmpty()) {
+      calculatedBattleCount += battlesToCalculate.size();
+      final List<AggregateResults> calculatedResults = calc.calculateAll(battlesToCalculate);
+      for (int j = 0; j < calculatedResults.size(); j++) {
+        final int i = indexesToCalculate.get(j);
+        final ProBattle battle = battles.get(i);
+        final AggregateResults aggregateResults = calculatedResults.get(j);
+        results[i] = toBattleResult(battle.getTerritory(), battle.getAttackingUnits(), battle.getDefendingUnits(),
+            aggregateResults);
+        entriesToCalculate.get(j).remember(results[i], TimeUnit.MILLISECONDS.toNanos(aggregateResults.getTime()));
+      }
+    }
+    return Arrays.asList(results);
+  }
+
+  private int getRunCount(final List<Unit> attackingUnits, final List<Unit> defendingUnits) {
     final int minArmySize = Math.min(attackingUnits.size(), defendingUnits.size());
-    final int runCount = Math.max(16, 100 - minArmySize);
+    return timeBudget.scaleRunCount(Math.max(16, 100 - minArmySize));
+  }
+
+  private ProBattleResult estimateBattleResults(final Territory t, final Collection<TerritoryEffect> territoryEffects,
+      final List<Unit> attackingUnits, final List<Unit> defendingUnits, final Set<Unit> bombardingUnits,
+      final boolean retreatWhenOnlyAirLeft) {
     final PlayerID attacker = attackingUnits.get(0).getOwner();
     final PlayerID defender = defendingUnits.get(0).getOwner();
     if (retreatWhenOnlyAirLeft) {
       calc.setRetreatWhenOnlyAirLeft(true);
     }
+    final int runCount = getRunCount(attackingUnits, defendingUnits);
+    calculatedBattleCount++;
     final AggregateResults results = calc.setCalculateDataAndCalculate(attacker, defender,
-        t, attackingUnits, defendingUnits, new ArrayList<>(bombardingUnits),
-        TerritoryEffectHelper.getEffects(t), runCount);
+        t, attackingUnits, defendingUnits, new ArrayList<>(bombardingUnits), territoryEffects, runCount);
     if (retreatWhenOnlyAirLeft) {
       calc.setRetreatWhenOnlyAirLeft(false);
     }
+    return toBattleResult(t, attackingUnits, defendingUnits, results);
+  }
+
+  private static ProBattleResult toBattleResult(final Territory t, final List<Unit> attackingUnits,
+      final List<Unit> defendingUnits, final AggregateResults results) {
+    final GameData data = ProData.getData();
+    final PlayerID attacker = attackingUnits.get(0).getOwner();
+    final PlayerID defender = defendingUnits.get(0).getOwner();
 
     // Find battle result statistics
     final double winPercentage = results.getAttackerWinPercent() * 100;
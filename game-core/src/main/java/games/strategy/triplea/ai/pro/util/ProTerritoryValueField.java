@@ -0,0 +1,273 @@
+package games.strategy.triplea.ai.pro.util;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import games.strategy.engine.data.GameData;
+import games.strategy.engine.data.PlayerID;
+import games.strategy.engine.data.Territory;
+
+/**
+ * Remembers the neighbor searches the territory values of the Pro AI are computed from, so they are done once per turn
+ * instead of once per territory and phase.
+ *
+ * <p>
+ * For land units and for sea units, the field tests once which territories they can move through, and keeps the
+ * breadth first searches from single territories through them up to a fixed distance. Land distances beyond that
+ * distance are answered by a search backwards from the destination. Each search visits the territories in the order
+ * {@link games.strategy.engine.data.GameMap} does, so the neighbor sets are equal and iterate in the same order as the
+ * ones of {@code GameMap#getNeighbors(Territory, int, Predicate)}.
+ * </p>
+ *
+ * <p>
+ * {@link #update()} tests the territories again and only drops the searches that could have passed a territory whose
+ * result changed, for example because it changed owner. The units in the territories are never part of a search. A
+ * field is only valid for the game data, player and round it was created for, and is not thread safe.
+ * </p>
+ */
+final class ProTerritoryValueField {
+  static final int LAND_SEARCH_DISTANCE = 6;
+  static final int SEA_SEARCH_DISTANCE = 4;
+
+  private final GameData data;
+  private final PlayerID player;
+  private final int round;
+  private final Territory[] territories;
+  // the neighbors of each territory by ordinal, in the iteration order of the map
+  private final int[][] neighbors;
+  private final MovementGraph land;
+  private final MovementGraph sea;
+  private int maxLandMassSize = -1;
+
+  ProTerritoryValueField(final GameData data, final PlayerID player) {
+    this.data = data;
+    this.player = player;
+    round = data.getSequence().getRound();
+    final List<Territory> mapTerritories = data.getMap().getTerritories();
+    territories = mapTerritories.toArray(new Territory[0]);
+    neighbors = new int[territories.length][];
+    for (final Territory t : territories) {
+      neighbors[t.getOrdinal()] =
+          data.getMap().getNeighbors(t).stream().mapToInt(Territory::getOrdinal).toArray();
+    }
+    land = new MovementGraph(ProMatches.territoryCanPotentiallyMoveLandUnits(player, data), LAND_SEARCH_DISTANCE);
+    sea = new MovementGraph(ProMatches.territoryCanMoveSeaUnits(player, data, true), SEA_SEARCH_DISTANCE);
+  }
+
+  boolean isFor(final GameData data, final PlayerID player) {
+    return this.data == data && this.player == player && round == data.getSequence().getRound();
+  }
+
+  /**
+   * Tests the territories again and drops the searches that may have changed since they were done.
+   */
+  void update() {
+    if (land.update()) {
+      maxLandMassSize = -1;
+    }
+    sea.update();
+  }
+
+  /**
+   * @return 1 plus the number of territories land units could reach from the specified territory in
+   *         {@link #LAND_SEARCH_DISTANCE} moves.
+   */
+  int getLandMassSize(final Territory t) {
+    return land.getSearch(t.getOrdinal()).order.length;
+  }
+
+  /**
+   * @return The largest land mass size of any land territory, at least 1.
+   */
+  int getMaxLandMassSize() {
+    if (maxLandMassSize == -1) {
+      int max = 1;
+      for (final Territory t : territories) {
+        if (!t.isWater()) {
+          max = Math.max(max, getLandMassSize(t));
+        }
+      }
+      maxLandMassSize = max;
+    }
+    return maxLandMassSize;
+  }
+
+  /**
+   * @return The same as {@code getNeighbors(t, distance, ProMatches.territoryCanPotentiallyMoveLandUnits(player,
+   *         data))}, for distances up to {@link #LAND_SEARCH_DISTANCE}.
+   */
+  Set<Territory> getLandNeighbors(final Territory t, final int distance) {
+    return land.getNeighbors(t.getOrdinal(), distance);
+  }
+
+  /**
+   * @return The same as {@code getDistance(from, to, ProMatches.territoryCanPotentiallyMoveLandUnits(player, data))}.
+   */
+  int getLandDistance(final Territory from, final Territory to) {
+    if (from.equals(to)) {
+      return 0;
+    }
+    final Search search = land.getSearch(from.getOrdinal());
+    for (int i = 1; i < search.order.length; i++) {
+      if (search.order[i] == to.getOrdinal()) {
+        return search.distances[i];
+      }
+    }
+    return land.getDistancesTo(to.getOrdinal())[from.getOrdinal()];
+  }
+
+  /**
+   * @return The same as {@code getNeighbors(t, distance, ProMatches.territoryCanMoveSeaUnits(player, data, true))},
+   *         for distances up to {@link #SEA_SEARCH_DISTANCE}.
+   */
+  Set<Territory> getSeaNeighbors(final Territory t, final int distance) {
+    return sea.getNeighbors(t.getOrdinal(), distance);
+  }
+
+  /**
+   * A breadth first search from a single territory, up to the search distance of its graph.
+   */
+  private static final class Search {
+    // the reached territories in the order they were reached, starting with the start
+    final int[] order;
+    // the distance of each territory in order
+    final int[] distances;
+
+    Search(final int[] order, final int[] distances) {
+      this.order = order;
+      this.distances = distances;
+    }
+  }
+
+  /**
+   * The territories some units can move through, and the searches through them.
+   */
+  private final class MovementGraph {
+    private final Predicate<Territory> match;
+    private final int searchDistance;
+    private boolean[] matches;
+    private final Search[] searches;
+    // the distances from all territories to a destination, by the ordinal of the destination
+    private final Map<Integer, int[]> distancesTo = new HashMap<>();
+
+    MovementGraph(final Predicate<Territory> match, final int searchDistance) {
+      this.match = match;
+      this.searchDistance = searchDistance;
+      matches = testTerritories();
+      searches = new Search[territories.length];
+    }
+
+    private boolean[] testTerritories() {
+      final boolean[] result = new boolean[territories.length];
+      for (int id = 0; id < territories.length; id++) {
+        result[id] = match.test(territories[id]);
+      }
+      return result;
+    }
+
+    /**
+     * A territory can only be passed by searches from territories within the search distance of it, so only their
+     * searches are dropped when it changes.
+     *
+     * @return Whether any territory changed.
+     */
+    boolean update() {
+      final boolean[] current = testTerritories();
+      boolean changed = false;
+      for (int id = 0; id < territories.length; id++) {
+        if (current[id] != matches[id]) {
+          changed = true;
+          searches[id] = null;
+          for (final Territory t : data.getMap().getNeighbors(territories[id], searchDistance)) {
+            searches[t.getOrdinal()] = null;
+          }
+        }
+      }
+      matches = current;
+      if (changed) {
+        distancesTo.clear();
+      }
+      return changed;
+    }
+
+    Search getSearch(final int start) {
+      if (searches[start] == null) {
+        searches[start] = search(start);
+      }
+      return searches[start];
+    }
+
+    private Search search(final int start) {
+      final int[] distances = new int[territories.length];
+      Arrays.fill(distances, -1);
+      distances[start] = 0;
+      final int[] queue = new int[territories.length];
+      int head = 0;
+      int tail = 0;
+      queue[tail++] = start;
+      while (head < tail && distances[queue[head]] < searchDistance) {
+        final int current = queue[head++];
+        for (final int neighbor : neighbors[current]) {
+          if (distances[neighbor] == -1 && matches[neighbor]) {
+            distances[neighbor] = distances[current] + 1;
+            queue[tail++] = neighbor;
+          }
+        }
+      }
+      final int[] order = Arrays.copyOf(queue, tail);
+      final int[] orderDistances = new int[tail];
+      for (int i = 0; i < tail; i++) {
+        orderDistances[i] = distances[order[i]];
+      }
+      return new Search(order, orderDistances);
+    }
+
+    Set<Territory> getNeighbors(final int start, final int distance) {
+      if (distance > searchDistance) {
+        throw new IllegalArgumentException("Distance must be at most " + searchDistance + " not:" + distance);
+      }
+      final Search search = getSearch(start);
+      final Set<Territory> result = new HashSet<>();
+      for (int i = 1; i < search.order.length && search.distances[i] <= distance; i++) {
+        result.add(territories[search.order[i]]);
+      }
+      return result;
+    }
+
+    /**
+     * Searches backwards from the destination, so every territory of a route after its start must match, but the start
+     * itself need not.
+     */
+    int[] getDistancesTo(final int end) {
+      return distancesTo.computeIfAbsent(end, key -> {
+        final int[] distances = new int[territories.length];
+        Arrays.fill(distances, -1);
+        distances[end] = 0;
+        if (!matches[end]) {
+          return distances;
+        }
+        final int[] queue = new int[territories.length];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = end;
+        while (head < tail) {
+          final int current = queue[head++];
+          for (final int neighbor : neighbors[current]) {
+            if (distances[neighbor] == -1) {
+              distances[neighbor] = distances[current] + 1;
+              if (matches[neighbor]) {
+                queue[tail++] = neighbor;
+              }
+            }
+          }
+        }
+        return distances;
+      });
+    }
+  }
+}
@@ -26,6 +26,8 @@ public class ProTerritoryValueUtils {
   private static final int MIN_FACTORY_CHECK_DISTANCE = 9;
   private static final int MAX_FACTORY_CHECK_DISTANCE = 30;
 
+  private static ProTerritoryValueField valueField = null;
+
   public static double findTerritoryAttackValue(final PlayerID player, final Territory t) {
     final GameData data = ProData.getData();
     final int isEnemyFactory = ProMatches.territoryHasInfraFactoryAndIsEnemyLand(player, data).test(t) ? 1 : 0;
@@ -53,15 +55,16 @@ public class ProTerritoryValueUtils {
       final List<Territory> territoriesThatCantBeHeld, final List<Territory> territoriesToAttack,
       final Set<Territory> territoriesToCheck) {
 
-    final int maxLandMassSize = findMaxLandMassSize(player);
+    final ProTerritoryValueField field = getValueField(player);
+    final int maxLandMassSize = field.getMaxLandMassSize();
 
-    final Map<Territory, Double> enemyCapitalsAndFactoriesMap =
-        findEnemyCapitalsAndFactoriesValue(player, maxLandMassSize, territoriesThatCantBeHeld, territoriesToAttack);
+    final Map<Territory, Double> enemyCapitalsAndFactoriesMap = findEnemyCapitalsAndFactoriesValue(player, field,
+        maxLandMassSize, territoriesThatCantBeHeld, territoriesToAttack);
 
     final Map<Territory, Double> territoryValueMap = new HashMap<>();
     for (final Territory t : territoriesToCheck) {
       if (!t.isWater()) {
-        final double value = findLandValue(t, player, maxLandMassSize, enemyCapitalsAndFactoriesMap,
+        final double value = findLandValue(t, player, field, maxLandMassSize, enemyCapitalsAndFactoriesMap,
             territoriesThatCantBeHeld, territoriesToAttack);
         territoryValueMap.put(t, value);
       }
@@ -69,7 +72,7 @@ public class ProTerritoryValueUtils {
 
     for (final Territory t : territoriesToCheck) {
       if (t.isWater()) {
-        final double value = findWaterValue(t, player, maxLandMassSize, enemyCapitalsAndFactoriesMap,
+        final double value = findWaterValue(t, player, field, maxLandMassSize, enemyCapitalsAndFactoriesMap,
             territoriesThatCantBeHeld, territoriesToAttack, territoryValueMap);
         territoryValueMap.put(t, value);
       }
@@ -84,14 +87,14 @@ public class ProTerritoryValueUtils {
     // Determine value for water territories
     final Map<Territory, Double> territoryValueMap = new HashMap<>();
     final GameData data = ProData.getData();
+    final ProTerritoryValueField field = getValueField(player);
     for (final Territory t : data.getMap().getTerritories()) {
       if (!territoriesThatCantBeHeld.contains(t) && t.isWater()
           && !data.getMap().getNeighbors(t, Matches.territoryIsWater()).isEmpty()) {
 
         // Determine sea value based on nearby convoy production
         double nearbySeaProductionValue = 0;
-        final Set<Territory> nearbySeaTerritories =
-            data.getMap().getNeighbors(t, 4, ProMatches.territoryCanMoveSeaUnits(player, data, true));
+        final Set<Territory> nearbySeaTerritories = field.getSeaNeighbors(t, 4);
         final List<Territory> nearbyEnemySeaTerritories = CollectionUtils.getMatches(nearbySeaTerritories,
             ProMatches.territoryIsEnemyOrCantBeHeld(player, data, territoriesThatCantBeHeld));
         for (final Territory nearbyEnemySeaTerritory : nearbyEnemySeaTerritories) {
@@ -136,24 +139,28 @@ public class ProTerritoryValueUtils {
     return territoryValueMap;
   }
 
-  private static int findMaxLandMassSize(final PlayerID player) {
-    int maxLandMassSize = 1;
+  /**
+   * @return The value field of the player for the current game data, updated for the current state of the map.
+   */
+  private static synchronized ProTerritoryValueField getValueField(final PlayerID player) {
     final GameData data = ProData.getData();
-    for (final Territory t : data.getMap().getTerritories()) {
-      if (!t.isWater()) {
-        final int landMassSize = 1 + data.getMap()
-            .getNeighbors(t, 6, ProMatches.territoryCanPotentiallyMoveLandUnits(player, data)).size();
-        if (landMassSize > maxLandMassSize) {
-          maxLandMassSize = landMassSize;
-        }
-      }
+    if (valueField == null || !valueField.isFor(data, player)) {
+      valueField = new ProTerritoryValueField(data, player);
+    } else {
+      valueField.update();
     }
+    return valueField;
+  }
 
-    return maxLandMassSize;
+  /**
+   * Forgets the value field, so it does not keep the game data around after a game is exited.
+   */
+  public static synchronized void clearValueField() {
+    valueField = null;
   }
 
   private static Map<Territory, Double> findEnemyCapitalsAndFactoriesValue(final PlayerID player,
-      final int maxLandMassSize, final List<Territory> territoriesThatCantBeHeld,
+      final ProTerritoryValueField field, final int maxLandMassSize, final List<Territory> territoriesThatCantBeHeld,
       final List<Territory> territoriesToAttack) {
 
     // Get all enemy factories and capitals (check if most territories have factories and if so remove them)
@@ -190,8 +197,7 @@ public class ProTerritoryValueUtils {
 
       // Calculate value
       final int isNeutral = t.getOwner().isNull() ? 1 : 0;
-      final int landMassSize = 1 + data.getMap()
-          .getNeighbors(t, 6, ProMatches.territoryCanPotentiallyMoveLandUnits(player, data)).size();
+      final int landMassSize = field.getLandMassSize(t);
       final double value = Math.sqrt(factoryProduction + Math.sqrt(playerProduction)) * 32 / (1 + 3 * isNeutral)
           * landMassSize / maxLandMassSize;
       enemyCapitalsAndFactoriesMap.put(t, value);
@@ -200,7 +206,8 @@ public class ProTerritoryValueUtils {
     return enemyCapitalsAndFactoriesMap;
   }
 
-  private static double findLandValue(final Territory t, final PlayerID player, final int maxLandMassSize,
+  private static double findLandValue(final Territory t, final PlayerID player,
+      final ProTerritoryValueField field, final int maxLandMassSize,
       final Map<Territory, Double> enemyCapitalsAndFactoriesMap, final List<Territory> territoriesThatCantBeHeld,
       final List<Territory> territoriesToAttack) {
 
@@ -214,8 +221,7 @@ public class ProTerritoryValueUtils {
     final Set<Territory> nearbyEnemyCapitalsAndFactories =
         findNearbyEnemyCapitalsAndFactories(t, enemyCapitalsAndFactoriesMap);
     for (final Territory enemyCapitalOrFactory : nearbyEnemyCapitalsAndFactories) {
-      final int distance = data.getMap().getDistance(t, enemyCapitalOrFactory,
-          ProMatches.territoryCanPotentiallyMoveLandUnits(player, data));
+      final int distance = field.getLandDistance(t, enemyCapitalOrFactory);
       if (distance > 0) {
         values.add(enemyCapitalsAndFactoriesMap.get(enemyCapitalOrFactory) / Math.pow(2, distance));
       }
@@ -228,14 +234,12 @@ public class ProTerritoryValueUtils {
 
     // Determine value based on nearby territory production
     double nearbyEnemyValue = 0;
-    final Set<Territory> nearbyTerritories =
-        data.getMap().getNeighbors(t, 2, ProMatches.territoryCanPotentiallyMoveLandUnits(player, data));
+    final Set<Territory> nearbyTerritories = field.getLandNeighbors(t, 2);
     final List<Territory> nearbyEnemyTerritories = CollectionUtils.getMatches(nearbyTerritories,
         ProMatches.territoryIsEnemyOrCantBeHeld(player, data, territoriesThatCantBeHeld));
     nearbyEnemyTerritories.removeAll(territoriesToAttack);
     for (final Territory nearbyEnemyTerritory : nearbyEnemyTerritories) {
-      final int distance = data.getMap().getDistance(t, nearbyEnemyTerritory,
-          ProMatches.territoryCanPotentiallyMoveLandUnits(player, data));
+      final int distance = field.getLandDistance(t, nearbyEnemyTerritory);
       if (distance > 0) {
         double value = TerritoryAttachment.getProduction(nearbyEnemyTerritory);
         if (nearbyEnemyTerritory.getOwner().isNull()) {
@@ -248,8 +252,7 @@ public class ProTerritoryValueUtils {
         }
       }
     }
-    final int landMassSize = 1
-        + data.getMap().getNeighbors(t, 6, ProMatches.territoryCanPotentiallyMoveLandUnits(player, data)).size();
+    final int landMassSize = field.getLandMassSize(t);
     double value = nearbyEnemyValue * landMassSize / maxLandMassSize + capitalOrFactoryValue;
     if (ProMatches.territoryHasInfraFactoryAndIsLand().test(t)) {
       value *= 1.1; // prefer territories with factories
@@ -258,7 +261,8 @@ public class ProTerritoryValueUtils {
     return value;
   }
 
-  private static double findWaterValue(final Territory t, final PlayerID player, final int maxLandMassSize,
+  private static double findWaterValue(final Territory t, final PlayerID player,
+      final ProTerritoryValueField field, final int maxLandMassSize,
       final Map<Territory, Double> enemyCapitalsAndFactoriesMap, final List<Territory> territoriesThatCantBeHeld,
       final List<Territory> territoriesToAttack, final Map<Territory, Double> territoryValueMap) {
 
@@ -311,8 +315,8 @@ public class ProTerritoryValueUtils {
           nearbyLandValue += value;
         }
         if (!territoryValueMap.containsKey(nearbyLandTerritory)) {
-          final double value = findLandValue(nearbyLandTerritory, player, maxLandMassSize, enemyCapitalsAndFactoriesMap,
-              territoriesThatCantBeHeld, territoriesToAttack);
+          final double value = findLandValue(nearbyLandTerritory, player, field, maxLandMassSize,
+              enemyCapitalsAndFactoriesMap, territoriesThatCantBeHeld, territoriesToAttack);
           territoryValueMap.put(nearbyLandTerritory, value);
         }
         nearbyLandValue += territoryValueMap.get(nearbyLandTerritory);
@@ -323,17 +327,33 @@ public class ProTerritoryValueUtils {
     return value;
   }
 
+  /**
+   * @return The enemy capitals and factories within {@link #MIN_FACTORY_CHECK_DISTANCE} of the territory, or if there
+   *         are none, the nearest ones within {@link #MAX_FACTORY_CHECK_DISTANCE}.
+   */
   private static Set<Territory> findNearbyEnemyCapitalsAndFactories(final Territory t,
       final Map<Territory, Double> enemyCapitalsAndFactoriesMap) {
 
-    Set<Territory> nearbyEnemyCapitalsAndFactories = new HashSet<>();
-    for (int i = MIN_FACTORY_CHECK_DISTANCE; i <= MAX_FACTORY_CHECK_DISTANCE; i++) {
-      nearbyEnemyCapitalsAndFactories = ProData.getData().getMap().getNeighbors(t, i);
-      nearbyEnemyCapitalsAndFactories.retainAll(enemyCapitalsAndFactoriesMap.keySet());
-      if (!nearbyEnemyCapitalsAndFactories.isEmpty()) {
-        break;
+    final GameData data = ProData.getData();
+    final Map<Territory, Integer> distances = new HashMap<>();
+    int minDistance = Integer.MAX_VALUE;
+    for (final Territory enemyCapitalOrFactory : enemyCapitalsAndFactoriesMap.keySet()) {
+      final int distance = data.getMap().getDistance(t, enemyCapitalOrFactory);
+      if (distance > 0) {
+        distances.put(enemyCapitalOrFactory, distance);
+        minDistance = Math.min(minDistance, distance);
       }
     }
+    final Set<Territory> nearbyEnemyCapitalsAndFactories = new HashSet<>();
+    if (minDistance > MAX_FACTORY_CHECK_DISTANCE) {
+      return nearbyEnemyCapitalsAndFactories;
+    }
+    final int maxDistance = Math.max(MIN_FACTORY_CHECK_DISTANCE, minDistance);
+    distances.forEach((enemyCapitalOrFactory, distance) -> {
+      if (distance <= maxDistance) {
+        nearbyEnemyCapitalsAndFactories.add(enemyCapitalOrFactory);
+      }
+    });
 
     return nearbyEnemyCapitalsAndFactories;
   }
@@ -0,0 +1,111 @@
+package games.strategy.triplea.ai.pro.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import com.google.common.annotations.VisibleForTesting;
+
+/**
+ * The time the Pro AI may spend on its current phase.
+ *
+ * <p>
+ * A phase always makes a complete baseline plan first, and then only refines it while {@link #isExhausted()} is false,
+ * counting each refinement with {@link #refined()}. Once half of the budget is used, the odds calculator runs fewer
+ * simulations per battle, down to a quarter of the usual number when the budget is used up. A budget of 0 never runs
+ * out and never changes the run counts, so the AI plays as if there were no budget. Neither does a stopped budget, so
+ * battles estimated between phases, for example to decide a retreat, are not limited by the previous phase.
+ * </p>
+ */
+public class ProTimeBudget {
+
+  @VisibleForTesting
+  static final double MIN_RUN_COUNT_SCALE = 0.25;
+
+  private final LongSupplier nanoTime;
+  private String phase = "none";
+  private long budgetNanos = 0;
+  private long startNanos;
+  private int refinements = 0;
+  private long totalRefinements = 0;
+
+  public ProTimeBudget() {
+    this(System::nanoTime);
+  }
+
+  @VisibleForTesting
+  ProTimeBudget(final LongSupplier nanoTime) {
+    this.nanoTime = nanoTime;
+    startNanos = nanoTime.getAsLong();
+  }
+
+  /**
+   * Starts the budget of a new phase.
+   *
+   * @param budgetMillis The time the phase may take in milliseconds, or 0 for no limit.
+   */
+  public void start(final String phase, final long budgetMillis) {
+    this.phase = phase;
+    budgetNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, budgetMillis));
+    startNanos = nanoTime.getAsLong();
+    refinements = 0;
+  }
+
+  /**
+   * Ends the current phase. Until the next phase starts, the budget never runs out and never changes the run counts.
+   */
+  public void stop() {
+    start("none", 0);
+  }
+
+  public long getElapsedMillis() {
+    return TimeUnit.NANOSECONDS.toMillis(nanoTime.getAsLong() - startNanos);
+  }
+
+  /**
+   * @return Whether the phase has used up its budget, so it should not refine its plan any further.
+   */
+  public boolean isExhausted() {
+    return budgetNanos > 0 && nanoTime.getAsLong() - startNanos >= budgetNanos;
+  }
+
+  /**
+   * Counts a refinement of the plan of the current phase.
+   */
+  public void refined() {
+    refinements++;
+    totalRefinements++;
+  }
+
+  public int getRefinements() {
+    return refinements;
+  }
+
+  /**
+   * @return The number of refinements over all phases so far.
+   */
+  public long getTotalRefinements() {
+    return totalRefinements;
+  }
+
+  /**
+   * @return The specified run count, lowered linearly from its full value at half of the budget to
+   *         {@link #MIN_RUN_COUNT_SCALE} of it once the budget is used up.
+   */
+  int scaleRunCount(final int runCount) {
+    if (budgetNanos <= 0) {
+      return runCount;
+    }
+    final double usedFraction = (double) (nanoTime.getAsLong() - startNanos) / budgetNanos;
+    final double scale = Math.max(MIN_RUN_COUNT_SCALE, Math.min(1, 2 * (1 - usedFraction)));
+    return Math.max(1, (int) Math.ceil(runCount * scale));
+  }
+
+  /**
+   * @return The time used and the refinements made in the current phase, to be logged once it ends.
+   */
+  public String getSummary() {
+    final String budget = (budgetNanos > 0) ? (TimeUnit.NANOSECONDS.toMillis(budgetNanos) + "ms") : "unlimited";
+    return phase + " used " + getElapsedMillis() + "ms of " + budget + " budget with " + refinements
+        + " refinements";
+  }
+}
@@ -31,7 +31,7 @@ public class ProUtils {
   public static Map<Unit, Territory> createUnitTerritoryMap() {
     final Map<Unit, Territory> unitTerritoryMap = new HashMap<>();
     for (final Territory t : ProData.getData().getMap().getTerritories()) {
-      for (final Unit u : t.getUnits().getUnits()) {
+      for (final Unit u : t.getUnits().getUnitsView()) {
         unitTerritoryMap.put(u, t);
       }
     }
@@ -10,7 +10,6 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Predicate;
 
 import games.strategy.engine.data.GameData;
@@ -46,10 +45,32 @@ import games.strategy.util.Tuple;
  * was being dduplicated all over the place.
  */
 public class BattleCalculator {
-  private static final Map<String, List<UnitType>> oolCache = new ConcurrentHashMap<>();
-
+  /**
+   * Removes all cached casualty orders of every game.
+   */
   public static void clearOolCache() {
-    oolCache.clear();
+    OrderOfLossesCache.clearAll();
+  }
+
+  /**
+   * @return How often a casualty order was found in the caches of all games so far.
+   */
+  public static long getOolCacheHitCount() {
+    return OrderOfLossesCache.getTotalHitCount();
+  }
+
+  /**
+   * @return How often a casualty order was not found in the caches of all games so far, and had to be worked out.
+   */
+  public static long getOolCacheMissCount() {
+    return OrderOfLossesCache.getTotalMissCount();
+  }
+
+  /**
+   * @return How many casualty orders were evicted from the caches of all games so far, because they were full.
+   */
+  public static long getOolCacheEvictionCount() {
+    return OrderOfLossesCache.getTotalEvictionCount();
   }
 
   // There is a problem with this variable, that it isn't
@@ -647,6 +668,17 @@ public class BattleCalculator {
     return Tuple.of(defaultCasualtySelection, sorted);
   }
 
+  /**
+   * Returns the specified units of a non-amphibious battle in the order in which {@link #selectCasualties} picks
+   * them as default casualties, with the first unit to die first.
+   */
+  public static List<Unit> sortUnitsForCasualtiesWithSupport(final Collection<Unit> targetsToPickFrom,
+      final boolean defending, final PlayerID player, final Collection<Unit> enemyUnits, final Territory battlesite,
+      final Collection<TerritoryEffect> territoryEffects, final GameData data) {
+    return sortUnitsForCasualtiesWithSupport(targetsToPickFrom, defending, player, enemyUnits, false, null, battlesite,
+        TuvUtils.getCostsForTuv(player, data), territoryEffects, data, true);
+  }
+
   /**
    * The purpose of this is to return a list in the PERFECT order of which units should be selected to die first,
    * And that means that certain units MUST BE INTERLEAVED.
@@ -665,48 +697,16 @@ public class BattleCalculator {
       final Collection<Unit> amphibiousLandAttackers, final Territory battlesite, final IntegerMap<UnitType> costs,
       final Collection<TerritoryEffect> territoryEffects, final GameData data, final boolean bonus) {
 
-    // Convert unit lists to unit type lists
-    final List<UnitType> targetTypes = new ArrayList<>();
-    for (final Unit u : targetsToPickFrom) {
-      targetTypes.add(u.getType());
-    }
-    final List<UnitType> amphibTypes = new ArrayList<>();
-    if (amphibiousLandAttackers != null) {
-      for (final Unit u : amphibiousLandAttackers) {
-        amphibTypes.add(u.getType());
-      }
-    }
-    // Calculate hashes and cache key
-    int targetsHashCode = 1;
-    for (final UnitType ut : targetTypes) {
-      targetsHashCode += ut.hashCode();
-    }
-    targetsHashCode *= 31;
-    int amphibHashCode = 1;
-    for (final UnitType ut : amphibTypes) {
-      amphibHashCode += ut.hashCode();
-    }
-    amphibHashCode *= 31;
-    String key = player.getName() + "|" + battlesite.getName() + "|" + defending + "|" + amphibious + "|"
-        + targetsHashCode + "|" + amphibHashCode;
     // Check OOL cache
-    final List<UnitType> stored = oolCache.get(key);
-    if (stored != null) {
-      // System.out.println("Hit with cacheSize=" + oolCache.size() + ", key=" + key);
-      final List<Unit> result = new ArrayList<>();
-      final List<Unit> selectFrom = new ArrayList<>(targetsToPickFrom);
-      for (final UnitType ut : stored) {
-        for (final Iterator<Unit> it = selectFrom.iterator(); it.hasNext();) {
-          final Unit u = it.next();
-          if (ut.equals(u.getType())) {
-            result.add(u);
-            it.remove();
-          }
-        }
+    final OrderOfLossesCache oolCache = OrderOfLossesCache.get(data);
+    final OrderOfLossesCache.Key key = oolCache.newKey(player, battlesite, defending, amphibious, targetsToPickFrom,
+        amphibiousLandAttackers);
+    if (key != null) {
+      final List<Unit> stored = oolCache.get(key, targetsToPickFrom);
+      if (stored != null) {
+        return stored;
       }
-      return result;
     }
-    // System.out.println("Miss with cacheSize=" + oolCache.size() + ", key=" + key);
     // Sort enough units to kill off
     final List<Unit> sortedUnitsList = new ArrayList<>(targetsToPickFrom);
     Collections.sort(sortedUnitsList, new UnitBattleComparator(defending, costs, territoryEffects, data, bonus, false));
@@ -842,30 +842,8 @@ public class BattleCalculator {
     }
     sortedWellEnoughUnitsList.addAll(sortedUnitsList);
     // Cache result and all subsets of the result
-    final List<UnitType> unitTypes = new ArrayList<>();
-    for (final Unit u : sortedWellEnoughUnitsList) {
-      unitTypes.add(u.getType());
-    }
-    for (final Iterator<UnitType> it = unitTypes.iterator(); it.hasNext();) {
-      oolCache.put(key, new ArrayList<>(unitTypes));
-      final UnitType unitTypeToRemove = it.next();
-      targetTypes.remove(unitTypeToRemove);
-      if (Collections.frequency(targetTypes, unitTypeToRemove) < Collections.frequency(amphibTypes, unitTypeToRemove)) {
-        amphibTypes.remove(unitTypeToRemove);
-      }
-      targetsHashCode = 1;
-      for (final UnitType ut : targetTypes) {
-        targetsHashCode += ut.hashCode();
-      }
-      targetsHashCode *= 31;
-      amphibHashCode = 1;
-      for (final UnitType ut : amphibTypes) {
-        amphibHashCode += ut.hashCode();
-      }
-      amphibHashCode *= 31;
-      key = player.getName() + "|" + battlesite.getName() + "|" + defending + "|" + amphibious + "|" + targetsHashCode
-          + "|" + amphibHashCode;
-      it.remove();
+    if (key != null) {
+      oolCache.put(key, sortedWellEnoughUnitsList);
     }
     return sortedWellEnoughUnitsList;
   }
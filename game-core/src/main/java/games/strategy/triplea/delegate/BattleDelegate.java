@@ -1193,7 +1193,7 @@ public class BattleDelegate extends BaseTripleADelegate implements IBattleDelega
         continue;
       }
       if (enemies.contains(owner)) {
-        if (t.getUnits().getUnits().stream().noneMatch(Matches.unitIsOwnedBy(player))) {
+        if (!t.getUnits().anyMatch(Matches.unitIsOwnedBy(player))) {
           continue;
         }
         if (onlyWhereThereAreBattlesOrAmphibious) {
@@ -74,6 +74,11 @@ import games.strategy.util.Tuple;
  * </p>
  */
 public final class Matches {
+  // the territory type matches are constants so that GameMap can recognize them and answer from its distance index
+  private static final Predicate<Territory> TERRITORY_IS_LAND_OR_WATER = Objects::nonNull;
+  private static final Predicate<Territory> TERRITORY_IS_WATER = Territory::isWater;
+  private static final Predicate<Territory> TERRITORY_IS_LAND = TERRITORY_IS_WATER.negate();
+
   private Matches() {}
 
   public static <T> Predicate<T> always() {
@@ -768,11 +773,11 @@ public final class Matches {
 
   // TODO: CHECK whether this makes any sense
   public static Predicate<Territory> territoryIsLandOrWater() {
-    return Objects::nonNull;
+    return TERRITORY_IS_LAND_OR_WATER;
   }
 
   public static Predicate<Territory> territoryIsWater() {
-    return Territory::isWater;
+    return TERRITORY_IS_WATER;
   }
 
   public static Predicate<Territory> territoryIsIsland() {
@@ -793,7 +798,7 @@ public final class Matches {
   }
 
   public static Predicate<Territory> territoryIsLand() {
-    return territoryIsWater().negate();
+    return TERRITORY_IS_LAND;
   }
 
   public static Predicate<Territory> territoryIsEmpty() {
@@ -358,7 +358,7 @@ public class MoveDelegate extends AbstractMoveDelegate {
 
   static Change giveBonusMovementToUnits(final PlayerID player, final GameData data, final Territory t) {
     final CompositeChange change = new CompositeChange();
-    for (final Unit u : t.getUnits().getUnits()) {
+    for (final Unit u : t.getUnits().getUnitsView()) {
       if (Matches.unitCanBeGivenBonusMovementByFacilitiesInItsTerritory(t, player, data).test(u)) {
         if (!Matches.isUnitAllied(player, data).test(u)) {
           continue;
@@ -367,7 +367,7 @@ public class MoveDelegate extends AbstractMoveDelegate {
         final Collection<Unit> givesBonusUnits = new ArrayList<>();
         final Predicate<Unit> givesBonusUnit = Matches.alliedUnit(player, data)
             .and(Matches.unitCanGiveBonusMovementToThisUnit(u));
-        givesBonusUnits.addAll(CollectionUtils.getMatches(t.getUnits().getUnits(), givesBonusUnit));
+        givesBonusUnits.addAll(t.getUnits().getMatches(givesBonusUnit));
         if (Matches.unitIsSea().test(u)) {
           final Predicate<Unit> givesBonusUnitLand = givesBonusUnit.and(Matches.unitIsLand());
           final Set<Territory> neighbors = new HashSet<>(data.getMap().getNeighbors(t, Matches.territoryIsLand()));
@@ -0,0 +1,283 @@
+package games.strategy.triplea.delegate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.MapMaker;
+
+import games.strategy.engine.data.GameData;
+import games.strategy.engine.data.PlayerID;
+import games.strategy.engine.data.Territory;
+import games.strategy.engine.data.Unit;
+import games.strategy.engine.data.UnitType;
+
+/**
+ * Remembers the order in which {@link BattleCalculator} sorts units for casualties, so that it is only worked out
+ * once for each combination of unit types in a battle.
+ *
+ * <p>
+ * There is one cache per {@link GameData} instance, so the live game and every odds calculator (which works on its own
+ * copy of the game data) have separate caches. The cache of a game data is looked up by identity without locking, and
+ * is dropped once the game data is no longer used. The entries of a cache only refer to players, territories and unit
+ * types by name or index, so a cache never keeps its game data alive. Each cache holds at most a fixed number of
+ * counts in total across the keys and orders of all of its entries, and evicts the least recently used entries once it
+ * is full. Besides the counts of each cache, the hits, misses and evictions of all caches are summed up for
+ * benchmarks, as the caches of odds calculator copies come and go with their game data.
+ * </p>
+ *
+ * <p>
+ * Instances of this class are thread safe.
+ * </p>
+ */
+final class OrderOfLossesCache {
+  // weak keys are compared by identity
+  private static final ConcurrentMap<GameData, OrderOfLossesCache> caches = new MapMaker().weakKeys().makeMap();
+
+  /**
+   * The maximum number of ints stored in a single cache, summed over the unit type counts of the keys and the unit
+   * types of the orders of all entries.
+   */
+  @VisibleForTesting
+  static final int MAX_WEIGHT = 1_000_000;
+  private static final AtomicLong totalHitCount = new AtomicLong();
+  private static final AtomicLong totalMissCount = new AtomicLong();
+  private static final AtomicLong totalEvictionCount = new AtomicLong();
+
+  private final Map<String, Integer> unitTypeIndexes = new HashMap<>();
+  private final int maxWeight;
+  private final LinkedHashMap<Key, int[]> entries = new LinkedHashMap<>(16, 0.75f, true);
+  private int weight = 0;
+  private long hitCount = 0;
+  private long missCount = 0;
+  private long evictionCount = 0;
+
+  @VisibleForTesting
+  OrderOfLossesCache(final GameData data, final int maxWeight) {
+    for (final UnitType unitType : data.getUnitTypeList()) {
+      unitTypeIndexes.put(unitType.getName(), unitTypeIndexes.size());
+    }
+    this.maxWeight = maxWeight;
+  }
+
+  /**
+   * @return The cache for the specified game data.
+   */
+  static OrderOfLossesCache get(final GameData data) {
+    final OrderOfLossesCache cache = caches.get(data);
+    return (cache != null) ? cache : caches.computeIfAbsent(data, k -> new OrderOfLossesCache(k, MAX_WEIGHT));
+  }
+
+  /**
+   * Removes all entries from every cache.
+   */
+  static void clearAll() {
+    caches.values().forEach(OrderOfLossesCache::clear);
+  }
+
+  /**
+   * @return The key for sorting the specified units, or {@code null} if they cannot be cached.
+   */
+  Key newKey(final PlayerID player, final Territory battlesite, final boolean defending, final boolean amphibious,
+      final Collection<Unit> targets, final Collection<Unit> amphibiousLandAttackers) {
+    final int[] targetCounts = countUnitTypes(targets);
+    final int[] amphibiousCounts = countUnitTypes(amphibiousLandAttackers);
+    if (targetCounts == null || amphibiousCounts == null) {
+      return null;
+    }
+    return new Key(player.getName(), battlesite.getName(), defending, amphibious, targetCounts, amphibiousCounts);
+  }
+
+  private int[] countUnitTypes(final Collection<Unit> units) {
+    final int[] counts = new int[unitTypeIndexes.size()];
+    if (units != null) {
+      for (final Unit unit : units) {
+        final Integer index = unitTypeIndexes.get(unit.getType().getName());
+        if (index == null) {
+          return null;
+        }
+        counts[index]++;
+      }
+    }
+    return counts;
+  }
+
+  /**
+   * @return The specified units in the cached order, or {@code null} if the order is not cached.
+   */
+  List<Unit> get(final Key key, final Collection<Unit> targets) {
+    final int[] order;
+    synchronized (this) {
+      order = entries.get(key);
+      if (order == null) {
+        missCount++;
+        totalMissCount.incrementAndGet();
+        return null;
+      }
+      hitCount++;
+      totalHitCount.incrementAndGet();
+    }
+    final List<Unit> selectFrom = new ArrayList<>(targets);
+    final int[] selectFromTypes = new int[selectFrom.size()];
+    for (int i = 0; i < selectFromTypes.length; i++) {
+      selectFromTypes[i] = unitTypeIndexes.get(selectFrom.get(i).getType().getName());
+    }
+    // all units of a type are added the first time the type appears
+    final List<Unit> result = new ArrayList<>(selectFrom.size());
+    final boolean[] added = new boolean[unitTypeIndexes.size()];
+    for (final int unitTypeIndex : order) {
+      if (!added[unitTypeIndex]) {
+        added[unitTypeIndex] = true;
+        for (int i = 0; i < selectFromTypes.length; i++) {
+          if (selectFromTypes[i] == unitTypeIndex) {
+            result.add(selectFrom.get(i));
+          }
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Caches the order of the specified sorted units, and of every list obtained by removing units from its front.
+   */
+  void put(final Key key, final List<Unit> sortedUnits) {
+    final int[] order = new int[sortedUnits.size()];
+    for (int i = 0; i < order.length; i++) {
+      order[i] = unitTypeIndexes.get(sortedUnits.get(i).getType().getName());
+    }
+    final int[] targetCounts = key.targetCounts.clone();
+    final int[] amphibiousCounts = key.amphibiousCounts.clone();
+    synchronized (this) {
+      for (int i = 0; i < order.length; i++) {
+        final Key suffixKey = new Key(key.playerName, key.territoryName, key.defending, key.amphibious,
+            targetCounts.clone(), amphibiousCounts.clone());
+        final int[] suffixOrder = Arrays.copyOfRange(order, i, order.length);
+        final int[] replaced = entries.put(suffixKey, suffixOrder);
+        // a replaced entry keeps its key
+        weight += (replaced == null) ? getWeight(suffixKey, suffixOrder) : (suffixOrder.length - replaced.length);
+        final int removed = order[i];
+        targetCounts[removed]--;
+        if (targetCounts[removed] < amphibiousCounts[removed]) {
+          amphibiousCounts[removed]--;
+        }
+      }
+      evictEldestEntries();
+    }
+  }
+
+  private static int getWeight(final Key key, final int[] order) {
+    return key.targetCounts.length + key.amphibiousCounts.length + order.length;
+  }
+
+  private void evictEldestEntries() {
+    final Iterator<Map.Entry<Key, int[]>> it = entries.entrySet().iterator();
+    while (weight > maxWeight && it.hasNext()) {
+      final Map.Entry<Key, int[]> entry = it.next();
+      weight -= getWeight(entry.getKey(), entry.getValue());
+      it.remove();
+      evictionCount++;
+      totalEvictionCount.incrementAndGet();
+    }
+  }
+
+  synchronized void clear() {
+    entries.clear();
+    weight = 0;
+  }
+
+  synchronized int size() {
+    return entries.size();
+  }
+
+  synchronized int getWeight() {
+    return weight;
+  }
+
+  synchronized long getHitCount() {
+    return hitCount;
+  }
+
+  synchronized long getMissCount() {
+    return missCount;
+  }
+
+  synchronized long getEvictionCount() {
+    return evictionCount;
+  }
+
+  static long getTotalHitCount() {
+    return totalHitCount.get();
+  }
+
+  static long getTotalMissCount() {
+    return totalMissCount.get();
+  }
+
+  static long getTotalEvictionCount() {
+    return totalEvictionCount.get();
+  }
+
+  @Override
+  public synchronized String toString() {
+    return "OrderOfLossesCache[size=" + entries.size() + ", weight=" + weight + ", hits=" + hitCount + ", misses="
+        + missCount + ", evictions=" + evictionCount + "]";
+  }
+
+  /**
+   * Identifies a battle side by the number of units of each unit type in it.
+   */
+  static final class Key {
+    private final String playerName;
+    private final String territoryName;
+    private final boolean defending;
+    private final boolean amphibious;
+    private final int[] targetCounts;
+    private final int[] amphibiousCounts;
+    private final int hashCode;
+
+    private Key(final String playerName, final String territoryName, final boolean defending,
+        final boolean amphibious, final int[] targetCounts, final int[] amphibiousCounts) {
+      this.playerName = playerName;
+      this.territoryName = territoryName;
+      this.defending = defending;
+      this.amphibious = amphibious;
+      this.targetCounts = targetCounts;
+      this.amphibiousCounts = amphibiousCounts;
+      hashCode = 31 * (31 * Objects.hash(playerName, territoryName, defending, amphibious)
+          + Arrays.hashCode(targetCounts)) + Arrays.hashCode(amphibiousCounts);
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+      if (obj == this) {
+        return true;
+      }
+      if (!(obj instanceof Key)) {
+        return false;
+      }
+      final Key other = (Key) obj;
+      return hashCode == other.hashCode
+          && defending == other.defending
+          && amphibious == other.amphibious
+          && playerName.equals(other.playerName)
+          && territoryName.equals(other.territoryName)
+          && Arrays.equals(targetCounts, other.targetCounts)
+          && Arrays.equals(amphibiousCounts, other.amphibiousCounts);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+  }
+}
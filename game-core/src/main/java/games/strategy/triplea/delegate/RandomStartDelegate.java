@@ -132,7 +132,7 @@ public class RandomStartDelegate extends BaseTripleADelegate {
           if (!allPickableTerritories.contains(picked)
               || !currentPickingPlayer.getUnits().getUnits().containsAll(unitsToPlace)
               || unitsToPlace.size() > UNITS_PER_PICK || (unitsToPlace.size() < UNITS_PER_PICK
-                  && unitsToPlace.size() < currentPickingPlayer.getUnits().getUnits().size())) {
+                  && unitsToPlace.size() < currentPickingPlayer.getUnits().size())) {
             getRemotePlayer(currentPickingPlayer).reportMessage("Chosen territory or units invalid!",
                 "Chosen territory or units invalid!");
           } else {
@@ -179,7 +179,7 @@ public class RandomStartDelegate extends BaseTripleADelegate {
         if (!territoriesToPickFrom.contains(picked)
             || !currentPickingPlayer.getUnits().getUnits().containsAll(unitsToPlace)
             || unitsToPlace.size() > UNITS_PER_PICK || (unitsToPlace.size() < UNITS_PER_PICK
-                && unitsToPlace.size() < currentPickingPlayer.getUnits().getUnits().size())) {
+                && unitsToPlace.size() < currentPickingPlayer.getUnits().size())) {
           getRemotePlayer(currentPickingPlayer).reportMessage("Chosen territory or units invalid!",
               "Chosen territory or units invalid!");
         } else {
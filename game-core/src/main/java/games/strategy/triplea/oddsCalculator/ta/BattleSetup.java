@@ -0,0 +1,26 @@
+package games.strategy.triplea.oddsCalculator.ta;
+
+import java.util.Collection;
+
+import games.strategy.engine.data.PlayerID;
+import games.strategy.engine.data.Territory;
+import games.strategy.engine.data.TerritoryEffect;
+import games.strategy.engine.data.Unit;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A battle whose odds are to be calculated, as passed to {@link IOddsCalculator#calculateAll(java.util.List)}.
+ */
+@Getter
+@AllArgsConstructor
+public final class BattleSetup {
+  private final PlayerID attacker;
+  private final PlayerID defender;
+  private final Territory location;
+  private final Collection<Unit> attacking;
+  private final Collection<Unit> defending;
+  private final Collection<Unit> bombarding;
+  private final Collection<TerritoryEffect> territoryEffects;
+  private final int runCount;
+}
@@ -0,0 +1,384 @@
+package games.strategy.triplea.oddsCalculator.ta;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import games.strategy.engine.data.GameData;
+import games.strategy.engine.data.PlayerID;
+import games.strategy.engine.data.Territory;
+import games.strategy.engine.data.TerritoryEffect;
+import games.strategy.engine.data.Unit;
+import games.strategy.engine.data.UnitType;
+import games.strategy.triplea.Properties;
+import games.strategy.triplea.TripleAUnit;
+import games.strategy.triplea.attachments.UnitAttachment;
+import games.strategy.triplea.attachments.UnitSupportAttachment;
+import games.strategy.triplea.delegate.BaseEditDelegate;
+import games.strategy.triplea.delegate.BattleCalculator;
+import games.strategy.triplea.delegate.DiceRoll;
+import games.strategy.triplea.delegate.IBattle.WhoWon;
+import games.strategy.triplea.delegate.Matches;
+import games.strategy.util.Tuple;
+
+/**
+ * Simulates a battle without creating a {@link games.strategy.triplea.delegate.MustFightBattle} and without changing
+ * the game data.
+ *
+ * <p>
+ * When a simulator is compiled, each side of the battle is reduced to the units that are still alive. Each such state
+ * is compiled once into primitive arrays holding the power, rolls and casualty order of its units, and remembers which
+ * state follows it for any number of hits. Every state a battle can reach is compiled with the simulator, and running
+ * a trial is nothing more than rolling dice and following these links.
+ * </p>
+ *
+ * <p>
+ * The simulator only covers the common case of a land or sea battle between single hit point units without special
+ * abilities, and follows the rules of {@code MustFightBattle} for it. {@link #compile} returns {@code null} for
+ * anything else (low luck, subs, AA, transports at sea, amphibious assaults, bombardment, enemy or negative support,
+ * retreats, ...), in which case the battle must be fought by a {@code MustFightBattle}.
+ * </p>
+ *
+ * <p>
+ * Instances of this class are not thread safe.
+ * </p>
+ */
+final class BattleSimulator {
+  private final GameData data;
+  private final Side attackers;
+  private final Side defenders;
+  private final int maxRounds;
+  private final int diceSides;
+  private final boolean lhtrHeavyBombers;
+  private final boolean transportCasualtiesRestricted;
+  // the odds calculator fights headless battles, whose attacker can always retreat into the battle site, so
+  // MustFightBattle.checkForUnitsThatCanRollLeft never removes the attacking units
+  private final boolean attackerCanRetreat = true;
+
+  private BattleSimulator(final GameData data, final Territory location, final PlayerID attacker,
+      final PlayerID defender, final List<Unit> attackingUnits, final List<Unit> defendingUnits,
+      final Collection<TerritoryEffect> territoryEffects, final List<Unit> attackerOrderOfLosses,
+      final List<Unit> defenderOrderOfLosses) {
+    this.data = data;
+    maxRounds = location.isWater() ? Properties.getSeaBattleRounds(data) : Properties.getLandBattleRounds(data);
+    diceSides = data.getDiceSides();
+    lhtrHeavyBombers = Properties.getLhtrHeavyBombers(data);
+    transportCasualtiesRestricted = Properties.getTransportCasualtiesRestricted(data);
+    attackers = new Side(false, attacker, attackingUnits, defendingUnits, location, territoryEffects,
+        attackerOrderOfLosses);
+    defenders = new Side(true, defender, defendingUnits, attackingUnits, location, territoryEffects,
+        defenderOrderOfLosses);
+  }
+
+  /**
+   * Compiles the specified battle.
+   *
+   * @param attackerOrderOfLosses The units of the attacker in the order they should be taken as casualties, or
+   *        {@code null} to use the default casualty selection.
+   * @param defenderOrderOfLosses The units of the defender in the order they should be taken as casualties, or
+   *        {@code null} to use the default casualty selection.
+   *
+   * @return A simulator for the battle, or {@code null} if the battle uses rules the simulator does not support.
+   */
+  static BattleSimulator compile(final GameData data, final Territory location, final PlayerID attacker,
+      final PlayerID defender, final Collection<Unit> attackingUnits, final Collection<Unit> defendingUnits,
+      final Collection<Unit> bombardingUnits, final Collection<TerritoryEffect> territoryEffects,
+      final boolean amphibious, final boolean keepOneAttackingLandUnit, final int retreatAfterRound,
+      final int retreatAfterXUnitsLeft, final boolean retreatWhenOnlyAirLeft, final List<Unit> attackerOrderOfLosses,
+      final List<Unit> defenderOrderOfLosses) {
+    if (attackingUnits.isEmpty() || defendingUnits.isEmpty() || !bombardingUnits.isEmpty() || amphibious
+        || keepOneAttackingLandUnit || retreatAfterRound > -1 || retreatAfterXUnitsLeft > -1 || retreatWhenOnlyAirLeft
+        || Properties.getLowLuck(data) || BaseEditDelegate.getEditMode(data)) {
+      return null;
+    }
+    if (!canSimulate(attackingUnits, false, location) || !canSimulate(defendingUnits, true, location)) {
+      return null;
+    }
+    final BattleSimulator simulator = new BattleSimulator(data, location, attacker, defender,
+        new ArrayList<>(attackingUnits), new ArrayList<>(defendingUnits), territoryEffects, attackerOrderOfLosses,
+        defenderOrderOfLosses);
+    if (!simulator.attackers.isPowerConsistentInAllStates() || !simulator.defenders.isPowerConsistentInAllStates()) {
+      return null;
+    }
+    return simulator;
+  }
+
+  private static boolean canSimulate(final Collection<Unit> units, final boolean defending,
+      final Territory location) {
+    final boolean isLandBattle = !location.isWater();
+    boolean canRoll = false;
+    for (final Unit unit : units) {
+      final UnitAttachment ua = UnitAttachment.get(unit.getType());
+      if (ua.getHitPoints() != 1 || unit.getHits() != 0 || ua.getIsSub() || ua.getIsInfrastructure()
+          || ua.getIsAAforCombatOnly() || ua.getIsAAforBombingThisUnitOnly() || ua.getIsAAforFlyOverOnly()
+          || ua.getIsSuicide() || ua.getIsSuicideOnHit() || ua.getIsKamikaze()
+          || ((TripleAUnit) unit).getWasAmphibious()
+          || Matches.unitIsDisabled().test(unit) || Matches.unitIsBeingTransported().test(unit)
+          || !Matches.unitCanBeInBattle(!defending, isLandBattle, 1, true, false, false).test(unit)) {
+        return false;
+      }
+      if (isLandBattle ? ua.getIsSea() : (!ua.getIsSea() && !ua.getIsAir())) {
+        return false;
+      }
+      if (!isLandBattle && Matches.unitIsTransport().test(unit)) {
+        return false;
+      }
+      for (final UnitSupportAttachment rule : UnitSupportAttachment.get(unit.getType())) {
+        if (rule.getEnemy() || rule.getBonus() <= 0) {
+          return false;
+        }
+      }
+      canRoll |= Matches.unitIsSupporterOrHasCombatAbility(!defending).test(unit);
+    }
+    // otherwise MustFightBattle may remove a side before the first round
+    return canRoll;
+  }
+
+  /**
+   * Fights the battle once.
+   *
+   * @param random The source of the dice.
+   */
+  BattleResults simulate(final Random random) {
+    State attacking = attackers.initial;
+    State defending = defenders.initial;
+    int round = 1;
+    while (true) {
+      // follows MustFightBattle.checkForUnitsThatCanRollLeft, which checks the attacker before the defender
+      if (transportCasualtiesRestricted) {
+        if (!attackerCanRetreat && !attacking.hasAir && !attacking.canRoll && defending.canRoll) {
+          attacking = attackers.empty;
+        } else if (!defending.canRoll && attacking.canRoll) {
+          defending = defenders.empty;
+        }
+      }
+      final int attackerHits = attacking.rollHits(random, diceSides, lhtrHeavyBombers);
+      final int defenderHits = defending.rollHits(random, diceSides, lhtrHeavyBombers);
+      attacking = attacking.afterHits(defenderHits);
+      defending = defending.afterHits(attackerHits);
+      final WhoWon whoWon;
+      if (attacking.isEmpty()) {
+        whoWon = WhoWon.DEFENDER;
+      } else if (defending.isEmpty()) {
+        whoWon = WhoWon.ATTACKER;
+      } else if ((maxRounds > 0 && maxRounds <= round) || (attacking.cannotHit && defending.cannotHit)) {
+        whoWon = WhoWon.DRAW;
+      } else {
+        round++;
+        continue;
+      }
+      return new BattleResults(round, new ArrayList<>(attacking.units), new ArrayList<>(defending.units), whoWon,
+          data);
+    }
+  }
+
+  /**
+   * One side of the battle.
+   */
+  private static final class Side {
+    private final boolean defending;
+    private final PlayerID player;
+    private final List<Unit> enemyUnits;
+    private final Territory location;
+    private final Collection<TerritoryEffect> territoryEffects;
+    private final List<Unit> orderOfLosses;
+    private final Map<Unit, Integer> groups = new HashMap<>();
+    private int groupCount = 0;
+    private final Map<String, State> states = new HashMap<>();
+    private final State empty;
+    private final State initial;
+
+    Side(final boolean defending, final PlayerID player, final List<Unit> units, final List<Unit> enemyUnits,
+        final Territory location, final Collection<TerritoryEffect> territoryEffects,
+        final List<Unit> orderOfLosses) {
+      this.defending = defending;
+      this.player = player;
+      this.enemyUnits = enemyUnits;
+      this.location = location;
+      this.territoryEffects = territoryEffects;
+      this.orderOfLosses = orderOfLosses;
+      final Map<Tuple<UnitType, PlayerID>, Integer> groupIndexes = new HashMap<>();
+      for (final Unit unit : units) {
+        groups.put(unit, groupIndexes.computeIfAbsent(Tuple.of(unit.getType(), unit.getOwner()), k -> groupCount++));
+      }
+      empty = getState(Collections.emptyList());
+      initial = getState(units);
+    }
+
+    /**
+     * Units of the same type and owner are interchangeable, so a state is identified by how many units of each type
+     * and owner are still alive.
+     */
+    State getState(final List<Unit> units) {
+      final int[] counts = new int[groupCount];
+      for (final Unit unit : units) {
+        counts[groups.get(unit)]++;
+      }
+      return states.computeIfAbsent(Arrays.toString(counts), k -> new State(this, units));
+    }
+
+    /**
+     * Compiles every state this side can reach in the battle, and checks that the units of each of them can hit.
+     */
+    boolean isPowerConsistentInAllStates() {
+      final Set<State> visited = new HashSet<>();
+      final Deque<State> toVisit = new ArrayDeque<>();
+      toVisit.add(initial);
+      while (!toVisit.isEmpty()) {
+        final State state = toVisit.poll();
+        if (!visited.add(state)) {
+          continue;
+        }
+        if (!state.isPowerConsistent()) {
+          return false;
+        }
+        for (int hits = 1; hits <= state.units.size(); hits++) {
+          toVisit.add(state.afterHits(hits));
+        }
+      }
+      return true;
+    }
+
+    /**
+     * Follows the casualty selection of {@code BattleCalculator.selectCasualties} and
+     * {@code OddsCalculator.DummyPlayer}.
+     */
+    List<Unit> selectCasualties(final List<Unit> sortedUnits, final int hits) {
+      final List<Unit> killed = new ArrayList<>(sortedUnits.subList(0, hits));
+      if (orderOfLosses == null || orderOfLosses.isEmpty()) {
+        return killed;
+      }
+      final List<Unit> orderOfLosses = new ArrayList<>(this.orderOfLosses);
+      orderOfLosses.retainAll(sortedUnits);
+      if (orderOfLosses.isEmpty()) {
+        return killed;
+      }
+      final List<Unit> defaultKilled = killed;
+      final List<Unit> selected = new ArrayList<>(orderOfLosses.subList(0, Math.min(hits, orderOfLosses.size())));
+      defaultKilled.removeAll(selected);
+      for (int i = 0; selected.size() < hits; i++) {
+        selected.add(defaultKilled.get(i));
+      }
+      return selected;
+    }
+  }
+
+  /**
+   * The units of one side that are still alive, in the order they will be taken as casualties.
+   */
+  private static final class State {
+    private final Side side;
+    private final List<Unit> units;
+    private final int[] power;
+    private final int[] rolls;
+    private final boolean[] chooseBestRoll;
+    private final boolean[] hasCombatValue;
+    private final boolean canRoll;
+    private final boolean cannotHit;
+    private final boolean hasAir;
+    private final State[] next;
+
+    State(final Side side, final List<Unit> aliveUnits) {
+      this.side = side;
+      final int size = aliveUnits.size();
+      units = size < 2 ? new ArrayList<>(aliveUnits)
+          : BattleCalculator.sortUnitsForCasualtiesWithSupport(aliveUnits, side.defending, side.player,
+              side.enemyUnits, side.location, side.territoryEffects, side.location.getData());
+      power = new int[size];
+      rolls = new int[size];
+      chooseBestRoll = new boolean[size];
+      hasCombatValue = new boolean[size];
+      next = new State[size + 1];
+      next[0] = this;
+      final List<Unit> sortedByStrength = new ArrayList<>(units);
+      DiceRoll.sortByStrength(sortedByStrength, side.defending);
+      final Map<Unit, Tuple<Integer, Integer>> powerAndRolls = DiceRoll.getUnitPowerAndRollsForNormalBattles(
+          sortedByStrength, side.enemyUnits, side.defending, false, side.location.getData(), side.location,
+          side.territoryEffects, false, Collections.emptyList());
+      boolean canRoll = false;
+      boolean cannotHit = size > 0;
+      boolean hasAir = false;
+      for (int i = 0; i < size; i++) {
+        final Unit unit = units.get(i);
+        final UnitAttachment ua = UnitAttachment.get(unit.getType());
+        power[i] = powerAndRolls.get(unit).getFirst();
+        rolls[i] = powerAndRolls.get(unit).getSecond();
+        chooseBestRoll[i] = ua.getChooseBestRoll();
+        hasCombatValue[i] = (side.defending ? ua.getDefense(unit.getOwner()) : ua.getAttack(unit.getOwner())) >= 1;
+        canRoll |= Matches.unitIsSupporterOrHasCombatAbility(!side.defending).test(unit);
+        cannotHit &= !hasCombatValue[i];
+        hasAir |= ua.getIsAir();
+      }
+      this.canRoll = canRoll;
+      this.cannotHit = cannotHit;
+      this.hasAir = hasAir;
+    }
+
+    boolean isEmpty() {
+      return units.isEmpty();
+    }
+
+    /**
+     * A unit that has an attack or defense value but never rolls a hit would keep the battle going forever.
+     */
+    boolean isPowerConsistent() {
+      for (int i = 0; i < units.size(); i++) {
+        if (hasCombatValue[i] && (power[i] < 1 || rolls[i] < 1)) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    /**
+     * Follows {@code DiceRoll.rollDiceNormal}.
+     */
+    int rollHits(final Random random, final int diceSides, final boolean lhtrHeavyBombers) {
+      int hits = 0;
+      for (int i = 0; i < power.length; i++) {
+        final int strength = power[i];
+        final int unitRolls = rolls[i];
+        if (unitRolls <= 0 || strength <= 0) {
+          continue;
+        }
+        if (unitRolls > 1 && (lhtrHeavyBombers || chooseBestRoll[i])) {
+          int smallestDie = diceSides;
+          for (int j = 0; j < unitRolls; j++) {
+            smallestDie = Math.min(smallestDie, random.nextInt(diceSides));
+          }
+          if (strength > smallestDie) {
+            hits++;
+          }
+        } else {
+          for (int j = 0; j < unitRolls; j++) {
+            if (strength > random.nextInt(diceSides)) {
+              hits++;
+            }
+          }
+        }
+      }
+      return hits;
+    }
+
+    State afterHits(final int hits) {
+      final int casualties = Math.min(hits, units.size());
+      State state = next[casualties];
+      if (state == null) {
+        final List<Unit> remaining = new ArrayList<>(units);
+        remaining.removeAll(side.selectCasualties(units, casualties));
+        state = side.getState(remaining);
+        next[casualties] = state;
+      }
+      return state;
+    }
+  }
+}
@@ -0,0 +1,122 @@
+package games.strategy.triplea.oddsCalculator.ta;
+
+import java.util.ArrayList;
+import java.util.Collection;
+
+import com.google.common.annotations.VisibleForTesting;
+
+/**
+ * The shared state of a single {@link ConcurrentOddsCalculator} calculation. Workers repeatedly claim small batches
+ * of battle trials until either all trials have been handed out, the calculation has been cancelled, or the attacker
+ * win percentage is known precisely enough that running the remaining trials would not change the answer.
+ *
+ * <p>
+ * Since every worker only claims a new batch after finishing its previous one, fast workers automatically run more
+ * trials than slow ones, and a single slow worker can hold up the result by at most one batch.
+ * </p>
+ */
+final class BattleTrials {
+  /**
+   * The z-score for a 95% confidence interval.
+   */
+  private static final double Z_SCORE = 1.96;
+  /**
+   * The minimum number of trials that must be completed before a calculation may terminate early.
+   */
+  @VisibleForTesting
+  static final int MIN_TRIALS_BEFORE_EARLY_TERMINATION = 16;
+  private static final int BATCHES_PER_WORKER = 4;
+  private static final int MAX_BATCH_SIZE = 50;
+
+  private final int batchSize;
+  private final double confidenceIntervalHalfWidth;
+  private final AggregateResults results;
+  private int trialsRemaining;
+  private int attackerWins = 0;
+  private volatile boolean done = false;
+
+  /**
+   * @param runCount The maximum number of trials to run.
+   * @param workerCount The number of workers that will be claiming batches.
+   * @param confidenceIntervalHalfWidth The half-width of the 95% confidence interval of the attacker win percentage
+   *        (in the range 0 to 1) at which the calculation terminates early; 0 to always run all trials.
+   */
+  BattleTrials(final int runCount, final int workerCount, final double confidenceIntervalHalfWidth) {
+    trialsRemaining = Math.max(0, runCount);
+    batchSize = Math.max(1, Math.min(MAX_BATCH_SIZE, trialsRemaining / Math.max(1, workerCount * BATCHES_PER_WORKER)));
+    this.confidenceIntervalHalfWidth = confidenceIntervalHalfWidth;
+    results = new AggregateResults(trialsRemaining);
+  }
+
+  /**
+   * Claims the next batch of trials.
+   *
+   * @return The number of trials the caller must run, or 0 if there are no more trials to run.
+   */
+  synchronized int nextBatch() {
+    if (done) {
+      return 0;
+    }
+    final int batch = Math.min(batchSize, trialsRemaining);
+    trialsRemaining -= batch;
+    return batch;
+  }
+
+  /**
+   * Adds the results of a finished batch and decides whether the calculation may terminate early.
+   *
+   * @return {@code true} if more batches should be claimed.
+   */
+  synchronized boolean addResults(final Collection<BattleResults> batchResults) {
+    results.addResults(batchResults);
+    for (final BattleResults result : batchResults) {
+      if (result.attackerWon()) {
+        attackerWins++;
+      }
+    }
+    if (confidenceIntervalHalfWidth > 0 && isConfidenceIntervalWithin(attackerWins, results.getRollCount(),
+        confidenceIntervalHalfWidth)) {
+      done = true;
+    }
+    return !done;
+  }
+
+  /**
+   * Stops handing out batches. Batches that have already been claimed still finish.
+   */
+  void cancel() {
+    done = true;
+  }
+
+  /**
+   * @return A copy of the results collected so far, safe to hand to listeners while the calculation continues.
+   */
+  synchronized AggregateResults getResultsSoFar() {
+    final AggregateResults copy = new AggregateResults(results.getRollCount());
+    copy.addResults(new ArrayList<>(results.getResults()));
+    return copy;
+  }
+
+  /**
+   * Only call this method once every worker has finished.
+   */
+  synchronized AggregateResults getResults() {
+    return results;
+  }
+
+  /**
+   * Uses the Wilson score interval, which unlike the normal approximation stays sensible when every trial so far had
+   * the same outcome.
+   */
+  @VisibleForTesting
+  static boolean isConfidenceIntervalWithin(final int successes, final int trials, final double halfWidth) {
+    if (trials < MIN_TRIALS_BEFORE_EARLY_TERMINATION) {
+      return false;
+    }
+    final double p = (double) successes / trials;
+    final double zSquared = Z_SCORE * Z_SCORE;
+    final double intervalHalfWidth = Z_SCORE / (1 + zSquared / trials)
+        * Math.sqrt(p * (1 - p) / trials + zSquared / (4.0 * trials * trials));
+    return intervalHalfWidth <= halfWidth;
+  }
+}
@@ -1,6 +1,8 @@
 package games.strategy.triplea.oddsCalculator.ta;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -13,21 +15,24 @@ import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.stream.Collectors;
 
 import games.strategy.engine.data.GameData;
 import games.strategy.engine.data.PlayerID;
 import games.strategy.engine.data.Territory;
 import games.strategy.engine.data.TerritoryEffect;
 import games.strategy.engine.data.Unit;
-import games.strategy.engine.framework.GameDataUtils;
+import games.strategy.engine.framework.GameDataSnapshot;
 import games.strategy.util.CountUpAndDownLatch;
 import games.strategy.util.Interruptibles;
 
 /**
- * Concurrent wrapper class for the OddsCalculator. It spawns multiple worker threads and splits up the run count
- * across these workers. This is mainly to be used by AIs since they call the OddsCalculator a lot.
+ * Concurrent wrapper class for the OddsCalculator. It spawns multiple worker threads that share the run count by
+ * claiming small batches of trials on demand. This is mainly to be used by AIs since they call the OddsCalculator a
+ * lot.
  */
 public class ConcurrentOddsCalculator implements IOddsCalculator {
   private static final Logger logger = Logger.getLogger(ConcurrentOddsCalculator.class.getName());
@@ -55,6 +60,12 @@ public class ConcurrentOddsCalculator implements IOddsCalculator {
   // do not let multiple calculations or setting calc data happen at same time
   private final Object mutexCalcIsRunning = new Object();
   private final List<OddsCalculatorListener> listeners = new ArrayList<>();
+  private volatile int runCount = 0;
+  private volatile double winPercentageConfidenceInterval = 0;
+  // the calculation currently running, if any, so that it can be cancelled from other threads
+  private volatile BattleTrials currentTrials = null;
+  // tells the workers of the batch currently running, if any, to skip their remaining battles
+  private volatile boolean isBatchCancelled = false;
 
   public ConcurrentOddsCalculator(final String threadNamePrefix) {
     executor = Executors.newFixedThreadPool(MAX_THREADS,
@@ -131,50 +142,16 @@ public class ConcurrentOddsCalculator implements IOddsCalculator {
       // see how long 1 copy takes (some games can get REALLY big)
       final long startTime = System.currentTimeMillis();
       final long startMemory = Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory();
-      final GameData newData;
       try {
-        // make first copy, then release lock on it so game can continue (ie: we don't want to lock on it while we copy
-        // it 16 times, when once is enough) don't let the data change while we make the first copy
-        data.acquireReadLock();
-        newData = GameDataUtils.cloneGameData(data, false);
-      } finally {
-        data.releaseReadLock();
-      }
-      currentThreads = getThreadsToUse((System.currentTimeMillis() - startTime), startMemory);
-      try {
-        // make sure all workers are using the same data
-        newData.acquireReadLock();
-        int i = 0;
-        // we are already in 1 executor thread, so we have MAX_THREADS-1 threads left to use
-        if (currentThreads <= 2 || MAX_THREADS <= 2) {
-          // if 2 or fewer threads, do not multi-thread the copying (we have already copied it once above, so at most
-          // only 1 more copy to
-          // make)
-          while (cancelCurrentOperation >= 0 && i < currentThreads) {
-            // the last one will use our already copied data from above, without copying it again
-            workers.add(new OddsCalculator(newData, (currentThreads == ++i)));
-          }
-        } else { // multi-thread our copying, cus why the heck not (it increases the speed of copying by about double)
-          final CountDownLatch workerLatch = new CountDownLatch(currentThreads - 1);
-          while (i < (currentThreads - 1)) {
-            ++i;
-            executor.submit(() -> {
-              if (cancelCurrentOperation >= 0) {
-                workers.add(new OddsCalculator(newData, false));
-              }
-              workerLatch.countDown();
-            });
-          }
-          // the last one will use our already copied data from above, without copying it again
-          workers.add(new OddsCalculator(newData, true));
-          Interruptibles.await(workerLatch);
-        }
-      } finally {
-        newData.releaseReadLock();
+        // capture the data once, so that the game can continue while we make the copies from the snapshot
+        createWorkers(GameDataSnapshot.of(data, false), startTime, startMemory);
+      } catch (final IOException e) {
+        logger.log(Level.SEVERE, "Failed to copy game data for battle calculator workers", e);
+        workers.clear();
       }
     }
-    if (cancelCurrentOperation < 0 || data == null) {
-      // we could have cancelled while setting data, so clear the workers again if so
+    if (cancelCurrentOperation < 0 || data == null || workers.isEmpty()) {
+      // we could have cancelled (or failed) while setting data, so clear the workers again if so
       workers.clear();
       isDataSet = false;
     } else {
@@ -188,6 +165,43 @@ public class ConcurrentOddsCalculator implements IOddsCalculator {
     latchSetData.countDown();
   }
 
+  private void createWorkers(final GameDataSnapshot snapshot, final long startTime, final long startMemory)
+      throws IOException {
+    workers.add(new OddsCalculator(snapshot.newGameData(), true));
+    currentThreads = getThreadsToUse((System.currentTimeMillis() - startTime), startMemory);
+    // we are already in 1 executor thread, so we have MAX_THREADS-1 threads left to use
+    if (currentThreads <= 2 || MAX_THREADS <= 2) {
+      // if 2 or fewer threads, do not multi-thread the copying (at most only 1 more copy to make)
+      for (int i = 1; cancelCurrentOperation >= 0 && i < currentThreads; i++) {
+        addWorker(snapshot);
+      }
+    } else { // multi-thread our copying, since every copy is independent of the others
+      final CountDownLatch workerLatch = new CountDownLatch(currentThreads - 1);
+      for (int i = 1; i < currentThreads; i++) {
+        executor.submit(() -> {
+          if (cancelCurrentOperation >= 0) {
+            addWorker(snapshot);
+          }
+          workerLatch.countDown();
+        });
+      }
+      Interruptibles.await(workerLatch);
+    }
+    // a copy that failed is not tried again, the calculation is shared by the workers we have
+    currentThreads = workers.size();
+  }
+
+  /**
+   * Adds a worker with a copy of the snapshot; or logs the failure if the copy cannot be made.
+   */
+  private void addWorker(final GameDataSnapshot snapshot) {
+    try {
+      workers.add(new OddsCalculator(snapshot.newGameData(), true));
+    } catch (final IOException e) {
+      logger.log(Level.SEVERE, "Failed to copy game data for battle calculator worker", e);
+    }
+  }
+
   @Override
   public void shutdown() {
     isShutDown = true;
@@ -212,23 +226,22 @@ public class ConcurrentOddsCalculator implements IOddsCalculator {
   @Override
   public void setCalculateData(final PlayerID attacker, final PlayerID defender, final Territory location,
       final Collection<Unit> attacking, final Collection<Unit> defending, final Collection<Unit> bombarding,
-      final Collection<TerritoryEffect> territoryEffects, int runCount) {
+      final Collection<TerritoryEffect> territoryEffects, final int runCount) {
     synchronized (mutexCalcIsRunning) {
       awaitLatch();
       isCalcSet = false;
-      final int workerNum = workers.size();
-      final int workerRunCount = Math.max(1, (runCount / Math.max(1, workerNum)));
+      this.runCount = Math.max(0, runCount);
       for (final OddsCalculator worker : workers) {
         if (!isDataSet || isShutDown) {
           // we could have attempted to set a new game data, while the old one was still being set, causing it to abort
           // with null data
           return;
         }
+        // every worker gets the whole battle, the trials are handed out in batches when calculating
         worker.setCalculateData(attacker, defender, location, attacking, defending, bombarding, territoryEffects,
-            (runCount <= 0 ? 0 : workerRunCount));
-        runCount -= workerRunCount;
+            this.runCount);
       }
-      if (!isDataSet || isShutDown || workerNum <= 0) {
+      if (!isDataSet || isShutDown || workers.isEmpty()) {
         return;
       }
       isCalcSet = true;
@@ -236,73 +249,93 @@ public class ConcurrentOddsCalculator implements IOddsCalculator {
   }
 
   /**
-   * Concurrently calculates odds using the OddsCalculatorWorker. It uses Executor to process the results. Then waits
-   * for all the future
-   * results and combines them together.
+   * Concurrently calculates odds using the OddsCalculator workers. Rather than splitting the run count up front, each
+   * worker repeatedly claims a small batch of trials until none are left, so faster workers end up running more of
+   * them. Listeners are notified of the results so far after every batch, and the calculation stops early once the
+   * attacker win percentage is known within {@link #setWinPercentageConfidenceInterval(double)}.
    */
   @Override
   public AggregateResults calculate() throws IllegalStateException {
     synchronized (mutexCalcIsRunning) {
       awaitLatch();
       final long start = System.currentTimeMillis();
-      // Create worker thread pool and start all workers
-      int totalRunCount = 0;
-      final List<Future<AggregateResults>> list = new ArrayList<>();
+      if (!getIsReady()) {
+        // we could have attempted to set a new game data, while the old one was still being set, causing it to abort
+        // with null data
+        return new AggregateResults(0);
+      }
+      final BattleTrials trials = new BattleTrials(runCount, workers.size(), winPercentageConfidenceInterval);
+      currentTrials = trials;
+      // Start all workers
+      final List<Future<?>> list = new ArrayList<>();
       for (final OddsCalculator worker : workers) {
-        if (!getIsReady()) {
-          // we could have attempted to set a new game data, while the old one was still being set, causing it to abort
-          // with null data
-          return new AggregateResults(0);
-        }
         if (!worker.getIsReady()) {
           throw new IllegalStateException("Called calculate before setting calculate data!");
         }
-        if (worker.getRunCount() > 0) {
-          totalRunCount += worker.getRunCount();
-          final Future<AggregateResults> workerResult = executor.submit(worker);
-          list.add(workerResult);
-        }
-      }
-      // Wait for all worker futures to complete and combine results
-      final AggregateResults results = new AggregateResults(totalRunCount);
-      final Set<InterruptedException> interruptExceptions = new HashSet<>();
-      final Map<String, Set<ExecutionException>> executionExceptions = new HashMap<>();
-      for (final Future<AggregateResults> future : list) {
-        try {
-          final AggregateResults result = future.get();
-          results.addResults(result.getResults());
-        } catch (final InterruptedException e) {
-          Thread.currentThread().interrupt();
-          interruptExceptions.add(e);
-        } catch (final ExecutionException e) {
-          final String cause = e.getCause().getLocalizedMessage();
-          Set<ExecutionException> exceptions = executionExceptions.get(cause);
-          if (exceptions == null) {
-            exceptions = new HashSet<>();
-          }
-          exceptions.add(e);
-          executionExceptions.put(cause, exceptions);
-        }
+        list.add(executor.submit(() -> runTrials(worker, trials)));
       }
-      // we don't want to scare the user with 8+ errors all for the same thing
-      if (!interruptExceptions.isEmpty()) {
-        logger.log(Level.SEVERE, interruptExceptions.size() + " Battle results workers interrupted",
-            interruptExceptions.iterator().next());
+      try {
+        awaitWorkers(list, trials::cancel);
+      } finally {
+        currentTrials = null;
       }
-      if (!executionExceptions.isEmpty()) {
-        Exception e = null;
-        for (final Set<ExecutionException> entry : executionExceptions.values()) {
-          if (!entry.isEmpty()) {
-            e = entry.iterator().next();
-            logger.log(Level.SEVERE, entry.size() + " Battle results workers aborted by exception", e.getCause());
-          }
+      final AggregateResults results = trials.getResults();
+      results.setTime(System.currentTimeMillis() - start);
+      return results;
+    }
+  }
+
+  /**
+   * Waits for all workers to finish. If a worker fails, the other workers are stopped and the first failure is
+   * rethrown once they have finished.
+   *
+   * @param stopWorkers Stops handing out more work to the workers.
+   */
+  private static void awaitWorkers(final List<Future<?>> list, final Runnable stopWorkers) {
+    final Set<InterruptedException> interruptExceptions = new HashSet<>();
+    final Map<String, Set<ExecutionException>> executionExceptions = new HashMap<>();
+    for (final Future<?> future : list) {
+      try {
+        future.get();
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        interruptExceptions.add(e);
+        stopWorkers.run();
+      } catch (final ExecutionException e) {
+        final String cause = e.getCause().getLocalizedMessage();
+        Set<ExecutionException> exceptions = executionExceptions.get(cause);
+        if (exceptions == null) {
+          exceptions = new HashSet<>();
         }
-        if (e != null) {
-          throw new IllegalStateException(e.getCause());
+        exceptions.add(e);
+        executionExceptions.put(cause, exceptions);
+        stopWorkers.run();
+      }
+    }
+    // we don't want to scare the user with 8+ errors all for the same thing
+    if (!interruptExceptions.isEmpty()) {
+      logger.log(Level.SEVERE, interruptExceptions.size() + " Battle results workers interrupted",
+          interruptExceptions.iterator().next());
+    }
+    if (!executionExceptions.isEmpty()) {
+      Exception e = null;
+      for (final Set<ExecutionException> entry : executionExceptions.values()) {
+        if (!entry.isEmpty()) {
+          e = entry.iterator().next();
+          logger.log(Level.SEVERE, entry.size() + " Battle results workers aborted by exception", e.getCause());
         }
       }
-      results.setTime(System.currentTimeMillis() - start);
-      return results;
+      if (e != null) {
+        throw new IllegalStateException(e.getCause());
+      }
+    }
+  }
+
+  private void runTrials(final OddsCalculator worker, final BattleTrials trials) {
+    for (int batch = trials.nextBatch(); batch > 0; batch = trials.nextBatch()) {
+      final AggregateResults batchResults = worker.calculate(batch);
+      trials.addResults(batchResults.getResults());
+      notifyListenersResultsUpdated(trials);
     }
   }
 
@@ -316,6 +349,53 @@ public class ConcurrentOddsCalculator implements IOddsCalculator {
     }
   }
 
+  /**
+   * Calculates the odds of several independent battles at once. Rather than sharing the trials of one battle, each
+   * worker claims whole battles and runs all of their trials on its own copy of the game data, so the workers do not
+   * have to wait for each other between battles. Each result is stored at the index of its battle, so the results are
+   * in the order of the battles regardless of which worker finished first. Afterwards the workers are left with
+   * different battles, so the calculate data must be set again before calling {@link #calculate()}.
+   */
+  @Override
+  public List<AggregateResults> calculateAll(final List<BattleSetup> battles) {
+    synchronized (mutexCalcIsRunning) {
+      awaitLatch();
+      isCalcSet = false;
+      final AggregateResults[] results = new AggregateResults[battles.size()];
+      if (!isDataSet || isShutDown || workers.isEmpty()) {
+        // we could have attempted to set a new game data, while the old one was still being set, causing it to abort
+        // with null data
+        return battles.stream().map(battle -> new AggregateResults(0)).collect(Collectors.toList());
+      }
+      final AtomicInteger nextBattle = new AtomicInteger();
+      isBatchCancelled = false;
+      final List<Future<?>> list = new ArrayList<>();
+      for (final OddsCalculator worker : workers) {
+        list.add(executor.submit(() -> {
+          for (int i = nextBattle.getAndIncrement(); i < battles.size(); i = nextBattle.getAndIncrement()) {
+            results[i] = isBatchCancelled ? new AggregateResults(0) : calculate(worker, battles.get(i));
+          }
+        }));
+      }
+      awaitWorkers(list, () -> isBatchCancelled = true);
+      return Arrays.asList(results);
+    }
+  }
+
+  private AggregateResults calculate(final OddsCalculator worker, final BattleSetup battle) {
+    final long start = System.currentTimeMillis();
+    final int runCount = Math.max(0, battle.getRunCount());
+    worker.setCalculateData(battle.getAttacker(), battle.getDefender(), battle.getLocation(), battle.getAttacking(),
+        battle.getDefending(), battle.getBombarding(), battle.getTerritoryEffects(), runCount);
+    final BattleTrials trials = new BattleTrials(runCount, 1, winPercentageConfidenceInterval);
+    for (int batch = trials.nextBatch(); batch > 0 && !isBatchCancelled; batch = trials.nextBatch()) {
+      trials.addResults(worker.calculate(batch).getResults());
+    }
+    final AggregateResults results = trials.getResults();
+    results.setTime(System.currentTimeMillis() - start);
+    return results;
+  }
+
   @Override
   public boolean getIsReady() {
     return isDataSet && isCalcSet && !isShutDown;
@@ -323,11 +403,18 @@ public class ConcurrentOddsCalculator implements IOddsCalculator {
 
   @Override
   public int getRunCount() {
-    int totalRunCount = 0;
-    for (final OddsCalculator worker : workers) {
-      totalRunCount += worker.getRunCount();
-    }
-    return totalRunCount;
+    return runCount;
+  }
+
+  /**
+   * Sets how precisely the attacker win percentage must be known before a calculation stops early, without running
+   * the remaining trials.
+   *
+   * @param halfWidth The half-width of the 95% confidence interval of the attacker win percentage, in the range 0 to
+   *        1 (for example 0.05 for +/- 5%); 0 to always run the full run count.
+   */
+  public void setWinPercentageConfidenceInterval(final double halfWidth) {
+    winPercentageConfidenceInterval = Math.max(0, halfWidth);
   }
 
   @Override
@@ -404,6 +491,11 @@ public class ConcurrentOddsCalculator implements IOddsCalculator {
   // not on purpose, we need to be able to cancel at any time
   @Override
   public void cancel() {
+    final BattleTrials trials = currentTrials;
+    if (trials != null) {
+      trials.cancel();
+    }
+    isBatchCancelled = true;
     for (final OddsCalculator worker : workers) {
       worker.cancel();
     }
@@ -430,4 +522,16 @@ public class ConcurrentOddsCalculator implements IOddsCalculator {
       }
     }
   }
+
+  private void notifyListenersResultsUpdated(final BattleTrials trials) {
+    synchronized (listeners) {
+      if (listeners.isEmpty()) {
+        return;
+      }
+      final AggregateResults resultsSoFar = trials.getResultsSoFar();
+      for (final OddsCalculatorListener listener : listeners) {
+        listener.resultsUpdated(resultsSoFar);
+      }
+    }
+  }
 }
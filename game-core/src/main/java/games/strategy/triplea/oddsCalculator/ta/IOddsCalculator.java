@@ -1,6 +1,8 @@
 package games.strategy.triplea.oddsCalculator.ta;
 
 import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
 
 import games.strategy.engine.data.GameData;
 import games.strategy.engine.data.PlayerID;
@@ -24,6 +26,20 @@ public interface IOddsCalculator {
       final Territory location, final Collection<Unit> attacking, final Collection<Unit> defending,
       final Collection<Unit> bombarding, final Collection<TerritoryEffect> territoryEffects, final int runCount);
 
+  /**
+   * Calculates the odds of several independent battles with the current settings. The calculate data of the last
+   * battle is left set, unless an implementation says otherwise.
+   *
+   * @return The results, in the same order as the battles.
+   */
+  default List<AggregateResults> calculateAll(final List<BattleSetup> battles) {
+    return battles.stream()
+        .map(battle -> setCalculateDataAndCalculate(battle.getAttacker(), battle.getDefender(), battle.getLocation(),
+            battle.getAttacking(), battle.getDefending(), battle.getBombarding(), battle.getTerritoryEffects(),
+            battle.getRunCount()))
+        .collect(Collectors.toList());
+  }
+
   int getRunCount();
 
   boolean getIsReady();
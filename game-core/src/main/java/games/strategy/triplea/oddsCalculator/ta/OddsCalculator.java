@@ -7,10 +7,14 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.Random;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.function.Predicate;
 
+import com.google.common.annotations.VisibleForTesting;
+
 import games.strategy.engine.data.Change;
 import games.strategy.engine.data.CompositeChange;
 import games.strategy.engine.data.GameData;
@@ -25,10 +29,12 @@ import games.strategy.engine.data.changefactory.ChangeFactory;
 import games.strategy.engine.delegate.IDelegateBridge;
 import games.strategy.engine.display.IDisplay;
 import games.strategy.engine.framework.GameDataUtils;
+import games.strategy.engine.framework.GameModifications;
 import games.strategy.engine.framework.IGameModifiedChannel;
 import games.strategy.engine.gamePlayer.IRemotePlayer;
 import games.strategy.engine.history.DelegateHistoryWriter;
 import games.strategy.engine.history.IDelegateHistoryWriter;
+import games.strategy.engine.random.IRandomSource;
 import games.strategy.engine.random.IRandomStats.DiceType;
 import games.strategy.engine.random.PlainRandomSource;
 import games.strategy.net.GUID;
@@ -80,6 +86,10 @@ class OddsCalculator implements IOddsCalculator, Callable<AggregateResults> {
   private volatile boolean isDataSet = false;
   private volatile boolean isCalcSet = false;
   private volatile boolean isRunning = false;
+  private BattleSimulator simulator = null;
+  private boolean isSimulatorCompiled = false;
+  // only set by tests, to roll the same dice each time
+  private Random seededRandom = null;
   private final List<OddsCalculatorListener> listeners = new ArrayList<>();
 
   public OddsCalculator(final GameData data) {
@@ -111,6 +121,7 @@ class OddsCalculator implements IOddsCalculator, Callable<AggregateResults> {
     bombardingUnits = new ArrayList<>();
     territoryEffects = new ArrayList<>();
     runCount = 0;
+    invalidateSimulator();
     if (data != null) {
       isDataSet = true;
       notifyListenersGameDataIsSet();
@@ -144,6 +155,7 @@ class OddsCalculator implements IOddsCalculator, Callable<AggregateResults> {
     gameData.performChange(ChangeFactory.addUnits(this.location, attackingUnits));
     gameData.performChange(ChangeFactory.addUnits(this.location, defendingUnits));
     this.runCount = runCount;
+    invalidateSimulator();
     isCalcSet = true;
   }
 
@@ -163,39 +175,47 @@ class OddsCalculator implements IOddsCalculator, Callable<AggregateResults> {
     return calculate(runCount);
   }
 
-  private AggregateResults calculate(final int count) {
+  /**
+   * Runs the specified number of trials of the battle set up by {@link #setCalculateData}, ignoring the run count
+   * that was set there.
+   */
+  AggregateResults calculate(final int count) {
     isRunning = true;
     final long start = System.currentTimeMillis();
     final AggregateResults aggregateResults = new AggregateResults(count);
     final BattleTracker battleTracker = new BattleTracker();
-    // CasualtySortingCaching can cause issues if there is more than 1 one battle being calced at the same time (like if
-    // the AI and a human
-    // are both using the calc)
-    // TODO: first, see how much it actually speeds stuff up by, and if it does make a difference then convert it to a
-    // per-thread, per-calc
-    // caching
     final List<Unit> attackerOrderOfLosses =
         OddsCalculator.getUnitListByOrderOfLoss(this.attackerOrderOfLosses, attackingUnits, gameData);
     final List<Unit> defenderOrderOfLosses =
         OddsCalculator.getUnitListByOrderOfLoss(this.defenderOrderOfLosses, defendingUnits, gameData);
-    for (int i = 0; i < count && !cancelled; i++) {
-      final CompositeChange allChanges = new CompositeChange();
-      final DummyDelegateBridge bridge1 =
-          new DummyDelegateBridge(attacker, gameData, allChanges, attackerOrderOfLosses, defenderOrderOfLosses,
-              keepOneAttackingLandUnit, retreatAfterRound, retreatAfterXUnitsLeft, retreatWhenOnlyAirLeft);
-      final GameDelegateBridge bridge = new GameDelegateBridge(bridge1);
-      final MustFightBattle battle = new MustFightBattle(location, attacker, gameData, battleTracker);
-      battle.setHeadless(true);
-      battle.isAmphibious();
-      battle.setUnits(defendingUnits, attackingUnits, bombardingUnits,
-          (amphibious ? attackingUnits : new ArrayList<>()), defender, territoryEffects);
-      bridge1.setBattle(battle);
-      battle.fight(bridge);
-      aggregateResults.addResult(new BattleResults(battle, gameData));
-      // restore the game to its original state
-      gameData.performChange(allChanges.invert());
-      battleTracker.clear();
-      battleTracker.clearBattleRecords();
+    final BattleSimulator simulator = getSimulator(attackerOrderOfLosses, defenderOrderOfLosses);
+    if (simulator != null) {
+      // the battle is simple enough to be simulated without fighting it through the game data
+      for (int i = 0; i < count && !cancelled; i++) {
+        aggregateResults.addResult(
+            simulator.simulate((seededRandom != null) ? seededRandom : ThreadLocalRandom.current()));
+      }
+    } else {
+      for (int i = 0; i < count && !cancelled; i++) {
+        final CompositeChange allChanges = new CompositeChange();
+        final DummyDelegateBridge bridge1 =
+            new DummyDelegateBridge(attacker, gameData, allChanges, newRandomSource(), attackerOrderOfLosses,
+                defenderOrderOfLosses, keepOneAttackingLandUnit, retreatAfterRound, retreatAfterXUnitsLeft,
+                retreatWhenOnlyAirLeft);
+        final GameDelegateBridge bridge = new GameDelegateBridge(bridge1);
+        final MustFightBattle battle = new MustFightBattle(location, attacker, gameData, battleTracker);
+        battle.setHeadless(true);
+        battle.isAmphibious();
+        battle.setUnits(defendingUnits, attackingUnits, bombardingUnits,
+            (amphibious ? attackingUnits : new ArrayList<>()), defender, territoryEffects);
+        bridge1.setBattle(battle);
+        battle.fight(bridge);
+        aggregateResults.addResult(new BattleResults(battle, gameData));
+        // restore the game to its original state
+        gameData.performChange(allChanges.invert());
+        battleTracker.clear();
+        battleTracker.clearBattleRecords();
+      }
     }
     aggregateResults.setTime(System.currentTimeMillis() - start);
     isRunning = false;
@@ -203,6 +223,37 @@ class OddsCalculator implements IOddsCalculator, Callable<AggregateResults> {
     return aggregateResults;
   }
 
+  private IRandomSource newRandomSource() {
+    return (seededRandom != null) ? new PlainRandomSource(seededRandom.nextLong()) : new PlainRandomSource();
+  }
+
+  /**
+   * Makes the calculations roll the same dice each time for the specified seed.
+   */
+  @VisibleForTesting
+  void setRandomSeed(final long seed) {
+    seededRandom = new Random(seed);
+  }
+
+  /**
+   * The simulator is kept between calls, so a calculation that is run in several parts only compiles it once.
+   */
+  private BattleSimulator getSimulator(final List<Unit> attackerOrderOfLosses,
+      final List<Unit> defenderOrderOfLosses) {
+    if (!isSimulatorCompiled) {
+      simulator = BattleSimulator.compile(gameData, location, attacker, defender, attackingUnits, defendingUnits,
+          bombardingUnits, territoryEffects, amphibious, keepOneAttackingLandUnit, retreatAfterRound,
+          retreatAfterXUnitsLeft, retreatWhenOnlyAirLeft, attackerOrderOfLosses, defenderOrderOfLosses);
+      isSimulatorCompiled = true;
+    }
+    return simulator;
+  }
+
+  private void invalidateSimulator() {
+    simulator = null;
+    isSimulatorCompiled = false;
+  }
+
   @Override
   public AggregateResults call() {
     return calculate();
@@ -221,36 +272,43 @@ class OddsCalculator implements IOddsCalculator, Callable<AggregateResults> {
   @Override
   public void setKeepOneAttackingLandUnit(final boolean bool) {
     keepOneAttackingLandUnit = bool;
+    invalidateSimulator();
   }
 
   @Override
   public void setAmphibious(final boolean bool) {
     amphibious = bool;
+    invalidateSimulator();
   }
 
   @Override
   public void setRetreatAfterRound(final int value) {
     retreatAfterRound = value;
+    invalidateSimulator();
   }
 
   @Override
   public void setRetreatAfterXUnitsLeft(final int value) {
     retreatAfterXUnitsLeft = value;
+    invalidateSimulator();
   }
 
   @Override
   public void setRetreatWhenOnlyAirLeft(final boolean value) {
     retreatWhenOnlyAirLeft = value;
+    invalidateSimulator();
   }
 
   @Override
   public void setAttackerOrderOfLosses(final String attackerOrderOfLosses) {
     this.attackerOrderOfLosses = attackerOrderOfLosses;
+    invalidateSimulator();
   }
 
   @Override
   public void setDefenderOrderOfLosses(final String defenderOrderOfLosses) {
     this.defenderOrderOfLosses = defenderOrderOfLosses;
+    invalidateSimulator();
   }
 
   @Override
@@ -373,7 +431,7 @@ class OddsCalculator implements IOddsCalculator, Callable<AggregateResults> {
   }
 
   private static class DummyDelegateBridge implements IDelegateBridge {
-    private final PlainRandomSource randomSource = new PlainRandomSource();
+    private final IRandomSource randomSource;
     private final ITripleADisplay display = new HeadlessDisplay();
     private final ISound soundChannel = new HeadlessSoundChannel();
     private final DummyPlayer attackingPlayer;
@@ -385,9 +443,9 @@ class OddsCalculator implements IOddsCalculator, Callable<AggregateResults> {
     private MustFightBattle battle = null;
 
     public DummyDelegateBridge(final PlayerID attacker, final GameData data, final CompositeChange allChanges,
-        final List<Unit> attackerOrderOfLosses, final List<Unit> defenderOrderOfLosses,
-        final boolean attackerKeepOneLandUnit, final int retreatAfterRound, final int retreatAfterXUnitsLeft,
-        final boolean retreatWhenOnlyAirLeft) {
+        final IRandomSource randomSource, final List<Unit> attackerOrderOfLosses,
+        final List<Unit> defenderOrderOfLosses, final boolean attackerKeepOneLandUnit, final int retreatAfterRound,
+        final int retreatAfterXUnitsLeft, final boolean retreatWhenOnlyAirLeft) {
       attackingPlayer = new DummyPlayer(this, true, "battle calc dummy", "None (AI)", attackerOrderOfLosses,
           attackerKeepOneLandUnit, retreatAfterRound, retreatAfterXUnitsLeft, retreatWhenOnlyAirLeft);
       defendingPlayer = new DummyPlayer(this, false, "battle calc dummy", "None (AI)", defenderOrderOfLosses, false,
@@ -395,6 +453,7 @@ class OddsCalculator implements IOddsCalculator, Callable<AggregateResults> {
       gameData = data;
       this.attacker = attacker;
       this.allChanges = allChanges;
+      this.randomSource = randomSource;
     }
 
     @Override
@@ -488,6 +547,9 @@ class OddsCalculator implements IOddsCalculator, Callable<AggregateResults> {
     @Override
     public void gameDataChanged(final Change change) {}
 
+    @Override
+    public void gameModified(final GameModifications modifications) {}
+
     @Override
     public void shutDown() {}
 
@@ -8,4 +8,12 @@ public interface OddsCalculatorListener {
    * We have finished copying the game data(s).
    */
   void dataReady();
+
+  /**
+   * A batch of battle trials has finished while a calculation is still running. This may be called from any worker
+   * thread, and the results passed in are a copy that will not be modified afterwards.
+   *
+   * @param resultsSoFar The results of all trials finished so far.
+   */
+  default void resultsUpdated(final AggregateResults resultsSoFar) {}
 }
@@ -44,6 +44,8 @@ import games.strategy.engine.framework.system.SystemProperties;
 public enum ClientSetting implements GameSetting {
   AI_PAUSE_DURATION(400),
 
+  AI_PHASE_TIME_BUDGET(0),
+
   ARROW_KEY_SCROLL_SPEED(70),
 
   BATTLE_CALC_SIMULATION_COUNT_DICE(200),
@@ -60,6 +62,8 @@ public enum ClientSetting implements GameSetting {
 
   FASTER_ARROW_KEY_SCROLL_MULTIPLIER(2),
 
+  INCREMENTAL_AUTO_SAVE(false),
+
   SPACE_BAR_CONFIRMS_CASUALTIES(true),
 
   LOBBY_LAST_USED_HOST,
@@ -31,6 +31,13 @@ enum ClientSettingSwingUiBinding implements GameSettingUiBinding<JComponent> {
       SelectionComponentFactory.intValueRange(ClientSetting.AI_PAUSE_DURATION, 0, 3000),
       "Time (in milliseconds) between AI moves"),
 
+  AI_PHASE_TIME_BUDGET_BINDING(
+      "AI Phase Time Budget",
+      SettingType.AI,
+      SelectionComponentFactory.intValueRange(ClientSetting.AI_PHASE_TIME_BUDGET, 0, 600),
+      "Time (in seconds) the Hard AI aims to spend on each purchase, combat move, non-combat move and place phase.\n"
+          + "The AI always makes a basic plan first, so a phase may take longer. 0 means no limit."),
+
   ARROW_KEY_SCROLL_SPEED_BINDING(
       "Arrow Key Scroll Speed",
       SettingType.MAP_SCROLLING,
@@ -68,6 +75,13 @@ enum ClientSettingSwingUiBinding implements GameSettingUiBinding<JComponent> {
       "When set to true casualty confirmation can be accepted by pressing space bar.\n"
           + "When set to false, the confirm casualty button has to always be clicked."),
 
+  INCREMENTAL_AUTO_SAVE_BINDING(
+      "Incremental Auto Saves",
+      SettingType.GAME,
+      ClientSetting.INCREMENTAL_AUTO_SAVE,
+      "When enabled, a hosted game appends only what changed since the previous auto save to each auto save file,\n"
+          + "and rewrites the whole file only now and then. Useful when hosting large or many games."),
+
   LOOK_AND_FEEL_PREF_BINDING(
       "Look and Feel",
       SettingType.LOOK_AND_FEEL,
@@ -12,6 +12,7 @@ import games.strategy.engine.data.Territory;
 import games.strategy.engine.data.Unit;
 import games.strategy.engine.delegate.IDelegateBridge;
 import games.strategy.engine.display.IDisplay;
+import games.strategy.engine.framework.GameModifications;
 import games.strategy.engine.framework.IGameModifiedChannel;
 import games.strategy.engine.gamePlayer.IRemotePlayer;
 import games.strategy.engine.history.DelegateHistoryWriter;
@@ -129,6 +130,9 @@ public class ObjectiveDummyDelegateBridge implements IDelegateBridge {
     @Override
     public void gameDataChanged(final Change change) {}
 
+    @Override
+    public void gameModified(final GameModifications modifications) {}
+
     @Override
     public void shutDown() {}
 
@@ -25,7 +25,6 @@ import java.awt.event.WindowEvent;
 import java.awt.event.WindowListener;
 import java.awt.font.TextAttribute;
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -111,6 +110,7 @@ import games.strategy.engine.history.HistoryNode;
 import games.strategy.engine.history.Renderable;
 import games.strategy.engine.history.Round;
 import games.strategy.engine.history.Step;
+import games.strategy.io.FileUtils;
 import games.strategy.sound.ClipPlayer;
 import games.strategy.sound.SoundPath;
 import games.strategy.thread.ThreadPool;
@@ -1753,7 +1753,7 @@ public class TripleAFrame extends MainGameFrame {
         try {
           final File f = TripleAMenuBar.getSaveGameLocation(TripleAFrame.this);
           if (f != null) {
-            try (FileOutputStream fout = new FileOutputStream(f)) {
+            try {
               final GameData datacopy = GameDataUtils.cloneGameData(data, true);
               datacopy.getHistory().gotoNode(historyPanel.getCurrentPopupNode());
               datacopy.getHistory().removeAllHistoryAfterNode(historyPanel.getCurrentPopupNode());
@@ -1782,7 +1782,7 @@ public class TripleAFrame extends MainGameFrame {
                 }
               }
               datacopy.getSequence().setRoundAndStep(round, stepDisplayName, currentPlayer);
-              GameDataManager.saveGame(fout, datacopy);
+              FileUtils.writeAtomically(f, os -> GameDataManager.saveGame(os, datacopy));
               JOptionPane.showMessageDialog(TripleAFrame.this, "Game Saved", "Game Saved",
                   JOptionPane.INFORMATION_MESSAGE);
             } catch (final IOException e) {
@@ -1,5 +1,9 @@
 package games.strategy.util;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 import java.io.Serializable;
 import java.util.Collection;
 import java.util.LinkedHashMap;
@@ -9,25 +13,31 @@ import java.util.Set;
 
 /**
  * A utility class for mapping Objects to ints. <br>
- * Supports adding and comparing of maps.
+ * Supports adding and comparing of maps. <br>
+ * Keeps insert order, and stores the ints without boxing them.
  *
  * @param <T> The type of the map key.
  */
 public final class IntegerMap<T> implements Cloneable, Serializable {
   private static final long serialVersionUID = 6856531659284300930L;
-  private final Map<T, Integer> mapValues;
+  // save games store the values as a map, as they did before the values were stored without boxing
+  private static final ObjectStreamField[] serialPersistentFields = {new ObjectStreamField("mapValues", Map.class)};
+  private ObjectIntMap<T> mapValues;
 
   /** Creates new IntegerMap. */
   public IntegerMap() {
-    mapValues = new LinkedHashMap<>();
+    mapValues = new ObjectIntMap<>();
   }
 
   public IntegerMap(final int size) {
-    mapValues = new LinkedHashMap<>(size);
+    mapValues = new ObjectIntMap<>(size);
   }
 
+  /**
+   * The load factor is no longer used, as the map sizes its hash table itself.
+   */
   public IntegerMap(final int size, final float loadFactor) {
-    mapValues = new LinkedHashMap<>(size, loadFactor);
+    this(size);
   }
 
   public IntegerMap(final T object, final int value) {
@@ -45,18 +55,21 @@ public final class IntegerMap<T> implements Cloneable, Serializable {
    * The Objects will be linked, but the integers mapped to them will not be linked.
    */
   public IntegerMap(final IntegerMap<T> integerMap) {
-    mapValues = new LinkedHashMap<>(integerMap.size());
-    for (final T t : integerMap.keySet()) {
-      mapValues.put(t, integerMap.getInt(t));
-    }
+    this(integerMap.size());
+    add(integerMap);
   }
 
   public IntegerMap(final Map<T, Integer> map) {
-    mapValues = new LinkedHashMap<>(map);
+    this(map.size());
+    map.forEach(this::put);
   }
 
   public Map<T, Integer> toMap() {
-    return new LinkedHashMap<>(mapValues);
+    final Map<T, Integer> map = new LinkedHashMap<>();
+    for (int i = mapValues.nextIndex(0); i != -1; i = mapValues.nextIndex(i + 1)) {
+      map.put(mapValues.keyAt(i), mapValues.valueAt(i));
+    }
+    return map;
   }
 
   public int size() {
@@ -75,26 +88,15 @@ public final class IntegerMap<T> implements Cloneable, Serializable {
    * returns 0 if no key found.
    */
   public int getInt(final T key) {
-    if (!mapValues.containsKey(key)) {
-      return 0;
-    }
-    return mapValues.get(key);
+    return mapValues.getInt(key);
   }
 
   public void add(final T key, final int value) {
-    if (mapValues.get(key) == null) {
-      put(key, value);
-    } else {
-      final int oldVal = mapValues.get(key);
-      final int newVal = oldVal + value;
-      put(key, newVal);
-    }
+    mapValues.add(key, value);
   }
 
   public void add(final IntegerMap<T> map) {
-    for (final T key : map.keySet()) {
-      add(key, map.getInt(key));
-    }
+    addMultiple(map, 1);
   }
 
   /**
@@ -106,8 +108,8 @@ public final class IntegerMap<T> implements Cloneable, Serializable {
    *        (1 = floor, 2 = round, 3 = ceil)
    */
   public void multiplyAllValuesBy(final double multiplyBy, final int roundType) {
-    for (final T t : keySet()) {
-      double val = mapValues.get(t);
+    for (int i = mapValues.nextIndex(0); i != -1; i = mapValues.nextIndex(i + 1)) {
+      double val = mapValues.valueAt(i);
       switch (roundType) {
         case 1:
           val = Math.floor(val * multiplyBy);
@@ -122,7 +124,7 @@ public final class IntegerMap<T> implements Cloneable, Serializable {
           val = val * multiplyBy;
           break;
       }
-      put(t, (int) val);
+      mapValues.setValueAt(i, (int) val);
     }
   }
 
@@ -140,24 +142,27 @@ public final class IntegerMap<T> implements Cloneable, Serializable {
    * @return true if all values are equal to the given integer.
    */
   public boolean allValuesEqual(final int integer) {
-    return !mapValues.isEmpty()
-        && mapValues.values().stream()
-            .noneMatch(value -> integer != value);
+    if (mapValues.isEmpty()) {
+      return false;
+    }
+    for (int i = mapValues.nextIndex(0); i != -1; i = mapValues.nextIndex(i + 1)) {
+      if (mapValues.valueAt(i) != integer) {
+        return false;
+      }
+    }
+    return true;
   }
 
   /**
    * Will return null if empty.
    */
   public T lowestKey() {
-    if (mapValues.isEmpty()) {
-      return null;
-    }
     int minValue = Integer.MAX_VALUE;
     T minKey = null;
-    for (final Map.Entry<T, Integer> entry : mapValues.entrySet()) {
-      if (entry.getValue() < minValue) {
-        minValue = entry.getValue();
-        minKey = entry.getKey();
+    for (int i = mapValues.nextIndex(0); i != -1; i = mapValues.nextIndex(i + 1)) {
+      if (mapValues.valueAt(i) < minValue) {
+        minValue = mapValues.valueAt(i);
+        minKey = mapValues.keyAt(i);
       }
     }
     return minKey;
@@ -167,15 +172,15 @@ public final class IntegerMap<T> implements Cloneable, Serializable {
    * @return The sum of all keys.
    */
   public int totalValues() {
-    return mapValues.values().stream()
-        .mapToInt(value -> value)
-        .sum();
+    int total = 0;
+    for (int i = mapValues.nextIndex(0); i != -1; i = mapValues.nextIndex(i + 1)) {
+      total += mapValues.valueAt(i);
+    }
+    return total;
   }
 
   public void subtract(final IntegerMap<T> map) {
-    for (final T key : map.keySet()) {
-      add(key, -map.getInt(key));
-    }
+    addMultiple(map, -1);
   }
 
   /**
@@ -187,22 +192,29 @@ public final class IntegerMap<T> implements Cloneable, Serializable {
    * that a and b are not equal.
    */
   public boolean greaterThanOrEqualTo(final IntegerMap<T> map) {
-    return map.keySet().stream()
-        .allMatch(key -> this.getInt(key) >= map.getInt(key));
+    final ObjectIntMap<T> other = map.mapValues;
+    for (int i = other.nextIndex(0); i != -1; i = other.nextIndex(i + 1)) {
+      if (getInt(other.keyAt(i)) < other.valueAt(i)) {
+        return false;
+      }
+    }
+    return true;
   }
 
   /**
    * True if all values are >= 0.
    */
   public boolean isPositive() {
-    return mapValues.keySet().stream()
-        .noneMatch(key -> getInt(key) < 0);
+    for (int i = mapValues.nextIndex(0); i != -1; i = mapValues.nextIndex(i + 1)) {
+      if (mapValues.valueAt(i) < 0) {
+        return false;
+      }
+    }
+    return true;
   }
 
   public IntegerMap<T> copy() {
-    final IntegerMap<T> copy = new IntegerMap<>();
-    copy.add(this);
-    return copy;
+    return new IntegerMap<>(this);
   }
 
   @Override
@@ -214,8 +226,9 @@ public final class IntegerMap<T> implements Cloneable, Serializable {
    * Add map * multiple.
    */
   public void addMultiple(final IntegerMap<T> map, final int multiple) {
-    for (final T key : map.keySet()) {
-      add(key, map.getInt(key) * multiple);
+    final ObjectIntMap<T> other = map.mapValues;
+    for (int i = other.nextIndex(0); i != -1; i = other.nextIndex(i + 1)) {
+      add(other.keyAt(i), other.valueAt(i) * multiple);
     }
   }
 
@@ -235,6 +248,19 @@ public final class IntegerMap<T> implements Cloneable, Serializable {
     return mapValues.entrySet();
   }
 
+  private void writeObject(final ObjectOutputStream out) throws IOException {
+    final ObjectOutputStream.PutField fields = out.putFields();
+    fields.put("mapValues", toMap());
+    out.writeFields();
+  }
+
+  @SuppressWarnings("unchecked")
+  private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException {
+    final Map<T, Integer> map = (Map<T, Integer>) in.readFields().get("mapValues", null);
+    mapValues = new ObjectIntMap<>(map.size());
+    map.forEach(mapValues::put);
+  }
+
   @Override
   public String toString() {
     final StringBuilder buf = new StringBuilder();
@@ -242,8 +268,8 @@ public final class IntegerMap<T> implements Cloneable, Serializable {
     if (mapValues.isEmpty()) {
       buf.append("empty\n");
     }
-    for (final T current : mapValues.keySet()) {
-      buf.append(current).append(" -> ").append(getInt(current)).append("\n");
+    for (int i = mapValues.nextIndex(0); i != -1; i = mapValues.nextIndex(i + 1)) {
+      buf.append(mapValues.keyAt(i)).append(" -> ").append(mapValues.valueAt(i)).append("\n");
     }
     return buf.toString();
   }
@@ -267,6 +293,6 @@ public final class IntegerMap<T> implements Cloneable, Serializable {
     }
 
     final IntegerMap<?> other = (IntegerMap<?>) o;
-    return mapValues.equals(other.mapValues);
+    return Objects.equals(mapValues, other.mapValues);
   }
 }
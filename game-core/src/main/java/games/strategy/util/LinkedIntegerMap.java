@@ -1,29 +1,37 @@
 package games.strategy.util;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 import java.io.Serializable;
 import java.util.Collection;
 import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 
 /**
  * A utility class for mapping Objects to ints. <br>
  * Supports adding and comparing of maps. <br>
- * Uses LinkedHashMap to keep insert order.
+ * Keeps insert order, and stores the ints without boxing them.
  *
  * @param <T> The type of the map key.
  */
 public final class LinkedIntegerMap<T> implements Cloneable, Serializable {
   private static final long serialVersionUID = 6856531659284300930L;
-  private final LinkedHashMap<T, Integer> m_values;
+  // save games store the values as a LinkedHashMap, as they did before the values were stored without boxing
+  private static final ObjectStreamField[] serialPersistentFields =
+      {new ObjectStreamField("m_values", LinkedHashMap.class)};
+  private ObjectIntMap<T> m_values;
 
   /** Creates new LinkedIntegerMap. */
   public LinkedIntegerMap() {
-    m_values = new LinkedHashMap<>();
+    m_values = new ObjectIntMap<>();
   }
 
   public LinkedIntegerMap(final int size) {
-    m_values = new LinkedHashMap<>(size);
+    m_values = new ObjectIntMap<>(size);
   }
 
   public LinkedIntegerMap(final T object, final int value) {
@@ -41,25 +49,14 @@ public final class LinkedIntegerMap<T> implements Cloneable, Serializable {
    * The Objects will be linked, but the integers mapped to them will not be linked.
    */
   public LinkedIntegerMap(final LinkedIntegerMap<T> integerMap) {
-    /*
-     * this will also work:
-     * m_values = new HashMap<T,Integer>(integerMap.m_values);
-     */
-    m_values = new LinkedHashMap<>(integerMap.size());
-    for (final T t : integerMap.keySet()) {
-      m_values.put(t, integerMap.getInt(t));
-    }
+    this(integerMap.size());
+    add(integerMap);
   }
 
   public int size() {
     return m_values.size();
   }
 
-  private void put(final T key, final int value) {
-    final Integer obj = Integer.valueOf(value);
-    m_values.put(key, obj);
-  }
-
   public void addAll(final Collection<T> keys, final int value) {
     keys.forEach(key -> add(key, value));
   }
@@ -68,26 +65,17 @@ public final class LinkedIntegerMap<T> implements Cloneable, Serializable {
    * returns 0 if no key found.
    */
   public int getInt(final T key) {
-    final Integer val = m_values.get(key);
-    if (val == null) {
-      return 0;
-    }
-    return val;
+    return m_values.getInt(key);
   }
 
   public void add(final T key, final int value) {
-    if (m_values.get(key) == null) {
-      put(key, value);
-    } else {
-      final Integer oldVal = m_values.get(key);
-      final int newVal = oldVal + value;
-      put(key, newVal);
-    }
+    m_values.add(key, value);
   }
 
   private void add(final LinkedIntegerMap<T> map) {
-    for (final T key : map.keySet()) {
-      add(key, map.getInt(key));
+    final ObjectIntMap<T> other = map.m_values;
+    for (int i = other.nextIndex(0); i != -1; i = other.nextIndex(i + 1)) {
+      add(other.keyAt(i), other.valueAt(i));
     }
   }
 
@@ -96,9 +84,7 @@ public final class LinkedIntegerMap<T> implements Cloneable, Serializable {
   }
 
   private LinkedIntegerMap<T> copy() {
-    final LinkedIntegerMap<T> copy = new LinkedIntegerMap<>();
-    copy.add(this);
-    return copy;
+    return new LinkedIntegerMap<>(this);
   }
 
   @Override
@@ -110,6 +96,23 @@ public final class LinkedIntegerMap<T> implements Cloneable, Serializable {
     m_values.remove(key);
   }
 
+  private void writeObject(final ObjectOutputStream out) throws IOException {
+    final LinkedHashMap<T, Integer> values = new LinkedHashMap<>();
+    for (int i = m_values.nextIndex(0); i != -1; i = m_values.nextIndex(i + 1)) {
+      values.put(m_values.keyAt(i), m_values.valueAt(i));
+    }
+    final ObjectOutputStream.PutField fields = out.putFields();
+    fields.put("m_values", values);
+    out.writeFields();
+  }
+
+  @SuppressWarnings("unchecked")
+  private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException {
+    final Map<T, Integer> values = (Map<T, Integer>) in.readFields().get("m_values", null);
+    m_values = new ObjectIntMap<>(values.size());
+    values.forEach(m_values::put);
+  }
+
   @Override
   public String toString() {
     final StringBuilder buf = new StringBuilder();
@@ -117,8 +120,8 @@ public final class LinkedIntegerMap<T> implements Cloneable, Serializable {
     if (m_values.isEmpty()) {
       buf.append("empty\n");
     }
-    for (final T current : m_values.keySet()) {
-      buf.append(current).append(" -> ").append(getInt(current)).append("\n");
+    for (int i = m_values.nextIndex(0); i != -1; i = m_values.nextIndex(i + 1)) {
+      buf.append(m_values.keyAt(i)).append(" -> ").append(m_values.valueAt(i)).append("\n");
     }
     return buf.toString();
   }
@@ -142,6 +145,6 @@ public final class LinkedIntegerMap<T> implements Cloneable, Serializable {
     }
 
     final LinkedIntegerMap<?> other = (LinkedIntegerMap<?>) o;
-    return m_values.equals(other.m_values);
+    return Objects.equals(m_values, other.m_values);
   }
 }
@@ -0,0 +1,411 @@
+package games.strategy.util;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A map from objects to primitive ints that keeps its keys in insertion order, the storage behind {@link IntegerMap}
+ * and {@link LinkedIntegerMap}.
+ *
+ * <p>
+ * The entries are stored in insertion order in parallel arrays, so values are never boxed. A hash table with linear
+ * probing holds the positions of the entries in these arrays. Removing an entry leaves a hole in the arrays, which is
+ * closed when the arrays have to grow. Positions of entries never change otherwise, so entries can be visited by
+ * position with {@link #nextIndex(int)}, and removed while they are being visited.
+ * </p>
+ *
+ * <p>
+ * Like {@link java.util.LinkedHashMap}, the map accepts {@code null} keys, is not thread safe, and its iterators fail
+ * fast if entries are added or removed other than through the iterator.
+ * </p>
+ *
+ * @param <T> The type of the map key.
+ */
+final class ObjectIntMap<T> {
+  private static final int MIN_CAPACITY = 4;
+  // stands in for the null key, so that an empty position can be told apart from an entry with a null key
+  private static final Object NULL_KEY = new Object();
+
+  // the keys, values and key hashes in insertion order; removed entries have a null key
+  private Object[] keys;
+  private int[] values;
+  private int[] hashes;
+  // the number of positions used in the arrays above, including removed entries
+  private int end = 0;
+  private int size = 0;
+  // positions in the arrays above plus one, or 0 for an empty slot; always at least twice as long as the arrays
+  private int[] table;
+  private int modCount = 0;
+
+  ObjectIntMap() {
+    this(MIN_CAPACITY);
+  }
+
+  ObjectIntMap(final int expectedSize) {
+    allocate(Math.max(MIN_CAPACITY, expectedSize));
+  }
+
+  private void allocate(final int capacity) {
+    keys = new Object[capacity];
+    values = new int[capacity];
+    hashes = new int[capacity];
+    table = new int[Integer.highestOneBit(capacity * 2 - 1) * 2];
+  }
+
+  private static Object maskNull(final Object key) {
+    return (key == null) ? NULL_KEY : key;
+  }
+
+  private static int hash(final Object key) {
+    final int h = key.hashCode() * 0x9E3779B9;
+    return h ^ (h >>> 16);
+  }
+
+  private int findIndex(final Object key) {
+    final Object maskedKey = maskNull(key);
+    final int hash = hash(maskedKey);
+    final int mask = table.length - 1;
+    for (int slot = hash & mask; table[slot] != 0; slot = (slot + 1) & mask) {
+      final int index = table[slot] - 1;
+      if (hashes[index] == hash && (keys[index] == maskedKey || keys[index].equals(maskedKey))) {
+        return index;
+      }
+    }
+    return -1;
+  }
+
+  int size() {
+    return size;
+  }
+
+  boolean isEmpty() {
+    return size == 0;
+  }
+
+  boolean containsKey(final Object key) {
+    return findIndex(key) != -1;
+  }
+
+  /**
+   * @return The value of the specified key, or 0 if the map does not contain the key.
+   */
+  int getInt(final Object key) {
+    final int index = findIndex(key);
+    return (index == -1) ? 0 : values[index];
+  }
+
+  void put(final T key, final int value) {
+    final int index = findIndex(key);
+    if (index == -1) {
+      insert(key, value);
+    } else {
+      values[index] = value;
+    }
+  }
+
+  /**
+   * Adds the specified value to the value of the specified key, or puts the specified value if the map does not contain
+   * the key.
+   */
+  void add(final T key, final int value) {
+    final int index = findIndex(key);
+    if (index == -1) {
+      insert(key, value);
+    } else {
+      values[index] += value;
+    }
+  }
+
+  private void insert(final T key, final int value) {
+    if (end == keys.length) {
+      // closing the holes left by removed entries is enough if there are many of them
+      rebuild((size < end / 2) ? end : end * 2);
+    }
+    final Object maskedKey = maskNull(key);
+    final int hash = hash(maskedKey);
+    keys[end] = maskedKey;
+    values[end] = value;
+    hashes[end] = hash;
+    end++;
+    insertIntoTable(hash, end);
+    size++;
+    modCount++;
+  }
+
+  private void insertIntoTable(final int hash, final int entry) {
+    final int mask = table.length - 1;
+    int slot = hash & mask;
+    while (table[slot] != 0) {
+      slot = (slot + 1) & mask;
+    }
+    table[slot] = entry;
+  }
+
+  private void rebuild(final int capacity) {
+    final Object[] oldKeys = keys;
+    final int[] oldValues = values;
+    final int[] oldHashes = hashes;
+    final int oldEnd = end;
+    allocate(capacity);
+    end = 0;
+    for (int i = 0; i < oldEnd; i++) {
+      if (oldKeys[i] != null) {
+        keys[end] = oldKeys[i];
+        values[end] = oldValues[i];
+        hashes[end] = oldHashes[i];
+        end++;
+        insertIntoTable(oldHashes[i], end);
+      }
+    }
+  }
+
+  /**
+   * @return {@code true} if the map contained the specified key.
+   */
+  boolean remove(final Object key) {
+    final int index = findIndex(key);
+    if (index == -1) {
+      return false;
+    }
+    removeAt(index);
+    return true;
+  }
+
+  /**
+   * Removes the entry at the specified position. The positions of the other entries stay the same.
+   */
+  void removeAt(final int index) {
+    final int mask = table.length - 1;
+    int gap = hashes[index] & mask;
+    while (table[gap] != index + 1) {
+      gap = (gap + 1) & mask;
+    }
+    // move later entries of the probe sequence into the gap, so that lookups never stop before reaching them
+    for (int slot = (gap + 1) & mask; table[slot] != 0; slot = (slot + 1) & mask) {
+      final int home = hashes[table[slot] - 1] & mask;
+      if (((slot - home) & mask) >= ((slot - gap) & mask)) {
+        table[gap] = table[slot];
+        gap = slot;
+      }
+    }
+    table[gap] = 0;
+    keys[index] = null;
+    size--;
+    modCount++;
+  }
+
+  void clear() {
+    Arrays.fill(keys, 0, end, null);
+    Arrays.fill(table, 0);
+    end = 0;
+    size = 0;
+    modCount++;
+  }
+
+  /**
+   * @return The first position at or after the specified position that holds an entry, or -1 if there is none. The
+   *         entries are visited in insertion order by starting at position 0 and passing the previous position plus
+   *         one.
+   */
+  int nextIndex(final int index) {
+    for (int i = index; i < end; i++) {
+      if (keys[i] != null) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  @SuppressWarnings("unchecked")
+  T keyAt(final int index) {
+    return (keys[index] == NULL_KEY) ? null : (T) keys[index];
+  }
+
+  int valueAt(final int index) {
+    return values[index];
+  }
+
+  void setValueAt(final int index, final int value) {
+    values[index] = value;
+  }
+
+  Set<T> keySet() {
+    return new AbstractSet<T>() {
+      @Override
+      public Iterator<T> iterator() {
+        return new EntryIterator<T>() {
+          @Override
+          T get(final int index) {
+            return keyAt(index);
+          }
+        };
+      }
+
+      @Override
+      public int size() {
+        return size;
+      }
+
+      @Override
+      public boolean contains(final Object o) {
+        return containsKey(o);
+      }
+
+      @Override
+      public boolean remove(final Object o) {
+        return ObjectIntMap.this.remove(o);
+      }
+
+      @Override
+      public void clear() {
+        ObjectIntMap.this.clear();
+      }
+    };
+  }
+
+  Set<Map.Entry<T, Integer>> entrySet() {
+    return new AbstractSet<Map.Entry<T, Integer>>() {
+      @Override
+      public Iterator<Map.Entry<T, Integer>> iterator() {
+        return new EntryIterator<Map.Entry<T, Integer>>() {
+          @Override
+          Map.Entry<T, Integer> get(final int index) {
+            return new Entry(index);
+          }
+        };
+      }
+
+      @Override
+      public int size() {
+        return size;
+      }
+
+      @Override
+      public void clear() {
+        ObjectIntMap.this.clear();
+      }
+    };
+  }
+
+  private abstract class EntryIterator<E> implements Iterator<E> {
+    private int next = nextIndex(0);
+    private int current = -1;
+    private int expectedModCount = modCount;
+
+    abstract E get(int index);
+
+    @Override
+    public boolean hasNext() {
+      return next != -1;
+    }
+
+    @Override
+    public E next() {
+      if (modCount != expectedModCount) {
+        throw new ConcurrentModificationException();
+      } else if (next == -1) {
+        throw new NoSuchElementException();
+      }
+      current = next;
+      next = nextIndex(current + 1);
+      return get(current);
+    }
+
+    @Override
+    public void remove() {
+      if (current == -1) {
+        throw new IllegalStateException();
+      } else if (modCount != expectedModCount) {
+        throw new ConcurrentModificationException();
+      }
+      removeAt(current);
+      current = -1;
+      expectedModCount = modCount;
+    }
+  }
+
+  private final class Entry implements Map.Entry<T, Integer> {
+    private final int index;
+
+    Entry(final int index) {
+      this.index = index;
+    }
+
+    @Override
+    public T getKey() {
+      return keyAt(index);
+    }
+
+    @Override
+    public Integer getValue() {
+      return values[index];
+    }
+
+    @Override
+    public Integer setValue(final Integer value) {
+      final int oldValue = values[index];
+      values[index] = value;
+      return oldValue;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      if (!(o instanceof Map.Entry)) {
+        return false;
+      }
+      final Map.Entry<?, ?> other = (Map.Entry<?, ?>) o;
+      return Objects.equals(getKey(), other.getKey()) && getValue().equals(other.getValue());
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hashCode(getKey()) ^ values[index];
+    }
+
+    @Override
+    public String toString() {
+      return getKey() + "=" + values[index];
+    }
+  }
+
+  /**
+   * @return The hash code of a {@link Map} with the same entries.
+   */
+  @Override
+  public int hashCode() {
+    int hashCode = 0;
+    for (int i = nextIndex(0); i != -1; i = nextIndex(i + 1)) {
+      hashCode += Objects.hashCode(keyAt(i)) ^ values[i];
+    }
+    return hashCode;
+  }
+
+  /**
+   * Two maps are equal if they have the same entries, regardless of their order.
+   */
+  @Override
+  public boolean equals(final Object o) {
+    if (this == o) {
+      return true;
+    } else if (!(o instanceof ObjectIntMap)) {
+      return false;
+    }
+    final ObjectIntMap<?> other = (ObjectIntMap<?>) o;
+    if (size != other.size) {
+      return false;
+    }
+    for (int i = nextIndex(0); i != -1; i = nextIndex(i + 1)) {
+      final int index = other.findIndex(keyAt(i));
+      if (index == -1 || other.values[index] != values[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
@@ -3,11 +3,20 @@ package games.strategy.engine.data;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
 
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
 
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
+import games.strategy.engine.data.properties.IEditableProperty;
+import games.strategy.triplea.xml.TestMapGameData;
 import games.strategy.util.Tuple;
 
 public final class GameParserTest {
@@ -31,4 +40,79 @@ public final class GameParserTest {
           });
     }
   }
+
+  @Nested
+  public final class StreamingParserTest {
+    private GameData parse(final Path gameFile, final boolean useDomParser) throws Exception {
+      try (InputStream is = new FileInputStream(gameFile.toFile())) {
+        return GameParser.parse(gameFile.toString(), is, useDomParser);
+      }
+    }
+
+    private GameData parseShallow(final Path gameFile, final boolean useDomParser) throws Exception {
+      try (InputStream is = new FileInputStream(gameFile.toFile())) {
+        return GameParser.parseShallow(gameFile.toString(), is, useDomParser);
+      }
+    }
+
+    private List<String> describe(final GameData data) {
+      final List<String> description = new ArrayList<>();
+      description.add(data.getGameName() + " " + data.getGameVersion() + " " + data.getDiceSides());
+      for (final PlayerID player : data.getPlayerList()) {
+        description.add(player.getName() + " " + data.getAllianceTracker().getAlliancesPlayerIsIn(player) + " "
+            + player.getResources().getResourcesCopy() + " "
+            + (player.getProductionFrontier() == null ? null : player.getProductionFrontier().getName()));
+        for (final PlayerID other : data.getPlayerList()) {
+          description.add(player.getName() + "-" + other.getName() + " "
+              + data.getRelationshipTracker().getRelationshipType(player, other).getName());
+        }
+      }
+      for (final Territory territory : data.getMap()) {
+        description.add(territory.getName() + " " + territory.isWater() + " " + territory.getOwner().getName() + " "
+            + data.getMap().getNeighbors(territory).stream().map(Territory::getName).sorted()
+                .collect(Collectors.toList())
+            + " " + territory.getUnits().getUnitsView().stream()
+                .map(unit -> unit.getType().getName() + "/" + unit.getOwner().getName())
+                .collect(Collectors.toList()));
+      }
+      data.getUnitTypeList().forEach(unitType -> description.add(unitType.getName()));
+      data.getSequence().forEach(step -> description.add(step.getName() + " " + step.getDelegate().getName()));
+      data.getTechnologyFrontier().getTechs().forEach(tech -> description.add(tech.getName()));
+      for (final Tuple<IAttachment, ArrayList<Tuple<String, String>>> attachment : data
+          .getAttachmentOrderAndValues()) {
+        description.add(attachment.getFirst().getName() + " " + attachment.getFirst().getAttachedTo() + " "
+            + attachment.getSecond());
+      }
+      for (final IEditableProperty property : data.getProperties().getEditableProperties()) {
+        description.add(property.getName() + "=" + property.getValue());
+      }
+      return description;
+    }
+
+    private List<String> playerNames(final GameData data) {
+      return data.getPlayerList().getPlayers().stream().map(PlayerID::getName).collect(Collectors.toList());
+    }
+
+    @Test
+    public void shouldBuildTheSameGameDataAsTheDomParser() throws Exception {
+      for (final TestMapGameData map : TestMapGameData.values()) {
+        final Path gameFile = Paths.get("src", "test", "resources", map.toString());
+
+        assertThat(map.toString(), describe(parse(gameFile, false)), is(describe(parse(gameFile, true))));
+      }
+    }
+
+    @Test
+    public void shallowParseShouldBuildTheSameGameDataAsTheDomParser() throws Exception {
+      for (final TestMapGameData map : TestMapGameData.values()) {
+        final Path gameFile = Paths.get("src", "test", "resources", map.toString());
+        final GameData streamed = parseShallow(gameFile, false);
+        final GameData parsed = parseShallow(gameFile, true);
+
+        assertThat(map.toString(), streamed.getGameName(), is(parsed.getGameName()));
+        assertThat(map.toString(), playerNames(streamed), is(playerNames(parsed)));
+        assertThat(map.toString(), streamed.getMap().getTerritories().isEmpty(), is(true));
+      }
+    }
+  }
 }
@@ -1,6 +1,7 @@
 package games.strategy.engine.data;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -238,4 +239,45 @@ public class MapTest {
     assertTrue(neighbors.contains(bb));
     assertTrue(neighbors.contains(ca));
   }
+
+  @Test
+  public void testDistanceWithCondition() {
+    assertEquals(6, map.getDistance(aa, dd, t -> !t.equals(ab)));
+    assertEquals(-1, map.getDistance(aa, dd, t -> !t.equals(ab) && !t.equals(ba)));
+  }
+
+  @Test
+  public void testRouteWithCondition() {
+    final Route route = map.getRoute(aa, ad, t -> !t.equals(ab));
+    assertEquals(5, route.numberOfSteps());
+    assertFalse(route.getAllTerritories().contains(ab));
+    assertTrue(map.isValidRoute(route));
+  }
+
+  @Test
+  public void testNeighborsWithDistanceAndCondition() {
+    assertEquals(5, map.getNeighbors(aa, 2, Matches.territoryIsLand()).size());
+    final Set<Territory> neighbors = map.getNeighbors(aa, 2, t -> !t.equals(ab));
+    assertEquals(3, neighbors.size());
+    assertTrue(neighbors.contains(ba));
+    assertTrue(neighbors.contains(bb));
+    assertTrue(neighbors.contains(ca));
+  }
+
+  @Test
+  public void testAddConnectionUpdatesDistances() {
+    assertEquals(6, map.getDistance(aa, dd));
+    map.addConnection(aa, dd);
+    assertEquals(1, map.getDistance(aa, dd));
+    assertEquals(2, map.getDistance(ab, dd));
+  }
+
+  @Test
+  public void testTerritoryOrdinals() {
+    for (int i = 0; i < map.getTerritories().size(); i++) {
+      assertEquals(i, map.getTerritories().get(i).getOrdinal());
+    }
+    assertEquals(-1, nowhere.getOrdinal());
+    assertEquals(-1, map.getDistance(aa, nowhere));
+  }
 }
@@ -3,10 +3,13 @@ package games.strategy.engine.data;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.verify;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Iterator;
 
@@ -375,6 +378,75 @@ public class UnitCollectionTest {
     assertThat(allPlayersUnitCollection.hasUnitsFromMultiplePlayers(), is(equalTo(true)));
   }
 
+  @Test
+  public void unitCountsShouldFollowRemovedUnits() {
+    final UnitCollection allPlayersUnitCollection = addAllPlayerUnitsToUnitCollection(unitCollection);
+    assertThat(allPlayersUnitCollection.getUnitCount(unitTypeOne, otherPlayerId),
+        is(equalTo(unitCountOtherPlayerUnitTypeOne)));
+
+    allPlayersUnitCollection.remove(unitOtherPlayer1);
+    allPlayersUnitCollection.removeAll(getOtherPlayerUnitsOfUnitTypeTwo());
+
+    assertThat(allPlayersUnitCollection.getUnitCount(unitTypeOne, otherPlayerId),
+        is(equalTo(unitCountOtherPlayerUnitTypeOne - 1)));
+    assertThat(allPlayersUnitCollection.getUnitCount(unitTypeTwo, otherPlayerId), is(equalTo(0)));
+    assertThat(allPlayersUnitCollection.getUnitCount(unitTypeTwo), is(equalTo(unitCountDefaultPlayerUnitTypeTwo)));
+    assertThat(allPlayersUnitCollection.contains(unitOtherPlayer1), is(equalTo(false)));
+    assertThat(allPlayersUnitCollection.getUnitsByType(otherPlayerId).containsKey(unitTypeTwo), is(equalTo(false)));
+  }
+
+  @Test
+  public void unitCountsShouldKeepTheOrderUnitsFirstAppearIn() {
+    unitCollection.addAll(Arrays.asList(unitDefaultPlayer2, unitOtherPlayer1, unitDefaultPlayer1, unitDefaultPlayer3));
+    assertThat(unitCollection.getPlayerUnitCounts().keySet(), contains(defaultPlayerId, otherPlayerId));
+    assertThat(unitCollection.getUnitsByType(defaultPlayerId).keySet(), contains(unitTypeTwo, unitTypeOne));
+
+    unitCollection.remove(unitDefaultPlayer2);
+
+    assertThat(unitCollection.getPlayerUnitCounts().keySet(), contains(otherPlayerId, defaultPlayerId));
+    assertThat(unitCollection.getUnitsByType(defaultPlayerId).keySet(), contains(unitTypeOne, unitTypeTwo));
+  }
+
+  @Test
+  public void unitCountsShouldFollowOwnerChanges() {
+    Mockito.when(mockGameData.getUnits()).thenReturn(new UnitsList());
+    final UnitCollection allPlayersUnitCollection = addAllPlayerUnitsToUnitCollection(unitCollection);
+    assertThat(allPlayersUnitCollection.getUnitCount(defaultPlayerId), is(equalTo(unitCountDefaultPlayer)));
+
+    unitOtherPlayer1.setOwner(defaultPlayerId);
+
+    assertThat(allPlayersUnitCollection.getUnitCount(defaultPlayerId), is(equalTo(unitCountDefaultPlayer + 1)));
+    assertThat(allPlayersUnitCollection.getUnitCount(otherPlayerId), is(equalTo(unitCountOtherPlayer - 1)));
+    assertThat(allPlayersUnitCollection.getUnitCount(unitTypeOne, defaultPlayerId),
+        is(equalTo(unitCountDefaultPlayerUnitTypeOne + 1)));
+  }
+
+  @Test
+  public void ownerChangesShouldOnlyBeCountedByTheGameOfTheUnit() {
+    final UnitsList units = new UnitsList();
+    Mockito.when(mockGameData.getUnits()).thenReturn(units);
+    final GameData otherGameData = Mockito.mock(GameData.class);
+    final UnitsList otherUnits = new UnitsList();
+    Mockito.when(otherGameData.getUnits()).thenReturn(otherUnits);
+    final Unit otherGameUnit = new Unit(unitTypeOne, otherPlayerId, otherGameData);
+
+    unitOtherPlayer1.setOwner(defaultPlayerId);
+    otherGameUnit.setOwner(defaultPlayerId);
+    otherGameUnit.setOwner(otherPlayerId);
+
+    assertThat(units.getOwnerChangeCount(), is(equalTo(1L)));
+    assertThat(otherUnits.getOwnerChangeCount(), is(equalTo(2L)));
+  }
+
+  @Test
+  public void getUnitsViewShouldReflectLaterChanges() {
+    final Collection<Unit> unitsView = unitCollection.getUnitsView();
+    unitCollection.add(unitDefaultPlayer1);
+
+    assertThat(unitsView.size(), is(equalTo(1)));
+    assertThrows(UnsupportedOperationException.class, () -> unitsView.remove(unitDefaultPlayer1));
+  }
+
   @Test
   public void getHolder() {
     assertThat(unitCollection.getHolder(), is(equalTo(defaultPlayerId)));
@@ -1,9 +1,12 @@
 package games.strategy.engine.delegate;
 
 import static games.strategy.test.Assertions.assertNotThrows;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.junit.jupiter.api.Test;
 
@@ -53,4 +56,17 @@ public final class DelegateExecutionManagerTest {
     testCompleteLatch.countDown();
     delegate1Thread.join();
   }
+
+  @Test
+  public void leaveDelegateExecutionShouldRunListenersBeforeLeaving() {
+    final AtomicBoolean executingInListener = new AtomicBoolean();
+    delegateExecutionManager.addLeaveDelegateExecutionListener(
+        () -> executingInListener.set(delegateExecutionManager.isDelegateExecutingOnCurrentThread()));
+    delegateExecutionManager.enterDelegateExecution();
+
+    delegateExecutionManager.leaveDelegateExecution();
+
+    assertThat(executingInListener.get(), is(true));
+    assertThat(delegateExecutionManager.isDelegateExecutingOnCurrentThread(), is(false));
+  }
 }
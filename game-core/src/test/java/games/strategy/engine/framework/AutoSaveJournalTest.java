@@ -0,0 +1,98 @@
+package games.strategy.engine.framework;
+
+import static games.strategy.engine.framework.SaveGameTestUtil.getInfantryCountInGermany;
+import static games.strategy.engine.framework.SaveGameTestUtil.getLastEventDescription;
+import static games.strategy.engine.framework.SaveGameTestUtil.playStep;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.io.File;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import games.strategy.engine.data.GameData;
+import games.strategy.io.IoUtils;
+import games.strategy.test.extensions.TemporaryFolder;
+import games.strategy.test.extensions.TemporaryFolderExtension;
+import games.strategy.triplea.settings.AbstractClientSettingTestCase;
+import games.strategy.triplea.xml.TestMapGameData;
+
+@ExtendWith(TemporaryFolderExtension.class)
+public class AutoSaveJournalTest extends AbstractClientSettingTestCase {
+  private TemporaryFolder temporaryFolder;
+  private GameData gameData;
+  private File file;
+
+  @BeforeEach
+  public void setUp() throws Exception {
+    gameData = TestMapGameData.REVISED.getGameData();
+    file = temporaryFolder.newFile("autosave.tsvg");
+  }
+
+  @Test
+  public void loadGameShouldReplayAppendedSegments() throws Exception {
+    final AutoSaveJournal journal = new AutoSaveJournal(gameData);
+    playStep(gameData, "first", 2);
+    journal.save(file);
+    playStep(gameData, "second", 3);
+    journal.save(file);
+    playStep(gameData, "third", 4);
+    journal.save(file);
+    journal.close();
+
+    final GameData loaded = GameDataManager.loadGame(file);
+
+    assertThat(getInfantryCountInGermany(loaded), is(getInfantryCountInGermany(gameData)));
+    assertThat(loaded.getSequence().getStepIndex(), is(gameData.getSequence().getStepIndex()));
+    for (int i = 0; i < gameData.getSequence().size(); i++) {
+      assertThat(loaded.getSequence().getStep(i).getRunCount(), is(gameData.getSequence().getStep(i).getRunCount()));
+    }
+    assertThat(getLastEventDescription(loaded), is("third"));
+  }
+
+  @Test
+  public void saveShouldRewriteTheFileAfterTooManySegments() throws Exception {
+    final AutoSaveJournal journal = new AutoSaveJournal(gameData, 1);
+    journal.save(file);
+    playStep(gameData, "first", 2);
+    journal.save(file);
+    playStep(gameData, "second", 3);
+    journal.save(file);
+    journal.close();
+
+    final GameData loaded = GameDataManager.loadGame(file);
+
+    assertThat(getInfantryCountInGermany(loaded), is(getInfantryCountInGermany(gameData)));
+    assertThat(getLastEventDescription(loaded), is("second"));
+  }
+
+  @Test
+  public void loadGameShouldLoadJournalWithoutSegments() throws Exception {
+    final AutoSaveJournal journal = new AutoSaveJournal(gameData);
+    playStep(gameData, "first", 2);
+    journal.save(file);
+    journal.close();
+
+    final GameData loaded = GameDataManager.loadGame(file);
+
+    assertThat(getInfantryCountInGermany(loaded), is(getInfantryCountInGermany(gameData)));
+    assertThat(getLastEventDescription(loaded), is("first"));
+    assertThat(new File(file.getPath() + ".tmp").exists(), is(false));
+  }
+
+  @Test
+  public void saveGameShouldSaveTheGameWhileTheJournalRecordsTheHistory() throws Exception {
+    final AutoSaveJournal journal = new AutoSaveJournal(gameData);
+    journal.save(file);
+    playStep(gameData, "first", 2);
+
+    final byte[] bytes = IoUtils.writeToMemory(os -> GameDataManager.saveGame(os, gameData));
+    journal.close();
+
+    final GameData loaded = IoUtils.readFromMemory(bytes, GameDataManager::loadGame);
+    assertThat(getInfantryCountInGermany(loaded), is(getInfantryCountInGermany(gameData)));
+    assertThat(getLastEventDescription(loaded), is("first"));
+  }
+}
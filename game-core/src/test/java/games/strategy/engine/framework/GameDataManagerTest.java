@@ -1,14 +1,28 @@
 package games.strategy.engine.framework;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import java.io.ByteArrayInputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.GZIPOutputStream;
 
 import org.junit.jupiter.api.Test;
 
+import games.strategy.engine.ClientContext;
 import games.strategy.engine.data.GameData;
+import games.strategy.engine.data.PlayerID;
+import games.strategy.engine.data.Territory;
+import games.strategy.engine.data.UnitType;
 import games.strategy.io.IoUtils;
 import games.strategy.triplea.settings.AbstractClientSettingTestCase;
+import games.strategy.triplea.xml.TestMapGameData;
 
 public class GameDataManagerTest extends AbstractClientSettingTestCase {
   @Test
@@ -18,4 +32,72 @@ public class GameDataManagerTest extends AbstractClientSettingTestCase {
     final GameData loaded = IoUtils.readFromMemory(bytes, GameDataManager::loadGame);
     assertEquals(loaded.getProperties().get(GameData.GAME_UUID), data.getProperties().get(GameData.GAME_UUID));
   }
+
+  @Test
+  public void loadGameShouldNotCloseTheStream() throws IOException {
+    final byte[] bytes = IoUtils.writeToMemory(os -> GameDataManager.saveGame(os, new GameData()));
+    final boolean[] closed = {false};
+    final ByteArrayInputStream is = new ByteArrayInputStream(bytes) {
+      @Override
+      public void close() {
+        closed[0] = true;
+      }
+    };
+
+    GameDataManager.loadGame(is);
+
+    assertFalse(closed[0]);
+  }
+
+  @Test
+  public void saveGameShouldStartWithSaveGameHeader() throws IOException {
+    final byte[] bytes = IoUtils.writeToMemory(os -> GameDataManager.saveGame(os, new GameData()));
+
+    assertArrayEquals("TSAV".getBytes(StandardCharsets.US_ASCII), Arrays.copyOf(bytes, 4));
+  }
+
+  @Test
+  public void loadGameShouldLoadLegacySaveGames() throws IOException {
+    final GameData data = new GameData();
+    final byte[] bytes = IoUtils.writeToMemory(os -> {
+      try (ObjectOutputStream out = new ObjectOutputStream(new GZIPOutputStream(os))) {
+        out.writeObject(ClientContext.engineVersion());
+        GameDataManager.writeGameData(out, data, true);
+      }
+    });
+
+    final GameData loaded = IoUtils.readFromMemory(bytes, GameDataManager::loadGame);
+
+    assertEquals(data.getProperties().get(GameData.GAME_UUID), loaded.getProperties().get(GameData.GAME_UUID));
+  }
+
+  @Test
+  public void loadGameShouldRejectNewerSaveGameFormats() throws IOException {
+    final byte[] bytes = IoUtils.writeToMemory(os -> {
+      final DataOutputStream out = new DataOutputStream(os);
+      out.write("TSAV".getBytes(StandardCharsets.US_ASCII));
+      out.writeInt(GameDataManager.JOURNALED_SAVE_GAME_FORMAT_VERSION + 1);
+      out.writeUTF(ClientContext.engineVersion().getExactVersion());
+    });
+
+    assertThrows(IOException.class, () -> IoUtils.readFromMemory(bytes, GameDataManager::loadGame));
+  }
+
+  @Test
+  public void loadGameShouldKeepOrdinals() throws Exception {
+    final GameData data = TestMapGameData.REVISED.getGameData();
+    final byte[] bytes = IoUtils.writeToMemory(os -> GameDataManager.saveGame(os, data));
+
+    final GameData loaded = IoUtils.readFromMemory(bytes, GameDataManager::loadGame);
+
+    for (final Territory territory : data.getMap().getTerritories()) {
+      assertEquals(territory.getOrdinal(), loaded.getMap().getTerritory(territory.getName()).getOrdinal());
+    }
+    for (final UnitType unitType : data.getUnitTypeList()) {
+      assertEquals(unitType.getOrdinal(), loaded.getUnitTypeList().getUnitType(unitType.getName()).getOrdinal());
+    }
+    for (final PlayerID player : data.getPlayerList()) {
+      assertEquals(player.getOrdinal(), loaded.getPlayerList().getPlayerId(player.getName()).getOrdinal());
+    }
+  }
 }
@@ -0,0 +1,40 @@
+package games.strategy.engine.framework;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+import org.junit.jupiter.api.Test;
+
+import games.strategy.engine.data.GameData;
+import games.strategy.engine.data.Territory;
+import games.strategy.triplea.xml.TestMapGameData;
+
+public class GameDataSnapshotTest {
+  @Test
+  public void newGameDataShouldReturnIndependentCopies() throws Exception {
+    final GameData data = TestMapGameData.REVISED.getGameData();
+    final GameDataSnapshot snapshot = GameDataSnapshot.of(data, true);
+
+    final GameData first = snapshot.newGameData();
+    final GameData second = snapshot.newGameData();
+
+    assertThat(first, is(not(sameInstance(second))));
+    assertThat(first.getProperties().get(GameData.GAME_UUID), is(data.getProperties().get(GameData.GAME_UUID)));
+    assertThat(second.getProperties().get(GameData.GAME_UUID), is(data.getProperties().get(GameData.GAME_UUID)));
+    assertThat(first.getDelegateList().size(), is(data.getDelegateList().size()));
+    final Territory germany = first.getMap().getTerritory("Germany");
+    assertThat(germany, is(not(sameInstance(second.getMap().getTerritory("Germany")))));
+    assertThat(germany.getUnits().size(), is(data.getMap().getTerritory("Germany").getUnits().size()));
+  }
+
+  @Test
+  public void ofShouldOmitDelegatesWhenNotCopyingDelegates() throws Exception {
+    final GameData data = TestMapGameData.REVISED.getGameData();
+
+    final GameData copy = GameDataSnapshot.of(data, false).newGameData();
+
+    assertThat(copy.getDelegateList().size(), is(0));
+  }
+}
@@ -0,0 +1,124 @@
+package games.strategy.engine.framework;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+
+import com.example.mockito.MockitoExtension;
+
+import games.strategy.engine.data.Change;
+import games.strategy.engine.data.changefactory.ChangeFactory;
+
+@ExtendWith(MockitoExtension.class)
+public final class GameModificationBatcherTest {
+  @Mock
+  private IGameModifiedChannel gameDataModifier;
+  @Mock
+  private IGameModifiedChannel broadcaster;
+  @Mock
+  private IGameModifiedChannel receiver;
+  private final Change change = ChangeFactory.EMPTY_CHANGE;
+  private boolean batching;
+  private GameModificationBatcher batcher;
+
+  @BeforeEach
+  public void setUp() {
+    batcher = new GameModificationBatcher(gameDataModifier, () -> broadcaster, () -> batching);
+    // replays the broadcast modifications, as the other nodes do
+    doAnswer(invocation -> {
+      send(invocation.<GameModifications>getArgument(0)).applyTo(receiver);
+      return null;
+    }).when(broadcaster).gameModified(any());
+  }
+
+  private static GameModifications send(final GameModifications modifications) throws Exception {
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(modifications);
+    }
+    try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+      return (GameModifications) in.readObject();
+    }
+  }
+
+  @Test
+  public void shouldModifyGameDataRightAwayButBroadcastOnFlushWhileBatching() {
+    batching = true;
+
+    batcher.startEvent("event");
+    batcher.addChange(change);
+    batcher.addChildToEvent("child");
+
+    verify(gameDataModifier).startHistoryEvent("event", null);
+    verify(gameDataModifier).gameDataChanged(change);
+    verify(gameDataModifier).addChildToEvent("child", null);
+    verify(broadcaster, never()).gameModified(any());
+
+    batcher.flush();
+
+    final InOrder inOrder = inOrder(broadcaster, receiver);
+    inOrder.verify(broadcaster).gameModified(any());
+    inOrder.verify(receiver).startHistoryEvent("event", null);
+    inOrder.verify(receiver).gameDataChanged(change);
+    inOrder.verify(receiver).addChildToEvent("child", null);
+  }
+
+  @Test
+  public void shouldBroadcastRightAwayWhenNotBatching() {
+    batching = false;
+
+    batcher.addChange(change);
+
+    verify(gameDataModifier).gameDataChanged(change);
+    verify(receiver).gameDataChanged(change);
+  }
+
+  @Test
+  public void shouldBroadcastPendingModificationsBeforeStepChange() {
+    batching = true;
+    batcher.addChange(change);
+
+    batcher.stepChanged("step", "delegate", null, 1, "display", false);
+
+    final InOrder inOrder = inOrder(receiver, broadcaster);
+    inOrder.verify(receiver).gameDataChanged(change);
+    inOrder.verify(broadcaster).stepChanged("step", "delegate", null, 1, "display", false);
+  }
+
+  @Test
+  public void shouldBroadcastRenderingDataAsItWasWhenAdded() {
+    batching = true;
+    final List<String> renderingData = new ArrayList<>(Arrays.asList("before"));
+    batcher.startEvent("event", renderingData);
+    batcher.addChildToEvent("child", renderingData);
+
+    renderingData.set(0, "after");
+    batcher.flush();
+
+    verify(receiver).startHistoryEvent("event", Arrays.asList("before"));
+    verify(receiver).addChildToEvent("child", Arrays.asList("before"));
+  }
+
+  @Test
+  public void flushShouldNotBroadcastWithoutPendingModifications() {
+    batcher.flush();
+
+    verify(broadcaster, never()).gameModified(any());
+  }
+}
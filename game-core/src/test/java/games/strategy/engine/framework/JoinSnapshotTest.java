@@ -0,0 +1,108 @@
+package games.strategy.engine.framework;
+
+import static games.strategy.engine.framework.SaveGameTestUtil.getInfantryCountInGermany;
+import static games.strategy.engine.framework.SaveGameTestUtil.getLastEventDescription;
+import static games.strategy.engine.framework.SaveGameTestUtil.playStep;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.not;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import games.strategy.engine.data.GameData;
+import games.strategy.io.IoUtils;
+import games.strategy.triplea.settings.AbstractClientSettingTestCase;
+import games.strategy.triplea.xml.TestMapGameData;
+
+public class JoinSnapshotTest extends AbstractClientSettingTestCase {
+  private GameData gameData;
+  private JoinSnapshot joinSnapshot;
+
+  @BeforeEach
+  public void setUp() throws Exception {
+    gameData = TestMapGameData.REVISED.getGameData();
+  }
+
+  @AfterEach
+  public void tearDown() {
+    if (joinSnapshot != null) {
+      joinSnapshot.close();
+    }
+  }
+
+  private static GameData load(final byte[] bytes) throws Exception {
+    return IoUtils.readFromMemory(bytes, GameDataManager::loadGame);
+  }
+
+  @Test
+  public void getSaveGameShouldAppendHistoryWrittenSinceLastJoin() throws Exception {
+    joinSnapshot = new JoinSnapshot(gameData);
+    playStep(gameData, "first", 2);
+    final byte[] first = joinSnapshot.getSaveGame();
+    playStep(gameData, "second", 3);
+    joinSnapshot.getSaveGame();
+    playStep(gameData, "third", 4);
+    final byte[] third = joinSnapshot.getSaveGame();
+
+    final GameData loaded = load(third);
+
+    assertThat(getInfantryCountInGermany(loaded), is(getInfantryCountInGermany(gameData)));
+    assertThat(loaded.getSequence().getStepIndex(), is(gameData.getSequence().getStepIndex()));
+    assertThat(getLastEventDescription(loaded), is("third"));
+    // a join only adds the segments, which are much smaller than the game
+    assertThat(third.length - first.length, is(lessThan(first.length / 10)));
+  }
+
+  @Test
+  public void getSaveGameShouldRewriteSaveGameAfterTooManySegments() throws Exception {
+    joinSnapshot = new JoinSnapshot(gameData, 1);
+    joinSnapshot.getSaveGame();
+    playStep(gameData, "first", 2);
+    final int infantryCountAfterFirst = getInfantryCountInGermany(gameData);
+    final byte[] appended = joinSnapshot.getSaveGame();
+    assertThat(joinSnapshot.getSegmentCount(), is(1));
+    playStep(gameData, "second", 3);
+    final byte[] rewritten = joinSnapshot.getSaveGame();
+
+    assertThat(joinSnapshot.getSegmentCount(), is(0));
+    // an appended save game would start with the bytes of the previous one
+    assertThat(Arrays.copyOf(rewritten, appended.length), is(not(appended)));
+    final GameData loadedAppended = load(appended);
+    assertThat(getInfantryCountInGermany(loadedAppended), is(infantryCountAfterFirst));
+    assertThat(getLastEventDescription(loadedAppended), is("first"));
+    final GameData loaded = load(rewritten);
+    assertThat(getInfantryCountInGermany(loaded), is(getInfantryCountInGermany(gameData)));
+    assertThat(loaded.getSequence().getStepIndex(), is(gameData.getSequence().getStepIndex()));
+    assertThat(getLastEventDescription(loaded), is("second"));
+  }
+
+  @Test
+  public void getSaveGameShouldLoadWithoutHistorySinceLastJoin() throws Exception {
+    joinSnapshot = new JoinSnapshot(gameData);
+    playStep(gameData, "first", 2);
+    joinSnapshot.getSaveGame();
+
+    final GameData loaded = load(joinSnapshot.getSaveGame());
+
+    assertThat(getInfantryCountInGermany(loaded), is(getInfantryCountInGermany(gameData)));
+    assertThat(getLastEventDescription(loaded), is("first"));
+  }
+
+  @Test
+  public void saveGameShouldSaveTheGameAfterAJoin() throws Exception {
+    joinSnapshot = new JoinSnapshot(gameData);
+    playStep(gameData, "first", 2);
+    joinSnapshot.getSaveGame();
+    playStep(gameData, "second", 3);
+
+    final GameData loaded = load(IoUtils.writeToMemory(os -> GameDataManager.saveGame(os, gameData)));
+
+    assertThat(getInfantryCountInGermany(loaded), is(getInfantryCountInGermany(gameData)));
+    assertThat(getLastEventDescription(loaded), is("second"));
+  }
+}
@@ -0,0 +1,48 @@
+package games.strategy.engine.framework;
+
+import static games.strategy.triplea.delegate.GameDataTestUtil.germans;
+import static games.strategy.triplea.delegate.GameDataTestUtil.infantry;
+import static games.strategy.triplea.delegate.GameDataTestUtil.territory;
+
+import java.util.Collection;
+
+import games.strategy.engine.data.Change;
+import games.strategy.engine.data.GameData;
+import games.strategy.engine.data.GameStep;
+import games.strategy.engine.data.Unit;
+import games.strategy.engine.data.changefactory.ChangeFactory;
+import games.strategy.engine.history.Event;
+import games.strategy.engine.history.HistoryWriter;
+
+/**
+ * A utility class for tests that save a game while it is played.
+ */
+final class SaveGameTestUtil {
+  private SaveGameTestUtil() {}
+
+  /**
+   * Plays the next step of the game the way the server does, placing some infantry in Germany.
+   */
+  static void playStep(final GameData data, final String eventName, final int infantryCount) {
+    final HistoryWriter historyWriter = data.getHistory().getHistoryWriter();
+    final GameStep step = data.getSequence().getStep();
+    historyWriter.startNextStep(step.getName(), step.getDelegate().getName(), step.getPlayerId(),
+        step.getDisplayName());
+    historyWriter.startEvent(eventName);
+    final Collection<Unit> units = infantry(data).create(infantryCount, germans(data));
+    final Change change = ChangeFactory.addUnits(territory("Germany", data), units);
+    data.performChange(change);
+    historyWriter.addChange(change);
+    step.incrementRunCount();
+    data.getSequence().next();
+  }
+
+  static int getInfantryCountInGermany(final GameData data) {
+    return territory("Germany", data).getUnits().getMatches(unit -> unit.getType().getName().equals("infantry"))
+        .size();
+  }
+
+  static String getLastEventDescription(final GameData data) {
+    return ((Event) data.getHistory().getLastNode()).getDescription();
+  }
+}
@@ -0,0 +1,96 @@
+package games.strategy.engine.framework.headlessGameServer;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.io.File;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.util.function.BiPredicate;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import games.strategy.test.extensions.TemporaryFolder;
+import games.strategy.test.extensions.TemporaryFolderExtension;
+
+@ExtendWith(TemporaryFolderExtension.class)
+public final class GameValidationCacheTest {
+  private static final String ENGINE_VERSION = "1.9.0.0";
+
+  private TemporaryFolder temporaryFolder;
+  private File cacheFile;
+  private File gameFile;
+  private int parseCount;
+  private boolean parseResult;
+  private final BiPredicate<URI, InputStream> parser = (uri, inputStream) -> {
+    parseCount++;
+    return parseResult;
+  };
+
+  @BeforeEach
+  public void setUp() throws Exception {
+    cacheFile = temporaryFolder.newFile("gameValidationCache");
+    // the cache does not exist until it is first saved
+    cacheFile.delete();
+    gameFile = temporaryFolder.newFile("game.xml");
+    Files.write(gameFile.toPath(), "<game/>".getBytes());
+  }
+
+  private GameValidationCache newCache(final String engineVersion) {
+    return new GameValidationCache(cacheFile, engineVersion, parser);
+  }
+
+  @Test
+  public void isValidShouldReturnTheParseResult() {
+    parseResult = false;
+
+    assertThat(newCache(ENGINE_VERSION).isValid(gameFile.toURI()), is(false));
+    assertThat(parseCount, is(1));
+  }
+
+  @Test
+  public void isValidShouldNotParseAgainWhenSavedResultExists() {
+    parseResult = true;
+    final GameValidationCache cache = newCache(ENGINE_VERSION);
+    cache.isValid(gameFile.toURI());
+    cache.save();
+    parseResult = false;
+
+    assertThat(newCache(ENGINE_VERSION).isValid(gameFile.toURI()), is(true));
+    assertThat(parseCount, is(1));
+  }
+
+  @Test
+  public void isValidShouldParseAgainWhenGameFileChanged() throws Exception {
+    final GameValidationCache cache = newCache(ENGINE_VERSION);
+    cache.isValid(gameFile.toURI());
+    cache.save();
+    Files.write(gameFile.toPath(), "<game></game>".getBytes());
+
+    newCache(ENGINE_VERSION).isValid(gameFile.toURI());
+
+    assertThat(parseCount, is(2));
+  }
+
+  @Test
+  public void isValidShouldParseAgainWhenEngineVersionChanged() {
+    final GameValidationCache cache = newCache(ENGINE_VERSION);
+    cache.isValid(gameFile.toURI());
+    cache.save();
+
+    newCache("1.9.0.1").isValid(gameFile.toURI());
+
+    assertThat(parseCount, is(2));
+  }
+
+  @Test
+  public void isValidShouldReturnFalseWhenGameFileDoesNotExist() {
+    parseResult = true;
+
+    assertThat(newCache(ENGINE_VERSION).isValid(new File(gameFile.getParentFile(), "missing.xml").toURI()), is(false));
+    assertThat(parseCount, is(0));
+  }
+}
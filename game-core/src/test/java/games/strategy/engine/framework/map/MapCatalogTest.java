@@ -0,0 +1,153 @@
+package games.strategy.engine.framework.map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import games.strategy.test.extensions.TemporaryFolder;
+import games.strategy.test.extensions.TemporaryFolderExtension;
+
+@ExtendWith(TemporaryFolderExtension.class)
+public class MapCatalogTest {
+  private static final Path GAME_FILE = Paths.get("src", "test", "resources", "revised_test.xml");
+  private static final String GAME_NAME = "World War II Revised Test";
+  private static final String ENGINE_VERSION = "1.9.1.0";
+
+  private TemporaryFolder temporaryFolder;
+  private File mapsFolder;
+  private File catalogFile;
+  private final List<File> corruptMaps = new ArrayList<>();
+  private final BiConsumer<File, Optional<String>> corruptMapHandler = (map, errorDetails) -> corruptMaps.add(map);
+
+  @BeforeEach
+  public void setUp() throws Exception {
+    catalogFile = temporaryFolder.newFile("mapCatalog");
+    // the catalog does not exist until it is first saved
+    catalogFile.delete();
+    mapsFolder = new File(catalogFile.getParentFile(), "maps");
+    mapsFolder.mkdirs();
+  }
+
+  private MapCatalog newCatalog(final String engineVersion) {
+    return new MapCatalog(mapsFolder, catalogFile, engineVersion);
+  }
+
+  private File newZipMap(final String name) throws IOException {
+    final File map = new File(mapsFolder, name + ".zip");
+    try (OutputStream os = new FileOutputStream(map);
+        ZipOutputStream zos = new ZipOutputStream(os)) {
+      zos.putNextEntry(new ZipEntry(name + "/games/game.xml"));
+      Files.copy(GAME_FILE, zos);
+      zos.closeEntry();
+    }
+    return map;
+  }
+
+  private void newFolderMap(final String name) throws IOException {
+    final File games = new File(mapsFolder, name + File.separator + "map" + File.separator + "games");
+    games.mkdirs();
+    Files.copy(GAME_FILE, new File(games, "game.xml").toPath());
+  }
+
+  private static void overwriteKeepingSizeAndLastModified(final File map) throws IOException {
+    final long lastModified = map.lastModified();
+    Files.write(map.toPath(), new byte[(int) map.length()]);
+    map.setLastModified(lastModified);
+  }
+
+  private List<String> refreshMapFileNames(final MapCatalog catalog) {
+    return catalog.refresh(corruptMapHandler).stream()
+        .map(MapCatalog.Game::getMapFileName)
+        .collect(Collectors.toList());
+  }
+
+  @Test
+  public void refreshShouldFindGamesOfZipAndFolderMaps() throws Exception {
+    newZipMap("zipped");
+    newFolderMap("unzipped");
+
+    final List<MapCatalog.Game> games = newCatalog(ENGINE_VERSION).refresh(corruptMapHandler);
+
+    assertThat(games.stream().map(MapCatalog.Game::getMapFileName).collect(Collectors.toList()),
+        containsInAnyOrder("zipped", "unzipped"));
+    assertThat(games.get(0).getGameName(), is(GAME_NAME));
+    assertThat(games.get(0).getMapName(), is(GAME_NAME));
+    assertThat(games.get(0).getPlayerNames().isEmpty(), is(false));
+    assertThat(corruptMaps, is(empty()));
+  }
+
+  @Test
+  public void refreshShouldNotScanUnchangedMapsAgain() throws Exception {
+    final File map = newZipMap("zipped");
+    newCatalog(ENGINE_VERSION).refresh(corruptMapHandler);
+    overwriteKeepingSizeAndLastModified(map);
+
+    assertThat(refreshMapFileNames(newCatalog(ENGINE_VERSION)), contains("zipped"));
+    assertThat(corruptMaps, is(empty()));
+  }
+
+  @Test
+  public void refreshShouldScanChangedMapsAgain() throws Exception {
+    final File map = newZipMap("zipped");
+    final MapCatalog catalog = newCatalog(ENGINE_VERSION);
+    catalog.refresh(corruptMapHandler);
+    overwriteKeepingSizeAndLastModified(map);
+    map.setLastModified(map.lastModified() - 10_000);
+
+    assertThat(refreshMapFileNames(catalog), is(empty()));
+    assertThat(corruptMaps, contains(map));
+  }
+
+  @Test
+  public void refreshShouldScanAllMapsAgainAfterEngineVersionChanged() throws Exception {
+    final File map = newZipMap("zipped");
+    newCatalog(ENGINE_VERSION).refresh(corruptMapHandler);
+    overwriteKeepingSizeAndLastModified(map);
+
+    assertThat(refreshMapFileNames(newCatalog("1.9.1.1")), is(empty()));
+    assertThat(corruptMaps, contains(map));
+  }
+
+  @Test
+  public void refreshShouldForgetRemovedMaps() throws Exception {
+    final File map = newZipMap("zipped");
+    newZipMap("other");
+    newCatalog(ENGINE_VERSION).refresh(corruptMapHandler);
+    map.delete();
+
+    assertThat(refreshMapFileNames(newCatalog(ENGINE_VERSION)), contains("other"));
+  }
+
+  @Test
+  public void refreshShouldReportCorruptMapsEachTime() throws Exception {
+    final File map = new File(mapsFolder, "corrupt.zip");
+    Files.write(map.toPath(), new byte[] {1, 2, 3});
+    final MapCatalog catalog = newCatalog(ENGINE_VERSION);
+
+    catalog.refresh(corruptMapHandler);
+    catalog.refresh(corruptMapHandler);
+
+    assertThat(corruptMaps, contains(map, map));
+  }
+}
@@ -0,0 +1,72 @@
+package games.strategy.engine.message;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.Serializable;
+import java.net.InetAddress;
+import java.util.Collection;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+
+import com.example.mockito.MockitoExtension;
+
+import games.strategy.engine.message.unifiedmessenger.HasEndPointImplementor;
+import games.strategy.engine.message.unifiedmessenger.UnifiedMessenger;
+import games.strategy.net.INode;
+import games.strategy.net.IServerMessenger;
+import games.strategy.net.Node;
+
+@ExtendWith(MockitoExtension.class)
+public final class UnifiedMessengerHubTest {
+  private static final String CHANNEL_NAME = "chat";
+
+  private final Node server = new Node("server", InetAddress.getLoopbackAddress(), 3300);
+  private final Node client1 = new Node("client1", InetAddress.getLoopbackAddress(), 3301);
+  private final Node client2 = new Node("client2", InetAddress.getLoopbackAddress(), 3302);
+  private final Node client3 = new Node("client3", InetAddress.getLoopbackAddress(), 3303);
+  @Mock
+  private IServerMessenger messenger;
+  @Mock
+  private UnifiedMessenger localUnified;
+  @Mock
+  private RemoteMethodCall call;
+  private UnifiedMessengerHub hub;
+
+  @BeforeEach
+  public void setUp() {
+    when(messenger.getLocalNode()).thenReturn(server);
+    when(call.getRemoteName()).thenReturn(CHANNEL_NAME);
+    hub = new UnifiedMessengerHub(messenger, localUnified);
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void channelInvocationShouldBeSentOnceToAllRemoteImplementors() {
+    hub.messageReceived(new HasEndPointImplementor(CHANNEL_NAME), server);
+    hub.messageReceived(new HasEndPointImplementor(CHANNEL_NAME), client1);
+    hub.messageReceived(new HasEndPointImplementor(CHANNEL_NAME), client2);
+    hub.messageReceived(new HasEndPointImplementor(CHANNEL_NAME), client3);
+
+    hub.messageReceived(new HubInvoke(null, false, call), client3);
+
+    verify(localUnified).messageReceived(any(SpokeInvoke.class), eq(server));
+    final ArgumentCaptor<Serializable> messageCaptor = ArgumentCaptor.forClass(Serializable.class);
+    final ArgumentCaptor<Collection<INode>> nodesCaptor = ArgumentCaptor.forClass(Collection.class);
+    verify(messenger).send(messageCaptor.capture(), nodesCaptor.capture());
+    assertThat(messageCaptor.getValue(), is(instanceOf(SpokeInvoke.class)));
+    assertThat(nodesCaptor.getValue(), containsInAnyOrder(client1, client2));
+    verify(messenger, never()).send(any(Serializable.class), any(INode.class));
+  }
+}
@@ -2,8 +2,10 @@ package games.strategy.engine.message.unifiedmessenger;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import org.junit.jupiter.api.Test;
 
@@ -22,4 +24,57 @@ public class EndPointTest {
     assertEquals(results.size(), 1);
     assertEquals(2, (results.iterator().next()).getRVal());
   }
+
+  /**
+   * A remote interface whose methods can only be told apart by their parameter types.
+   */
+  public interface Overloaded {
+    String describe(int value);
+
+    String describe(String value);
+  }
+
+  private static final class FirstOverloaded implements Overloaded {
+    @Override
+    public String describe(final int value) {
+      return "first int " + value;
+    }
+
+    @Override
+    public String describe(final String value) {
+      return "first string " + value;
+    }
+  }
+
+  private static final class SecondOverloaded implements Overloaded {
+    @Override
+    public String describe(final int value) {
+      return "second int " + value;
+    }
+
+    @Override
+    public String describe(final String value) {
+      return "second string " + value;
+    }
+  }
+
+  private static List<Object> invoke(final EndPoint endPoint, final Object arg, final Class<?> argType) {
+    final RemoteMethodCall call = new RemoteMethodCall("", "describe", new Object[] {arg},
+        new Class<?>[] {argType}, Overloaded.class);
+    return endPoint.invokeLocal(call, endPoint.takeANumber(), null).stream()
+        .map(RemoteMethodCallResults::getRVal)
+        .collect(Collectors.toList());
+  }
+
+  @Test
+  public void testOverloadsAreInvokedOnEachImplementorClass() {
+    final EndPoint endPoint = new EndPoint("", Overloaded.class, false);
+    endPoint.addImplementor(new FirstOverloaded());
+    endPoint.addImplementor(new SecondOverloaded());
+
+    for (int i = 0; i < 2; i++) {
+      assertEquals(Arrays.asList("first int 1", "second int 1"), invoke(endPoint, 1, int.class));
+      assertEquals(Arrays.asList("first string a", "second string a"), invoke(endPoint, "a", String.class));
+    }
+  }
 }
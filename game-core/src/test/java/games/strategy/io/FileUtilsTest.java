@@ -4,9 +4,13 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.when;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -15,6 +19,9 @@ import org.mockito.Spy;
 
 import com.example.mockito.MockitoExtension;
 
+import games.strategy.test.extensions.TemporaryFolder;
+import games.strategy.test.extensions.TemporaryFolderExtension;
+
 public final class FileUtilsTest {
   @ExtendWith(MockitoExtension.class)
   @Nested
@@ -39,4 +46,81 @@ public final class FileUtilsTest {
       assertThat(FileUtils.listFiles(directory), is(empty()));
     }
   }
+
+  @ExtendWith(TemporaryFolderExtension.class)
+  @Nested
+  public final class ReplaceFileTest {
+    private TemporaryFolder temporaryFolder;
+
+    private void write(final File file, final String content) throws Exception {
+      Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String read(final File file) throws Exception {
+      return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void shouldReplaceExistingFile() throws Exception {
+      final File file = temporaryFolder.newFile("file");
+      final File tempFile = temporaryFolder.newFile("file.tmp");
+      write(file, "previous");
+      write(tempFile, "new");
+
+      FileUtils.replaceFile(tempFile, file);
+
+      assertThat(read(file), is("new"));
+      assertThat(tempFile.exists(), is(false));
+    }
+
+    @Test
+    public void shouldCreateMissingFile() throws Exception {
+      final File tempFile = temporaryFolder.newFile("file.tmp");
+      final File file = new File(tempFile.getParentFile(), "file");
+      write(tempFile, "new");
+
+      FileUtils.replaceFile(tempFile, file);
+
+      assertThat(read(file), is("new"));
+      assertThat(tempFile.exists(), is(false));
+    }
+  }
+
+  @ExtendWith(TemporaryFolderExtension.class)
+  @Nested
+  public final class WriteAtomicallyTest {
+    private TemporaryFolder temporaryFolder;
+
+    private String read(final File file) throws Exception {
+      return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void shouldReplaceFileWithWrittenContent() throws Exception {
+      final File file = temporaryFolder.newFile("file");
+      Files.write(file.toPath(), "previous".getBytes(StandardCharsets.UTF_8));
+
+      FileUtils.writeAtomically(file, os -> {
+        os.write("new".getBytes(StandardCharsets.UTF_8));
+        os.close();
+      });
+
+      assertThat(read(file), is("new"));
+      assertThat(new File(file.getPath() + ".tmp").exists(), is(false));
+    }
+
+    @Test
+    public void shouldKeepFileWhenWritingFails() throws Exception {
+      final File file = temporaryFolder.newFile("file");
+      Files.write(file.toPath(), "previous".getBytes(StandardCharsets.UTF_8));
+
+      assertThrows(IOException.class, () -> FileUtils.writeAtomically(file, os -> {
+        os.write("partial".getBytes(StandardCharsets.UTF_8));
+        throw new IOException();
+      }));
+
+      assertThat(read(file), is("previous"));
+      assertThat(new File(file.getPath() + ".tmp").exists(), is(false));
+    }
+  }
 }
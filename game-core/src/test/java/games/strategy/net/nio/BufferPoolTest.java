@@ -0,0 +1,56 @@
+package games.strategy.net.nio;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.nio.ByteBuffer;
+
+import org.junit.jupiter.api.Test;
+
+public final class BufferPoolTest {
+  private final BufferPool bufferPool = new BufferPool();
+
+  @Test
+  public void acquireShouldReturnDirectBufferLimitedToRequestedSize() {
+    final ByteBuffer buffer = bufferPool.acquire(1000);
+
+    assertThat(buffer.isDirect(), is(true));
+    assertThat(buffer.capacity(), is(1024));
+    assertThat(buffer.position(), is(0));
+    assertThat(buffer.limit(), is(1000));
+  }
+
+  @Test
+  public void acquireShouldReuseReleasedBufferOfSameSizeClass() {
+    final ByteBuffer buffer = bufferPool.acquire(700);
+    buffer.put((byte) 1);
+    bufferPool.release(buffer);
+
+    final ByteBuffer reused = bufferPool.acquire(1024);
+
+    assertThat(reused, is(sameInstance(buffer)));
+    assertThat(reused.position(), is(0));
+    assertThat(reused.limit(), is(1024));
+    assertThat(bufferPool.getAllocationCount(), is(1L));
+  }
+
+  @Test
+  public void acquireShouldNotReuseBufferOfOtherSizeClass() {
+    final ByteBuffer buffer = bufferPool.acquire(BufferPool.MIN_POOLED_SIZE);
+    bufferPool.release(buffer);
+
+    assertThat(bufferPool.acquire(BufferPool.MIN_POOLED_SIZE + 1), is(not(sameInstance(buffer))));
+  }
+
+  @Test
+  public void acquireShouldNotPoolBuffersAboveMaximumSize() {
+    final ByteBuffer buffer = bufferPool.acquire(BufferPool.MAX_POOLED_SIZE + 1);
+    bufferPool.release(buffer);
+
+    assertThat(buffer.isDirect(), is(false));
+    assertThat(buffer.limit(), is(BufferPool.MAX_POOLED_SIZE + 1));
+    assertThat(bufferPool.acquire(BufferPool.MAX_POOLED_SIZE + 1), is(not(sameInstance(buffer))));
+  }
+}
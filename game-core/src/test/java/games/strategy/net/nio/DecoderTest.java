@@ -0,0 +1,213 @@
+package games.strategy.net.nio;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.net.InetAddress;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+
+import com.example.mockito.MockitoExtension;
+
+import games.strategy.net.DefaultObjectStreamFactory;
+import games.strategy.net.IObjectStreamFactory;
+import games.strategy.net.MessageHeader;
+import games.strategy.net.Node;
+
+@ExtendWith(MockitoExtension.class)
+public final class DecoderTest {
+  private static final int MESSAGE_COUNT = 100;
+
+  private final Node server = new Node("server", InetAddress.getLoopbackAddress(), 3300);
+  private final Node client = new Node("client", InetAddress.getLoopbackAddress(), 3301);
+  private final IObjectStreamFactory objectStreamFactory = new DefaultObjectStreamFactory();
+  private final BlockingQueue<SocketReadData> packets = new LinkedBlockingQueue<>();
+  private final Map<SocketChannel, List<Serializable>> receivedMessages = new ConcurrentHashMap<>();
+  @Mock
+  private NioSocket nioSocket;
+  @Mock
+  private NioReader reader;
+  @Mock
+  private ErrorReporter errorReporter;
+  private Decoder decoder;
+  private final List<SocketChannel> channels = new ArrayList<>();
+
+  @BeforeEach
+  public void setUp() throws Exception {
+    when(reader.take()).thenAnswer(invocation -> packets.take());
+    when(nioSocket.getLocalNode()).thenReturn(server);
+    when(nioSocket.getRemoteNode(any(SocketChannel.class))).thenReturn(client);
+    doAnswer(invocation -> {
+      final MessageHeader header = invocation.getArgument(0);
+      receivedMessages.computeIfAbsent(invocation.getArgument(1), k -> new CopyOnWriteArrayList<>())
+          .add(header.getMessage());
+      return null;
+    }).when(nioSocket).messageReceived(any(MessageHeader.class), any(SocketChannel.class));
+    decoder = new Decoder(nioSocket, reader, errorReporter, objectStreamFactory, "test");
+  }
+
+  @AfterEach
+  public void tearDown() throws IOException {
+    decoder.shutDown();
+    for (final SocketChannel channel : channels) {
+      channel.close();
+    }
+  }
+
+  private SocketChannel newChannel() throws IOException {
+    final SocketChannel channel = SocketChannel.open();
+    channels.add(channel);
+    return channel;
+  }
+
+  private SocketReadData read(final SocketChannel channel, final Serializable message) throws IOException {
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = objectStreamFactory.create(bytes)) {
+      // to all nodes
+      out.write(1);
+      // from the remote node of the channel
+      out.write(1);
+      out.write(Byte.MAX_VALUE);
+      out.writeObject(message);
+    }
+    // answered rather than stubbed, as a packet released without being read never has its input stream taken
+    final SocketReadData data = mock(SocketReadData.class, invocation -> {
+      switch (invocation.getMethod().getName()) {
+        case "getChannel":
+          return channel;
+        case "getInputStream":
+          return new ByteArrayInputStream(bytes.toByteArray());
+        case "toString":
+          return "packet " + message;
+        default:
+          return null;
+      }
+    });
+    packets.add(data);
+    return data;
+  }
+
+  private List<Serializable> awaitMessages(final SocketChannel channel, final int count) throws InterruptedException {
+    final long endTime = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+    while (System.currentTimeMillis() < endTime
+        && receivedMessages.getOrDefault(channel, new ArrayList<>()).size() < count) {
+      Thread.sleep(10);
+    }
+    return receivedMessages.get(channel);
+  }
+
+  @Test
+  public void shouldDeliverTheMessagesOfEachChannelInTheOrderTheyWereRead() throws Exception {
+    final SocketChannel channel1 = newChannel();
+    final SocketChannel channel2 = newChannel();
+    final SocketChannel channel3 = newChannel();
+    for (int i = 0; i < MESSAGE_COUNT; i++) {
+      for (final SocketChannel channel : Arrays.asList(channel1, channel2, channel3)) {
+        read(channel, i);
+      }
+    }
+
+    final List<Integer> expected = IntStream.range(0, MESSAGE_COUNT).boxed().collect(Collectors.toList());
+    for (final SocketChannel channel : Arrays.asList(channel1, channel2, channel3)) {
+      assertThat(awaitMessages(channel, MESSAGE_COUNT), is(expected));
+    }
+  }
+
+  @Test
+  public void shouldDeliverMessagesWaitingForTheQuarantineAfterUnquarantining() throws Exception {
+    final SocketChannel channel = newChannel();
+    final List<Object> conversationMessages = new CopyOnWriteArrayList<>();
+    final CountDownLatch moreMessagesRead = new CountDownLatch(1);
+    final QuarantineConversation conversation = new QuarantineConversation() {
+      @Override
+      public Action message(final Object o) {
+        conversationMessages.add(o);
+        try {
+          // keep the conversation busy while later messages are read
+          moreMessagesRead.await(10, TimeUnit.SECONDS);
+        } catch (final InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        return Action.UNQUARANTINE;
+      }
+
+      @Override
+      public void close() {}
+    };
+    decoder.add(channel, conversation);
+
+    read(channel, "login");
+    read(channel, "first");
+    final SocketReadData second = read(channel, "second");
+    verify(second, timeout(10_000).atLeastOnce()).getChannel();
+    moreMessagesRead.countDown();
+    verify(nioSocket, timeout(10_000)).unquarantine(eq(channel), eq(conversation));
+    read(channel, "third");
+
+    assertThat(awaitMessages(channel, 3), contains("first", "second", "third"));
+    assertThat(conversationMessages, contains("login"));
+  }
+
+  @Test
+  public void shouldReleasePacketsWaitingForTheQuarantineOfAClosedChannel() throws Exception {
+    final SocketChannel channel = newChannel();
+    final CountDownLatch channelClosed = new CountDownLatch(1);
+    final QuarantineConversation conversation = new QuarantineConversation() {
+      @Override
+      public Action message(final Object o) {
+        try {
+          // keep the conversation busy until the channel is closed
+          channelClosed.await(10, TimeUnit.SECONDS);
+        } catch (final InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        return Action.NONE;
+      }
+
+      @Override
+      public void close() {}
+    };
+    decoder.add(channel, conversation);
+
+    read(channel, "login");
+    final SocketReadData waiting = read(channel, "waiting");
+    verify(waiting, timeout(10_000)).getChannel();
+    decoder.closed(channel);
+    channelClosed.countDown();
+    read(channel, "late");
+
+    verify(waiting, timeout(10_000)).release();
+    assertThat(awaitMessages(channel, 1), hasItem("late"));
+  }
+}
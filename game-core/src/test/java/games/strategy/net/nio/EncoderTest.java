@@ -0,0 +1,97 @@
+package games.strategy.net.nio;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.nio.channels.SocketChannel;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+
+import com.example.mockito.MockitoExtension;
+
+import games.strategy.net.DefaultObjectStreamFactory;
+import games.strategy.net.MessageHeader;
+import games.strategy.net.Node;
+
+@ExtendWith(MockitoExtension.class)
+public final class EncoderTest {
+  private final Node server = new Node("server", InetAddress.getLoopbackAddress(), 3300);
+  private final Node client1 = new Node("client1", InetAddress.getLoopbackAddress(), 3301);
+  private final Node client2 = new Node("client2", InetAddress.getLoopbackAddress(), 3302);
+  @Mock
+  private NioSocket nioSocket;
+  @Mock
+  private NioWriter writer;
+  private Encoder encoder;
+  private SocketChannel channel1;
+  private SocketChannel channel2;
+
+  @BeforeEach
+  public void setUp() throws IOException {
+    when(nioSocket.getLocalNode()).thenReturn(server);
+    encoder = new Encoder(nioSocket, writer, new DefaultObjectStreamFactory());
+    channel1 = SocketChannel.open();
+    channel2 = SocketChannel.open();
+  }
+
+  @AfterEach
+  public void tearDown() throws IOException {
+    channel1.close();
+    channel2.close();
+  }
+
+  private long getSingleEncodingSize(final MessageHeader header) {
+    final Encoder singleEncoder = new Encoder(nioSocket, writer, new DefaultObjectStreamFactory());
+    singleEncoder.write(channel1, header);
+    return singleEncoder.getBytesEncoded();
+  }
+
+  @Test
+  public void writeShouldEncodeBroadcastOnceForAllChannels() {
+    final MessageHeader header = new MessageHeader(server, "hello");
+
+    encoder.write(Arrays.asList(channel1, channel2), header);
+
+    verify(writer).enque(any(SocketWriteData.class), eq(channel1));
+    verify(writer).enque(any(SocketWriteData.class), eq(channel2));
+    assertThat(encoder.getBytesEncoded(), is(getSingleEncodingSize(header)));
+  }
+
+  @Test
+  public void writeToEachShouldEncodeOnceForAllChannels() {
+    // the single encoding is the message to the node of its channel
+    when(nioSocket.getRemoteNode(channel1)).thenReturn(client1);
+    final MessageHeader header = new MessageHeader(client1, server, "hello");
+
+    encoder.writeToEach(Arrays.asList(channel1, channel2), header);
+
+    verify(writer).enque(any(SocketWriteData.class), eq(channel1));
+    verify(writer).enque(any(SocketWriteData.class), eq(channel2));
+    assertThat(encoder.getBytesEncoded(), is(getSingleEncodingSize(header)));
+  }
+
+  @Test
+  public void writeShouldEncodeSeparatelyForDestinationAndRelayChannels() {
+    when(nioSocket.getRemoteNode(channel1)).thenReturn(client1);
+    when(nioSocket.getRemoteNode(channel2)).thenReturn(client2);
+    final MessageHeader header = new MessageHeader(client1, server, "hello");
+
+    encoder.write(Arrays.asList(channel1, channel2), header);
+
+    verify(writer, times(2)).enque(any(SocketWriteData.class), any(SocketChannel.class));
+    // the relayed message also holds the destination node
+    assertThat(encoder.getBytesEncoded() > 2 * getSingleEncodingSize(header), is(true));
+  }
+}
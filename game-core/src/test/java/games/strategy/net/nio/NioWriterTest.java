@@ -0,0 +1,151 @@
+package games.strategy.net.nio;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+
+import com.example.mockito.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+public final class NioWriterTest {
+  @Mock
+  private ErrorReporter errorReporter;
+  private NioWriter writer;
+  private ServerSocketChannel serverChannel;
+  private SocketChannel channel;
+  private SocketChannel peer;
+
+  @BeforeEach
+  public void setUp() throws IOException {
+    writer = new NioWriter(errorReporter, "test");
+    serverChannel = ServerSocketChannel.open().bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+    channel = SocketChannel.open(serverChannel.getLocalAddress());
+    peer = serverChannel.accept();
+    channel.configureBlocking(false);
+    // the peer does not read until a test drains it, so the writer cannot write the queued packets before
+    fillSendBuffer();
+  }
+
+  @AfterEach
+  public void tearDown() throws IOException {
+    writer.shutDown();
+    channel.close();
+    peer.close();
+    serverChannel.close();
+  }
+
+  private void fillSendBuffer() throws IOException {
+    final ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+    while (channel.write(buffer) > 0) {
+      buffer.clear();
+    }
+  }
+
+  private void drainPeer() {
+    final Thread drainer = new Thread(() -> {
+      final ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+      try {
+        while (peer.read(buffer) >= 0) {
+          buffer.clear();
+        }
+      } catch (final IOException e) {
+        // the peer was closed
+      }
+    }, "NioWriterTest drainer");
+    drainer.setDaemon(true);
+    drainer.start();
+  }
+
+  private static void awaitState(final Thread thread, final Thread.State state) throws InterruptedException {
+    final long endTime = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+    while (thread.getState() != state && System.nanoTime() < endTime) {
+      Thread.sleep(10);
+    }
+    assertThat(thread.getState(), is(state));
+  }
+
+  private static SocketWriteData newPacket(final int size, final Object supersedingKey) {
+    return new SocketWriteData(new SocketWriteData.Frame(new byte[size], size), supersedingKey);
+  }
+
+  private String getQueueStatus() {
+    return String.join("\n", writer.getQueueStatus(channel -> "channel"));
+  }
+
+  @Test
+  public void enqueShouldReplaceWaitingPacketWithSupersedingPacket() {
+    writer.enque(newPacket(10, "game"), channel);
+    writer.enque(newPacket(10, "game"), channel);
+    writer.enque(newPacket(10, null), channel);
+    writer.enque(newPacket(10, "game"), channel);
+
+    // the first packet may be being written, so only the second one is superseded
+    assertThat(writer.getQueueStatus(channel -> "channel"),
+        contains("channel queued packets:3 bytes:42 peak bytes:42 dropped:0 superseded:1"));
+  }
+
+  @Test
+  public void enqueShouldDisconnectAboveHighWatermark() {
+    writer.setSendQueueLimits(20, 40, OverflowPolicy.DISCONNECT);
+
+    writer.enque(newPacket(16, null), channel);
+    writer.enque(newPacket(16, null), channel);
+    verify(errorReporter, never()).error(any(), any());
+
+    writer.enque(newPacket(16, null), channel);
+    verify(errorReporter).error(eq(channel), any(IOException.class));
+
+    // the disconnect is only reported once
+    writer.enque(newPacket(16, null), channel);
+    verify(errorReporter).error(eq(channel), any(IOException.class));
+  }
+
+  @Test
+  public void enqueShouldBlockAboveHighWatermarkUntilBelowLowWatermark() throws Exception {
+    writer.setSendQueueLimits(20, 40, OverflowPolicy.BLOCK);
+    writer.enque(newPacket(50, null), channel);
+    final Thread sender = new Thread(() -> writer.enque(newPacket(10, null), channel), "NioWriterTest sender");
+    sender.start();
+
+    awaitState(sender, Thread.State.WAITING);
+    assertThat(getQueueStatus(), containsString("queued packets:1 bytes:54"));
+
+    drainPeer();
+    sender.join(TimeUnit.SECONDS.toMillis(10));
+
+    assertThat(sender.isAlive(), is(false));
+    verify(errorReporter, never()).error(any(), any());
+  }
+
+  @Test
+  public void enqueShouldDropPacketsWhileAboveHighWatermark() {
+    writer.setSendQueueLimits(20, 40, OverflowPolicy.DROP);
+
+    writer.enque(newPacket(50, null), channel);
+    writer.enque(newPacket(10, null), channel);
+    writer.enque(newPacket(10, null), channel);
+
+    assertThat(getQueueStatus(), containsString("queued packets:1 bytes:54"));
+    assertThat(getQueueStatus(), containsString("dropped:2"));
+    verify(errorReporter, never()).error(any(), any());
+  }
+}
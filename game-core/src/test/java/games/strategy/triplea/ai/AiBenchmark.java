@@ -0,0 +1,358 @@
+package games.strategy.triplea.ai;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Collectors;
+
+import org.apache.commons.io.FileUtils;
+
+import com.github.openjson.JSONArray;
+import com.github.openjson.JSONObject;
+import com.google.common.annotations.VisibleForTesting;
+
+import games.strategy.engine.data.GameData;
+import games.strategy.engine.data.PlayerID;
+import games.strategy.engine.framework.ServerGame;
+import games.strategy.engine.gamePlayer.IGamePlayer;
+import games.strategy.engine.random.ScriptedRandomSource;
+import games.strategy.net.HeadlessServerMessenger;
+import games.strategy.net.Messengers;
+import games.strategy.sound.HeadlessSoundChannel;
+import games.strategy.triplea.ResourceLoader;
+import games.strategy.triplea.TripleA;
+import games.strategy.triplea.ai.pro.ProAi;
+import games.strategy.triplea.delegate.BattleCalculator;
+import games.strategy.triplea.settings.ClientSetting;
+import games.strategy.triplea.settings.ClientSettingTestUtil;
+import games.strategy.triplea.ui.HeadlessUiContext;
+import games.strategy.triplea.ui.display.HeadlessDisplay;
+import games.strategy.triplea.xml.TestMapGameData;
+import games.strategy.util.Interruptibles;
+
+/**
+ * Lets an AI play every player of the test maps for a number of rounds, headless and with scripted dice, and reports
+ * how much wall time, allocation and odds calculator work each phase took as JSON.
+ *
+ * <p>
+ * The dice of the game are scripted from the seed, so every run plays the same dice; the AIs still use their own
+ * random numbers in the odds calculator. The time of a phase is measured from the start of one of its steps to the
+ * start of the next step, so it includes the delegate and the auto saves as well as the AI. The allocation is summed
+ * over all live threads, so allocations of threads that ended during a step are not counted. The casualty order cache
+ * counts are those of all games in the process, including the copies used by the odds calculators.
+ * </p>
+ *
+ * <p>
+ * Usage: {@code AiBenchmark [ai=pro|fast|weak] [rounds=N] [seed=N] [budget=seconds] [maps=REVISED,TWW,...]
+ * [output=file]}, run from the game-core folder, for example with {@code gradlew aiBenchmark}. The budget is the
+ * time budget of each phase of the Pro and Fast AIs, 0 for no limit. The report is written to the standard output if
+ * no output file is given.
+ * </p>
+ */
+public final class AiBenchmark {
+  private static final List<String> PHASES = Arrays.asList("purchase", "combatMove", "battle", "nonCombatMove", "place",
+      "other");
+  private static final List<TestMapGameData> DEFAULT_MAPS = Arrays.asList(TestMapGameData.REVISED,
+      TestMapGameData.WW2V3_1941, TestMapGameData.PACT_OF_STEEL_2, TestMapGameData.BIG_WORLD_1942,
+      TestMapGameData.TWW);
+  private static final Map<String, String> AI_TYPES = new LinkedHashMap<>();
+  private static final int SCRIPTED_DICE_COUNT = 10_000;
+  private static final int DICE_SIDES = 6;
+
+  static {
+    AI_TYPES.put("pro", TripleA.PRO_COMPUTER_PLAYER_TYPE);
+    AI_TYPES.put("fast", TripleA.FAST_COMPUTER_PLAYER_TYPE);
+    AI_TYPES.put("weak", TripleA.WEAK_COMPUTER_PLAYER_TYPE);
+  }
+
+  private AiBenchmark() {}
+
+  /**
+   * The measurements of all steps of one phase.
+   */
+  private static final class PhaseStats {
+    private int steps = 0;
+    private long wallTimeNanos = 0;
+    private long allocatedBytes = 0;
+    private long calculatedBattles = 0;
+    private long refinements = 0;
+    private long oolCacheHits = 0;
+    private long oolCacheMisses = 0;
+    private long oolCacheEvictions = 0;
+
+    JSONObject toJson() {
+      final JSONObject json = new JSONObject();
+      json.put("steps", steps);
+      json.put("wallTimeMillis", wallTimeNanos / 1_000_000);
+      json.put("allocatedBytes", allocatedBytes);
+      json.put("oddsCalculatorBattles", calculatedBattles);
+      json.put("refinements", refinements);
+      json.put("oolCacheHits", oolCacheHits);
+      json.put("oolCacheMisses", oolCacheMisses);
+      json.put("oolCacheEvictions", oolCacheEvictions);
+      return json;
+    }
+  }
+
+  /**
+   * Sums the bytes allocated by the live threads since the previous sample.
+   */
+  private static final class AllocationCounter {
+    private final com.sun.management.ThreadMXBean threadMxBean =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private final Map<Long, Long> allocatedBytesByThread = new HashMap<>();
+
+    long sample() {
+      final long[] threadIds = threadMxBean.getAllThreadIds();
+      final long[] allocatedBytes = threadMxBean.getThreadAllocatedBytes(threadIds);
+      long allocatedSinceLastSample = 0;
+      for (int i = 0; i < threadIds.length; i++) {
+        if (allocatedBytes[i] >= 0) {
+          final Long previous = allocatedBytesByThread.put(threadIds[i], allocatedBytes[i]);
+          allocatedSinceLastSample += allocatedBytes[i] - (previous == null ? 0 : previous);
+        }
+      }
+      return allocatedSinceLastSample;
+    }
+  }
+
+  /**
+   * Adds the measurements since the previous step change to the phase of the previous step.
+   */
+  private static final class StepRecorder {
+    private final Map<String, PhaseStats> phases = new LinkedHashMap<>();
+    private final Collection<IGamePlayer> players;
+    private final int rounds;
+    private final CountDownLatch done;
+    private final AllocationCounter allocationCounter = new AllocationCounter();
+    private String currentPhase = null;
+    private long stepStartNanos;
+    private long stepStartCalculatedBattles;
+    private long stepStartRefinements;
+    private long stepStartOolCacheHits;
+    private long stepStartOolCacheMisses;
+    private long stepStartOolCacheEvictions;
+    private int roundsPlayed = 0;
+
+    StepRecorder(final Collection<IGamePlayer> players, final int rounds, final CountDownLatch done) {
+      this.players = players;
+      this.rounds = rounds;
+      this.done = done;
+      PHASES.forEach(phase -> phases.put(phase, new PhaseStats()));
+    }
+
+    synchronized void stepChanged(final String stepName, final int round) {
+      final long now = System.nanoTime();
+      final long allocatedBytes = allocationCounter.sample();
+      final long calculatedBattles = getCalculatedBattles(players);
+      final long refinements = getRefinements(players);
+      final long oolCacheHits = BattleCalculator.getOolCacheHitCount();
+      final long oolCacheMisses = BattleCalculator.getOolCacheMissCount();
+      final long oolCacheEvictions = BattleCalculator.getOolCacheEvictionCount();
+      if (currentPhase != null) {
+        final PhaseStats stats = phases.get(currentPhase);
+        stats.steps++;
+        stats.wallTimeNanos += now - stepStartNanos;
+        stats.allocatedBytes += allocatedBytes;
+        stats.calculatedBattles += calculatedBattles - stepStartCalculatedBattles;
+        stats.refinements += refinements - stepStartRefinements;
+        stats.oolCacheHits += oolCacheHits - stepStartOolCacheHits;
+        stats.oolCacheMisses += oolCacheMisses - stepStartOolCacheMisses;
+        stats.oolCacheEvictions += oolCacheEvictions - stepStartOolCacheEvictions;
+      }
+      if (round > rounds) {
+        currentPhase = null;
+        done.countDown();
+        return;
+      }
+      roundsPlayed = round;
+      currentPhase = getPhase(stepName);
+      stepStartNanos = now;
+      stepStartCalculatedBattles = calculatedBattles;
+      stepStartRefinements = refinements;
+      stepStartOolCacheHits = oolCacheHits;
+      stepStartOolCacheMisses = oolCacheMisses;
+      stepStartOolCacheEvictions = oolCacheEvictions;
+    }
+
+    synchronized JSONObject toJson() {
+      final JSONObject json = new JSONObject();
+      json.put("roundsPlayed", roundsPlayed);
+      final JSONObject phasesJson = new JSONObject();
+      phases.forEach((phase, stats) -> phasesJson.put(phase, stats.toJson()));
+      json.put("phases", phasesJson);
+      return json;
+    }
+  }
+
+  /**
+   * Maps a step to its phase the same way {@link AbstractAi#start(String)} picks what to do in it.
+   */
+  @VisibleForTesting
+  static String getPhase(final String stepName) {
+    if (stepName.endsWith("Purchase") || stepName.endsWith("Bid")) {
+      return "purchase";
+    } else if (stepName.endsWith("NonCombatMove")) {
+      return "nonCombatMove";
+    } else if (stepName.endsWith("Move")) {
+      return "combatMove";
+    } else if (stepName.endsWith("Battle")) {
+      return "battle";
+    } else if (stepName.endsWith("Place")) {
+      return "place";
+    }
+    return "other";
+  }
+
+  private static long getCalculatedBattles(final Collection<IGamePlayer> players) {
+    return players.stream()
+        .filter(ProAi.class::isInstance)
+        .mapToLong(player -> ((ProAi) player).getCalc().getCalculatedBattleCount())
+        .sum();
+  }
+
+  private static long getRefinements(final Collection<IGamePlayer> players) {
+    return players.stream()
+        .filter(ProAi.class::isInstance)
+        .mapToLong(player -> ((ProAi) player).getTimeBudget().getTotalRefinements())
+        .sum();
+  }
+
+  /**
+   * @return Scripted dice from the specified seed, which are repeated once they run out.
+   */
+  @VisibleForTesting
+  static ScriptedRandomSource newRandomSource(final long seed) {
+    final Random random = new Random(seed);
+    final int[] dice = new int[SCRIPTED_DICE_COUNT];
+    for (int i = 0; i < dice.length; i++) {
+      dice[i] = random.nextInt(DICE_SIDES);
+    }
+    return new ScriptedRandomSource(dice);
+  }
+
+  /**
+   * Lets the AI of the specified type play every player of the map for the specified number of rounds.
+   *
+   * @return The measurements of the game.
+   */
+  private static JSONObject run(final TestMapGameData map, final String aiType, final int rounds, final long seed)
+      throws Exception {
+    final GameData data = map.getGameData();
+    final Map<String, String> playerTypes = new HashMap<>();
+    for (final PlayerID player : data.getPlayerList().getPlayers()) {
+      playerTypes.put(player.getName(), aiType);
+    }
+    final Set<IGamePlayer> players = data.getGameLoader().createPlayers(playerTypes);
+    final ServerGame game =
+        new ServerGame(data, players, new HashMap<>(), new Messengers(new HeadlessServerMessenger()));
+    game.setRandomSource(newRandomSource(seed));
+    // like the game loader does when headless, but the test maps have no map folder to load resources from
+    new HeadlessUiContext() {
+      @Override
+      protected void internalSetMapDir(final String dir, final GameData data) {
+        resourceLoader = ResourceLoader.getGameEngineAssetLoader();
+      }
+    }.setDefaultMapDir(data);
+    game.addDisplay(new HeadlessDisplay());
+    game.addSoundChannel(new HeadlessSoundChannel());
+
+    final CountDownLatch done = new CountDownLatch(1);
+    final StepRecorder recorder = new StepRecorder(players, rounds, done);
+    game.addGameStepListener((stepName, delegateName, player, round, displayName) -> recorder.stepChanged(stepName,
+        round));
+    final long start = System.nanoTime();
+    final Thread gameThread = new Thread(() -> {
+      try {
+        game.startGame();
+      } finally {
+        // the game may also end before all rounds have been played
+        done.countDown();
+      }
+    }, "AiBenchmark " + map);
+    gameThread.start();
+    Interruptibles.await(done);
+    final long wallTimeNanos = System.nanoTime() - start;
+    game.stopGame();
+    Interruptibles.join(gameThread);
+
+    final JSONObject json = recorder.toJson();
+    json.put("map", map.name());
+    json.put("gameName", data.getGameName());
+    json.put("wallTimeMillis", wallTimeNanos / 1_000_000);
+    return json;
+  }
+
+  /**
+   * Runs the benchmark with the arguments described in the class comment.
+   */
+  public static void main(final String[] args) throws Exception {
+    final Map<String, String> arguments = new HashMap<>();
+    for (final String arg : args) {
+      final String[] nameAndValue = arg.split("=", 2);
+      if (nameAndValue.length != 2) {
+        throw new IllegalArgumentException("Expected name=value but got: " + arg);
+      }
+      arguments.put(nameAndValue[0], nameAndValue[1]);
+    }
+    final String ai = arguments.getOrDefault("ai", "pro");
+    final String aiType = AI_TYPES.get(ai);
+    if (aiType == null) {
+      throw new IllegalArgumentException("Unknown AI: " + ai + ", expected one of " + AI_TYPES.keySet());
+    }
+    final int rounds = Integer.parseInt(arguments.getOrDefault("rounds", "2"));
+    final long seed = Long.parseLong(arguments.getOrDefault("seed", "0"));
+    final int budget = Integer.parseInt(arguments.getOrDefault("budget", "0"));
+    final List<TestMapGameData> maps = arguments.containsKey("maps")
+        ? Arrays.stream(arguments.get("maps").split(",")).map(TestMapGameData::valueOf).collect(Collectors.toList())
+        : DEFAULT_MAPS;
+
+    // don't let the AIs pause between moves, and keep the auto saves out of the folders of the user
+    ClientSettingTestUtil.initializeMemoryPreferences();
+    ClientSetting.AI_PAUSE_DURATION.save(0);
+    ClientSetting.AI_PHASE_TIME_BUDGET.save(budget);
+    final File saveGamesFolder = Files.createTempDirectory("aiBenchmark").toFile();
+    ClientSetting.SAVE_GAMES_FOLDER_PATH.save(saveGamesFolder.getAbsolutePath());
+    final JSONObject report = new JSONObject();
+    report.put("ai", ai);
+    report.put("rounds", rounds);
+    report.put("seed", seed);
+    report.put("phaseTimeBudgetSeconds", budget);
+    report.put("javaVersion", System.getProperty("java.version"));
+    report.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+    final JSONArray results = new JSONArray();
+    for (final TestMapGameData map : maps) {
+      results.put(run(map, aiType, rounds, seed));
+    }
+    report.put("maps", results);
+    FileUtils.deleteQuietly(saveGamesFolder);
+
+    final String json = report.toString(2);
+    if (arguments.containsKey("output")) {
+      write(new File(arguments.get("output")), json);
+    } else {
+      System.out.println(json);
+    }
+    // the AIs keep non-daemon threads around
+    System.exit(0);
+  }
+
+  private static void write(final File file, final String json) throws IOException {
+    final File folder = file.getAbsoluteFile().getParentFile();
+    if (!folder.exists() && !folder.mkdirs()) {
+      throw new IOException("Failed to create folder: " + folder);
+    }
+    Files.write(file.toPath(), json.getBytes(StandardCharsets.UTF_8));
+  }
+}
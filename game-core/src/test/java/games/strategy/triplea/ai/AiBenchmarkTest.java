@@ -0,0 +1,32 @@
+package games.strategy.triplea.ai;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import org.junit.jupiter.api.Test;
+
+import games.strategy.engine.random.ScriptedRandomSource;
+
+public final class AiBenchmarkTest {
+  @Test
+  public void getPhaseShouldMapStepsLikeTheAisDo() {
+    assertThat(AiBenchmark.getPhase("germansPurchase"), is("purchase"));
+    assertThat(AiBenchmark.getPhase("germansBid"), is("purchase"));
+    assertThat(AiBenchmark.getPhase("germansCombatMove"), is("combatMove"));
+    assertThat(AiBenchmark.getPhase("germansBattle"), is("battle"));
+    assertThat(AiBenchmark.getPhase("germansNonCombatMove"), is("nonCombatMove"));
+    assertThat(AiBenchmark.getPhase("germansPlace"), is("place"));
+    assertThat(AiBenchmark.getPhase("germansEndTurn"), is("other"));
+  }
+
+  @Test
+  public void newRandomSourceShouldRollTheSameDiceForTheSameSeed() {
+    final ScriptedRandomSource randomSource = AiBenchmark.newRandomSource(42);
+    final int[] dice = randomSource.getRandom(6, 100, null);
+
+    assertThat(AiBenchmark.newRandomSource(42).getRandom(6, 100, null), is(dice));
+    for (final int die : dice) {
+      assertThat(die >= 0 && die < 6, is(true));
+    }
+  }
+}
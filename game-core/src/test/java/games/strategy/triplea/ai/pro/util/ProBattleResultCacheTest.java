@@ -0,0 +1,111 @@
+package games.strategy.triplea.ai.pro.util;
+
+import static games.strategy.triplea.delegate.GameDataTestUtil.americans;
+import static games.strategy.triplea.delegate.GameDataTestUtil.armour;
+import static games.strategy.triplea.delegate.GameDataTestUtil.germans;
+import static games.strategy.triplea.delegate.GameDataTestUtil.infantry;
+import static games.strategy.triplea.delegate.GameDataTestUtil.russians;
+import static games.strategy.triplea.delegate.GameDataTestUtil.territory;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import games.strategy.engine.data.GameData;
+import games.strategy.engine.data.Territory;
+import games.strategy.engine.data.Unit;
+import games.strategy.triplea.ai.pro.data.ProBattleResult;
+import games.strategy.triplea.xml.TestMapGameData;
+
+public final class ProBattleResultCacheTest {
+  private final ProBattleResultCache cache = new ProBattleResultCache();
+  private GameData data;
+  private Territory territory;
+  private int estimates;
+
+  @BeforeEach
+  public void setUp() throws Exception {
+    data = TestMapGameData.REVISED.getGameData();
+    territory = territory("Germany", data);
+  }
+
+  private List<Unit> attackers() {
+    final List<Unit> units = new ArrayList<>(infantry(data).create(2, russians(data)));
+    units.addAll(armour(data).create(1, russians(data)));
+    return units;
+  }
+
+  private List<Unit> defenders() {
+    return infantry(data).create(2, germans(data));
+  }
+
+  private ProBattleResult get(final List<Unit> attackers, final List<Unit> defenders) {
+    return cache.get(territory, Collections.emptyList(), attackers, defenders, Collections.emptyList(), false, () -> {
+      estimates++;
+      // the last attacker and defender remain
+      return new ProBattleResult(60, 3, true, Collections.singletonList(attackers.get(attackers.size() - 1)),
+          Collections.singletonList(defenders.get(defenders.size() - 1)), 2);
+    });
+  }
+
+  @Test
+  public void shouldReturnRememberedResultForEquivalentUnits() {
+    get(attackers(), defenders());
+    final List<Unit> attackers = attackers();
+    // the same units in another order
+    Collections.reverse(attackers);
+    final List<Unit> defenders = defenders();
+
+    final ProBattleResult result = get(attackers, defenders);
+
+    assertThat(estimates, is(1));
+    assertThat(cache.getHits(), is(1));
+    assertThat(result.getWinPercentage(), is(60.0));
+    assertThat(result.getAverageAttackersRemaining().size(), is(1));
+    assertThat(result.getAverageAttackersRemaining().get(0), is(sameInstance(attackers.get(0))));
+    assertThat(result.getAverageDefendersRemaining(), contains(defenders.get(1)));
+  }
+
+  @Test
+  public void shouldEstimateAgainWhenUnitsAreNotEquivalent() {
+    get(attackers(), defenders());
+    final List<Unit> defenders = defenders();
+    defenders.get(0).setHits(1);
+
+    get(attackers(), defenders);
+
+    assertThat(estimates, is(2));
+    assertThat(cache.getMisses(), is(2));
+  }
+
+  @Test
+  public void shouldEstimateAgainWhenAlliedUnitsAreLedByAnotherPlayer() {
+    final List<Unit> attackers = attackers();
+    attackers.addAll(infantry(data).create(1, americans(data)));
+    get(attackers, defenders());
+    // the same units, but now fought by the americans
+    Collections.reverse(attackers);
+
+    get(attackers, defenders());
+
+    assertThat(estimates, is(2));
+    assertThat(cache.getMisses(), is(2));
+  }
+
+  @Test
+  public void shouldEstimateAgainWhenCleared() {
+    get(attackers(), defenders());
+
+    cache.clear();
+    get(attackers(), defenders());
+
+    assertThat(estimates, is(2));
+  }
+}
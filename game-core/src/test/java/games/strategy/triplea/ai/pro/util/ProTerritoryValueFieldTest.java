@@ -0,0 +1,84 @@
+package games.strategy.triplea.ai.pro.util;
+
+import static games.strategy.triplea.delegate.GameDataTestUtil.germans;
+import static games.strategy.triplea.delegate.GameDataTestUtil.territory;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import games.strategy.engine.data.GameData;
+import games.strategy.engine.data.GameMap;
+import games.strategy.engine.data.PlayerID;
+import games.strategy.engine.data.Territory;
+import games.strategy.triplea.xml.TestMapGameData;
+
+public final class ProTerritoryValueFieldTest {
+  private GameData data;
+  private PlayerID player;
+  private ProTerritoryValueField field;
+
+  @BeforeEach
+  public void setUp() throws Exception {
+    data = TestMapGameData.REVISED.getGameData();
+    player = germans(data);
+    field = new ProTerritoryValueField(data, player);
+  }
+
+  private void assertSameAsGameMap() {
+    final GameMap map = data.getMap();
+    final Predicate<Territory> landMatch = ProMatches.territoryCanPotentiallyMoveLandUnits(player, data);
+    final Predicate<Territory> seaMatch = ProMatches.territoryCanMoveSeaUnits(player, data, true);
+    final List<Territory> destinations = Arrays.asList(territory("Germany", data), territory("Russia", data),
+        territory("Japan", data), territory("United Kingdom", data), territory("Norway", data));
+    int maxLandMassSize = 1;
+    for (final Territory t : map.getTerritories()) {
+      if (t.isWater()) {
+        assertThat(t.getName(), field.getSeaNeighbors(t, 4), is(map.getNeighbors(t, 4, seaMatch)));
+        continue;
+      }
+      final int landMassSize = 1 + map.getNeighbors(t, 6, landMatch).size();
+      assertThat(t.getName(), field.getLandMassSize(t), is(landMassSize));
+      assertThat(t.getName(), field.getLandNeighbors(t, 2), is(map.getNeighbors(t, 2, landMatch)));
+      for (final Territory destination : destinations) {
+        assertThat(t + " to " + destination, field.getLandDistance(t, destination),
+            is(map.getDistance(t, destination, landMatch)));
+      }
+      maxLandMassSize = Math.max(maxLandMassSize, landMassSize);
+    }
+    assertThat(field.getMaxLandMassSize(), is(maxLandMassSize));
+  }
+
+  @Test
+  public void shouldAnswerLikeTheGameMap() {
+    assertSameAsGameMap();
+  }
+
+  @Test
+  public void shouldAnswerLikeTheGameMapAfterATerritoryChangedOwner() {
+    assertSameAsGameMap();
+    final Territory norway = territory("Norway", data);
+    assertThat(field.getLandNeighbors(territory("Karelia S.S.R.", data), 2), hasItem(norway));
+
+    // neutral territories cost money to enter in this map
+    norway.setOwner(PlayerID.NULL_PLAYERID);
+    field.update();
+
+    assertThat(field.getLandNeighbors(territory("Karelia S.S.R.", data), 2), not(hasItem(norway)));
+    assertSameAsGameMap();
+  }
+
+  @Test
+  public void shouldOnlyBeForTheGameDataAndPlayerItWasCreatedFor() throws Exception {
+    assertThat(field.isFor(data, player), is(true));
+    assertThat(field.isFor(data, data.getPlayerList().getPlayerId("Russians")), is(false));
+    assertThat(field.isFor(TestMapGameData.REVISED.getGameData(), player), is(false));
+  }
+}
@@ -0,0 +1,87 @@
+package games.strategy.triplea.ai.pro.util;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+public final class ProTimeBudgetTest {
+  private long nanos = 0;
+  private final ProTimeBudget timeBudget = new ProTimeBudget(() -> nanos);
+
+  private void advanceMillis(final long millis) {
+    nanos += TimeUnit.MILLISECONDS.toNanos(millis);
+  }
+
+  @Test
+  public void shouldNeverRunOutWithoutBudget() {
+    timeBudget.start("combatMove", 0);
+    advanceMillis(TimeUnit.HOURS.toMillis(1));
+
+    assertThat(timeBudget.isExhausted(), is(false));
+    assertThat(timeBudget.scaleRunCount(100), is(100));
+  }
+
+  @Test
+  public void shouldRunOutOnceTheBudgetIsUsed() {
+    timeBudget.start("combatMove", 1000);
+    advanceMillis(999);
+    assertThat(timeBudget.isExhausted(), is(false));
+
+    advanceMillis(1);
+    assertThat(timeBudget.isExhausted(), is(true));
+  }
+
+  @Test
+  public void shouldLowerRunCountsAfterHalfOfTheBudget() {
+    timeBudget.start("purchase", 1000);
+    assertThat(timeBudget.scaleRunCount(100), is(100));
+
+    advanceMillis(500);
+    assertThat(timeBudget.scaleRunCount(100), is(100));
+
+    advanceMillis(250);
+    assertThat(timeBudget.scaleRunCount(100), is(50));
+
+    advanceMillis(250);
+    assertThat(timeBudget.scaleRunCount(100), is((int) (100 * ProTimeBudget.MIN_RUN_COUNT_SCALE)));
+
+    advanceMillis(1000);
+    assertThat(timeBudget.scaleRunCount(16), is((int) (16 * ProTimeBudget.MIN_RUN_COUNT_SCALE)));
+  }
+
+  @Test
+  public void shouldNotLowerRunCountsOnceStopped() {
+    timeBudget.start("nonCombatMove", 1000);
+    advanceMillis(2000);
+    assertThat(timeBudget.scaleRunCount(100), is((int) (100 * ProTimeBudget.MIN_RUN_COUNT_SCALE)));
+
+    timeBudget.stop();
+
+    assertThat(timeBudget.isExhausted(), is(false));
+    assertThat(timeBudget.scaleRunCount(100), is(100));
+  }
+
+  @Test
+  public void shouldCountRefinementsPerPhaseAndInTotal() {
+    timeBudget.start("combatMove", 1000);
+    timeBudget.refined();
+    timeBudget.refined();
+    timeBudget.start("nonCombatMove", 1000);
+    timeBudget.refined();
+
+    assertThat(timeBudget.getRefinements(), is(1));
+    assertThat(timeBudget.getTotalRefinements(), is(3L));
+  }
+
+  @Test
+  public void shouldSummarizeThePhase() {
+    timeBudget.start("place", 2000);
+    advanceMillis(1500);
+    timeBudget.refined();
+
+    assertThat(timeBudget.getSummary(), is("place used 1500ms of 2000ms budget with 1 refinements"));
+  }
+}
@@ -0,0 +1,152 @@
+package games.strategy.triplea.delegate;
+
+import static games.strategy.triplea.delegate.GameDataTestUtil.armour;
+import static games.strategy.triplea.delegate.GameDataTestUtil.germans;
+import static games.strategy.triplea.delegate.GameDataTestUtil.infantry;
+import static games.strategy.triplea.delegate.GameDataTestUtil.russians;
+import static games.strategy.triplea.delegate.GameDataTestUtil.territory;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import games.strategy.engine.data.GameData;
+import games.strategy.engine.data.PlayerID;
+import games.strategy.engine.data.Territory;
+import games.strategy.engine.data.Unit;
+import games.strategy.triplea.xml.TestMapGameData;
+
+public class OrderOfLossesCacheTest {
+  private GameData gameData;
+  private PlayerID germans;
+  private Territory germany;
+  private Unit infantry;
+  private Unit armour;
+
+  @BeforeEach
+  public void setUp() throws Exception {
+    gameData = TestMapGameData.REVISED.getGameData();
+    germans = germans(gameData);
+    germany = territory("Germany", gameData);
+    infantry = infantry(gameData).create(germans);
+    armour = armour(gameData).create(germans);
+  }
+
+  private OrderOfLossesCache.Key newKey(final OrderOfLossesCache cache, final PlayerID player,
+      final List<Unit> units) {
+    return cache.newKey(player, germany, true, false, units, Collections.emptyList());
+  }
+
+  @Test
+  public void getShouldReturnOneCachePerGameData() throws Exception {
+    final GameData otherGameData = TestMapGameData.REVISED.getGameData();
+
+    assertThat(OrderOfLossesCache.get(gameData), is(sameInstance(OrderOfLossesCache.get(gameData))));
+    assertThat(OrderOfLossesCache.get(otherGameData), is(not(sameInstance(OrderOfLossesCache.get(gameData)))));
+  }
+
+  @Test
+  public void getShouldReturnNullAndCountMissWhenNotCached() {
+    final OrderOfLossesCache cache = new OrderOfLossesCache(gameData, OrderOfLossesCache.MAX_WEIGHT);
+    final List<Unit> units = new ArrayList<>(Collections.singletonList(infantry));
+
+    assertThat(cache.get(newKey(cache, germans, units), units), is(nullValue()));
+    assertThat(cache.getMissCount(), is(1L));
+    assertThat(cache.getHitCount(), is(0L));
+  }
+
+  @Test
+  public void getShouldCountHitsAndMissesOfAllCaches() {
+    final OrderOfLossesCache cache = new OrderOfLossesCache(gameData, OrderOfLossesCache.MAX_WEIGHT);
+    final List<Unit> units = new ArrayList<>(Collections.singletonList(infantry));
+    final long hitCount = OrderOfLossesCache.getTotalHitCount();
+    final long missCount = OrderOfLossesCache.getTotalMissCount();
+
+    cache.get(newKey(cache, germans, units), units);
+    cache.put(newKey(cache, germans, units), units);
+    cache.get(newKey(cache, germans, units), units);
+
+    assertThat(OrderOfLossesCache.getTotalMissCount() - missCount, is(1L));
+    assertThat(OrderOfLossesCache.getTotalHitCount() - hitCount, is(1L));
+  }
+
+  @Test
+  public void getShouldReturnUnitsInCachedOrder() {
+    final OrderOfLossesCache cache = new OrderOfLossesCache(gameData, OrderOfLossesCache.MAX_WEIGHT);
+    final List<Unit> sorted = new ArrayList<>();
+    sorted.add(infantry);
+    sorted.add(armour);
+    cache.put(newKey(cache, germans, sorted), sorted);
+    final Unit otherInfantry = infantry(gameData).create(germans);
+    final Unit otherArmour = armour(gameData).create(germans);
+    final List<Unit> targets = new ArrayList<>();
+    targets.add(otherArmour);
+    targets.add(otherInfantry);
+
+    assertThat(cache.get(newKey(cache, germans, targets), targets), contains(otherInfantry, otherArmour));
+    assertThat(cache.getHitCount(), is(1L));
+  }
+
+  @Test
+  public void putShouldCacheEveryListWithUnitsRemovedFromTheFront() {
+    final OrderOfLossesCache cache = new OrderOfLossesCache(gameData, OrderOfLossesCache.MAX_WEIGHT);
+    final List<Unit> sorted = new ArrayList<>();
+    sorted.add(infantry);
+    sorted.add(armour);
+    cache.put(newKey(cache, germans, sorted), sorted);
+    final List<Unit> remaining = new ArrayList<>(Collections.singletonList(armour));
+
+    assertThat(cache.size(), is(2));
+    assertThat(cache.get(newKey(cache, germans, remaining), remaining), contains(armour));
+  }
+
+  @Test
+  public void keysShouldDifferByPlayer() {
+    final OrderOfLossesCache cache = new OrderOfLossesCache(gameData, OrderOfLossesCache.MAX_WEIGHT);
+    final List<Unit> units = new ArrayList<>(Collections.singletonList(infantry));
+
+    assertThat(newKey(cache, germans, units), is(not(newKey(cache, russians(gameData), units))));
+  }
+
+  private int getKeyWeight() {
+    return 2 * gameData.getUnitTypeList().size();
+  }
+
+  @Test
+  public void putShouldWeighKeysAndOrders() {
+    final OrderOfLossesCache cache = new OrderOfLossesCache(gameData, OrderOfLossesCache.MAX_WEIGHT);
+    final List<Unit> sorted = new ArrayList<>();
+    sorted.add(infantry);
+    sorted.add(armour);
+
+    cache.put(newKey(cache, germans, sorted), sorted);
+    cache.put(newKey(cache, germans, sorted), sorted);
+
+    assertThat(cache.getWeight(), is(2 * getKeyWeight() + 2 + 1));
+  }
+
+  @Test
+  public void putShouldEvictLeastRecentlyUsedEntriesWhenFull() {
+    // room for the entries of two and one units
+    final OrderOfLossesCache cache = new OrderOfLossesCache(gameData, 2 * getKeyWeight() + 2 + 1);
+    final List<Unit> sorted = new ArrayList<>();
+    sorted.add(infantry);
+    sorted.add(armour);
+    sorted.add(infantry(gameData).create(germans));
+
+    cache.put(newKey(cache, germans, sorted), sorted);
+
+    assertThat(cache.size(), is(2));
+    assertThat(cache.getEvictionCount(), is(1L));
+    assertThat(cache.get(newKey(cache, germans, sorted), sorted), is(nullValue()));
+  }
+}
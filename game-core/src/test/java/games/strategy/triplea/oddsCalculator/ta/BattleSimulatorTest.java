@@ -0,0 +1,119 @@
+package games.strategy.triplea.oddsCalculator.ta;
+
+import static games.strategy.triplea.delegate.GameDataTestUtil.americans;
+import static games.strategy.triplea.delegate.GameDataTestUtil.armour;
+import static games.strategy.triplea.delegate.GameDataTestUtil.destroyer;
+import static games.strategy.triplea.delegate.GameDataTestUtil.germans;
+import static games.strategy.triplea.delegate.GameDataTestUtil.infantry;
+import static games.strategy.triplea.delegate.GameDataTestUtil.russians;
+import static games.strategy.triplea.delegate.GameDataTestUtil.submarine;
+import static games.strategy.triplea.delegate.GameDataTestUtil.territory;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import games.strategy.engine.data.GameData;
+import games.strategy.engine.data.PlayerID;
+import games.strategy.engine.data.Territory;
+import games.strategy.engine.data.Unit;
+import games.strategy.triplea.delegate.TerritoryEffectHelper;
+import games.strategy.triplea.xml.TestMapGameData;
+
+public class BattleSimulatorTest {
+  private GameData gameData;
+  private Territory karelia;
+  private PlayerID germans;
+  private PlayerID russians;
+
+  @BeforeEach
+  public void setUp() throws Exception {
+    gameData = TestMapGameData.REVISED.getGameData();
+    karelia = territory("Karelia S.S.R.", gameData);
+    germans = germans(gameData);
+    russians = russians(gameData);
+  }
+
+  private BattleSimulator compile(final Territory location, final PlayerID attacker, final PlayerID defender,
+      final List<Unit> attackingUnits, final List<Unit> defendingUnits) {
+    return BattleSimulator.compile(gameData, location, attacker, defender, attackingUnits, defendingUnits,
+        Collections.emptyList(), TerritoryEffectHelper.getEffects(location), false, false, -1, -1, false, null, null);
+  }
+
+  private List<Unit> createGermanAttackers() {
+    final List<Unit> attackingUnits = infantry(gameData).create(5, germans);
+    attackingUnits.addAll(gameData.getUnitTypeList().getUnitType("artillery").create(3, germans));
+    attackingUnits.addAll(armour(gameData).create(2, germans));
+    return attackingUnits;
+  }
+
+  @Test
+  public void compileShouldSupportPlainLandBattles() {
+    final BattleSimulator simulator =
+        compile(karelia, germans, russians, createGermanAttackers(), infantry(gameData).create(8, russians));
+
+    assertThat(simulator, is(notNullValue()));
+  }
+
+  @Test
+  public void compileShouldRejectSubmarines() {
+    final Territory seaZone = territory("1 Sea Zone", gameData);
+
+    final BattleSimulator simulator = compile(seaZone, germans, americans(gameData),
+        submarine(gameData).create(2, germans), destroyer(gameData).create(2, americans(gameData)));
+
+    assertThat(simulator, is(nullValue()));
+  }
+
+  @Test
+  public void compileShouldRejectRetreats() {
+    final BattleSimulator simulator = BattleSimulator.compile(gameData, karelia, germans, russians,
+        createGermanAttackers(), infantry(gameData).create(8, russians), Collections.emptyList(),
+        TerritoryEffectHelper.getEffects(karelia), false, false, 2, -1, false, null, null);
+
+    assertThat(simulator, is(nullValue()));
+  }
+
+  @Test
+  public void simulateShouldReportConsistentResults() {
+    final BattleSimulator simulator =
+        compile(karelia, germans, russians, createGermanAttackers(), infantry(gameData).create(8, russians));
+
+    final Random random = new Random(42);
+    for (int i = 0; i < 100; i++) {
+      final BattleResults results = simulator.simulate(random);
+      if (results.attackerWon()) {
+        assertThat(results.getRemainingDefendingUnits().isEmpty(), is(true));
+      } else if (results.defenderWon()) {
+        assertThat(results.getRemainingAttackingUnits().isEmpty(), is(true));
+      }
+    }
+  }
+
+  @Test
+  public void simulateShouldMatchMustFightBattle() {
+    final List<Unit> attackingUnits = createGermanAttackers();
+    final List<Unit> defendingUnits = infantry(gameData).create(8, russians);
+    final OddsCalculator calculator = new OddsCalculator(gameData);
+    // the same dice each time, so the test does not depend on luck
+    calculator.setRandomSeed(42);
+    final AggregateResults simulated = calculator.setCalculateDataAndCalculate(germans, russians, karelia,
+        attackingUnits, defendingUnits, Collections.emptyList(), TerritoryEffectHelper.getEffects(karelia), 1000);
+    // a retreat that never happens forces the battle to be fought by a MustFightBattle
+    calculator.setRetreatAfterRound(Integer.MAX_VALUE);
+    final AggregateResults fought = calculator.setCalculateDataAndCalculate(germans, russians, karelia,
+        attackingUnits, defendingUnits, Collections.emptyList(), TerritoryEffectHelper.getEffects(karelia), 1000);
+    calculator.shutdown();
+
+    assertThat(simulated.getAttackerWinPercent(), is(closeTo(fought.getAttackerWinPercent(), 0.08)));
+    assertThat(simulated.getAverageBattleRoundsFought(), is(closeTo(fought.getAverageBattleRoundsFought(), 0.4)));
+  }
+}
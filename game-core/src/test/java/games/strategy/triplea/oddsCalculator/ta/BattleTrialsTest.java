@@ -0,0 +1,74 @@
+package games.strategy.triplea.oddsCalculator.ta;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class BattleTrialsTest {
+  private static List<BattleResults> givenResults(final int count, final boolean attackerWon) {
+    final BattleResults result = mock(BattleResults.class);
+    when(result.attackerWon()).thenReturn(attackerWon);
+    return new ArrayList<>(Collections.nCopies(count, result));
+  }
+
+  @Test
+  public void nextBatchShouldHandOutExactlyTheRunCount() {
+    final BattleTrials trials = new BattleTrials(103, 2, 0);
+
+    int total = 0;
+    for (int batch = trials.nextBatch(); batch > 0; batch = trials.nextBatch()) {
+      assertThat(batch <= 50, is(true));
+      total += batch;
+    }
+
+    assertThat(total, is(103));
+  }
+
+  @Test
+  public void nextBatchShouldReturnZeroAfterCancel() {
+    final BattleTrials trials = new BattleTrials(100, 4, 0);
+
+    trials.cancel();
+
+    assertThat(trials.nextBatch(), is(0));
+  }
+
+  @Test
+  public void addResultsShouldStopWhenConfidenceIntervalIsReached() {
+    final BattleTrials trials = new BattleTrials(1000, 1, 0.05);
+
+    assertThat(trials.addResults(givenResults(10, true)), is(true));
+    assertThat(trials.addResults(givenResults(100, true)), is(false));
+    assertThat(trials.nextBatch(), is(0));
+    assertThat(trials.getResults().getRollCount(), is(110));
+  }
+
+  @Test
+  public void addResultsShouldNeverStopWhenEarlyTerminationIsDisabled() {
+    final BattleTrials trials = new BattleTrials(1000, 1, 0);
+
+    assertThat(trials.addResults(givenResults(500, true)), is(true));
+  }
+
+  @Test
+  public void isConfidenceIntervalWithinShouldRequireMinimumTrials() {
+    assertThat(BattleTrials.isConfidenceIntervalWithin(0, BattleTrials.MIN_TRIALS_BEFORE_EARLY_TERMINATION - 1, 1),
+        is(false));
+    assertThat(BattleTrials.isConfidenceIntervalWithin(0, BattleTrials.MIN_TRIALS_BEFORE_EARLY_TERMINATION, 1),
+        is(true));
+  }
+
+  @Test
+  public void isConfidenceIntervalWithinShouldBeWidestForEvenOdds() {
+    assertThat(BattleTrials.isConfidenceIntervalWithin(50, 100, 0.05), is(false));
+    assertThat(BattleTrials.isConfidenceIntervalWithin(200, 400, 0.05), is(true));
+    assertThat(BattleTrials.isConfidenceIntervalWithin(98, 100, 0.05), is(true));
+  }
+}
@@ -0,0 +1,111 @@
+package games.strategy.triplea.oddsCalculator.ta;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import games.strategy.engine.data.GameData;
+import games.strategy.engine.data.PlayerID;
+import games.strategy.engine.data.Territory;
+import games.strategy.engine.data.Unit;
+import games.strategy.triplea.delegate.GameDataTestUtil;
+import games.strategy.triplea.delegate.TerritoryEffectHelper;
+import games.strategy.triplea.xml.TestMapGameData;
+
+public class ConcurrentOddsCalculatorTest {
+  private final ConcurrentOddsCalculator calculator = new ConcurrentOddsCalculator("test");
+  private GameData gameData;
+
+  @BeforeEach
+  public void setUp() throws Exception {
+    gameData = TestMapGameData.REVISED.getGameData();
+    calculator.setGameData(gameData);
+  }
+
+  @AfterEach
+  public void tearDown() {
+    calculator.shutdown();
+  }
+
+  private AggregateResults calculateUnbalancedFight(final int runCount) {
+    final BattleSetup battle = newBattleInGermany(100, runCount);
+    return calculator.setCalculateDataAndCalculate(battle.getAttacker(), battle.getDefender(), battle.getLocation(),
+        battle.getAttacking(), battle.getDefending(), battle.getBombarding(), battle.getTerritoryEffects(), runCount);
+  }
+
+  private BattleSetup newBattleInGermany(final int attackingInfantry, final int runCount) {
+    final Territory germany = gameData.getMap().getTerritory("Germany");
+    final Collection<Unit> defendingUnits = new ArrayList<>(germany.getUnits().getUnits());
+    final PlayerID russians = GameDataTestUtil.russians(gameData);
+    final PlayerID germans = GameDataTestUtil.germans(gameData);
+    final List<Unit> attackingUnits = GameDataTestUtil.infantry(gameData).create(attackingInfantry, russians);
+    return new BattleSetup(russians, germans, germany, attackingUnits, defendingUnits, Collections.emptyList(),
+        TerritoryEffectHelper.getEffects(germany), runCount);
+  }
+
+  @Test
+  public void calculateShouldRunFullRunCountByDefault() {
+    final AggregateResults results = calculateUnbalancedFight(200);
+
+    assertThat(results.getRollCount(), is(200));
+    assertThat(results.getAttackerWinPercent(), is(greaterThan(0.99)));
+  }
+
+  @Test
+  public void calculateShouldStopEarlyOnceConfidenceIntervalIsReached() {
+    calculator.setWinPercentageConfidenceInterval(0.05);
+
+    final AggregateResults results = calculateUnbalancedFight(1000);
+
+    assertThat(results.getRollCount(), is(lessThan(1000)));
+    assertThat(results.getAttackerWinPercent(), is(greaterThan(0.99)));
+  }
+
+  @Test
+  public void calculateShouldReportProgressToListeners() {
+    final AtomicInteger updates = new AtomicInteger();
+    calculator.addOddsCalculatorListener(new OddsCalculatorListener() {
+      @Override
+      public void dataReady() {}
+
+      @Override
+      public void resultsUpdated(final AggregateResults resultsSoFar) {
+        updates.incrementAndGet();
+      }
+    });
+
+    calculateUnbalancedFight(100);
+
+    assertThat(updates.get(), is(greaterThan(0)));
+  }
+
+  @Test
+  public void calculateAllShouldReturnResultsInOrderOfBattles() {
+    final List<BattleSetup> battles = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      battles.add(newBattleInGermany(100, 50));
+      battles.add(newBattleInGermany(1, 60));
+    }
+
+    final List<AggregateResults> results = calculator.calculateAll(battles);
+
+    assertThat(results.size(), is(battles.size()));
+    for (int i = 0; i < battles.size(); i += 2) {
+      assertThat(results.get(i).getRollCount(), is(50));
+      assertThat(results.get(i).getAttackerWinPercent(), is(greaterThan(0.99)));
+      assertThat(results.get(i + 1).getRollCount(), is(60));
+      assertThat(results.get(i + 1).getAttackerWinPercent(), is(lessThan(0.01)));
+    }
+  }
+}
@@ -0,0 +1,15 @@
+package games.strategy.triplea.settings;
+
+import org.sonatype.goodies.prefs.memory.MemoryPreferences;
+
+/**
+ * Lets test code outside of this package use {@link ClientSetting}s that are only kept in memory, so it neither
+ * depends on nor changes the settings of the user.
+ */
+public final class ClientSettingTestUtil {
+  private ClientSettingTestUtil() {}
+
+  public static void initializeMemoryPreferences() {
+    ClientSetting.setPreferences(new MemoryPreferences());
+  }
+}
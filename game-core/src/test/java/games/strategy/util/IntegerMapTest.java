@@ -1,15 +1,23 @@
 package games.strategy.util;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.not;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.util.Map;
+
 import org.junit.jupiter.api.Test;
 
 import com.google.common.collect.ImmutableMap;
 
+import games.strategy.io.IoUtils;
 import nl.jqno.equalsverifier.EqualsVerifier;
 import nl.jqno.equalsverifier.Warning;
 
@@ -40,10 +48,17 @@ public class IntegerMapTest {
     assertThat(map.toMap(), is(ImmutableMap.of(v1, 1, v2, 2, v3, 3)));
   }
 
+  private ObjectIntMap<Object> newObjectIntMap(final int value) {
+    final ObjectIntMap<Object> map = new ObjectIntMap<>();
+    map.put(v1, value);
+    return map;
+  }
+
   @Test
   public void shouldBeEquatableAndHashable() {
     EqualsVerifier.forClass(IntegerMap.class)
-        .suppress(Warning.NULL_FIELDS)
+        .withPrefabValues(ObjectIntMap.class, newObjectIntMap(1), newObjectIntMap(2))
+        .suppress(Warning.NULL_FIELDS, Warning.NONFINAL_FIELDS)
         .verify();
 
     // We need to explicitly test this case because EqualsVerifier's internal prefab values for HashMap use the
@@ -110,4 +125,29 @@ public class IntegerMapTest {
     map1.add(v3, 3);
     assertTrue(map1.greaterThanOrEqualTo(map2));
   }
+
+  @Test
+  public void shouldBeSerializableInInsertionOrder() throws Exception {
+    final IntegerMap<String> map = new IntegerMap<>();
+    map.add("b", 2);
+    map.add("a", 1);
+    final byte[] bytes = IoUtils.writeToMemory(os -> {
+      try (ObjectOutputStream out = new ObjectOutputStream(os)) {
+        out.writeObject(map);
+      }
+    });
+
+    final IntegerMap<?> deserialized = IoUtils.readFromMemory(bytes, is -> {
+      try (ObjectInputStream in = new ObjectInputStream(is)) {
+        return (IntegerMap<?>) in.readObject();
+      } catch (final ClassNotFoundException e) {
+        throw new IOException(e);
+      }
+    });
+
+    assertThat(deserialized, is(map));
+    assertThat(deserialized.keySet(), contains("b", "a"));
+    // older versions of the class read and write the values as a map
+    assertThat(ObjectStreamClass.lookup(IntegerMap.class).getField("mapValues").getType(), is(Map.class));
+  }
 }
@@ -12,10 +12,17 @@ import nl.jqno.equalsverifier.Warning;
 public final class LinkedIntegerMapTest {
   private final Object key = new Object();
 
+  private ObjectIntMap<Object> newObjectIntMap(final int value) {
+    final ObjectIntMap<Object> map = new ObjectIntMap<>();
+    map.put(key, value);
+    return map;
+  }
+
   @Test
   public void shouldBeEquatableAndHashable() {
     EqualsVerifier.forClass(LinkedIntegerMap.class)
-        .suppress(Warning.NULL_FIELDS)
+        .withPrefabValues(ObjectIntMap.class, newObjectIntMap(1), newObjectIntMap(2))
+        .suppress(Warning.NULL_FIELDS, Warning.NONFINAL_FIELDS)
         .verify();
 
     // We need to explicitly test this case because EqualsVerifier's internal prefab values for LinkedHashMap use the
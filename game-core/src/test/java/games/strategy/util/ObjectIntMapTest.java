@@ -0,0 +1,152 @@
+package games.strategy.util;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public final class ObjectIntMapTest {
+  /**
+   * A key whose hash code can be chosen, so that keys can be made to collide.
+   */
+  private static final class Key {
+    private final String name;
+    private final int hashCode;
+
+    Key(final String name, final int hashCode) {
+      this.name = name;
+      this.hashCode = hashCode;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      return (o instanceof Key) && ((Key) o).name.equals(name);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+
+    @Override
+    public String toString() {
+      return name;
+    }
+  }
+
+  @Test
+  public void getIntShouldReturnZeroForMissingKeys() {
+    final ObjectIntMap<String> map = new ObjectIntMap<>();
+    map.put("a", 1);
+
+    assertThat(map.getInt("b"), is(0));
+    assertThat(map.containsKey("b"), is(false));
+  }
+
+  @Test
+  public void shouldAcceptNullKey() {
+    final ObjectIntMap<String> map = new ObjectIntMap<>();
+    map.add(null, 2);
+    map.add(null, 3);
+
+    assertThat(map.getInt(null), is(5));
+    assertThat(map.keySet(), contains((String) null));
+  }
+
+  @Test
+  public void removeShouldKeepCollidingKeysReachable() {
+    final Key a = new Key("a", 7);
+    final Key b = new Key("b", 7);
+    final Key c = new Key("c", 7);
+    final ObjectIntMap<Key> map = new ObjectIntMap<>();
+    map.put(a, 1);
+    map.put(b, 2);
+    map.put(c, 3);
+
+    map.remove(a);
+
+    assertThat(map.containsKey(a), is(false));
+    assertThat(map.getInt(b), is(2));
+    assertThat(map.getInt(c), is(3));
+    assertThat(map.keySet(), contains(b, c));
+  }
+
+  @Test
+  public void keysShouldBeInInsertionOrderAfterRemovalAndGrowth() {
+    final ObjectIntMap<Integer> map = new ObjectIntMap<>();
+    for (int i = 0; i < 4; i++) {
+      map.put(i, i);
+    }
+    map.remove(1);
+    map.put(1, 1);
+    map.put(2, 20);
+    for (int i = 4; i < 6; i++) {
+      map.put(i, i);
+    }
+
+    assertThat(map.keySet(), contains(0, 2, 3, 1, 4, 5));
+    assertThat(map.getInt(2), is(20));
+  }
+
+  @Test
+  public void iteratorShouldRemoveCurrentEntry() {
+    final ObjectIntMap<String> map = new ObjectIntMap<>();
+    map.put("a", 1);
+    map.put("b", 2);
+    map.put("c", 3);
+
+    final Iterator<String> iterator = map.keySet().iterator();
+    iterator.next();
+    iterator.next();
+    iterator.remove();
+
+    assertThat(iterator.next(), is("c"));
+    assertThat(map.keySet(), contains("a", "c"));
+  }
+
+  @Test
+  public void iteratorShouldFailWhenKeyIsAddedDuringIteration() {
+    final ObjectIntMap<String> map = new ObjectIntMap<>();
+    map.put("a", 1);
+    map.put("b", 2);
+
+    final Iterator<String> iterator = map.keySet().iterator();
+    iterator.next();
+    map.put("c", 3);
+
+    assertThrows(ConcurrentModificationException.class, iterator::next);
+  }
+
+  @Test
+  public void shouldMatchLinkedHashMapForRandomOperations() {
+    final Random random = new Random(42);
+    final ObjectIntMap<Integer> map = new ObjectIntMap<>();
+    final Map<Integer, Integer> expected = new LinkedHashMap<>();
+    for (int i = 0; i < 10_000; i++) {
+      final Integer key = random.nextInt(200);
+      if (random.nextInt(3) == 0) {
+        map.remove(key);
+        expected.remove(key);
+      } else {
+        map.add(key, i);
+        expected.merge(key, i, Integer::sum);
+      }
+    }
+
+    final Map<Integer, Integer> actual = new LinkedHashMap<>();
+    for (int i = map.nextIndex(0); i != -1; i = map.nextIndex(i + 1)) {
+      actual.put(map.keyAt(i), map.valueAt(i));
+    }
+    assertThat(actual.entrySet(), contains(expected.entrySet().toArray()));
+    assertThat(map.size(), is(expected.size()));
+    assertThat(map.hashCode(), is(expected.hashCode()));
+  }
+}